@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bounded, in-memory {@link Cache Cache} whose entries expire after a fixed time to live, or earlier when
+ * {@link #put(Object, Object, long) put} with a shorter one.  Expired entries are never returned; they are purged when
+ * they are looked up or when eviction reaches them.
+ * <p/>
+ * Once the cache reaches its {@link #getMaximumSize() maximum size}, each put of a new key evicts the entry that was
+ * put the longest time ago, along with any expired entries directly following it, so that eviction takes constant
+ * time.  With a single time to live that is the entry closest to expiring; entries put with a shorter time to live
+ * are not preferred, they simply expire earlier.  All operations synchronize on the cache's entries.
+ * <p/>
+ * {@link #keys()} and {@link #values()} return snapshots of the entries that have not expired.  {@link #size()}
+ * includes entries that have expired but have not yet been purged.  {@code null} keys and values are not supported.
+ *
+ * @since 2.0
+ */
+public class ExpiringMapCache<K, V> implements Cache<K, V> {
+
+    //in put order, guarded by itself:
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>();
+
+    private final String name;
+
+    private final long timeToLive;
+
+    private final int maximumSize;
+
+    public ExpiringMapCache(String name, long timeToLive, int maximumSize) {
+        if (name == null) {
+            throw new IllegalArgumentException("Cache name cannot be null.");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive must be greater than zero.");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero.");
+        }
+        this.name = name;
+        this.timeToLive = timeToLive;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds an entry is kept.
+     *
+     * @return the maximum time in milliseconds an entry is kept.
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Returns the maximum number of entries held by this cache.
+     *
+     * @return the maximum number of entries held by this cache.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public V get(K key) throws CacheException {
+        if (key == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(now)) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Caches the given value for the {@link #getTimeToLive() time to live}.
+     *
+     * @param key   the key used to identify the value.
+     * @param value the value to be cached.
+     * @return the previous value associated with the given {@code key}, or {@code null} if there was none or it
+     *         had expired.
+     * @throws CacheException if there is a problem accessing the underlying cache system
+     */
+    public V put(K key, V value) throws CacheException {
+        return put(key, value, timeToLive);
+    }
+
+    /**
+     * Caches the given value for the given time, capped by the {@link #getTimeToLive() time to live}.  If
+     * {@code timeToLive} is not positive, the value is not cached and any existing entry is left alone.
+     *
+     * @param key        the key used to identify the value.
+     * @param value      the value to be cached.
+     * @param timeToLive the time in milliseconds the entry may be used
+     * @return the previous value associated with the given {@code key}, or {@code null} if there was none or it
+     *         had expired.
+     * @throws CacheException if there is a problem accessing the underlying cache system
+     */
+    public V put(K key, V value, long timeToLive) throws CacheException {
+        if (key == null) {
+            throw new IllegalArgumentException("key argument cannot be null.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("value argument cannot be null.");
+        }
+        if (timeToLive <= 0) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        long ttl = Math.min(timeToLive, this.timeToLive);
+        long expiresAt = now + ttl < now ? Long.MAX_VALUE : now + ttl;
+        Entry<V> previous;
+        synchronized (entries) {
+            // removing first moves a replaced entry to the end of the put order
+            previous = entries.remove(key);
+            if (previous == null && entries.size() >= maximumSize) {
+                evict(now);
+            }
+            entries.put(key, new Entry<V>(value, expiresAt));
+        }
+        return previous == null || previous.isExpired(now) ? null : previous.value;
+    }
+
+    public V remove(K key) throws CacheException {
+        if (key == null) {
+            return null;
+        }
+        Entry<V> previous;
+        synchronized (entries) {
+            previous = entries.remove(key);
+        }
+        return previous == null || previous.isExpired(System.currentTimeMillis()) ? null : previous.value;
+    }
+
+    public void clear() throws CacheException {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Set<K> keys() {
+        long now = System.currentTimeMillis();
+        Set<K> keys = new HashSet<K>();
+        synchronized (entries) {
+            for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                if (!entry.getValue().isExpired(now)) {
+                    keys.add(entry.getKey());
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            return Collections.unmodifiableSet(keys);
+        }
+        return Collections.emptySet();
+    }
+
+    public Collection<V> values() {
+        long now = System.currentTimeMillis();
+        List<V> values = new ArrayList<V>();
+        synchronized (entries) {
+            for (Entry<V> entry : entries.values()) {
+                if (!entry.isExpired(now)) {
+                    values.add(entry.value);
+                }
+            }
+        }
+        if (!values.isEmpty()) {
+            return Collections.unmodifiableList(values);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Evicts the eldest entry and any expired entries directly following it.  Every entry is evicted at most once, so
+     * the amortized cost per put is constant.  Must be called while holding the lock on {@code entries}.
+     */
+    private void evict(long now) {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        while (it.hasNext() && it.next().isExpired(now)) {
+            it.remove();
+        }
+    }
+
+    public String toString() {
+        return new StringBuilder("ExpiringMapCache '")
+                .append(name).append("' (")
+                .append(size())
+                .append(" entries)")
+                .toString();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
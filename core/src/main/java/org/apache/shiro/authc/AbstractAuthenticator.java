@@ -169,7 +169,8 @@ public abstract class AbstractAuthenticator implements Authenticator, LogoutAwar
      * Implementation of the {@link Authenticator} interface that functions in the following manner:
      * <ol>
      * <li>Calls template {@link #doAuthenticate doAuthenticate} method for subclass execution of the actual
-     * authentication behavior.</li>
+     * authentication behavior, unless the token is a {@link VerifiedBearerToken} that already carries the
+     * {@code AuthenticationInfo} it resolved to.</li>
      * <li>If an {@code AuthenticationException} is thrown during {@code doAuthenticate},
      * {@link #notifyFailure(AuthenticationToken, AuthenticationException) notify} any registered
      * {@link AuthenticationListener AuthenticationListener}s of the exception and then propagate the exception
@@ -195,7 +196,11 @@ public abstract class AbstractAuthenticator implements Authenticator, LogoutAwar
 
         AuthenticationInfo info;
         try {
-            info = doAuthenticate(token);
+            if (token instanceof VerifiedBearerToken) {
+                info = ((VerifiedBearerToken) token).getAuthenticationInfo();
+            } else {
+                info = doAuthenticate(token);
+            }
             if (info == null) {
                 String msg = "No account information found for authentication token [" + token + "] by this " +
                         "Authenticator instance.  Please check that it is configured correctly.";
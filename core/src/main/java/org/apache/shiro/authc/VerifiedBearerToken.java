@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc;
+
+/**
+ * A {@link BearerToken} that was already verified by the realms, typically on an earlier request, carrying the
+ * {@link AuthenticationInfo} it resolved to.  An {@link AbstractAuthenticator} returns the carried info without
+ * consulting the realms, but otherwise handles the login attempt like any other, notifying its
+ * {@link AuthenticationListener}s and letting the {@code SecurityManager} update the logged in {@code Subject} and
+ * publish its events.
+ * <p/>
+ * Since logging in with this token bypasses credentials matching, instances must only be created from a trusted
+ * source of already verified tokens, such as a {@link VerifiedTokenCache}, and never from request data alone.
+ *
+ * @see VerifiedTokenCache
+ * @since 2.0
+ */
+public class VerifiedBearerToken extends BearerToken {
+
+    private final AuthenticationInfo info;
+
+    public VerifiedBearerToken(BearerToken token, AuthenticationInfo info) {
+        super(token.getToken(), token.getHost());
+        if (info == null) {
+            throw new IllegalArgumentException("info argument cannot be null.");
+        }
+        this.info = info;
+    }
+
+    /**
+     * Returns the {@code AuthenticationInfo} the token resolved to when it was verified.
+     *
+     * @return the {@code AuthenticationInfo} the token resolved to when it was verified.
+     */
+    public AuthenticationInfo getAuthenticationInfo() {
+        return info;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc;
+
+import org.apache.shiro.cache.ExpiringMapCache;
+import org.apache.shiro.crypto.hash.Sha256Hash;
+import org.apache.shiro.subject.PrincipalCollection;
+
+/**
+ * A bounded cache of bearer tokens that have already been verified, mapping each token to the
+ * {@link AuthenticationInfo} it resolved to until the token expires.
+ * <p/>
+ * Tokens are never stored as-is; entries are keyed by the SHA-256 digest of the token so a heap dump of the cache does
+ * not reveal usable credentials.  Every entry carries its own expiration time, typically the expiration of the token
+ * itself, after which it is no longer returned.  When the cache reaches its {@link #getMaximumSize() maximum size},
+ * caching another token evicts the token that was cached the longest time ago, whatever its expiration.
+ * <p/>
+ * Because a cached token bypasses the realms entirely, a token that is revoked before it expires must also be removed
+ * from this cache via one of the {@link #revoke(String) revoke} methods.
+ *
+ * @see BearerToken
+ * @since 2.0
+ */
+public class VerifiedTokenCache {
+
+    /**
+     * The default maximum number of tokens held by the cache, {@code 10000}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final ExpiringMapCache<String, AuthenticationInfo> tokens;
+
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public VerifiedTokenCache(int maximumSize) {
+        this.tokens = new ExpiringMapCache<String, AuthenticationInfo>(getClass().getName(), Long.MAX_VALUE, maximumSize);
+    }
+
+    /**
+     * Returns the maximum number of tokens held by this cache.
+     *
+     * @return the maximum number of tokens held by this cache.
+     */
+    public int getMaximumSize() {
+        return tokens.getMaximumSize();
+    }
+
+    /**
+     * Returns the {@code AuthenticationInfo} previously {@link #put put} for the given token, or {@code null} if the
+     * token is not cached or its entry has expired.
+     *
+     * @param token the raw bearer token
+     * @return the cached {@code AuthenticationInfo} or {@code null}
+     */
+    public AuthenticationInfo get(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        return tokens.get(digest(token));
+    }
+
+    /**
+     * Caches the given {@code AuthenticationInfo} for the given token until {@code expiresAt}.  Entries that are
+     * already expired are not cached.
+     *
+     * @param token     the raw bearer token that was verified
+     * @param info      the {@code AuthenticationInfo} the token resolved to
+     * @param expiresAt the time, in milliseconds since the epoch, after which the entry must no longer be used
+     */
+    public void put(String token, AuthenticationInfo info, long expiresAt) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("token argument cannot be null or empty.");
+        }
+        if (info == null) {
+            throw new IllegalArgumentException("info argument cannot be null.");
+        }
+        tokens.put(digest(token), info, expiresAt - System.currentTimeMillis());
+    }
+
+    /**
+     * Removes the given token from the cache, so that it has to be verified again by the realms.
+     *
+     * @param token the raw bearer token to revoke
+     * @return {@code true} if the token was cached, {@code false} otherwise
+     */
+    public boolean revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        return tokens.remove(digest(token)) != null;
+    }
+
+    /**
+     * Removes all cached tokens that resolved to the given primary principal, for example when an account is disabled
+     * or all of its tokens are revoked at once.
+     *
+     * @param primaryPrincipal the primary principal whose tokens should be removed
+     * @return the number of tokens removed
+     */
+    public int revokePrincipal(Object primaryPrincipal) {
+        if (primaryPrincipal == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (String key : tokens.keys()) {
+            AuthenticationInfo info = tokens.get(key);
+            PrincipalCollection principals = info != null ? info.getPrincipals() : null;
+            if (principals != null && primaryPrincipal.equals(principals.getPrimaryPrincipal())) {
+                tokens.remove(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all cached tokens.
+     */
+    public void clear() {
+        tokens.clear();
+    }
+
+    /**
+     * Returns the number of tokens currently cached, including entries that have expired but have not yet been
+     * purged.
+     *
+     * @return the number of tokens currently cached.
+     */
+    public int size() {
+        return tokens.size();
+    }
+
+    private static String digest(String token) {
+        return new Sha256Hash(token).toBase64();
+    }
+}
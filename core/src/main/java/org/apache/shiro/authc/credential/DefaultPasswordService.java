@@ -50,6 +50,7 @@ public class DefaultPasswordService implements HashingPasswordService {
     private HashService hashService;
     private HashFormat hashFormat;
     private HashFormatFactory hashFormatFactory;
+    private ParsedHashCache parsedHashCache;
 
     private volatile boolean hashFormatWarned; //used to avoid excessive log noise
 
@@ -64,6 +65,7 @@ public class DefaultPasswordService implements HashingPasswordService {
 
         this.hashFormat = new Shiro1CryptFormat();
         this.hashFormatFactory = new DefaultHashFormatFactory();
+        this.parsedHashCache = new ParsedHashCache();
     }
 
     public String encryptPassword(Object plaintext) {
@@ -149,13 +151,9 @@ public class DefaultPasswordService implements HashingPasswordService {
         //match the current HashService configuration values.  This is a very nice feature
         //for password comparisons because it ensures backwards compatibility even after
         //configuration changes.
-        HashFormat discoveredFormat = this.hashFormatFactory.getInstance(saved);
-
-        if (discoveredFormat != null && discoveredFormat instanceof ParsableHashFormat) {
-
-            ParsableHashFormat parsableHashFormat = (ParsableHashFormat)discoveredFormat;
-            Hash savedHash = parsableHashFormat.parse(saved);
+        Hash savedHash = parseSavedHash(saved);
 
+        if (savedHash != null) {
             return passwordsMatch(submittedPlaintext, savedHash);
         }
 
@@ -174,6 +172,24 @@ public class DefaultPasswordService implements HashingPasswordService {
         return constantEquals(saved, formatted);
     }
 
+    private Hash parseSavedHash(String saved) {
+        ParsedHashCache cache = this.parsedHashCache;
+        Hash savedHash = cache != null ? cache.get(saved) : null;
+        if (savedHash != null) {
+            return savedHash;
+        }
+
+        HashFormat discoveredFormat = this.hashFormatFactory.getInstance(saved);
+
+        if (discoveredFormat instanceof ParsableHashFormat) {
+            savedHash = ((ParsableHashFormat) discoveredFormat).parse(saved);
+            if (savedHash != null && cache != null) {
+                cache.put(saved, savedHash);
+            }
+        }
+        return savedHash;
+    }
+
     protected HashRequest buildHashRequest(ByteSource plaintext, Hash saved) {
         //keep everything from the saved hash except for the source:
         return new HashRequest.Builder().setSource(plaintext)
@@ -206,5 +222,33 @@ public class DefaultPasswordService implements HashingPasswordService {
 
     public void setHashFormatFactory(HashFormatFactory hashFormatFactory) {
         this.hashFormatFactory = hashFormatFactory;
+        //previously parsed hashes may have been parsed by a different format:
+        if (this.parsedHashCache != null) {
+            this.parsedHashCache.clear();
+        }
+    }
+
+    /**
+     * Returns the cache of stored password hashes already parsed by a {@link ParsableHashFormat}, or {@code null} if
+     * stored hashes are parsed on every {@link #passwordsMatch(Object, String) passwordsMatch} call.  Defaults to a
+     * {@link ParsedHashCache} with its default maximum size.
+     *
+     * @return the cache of stored password hashes already parsed, or {@code null} if parsed hashes are not cached.
+     * @since 2.0
+     */
+    public ParsedHashCache getParsedHashCache() {
+        return parsedHashCache;
+    }
+
+    /**
+     * Sets the cache of stored password hashes already parsed by a {@link ParsableHashFormat}, so that repeated
+     * logins for the same account skip looking up the hash format and parsing the stored value; {@code null}
+     * disables caching.
+     *
+     * @param parsedHashCache the cache of stored password hashes already parsed, or {@code null} to disable caching.
+     * @since 2.0
+     */
+    public void setParsedHashCache(ParsedHashCache parsedHashCache) {
+        this.parsedHashCache = parsedHashCache;
     }
 }
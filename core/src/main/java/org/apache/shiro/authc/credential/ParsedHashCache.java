@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc.credential;
+
+import org.apache.shiro.crypto.hash.Hash;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded cache mapping formatted password hashes, as stored for an account, to the {@link Hash} they were parsed
+ * to, so that repeated logins for the same account don't have to look up the hash format and parse the stored value
+ * every time.
+ * <p/>
+ * Parsing a stored hash always yields the same result, so entries never expire.  When the cache reaches its
+ * {@link #getMaximumSize() maximum size}, arbitrary entries are evicted to make room.  Cached {@code Hash} instances
+ * are shared by all callers and must not be modified.
+ *
+ * @see DefaultPasswordService#setParsedHashCache(ParsedHashCache)
+ * @since 2.0
+ */
+public class ParsedHashCache {
+
+    /**
+     * The default maximum number of stored hashes held by the cache, {@code 10000}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final ConcurrentMap<String, Hash> entries = new ConcurrentHashMap<String, Hash>();
+
+    private final int maximumSize;
+
+    public ParsedHashCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public ParsedHashCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero.");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the maximum number of stored hashes held by this cache.
+     *
+     * @return the maximum number of stored hashes held by this cache.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the {@code Hash} previously {@link #put put} for the given formatted hash, or {@code null} if it is not
+     * cached.
+     *
+     * @param formatted the formatted hash as stored for an account
+     * @return the cached {@code Hash} or {@code null}
+     */
+    public Hash get(String formatted) {
+        if (formatted == null || formatted.isEmpty()) {
+            return null;
+        }
+        return entries.get(formatted);
+    }
+
+    /**
+     * Caches the {@code Hash} the given formatted hash was parsed to.
+     *
+     * @param formatted the formatted hash as stored for an account
+     * @param hash      the {@code Hash} the formatted value was parsed to
+     */
+    public void put(String formatted, Hash hash) {
+        if (formatted == null || formatted.isEmpty()) {
+            throw new IllegalArgumentException("formatted argument cannot be null or empty.");
+        }
+        if (hash == null) {
+            throw new IllegalArgumentException("hash argument cannot be null.");
+        }
+        if (entries.size() >= maximumSize && !entries.containsKey(formatted)) {
+            evict();
+        }
+        entries.put(formatted, hash);
+    }
+
+    /**
+     * Removes the given formatted hash from the cache.
+     *
+     * @param formatted the formatted hash as stored for an account
+     * @return {@code true} if the formatted hash was cached, {@code false} otherwise
+     */
+    public boolean remove(String formatted) {
+        if (formatted == null || formatted.isEmpty()) {
+            return false;
+        }
+        return entries.remove(formatted) != null;
+    }
+
+    /**
+     * Removes all cached hashes.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of stored hashes currently cached.
+     *
+     * @return the number of stored hashes currently cached.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        // entries never expire and are equally cheap to recreate, so any entry will do
+        for (Iterator<String> it = entries.keySet().iterator(); it.hasNext() && entries.size() >= maximumSize; ) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc.credential;
+
+import org.apache.shiro.cache.ExpiringMapCache;
+import org.apache.shiro.lang.codec.CodecSupport;
+import org.apache.shiro.lang.util.ByteSource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Remembers, for a short time, that a submitted credential was successfully verified for an account, so that
+ * repeated authentications with the same credentials (for example HTTP Basic credentials sent on every request) do
+ * not have to go through an expensive {@link CredentialsMatcher} such as an iterated password hash every time.
+ * <p/>
+ * Neither the submitted nor the stored credentials are retained.  After a successful verification, only a keyed
+ * HMAC-SHA256 of the account key, the submitted credentials and the stored credentials is kept.  The HMAC key is
+ * generated randomly when the cache is created and never leaves the process.  Lookups recompute the HMAC and compare it
+ * in constant time.  Because the stored credentials are part of the HMAC, changing an account's credentials
+ * automatically invalidates its entry; entries are also removed explicitly via {@link #invalidate(Object)}, which
+ * {@link org.apache.shiro.realm.AuthenticatingRealm AuthenticatingRealm} calls on logout and whenever its cached
+ * authentication data is cleared.
+ * <p/>
+ * Only credentials that can be converted to bytes without side effects ({@code byte[]}, {@code char[]},
+ * {@code String} and {@link ByteSource} instances, which includes hashes) are cached; any other credentials always
+ * fall back to the configured {@code CredentialsMatcher}.
+ *
+ * @see org.apache.shiro.realm.AuthenticatingRealm#setVerifiedCredentialsCache(VerifiedCredentialsCache)
+ * @since 2.0
+ */
+public class VerifiedCredentialsCache {
+
+    /**
+     * The default time a verification is remembered, one minute.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 60 * 1000;
+
+    /**
+     * The default maximum number of accounts held by the cache, {@code 10000}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int KEY_LENGTH = 32;
+
+    private final ExpiringMapCache<Object, byte[]> macs;
+
+    private final SecretKeySpec key;
+
+    public VerifiedCredentialsCache() {
+        this(DEFAULT_TIME_TO_LIVE, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public VerifiedCredentialsCache(long timeToLive, int maximumSize) {
+        this.macs = new ExpiringMapCache<Object, byte[]>(getClass().getName(), timeToLive, maximumSize);
+        byte[] keyBytes = new byte[KEY_LENGTH];
+        new SecureRandom().nextBytes(keyBytes);
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * Returns the time in milliseconds a successful verification is remembered.
+     *
+     * @return the time in milliseconds a successful verification is remembered.
+     */
+    public long getTimeToLive() {
+        return macs.getTimeToLive();
+    }
+
+    /**
+     * Returns the maximum number of accounts held by this cache.
+     *
+     * @return the maximum number of accounts held by this cache.
+     */
+    public int getMaximumSize() {
+        return macs.getMaximumSize();
+    }
+
+    /**
+     * Returns {@code true} if the given submitted credentials were recently {@link #verified verified} against the
+     * given stored credentials for the account identified by {@code accountKey}, {@code false} otherwise.
+     *
+     * @param accountKey            the key identifying the account, typically the username
+     * @param submittedCredentials  the credentials submitted in the authentication attempt
+     * @param storedCredentials     the credentials stored for the account
+     * @return {@code true} if the credentials were recently verified, {@code false} otherwise.
+     */
+    public boolean isVerified(Object accountKey, Object submittedCredentials, Object storedCredentials) {
+        if (accountKey == null) {
+            return false;
+        }
+        byte[] verified = macs.get(accountKey);
+        if (verified == null) {
+            return false;
+        }
+        byte[] mac = mac(accountKey, submittedCredentials, storedCredentials);
+        return mac != null && MessageDigest.isEqual(mac, verified);
+    }
+
+    /**
+     * Records that the given submitted credentials were successfully verified against the given stored credentials
+     * for the account identified by {@code accountKey}.  Any previous entry for the account is replaced.
+     *
+     * @param accountKey            the key identifying the account, typically the username
+     * @param submittedCredentials  the credentials submitted in the authentication attempt
+     * @param storedCredentials     the credentials stored for the account
+     */
+    public void verified(Object accountKey, Object submittedCredentials, Object storedCredentials) {
+        if (accountKey == null) {
+            return;
+        }
+        byte[] mac = mac(accountKey, submittedCredentials, storedCredentials);
+        if (mac == null) {
+            return;
+        }
+        macs.put(accountKey, mac);
+    }
+
+    /**
+     * Forgets any verification recorded for the account identified by {@code accountKey}.
+     *
+     * @param accountKey the key identifying the account, typically the username
+     */
+    public void invalidate(Object accountKey) {
+        if (accountKey != null) {
+            macs.remove(accountKey);
+        }
+    }
+
+    /**
+     * Forgets all recorded verifications.
+     */
+    public void clear() {
+        macs.clear();
+    }
+
+    /**
+     * Returns the number of accounts currently held by the cache, including entries that have expired but have not
+     * yet been purged.
+     *
+     * @return the number of accounts currently held by the cache.
+     */
+    public int size() {
+        return macs.size();
+    }
+
+    private byte[] mac(Object accountKey, Object submittedCredentials, Object storedCredentials) {
+        byte[] submitted = toBytes(submittedCredentials);
+        byte[] stored = toBytes(storedCredentials);
+        if (submitted == null || stored == null) {
+            return null;
+        }
+        Mac mac;
+        try {
+            mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + ALGORITHM + ".", e);
+        }
+        update(mac, CodecSupport.toBytes(String.valueOf(accountKey)));
+        update(mac, submitted);
+        update(mac, stored);
+        return mac.doFinal();
+    }
+
+    // each part is length-prefixed so that different splits of the same bytes never produce the same HMAC
+    private static void update(Mac mac, byte[] bytes) {
+        int length = bytes.length;
+        mac.update((byte) (length >>> 24));
+        mac.update((byte) (length >>> 16));
+        mac.update((byte) (length >>> 8));
+        mac.update((byte) length);
+        mac.update(bytes);
+    }
+
+    private static byte[] toBytes(Object credentials) {
+        if (credentials instanceof byte[]) {
+            return (byte[]) credentials;
+        }
+        if (credentials instanceof char[] || credentials instanceof String || credentials instanceof ByteSource) {
+            return ByteSource.Util.bytes(credentials).getBytes();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc.event;
+
+import org.apache.shiro.authc.AuthenticationException;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.subject.Subject;
+
+/**
+ * Event published after a login attempt failed, at the same point the
+ * {@link org.apache.shiro.authc.AuthenticationListener#onFailure AuthenticationListener}s are notified.
+ *
+ * @see org.apache.shiro.mgt.DefaultSecurityManager#login(Subject, AuthenticationToken)
+ * @since 2.0
+ */
+public class LoginFailureEvent extends AuthenticationEvent {
+
+    private final AuthenticationToken token;
+    private final AuthenticationException exception;
+
+    public LoginFailureEvent(Object source, Subject subject, AuthenticationToken token,
+                             AuthenticationException exception) {
+        super(source, subject);
+        this.token = token;
+        this.exception = exception;
+    }
+
+    public AuthenticationToken getToken() {
+        return token;
+    }
+
+    public AuthenticationException getException() {
+        return exception;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc.event;
+
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
+
+/**
+ * Event published when a {@link Subject} logs out, before its session is stopped.
+ *
+ * @see org.apache.shiro.mgt.DefaultSecurityManager#logout(Subject)
+ * @since 2.0
+ */
+public class LogoutEvent extends AuthenticationEvent {
+
+    private final PrincipalCollection principals;
+
+    public LogoutEvent(Object source, Subject subject, PrincipalCollection principals) {
+        super(source, subject);
+        this.principals = principals;
+    }
+
+    /**
+     * Returns the principals the {@code Subject} had before logging out, or {@code null} if it was anonymous.
+     *
+     * @return the principals the {@code Subject} had before logging out.
+     */
+    public PrincipalCollection getPrincipals() {
+        return principals;
+    }
+}
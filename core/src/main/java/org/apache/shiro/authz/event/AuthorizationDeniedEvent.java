@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authz.event;
+
+import org.apache.shiro.authz.AuthorizationException;
+import org.apache.shiro.event.Event;
+import org.apache.shiro.subject.PrincipalCollection;
+
+/**
+ * Event published when a permission or role check fails, just before the {@link AuthorizationException} is thrown to
+ * the caller.  Checks that merely return {@code false} (the {@code isPermitted} and {@code hasRole} methods) do not
+ * publish this event.
+ *
+ * @see org.apache.shiro.mgt.AuthorizingSecurityManager
+ * @since 2.0
+ */
+public class AuthorizationDeniedEvent extends Event {
+
+    private final PrincipalCollection principals;
+    private final AuthorizationException exception;
+
+    public AuthorizationDeniedEvent(Object source, PrincipalCollection principals, AuthorizationException exception) {
+        super(source);
+        this.principals = principals;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns the principals that were denied, or {@code null} if the check was performed for an anonymous subject.
+     *
+     * @return the principals that were denied.
+     */
+    public PrincipalCollection getPrincipals() {
+        return principals;
+    }
+
+    /**
+     * Returns the exception thrown to the caller, which describes the permission or role that was checked.
+     *
+     * @return the exception thrown to the caller.
+     */
+    public AuthorizationException getException() {
+        return exception;
+    }
+}
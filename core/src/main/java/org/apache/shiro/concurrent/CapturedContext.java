@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.concurrent;
+
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadResources;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ThreadContext} resources of the thread that created an instance, and the means to run code with exactly
+ * these resources bound on any other thread.
+ * <p/>
+ * When the resources are already bound, typically because the code runs on the originating thread, the code is
+ * invoked directly without touching the {@code ThreadContext} at all.
+ *
+ * @since 2.0
+ */
+final class CapturedContext {
+
+    private final ThreadResources resources;
+
+    private CapturedContext(ThreadResources resources) {
+        this.resources = resources;
+    }
+
+    static CapturedContext capture() {
+        return new CapturedContext(ThreadContext.capture());
+    }
+
+    private ThreadResources enter() {
+        ThreadResources previous = ThreadContext.capture();
+        if (previous != this.resources) {
+            ThreadContext.restore(this.resources);
+        }
+        return previous;
+    }
+
+    private void exit(ThreadResources previous) {
+        if (previous != this.resources) {
+            ThreadContext.restore(previous);
+        }
+    }
+
+    Executor executor(final Executor executor) {
+        if (executor == null) {
+            throw new NullPointerException("executor argument cannot be null.");
+        }
+        return command -> executor.execute(runnable(command));
+    }
+
+    Runnable runnable(final Runnable runnable) {
+        if (runnable == null) {
+            throw new NullPointerException("runnable argument cannot be null.");
+        }
+        return () -> {
+            ThreadResources previous = enter();
+            try {
+                runnable.run();
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    <V> Callable<V> callable(final Callable<V> callable) {
+        if (callable == null) {
+            throw new NullPointerException("callable argument cannot be null.");
+        }
+        return () -> {
+            ThreadResources previous = enter();
+            try {
+                return callable.call();
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    <T> Supplier<T> supplier(final Supplier<T> supplier) {
+        if (supplier == null) {
+            throw new NullPointerException("supplier argument cannot be null.");
+        }
+        return () -> {
+            ThreadResources previous = enter();
+            try {
+                return supplier.get();
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    <T> Consumer<T> consumer(final Consumer<T> consumer) {
+        if (consumer == null) {
+            throw new NullPointerException("consumer argument cannot be null.");
+        }
+        return t -> {
+            ThreadResources previous = enter();
+            try {
+                consumer.accept(t);
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    <T, U> BiConsumer<T, U> biConsumer(final BiConsumer<T, U> consumer) {
+        if (consumer == null) {
+            throw new NullPointerException("consumer argument cannot be null.");
+        }
+        return (t, u) -> {
+            ThreadResources previous = enter();
+            try {
+                consumer.accept(t, u);
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    <T, R> Function<T, R> function(final Function<T, R> function) {
+        if (function == null) {
+            throw new NullPointerException("function argument cannot be null.");
+        }
+        return t -> {
+            ThreadResources previous = enter();
+            try {
+                return function.apply(t);
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+
+    <T, U, R> BiFunction<T, U, R> biFunction(final BiFunction<T, U, R> function) {
+        if (function == null) {
+            throw new NullPointerException("function argument cannot be null.");
+        }
+        return (t, u) -> {
+            ThreadResources previous = enter();
+            try {
+                return function.apply(t, u);
+            } finally {
+                exit(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link CompletionStage} that runs every function passed to it with the {@link CapturedContext captured} thread
+ * context bound, whichever thread ends up running it, and returns stages that do the same.
+ *
+ * @see SubjectPropagation#propagate(CompletionStage)
+ * @since 2.0
+ */
+final class SubjectAwareCompletionStage<T> implements CompletionStage<T> {
+
+    private final CompletionStage<T> delegate;
+    private final CapturedContext context;
+
+    SubjectAwareCompletionStage(CompletionStage<T> delegate, CapturedContext context) {
+        this.delegate = delegate;
+        this.context = context;
+    }
+
+    private <U> CompletionStage<U> wrap(CompletionStage<U> stage) {
+        return new SubjectAwareCompletionStage<U>(stage, context);
+    }
+
+    public <U> CompletionStage<U> thenApply(Function<? super T, ? extends U> fn) {
+        return wrap(delegate.thenApply(context.function(fn)));
+    }
+
+    public <U> CompletionStage<U> thenApplyAsync(Function<? super T, ? extends U> fn) {
+        return wrap(delegate.thenApplyAsync(context.function(fn)));
+    }
+
+    public <U> CompletionStage<U> thenApplyAsync(Function<? super T, ? extends U> fn, Executor executor) {
+        return wrap(delegate.thenApplyAsync(context.function(fn), executor));
+    }
+
+    public CompletionStage<Void> thenAccept(Consumer<? super T> action) {
+        return wrap(delegate.thenAccept(context.consumer(action)));
+    }
+
+    public CompletionStage<Void> thenAcceptAsync(Consumer<? super T> action) {
+        return wrap(delegate.thenAcceptAsync(context.consumer(action)));
+    }
+
+    public CompletionStage<Void> thenAcceptAsync(Consumer<? super T> action, Executor executor) {
+        return wrap(delegate.thenAcceptAsync(context.consumer(action), executor));
+    }
+
+    public CompletionStage<Void> thenRun(Runnable action) {
+        return wrap(delegate.thenRun(context.runnable(action)));
+    }
+
+    public CompletionStage<Void> thenRunAsync(Runnable action) {
+        return wrap(delegate.thenRunAsync(context.runnable(action)));
+    }
+
+    public CompletionStage<Void> thenRunAsync(Runnable action, Executor executor) {
+        return wrap(delegate.thenRunAsync(context.runnable(action), executor));
+    }
+
+    public <U, V> CompletionStage<V> thenCombine(CompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        return wrap(delegate.thenCombine(other, context.biFunction(fn)));
+    }
+
+    public <U, V> CompletionStage<V> thenCombineAsync(CompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn) {
+        return wrap(delegate.thenCombineAsync(other, context.biFunction(fn)));
+    }
+
+    public <U, V> CompletionStage<V> thenCombineAsync(CompletionStage<? extends U> other,
+            BiFunction<? super T, ? super U, ? extends V> fn, Executor executor) {
+        return wrap(delegate.thenCombineAsync(other, context.biFunction(fn), executor));
+    }
+
+    public <U> CompletionStage<Void> thenAcceptBoth(CompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action) {
+        return wrap(delegate.thenAcceptBoth(other, context.biConsumer(action)));
+    }
+
+    public <U> CompletionStage<Void> thenAcceptBothAsync(CompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action) {
+        return wrap(delegate.thenAcceptBothAsync(other, context.biConsumer(action)));
+    }
+
+    public <U> CompletionStage<Void> thenAcceptBothAsync(CompletionStage<? extends U> other,
+            BiConsumer<? super T, ? super U> action, Executor executor) {
+        return wrap(delegate.thenAcceptBothAsync(other, context.biConsumer(action), executor));
+    }
+
+    public CompletionStage<Void> runAfterBoth(CompletionStage<?> other, Runnable action) {
+        return wrap(delegate.runAfterBoth(other, context.runnable(action)));
+    }
+
+    public CompletionStage<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action) {
+        return wrap(delegate.runAfterBothAsync(other, context.runnable(action)));
+    }
+
+    public CompletionStage<Void> runAfterBothAsync(CompletionStage<?> other, Runnable action, Executor executor) {
+        return wrap(delegate.runAfterBothAsync(other, context.runnable(action), executor));
+    }
+
+    public <U> CompletionStage<U> applyToEither(CompletionStage<? extends T> other, Function<? super T, U> fn) {
+        return wrap(delegate.applyToEither(other, context.function(fn)));
+    }
+
+    public <U> CompletionStage<U> applyToEitherAsync(CompletionStage<? extends T> other, Function<? super T, U> fn) {
+        return wrap(delegate.applyToEitherAsync(other, context.function(fn)));
+    }
+
+    public <U> CompletionStage<U> applyToEitherAsync(CompletionStage<? extends T> other, Function<? super T, U> fn,
+            Executor executor) {
+        return wrap(delegate.applyToEitherAsync(other, context.function(fn), executor));
+    }
+
+    public CompletionStage<Void> acceptEither(CompletionStage<? extends T> other, Consumer<? super T> action) {
+        return wrap(delegate.acceptEither(other, context.consumer(action)));
+    }
+
+    public CompletionStage<Void> acceptEitherAsync(CompletionStage<? extends T> other, Consumer<? super T> action) {
+        return wrap(delegate.acceptEitherAsync(other, context.consumer(action)));
+    }
+
+    public CompletionStage<Void> acceptEitherAsync(CompletionStage<? extends T> other, Consumer<? super T> action,
+            Executor executor) {
+        return wrap(delegate.acceptEitherAsync(other, context.consumer(action), executor));
+    }
+
+    public CompletionStage<Void> runAfterEither(CompletionStage<?> other, Runnable action) {
+        return wrap(delegate.runAfterEither(other, context.runnable(action)));
+    }
+
+    public CompletionStage<Void> runAfterEitherAsync(CompletionStage<?> other, Runnable action) {
+        return wrap(delegate.runAfterEitherAsync(other, context.runnable(action)));
+    }
+
+    public CompletionStage<Void> runAfterEitherAsync(CompletionStage<?> other, Runnable action, Executor executor) {
+        return wrap(delegate.runAfterEitherAsync(other, context.runnable(action), executor));
+    }
+
+    public <U> CompletionStage<U> thenCompose(Function<? super T, ? extends CompletionStage<U>> fn) {
+        return wrap(delegate.thenCompose(context.function(fn)));
+    }
+
+    public <U> CompletionStage<U> thenComposeAsync(Function<? super T, ? extends CompletionStage<U>> fn) {
+        return wrap(delegate.thenComposeAsync(context.function(fn)));
+    }
+
+    public <U> CompletionStage<U> thenComposeAsync(Function<? super T, ? extends CompletionStage<U>> fn,
+            Executor executor) {
+        return wrap(delegate.thenComposeAsync(context.function(fn), executor));
+    }
+
+    public CompletionStage<T> whenComplete(BiConsumer<? super T, ? super Throwable> action) {
+        return wrap(delegate.whenComplete(context.biConsumer(action)));
+    }
+
+    public CompletionStage<T> whenCompleteAsync(BiConsumer<? super T, ? super Throwable> action) {
+        return wrap(delegate.whenCompleteAsync(context.biConsumer(action)));
+    }
+
+    public CompletionStage<T> whenCompleteAsync(BiConsumer<? super T, ? super Throwable> action, Executor executor) {
+        return wrap(delegate.whenCompleteAsync(context.biConsumer(action), executor));
+    }
+
+    public <U> CompletionStage<U> handle(BiFunction<? super T, Throwable, ? extends U> fn) {
+        return wrap(delegate.handle(context.biFunction(fn)));
+    }
+
+    public <U> CompletionStage<U> handleAsync(BiFunction<? super T, Throwable, ? extends U> fn) {
+        return wrap(delegate.handleAsync(context.biFunction(fn)));
+    }
+
+    public <U> CompletionStage<U> handleAsync(BiFunction<? super T, Throwable, ? extends U> fn, Executor executor) {
+        return wrap(delegate.handleAsync(context.biFunction(fn), executor));
+    }
+
+    public CompletionStage<T> exceptionally(Function<Throwable, ? extends T> fn) {
+        return wrap(delegate.exceptionally(context.function(fn)));
+    }
+
+    public CompletableFuture<T> toCompletableFuture() {
+        return delegate.toCompletableFuture();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
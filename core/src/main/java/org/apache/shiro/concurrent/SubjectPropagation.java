@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Utilities that carry the current {@link org.apache.shiro.subject.Subject Subject} (more precisely, all the
+ * resources bound to the current thread's {@link org.apache.shiro.util.ThreadContext ThreadContext}) into code that
+ * runs later, possibly on another thread, as is common with {@code CompletableFuture}s and reactive pipelines.
+ * <p/>
+ * Every method captures the thread context when it is called, and the returned object binds the captured context
+ * around each invocation, restoring the invoking thread's previous context afterwards:
+ * <pre>
+ * Executor executor = SubjectPropagation.executor(anExecutor);
+ * CompletableFuture.supplyAsync(() -&gt; loadInvoices(), executor)
+ *         .thenApplyAsync(invoices -&gt; filterPermitted(invoices), executor);
+ *
+ * CompletionStage&lt;Report&gt; report = SubjectPropagation.propagate(remoteCall())
+ *         .thenApply(result -&gt; createReport(result)); // runs as the current Subject, whichever thread completes it
+ * </pre>
+ * When the invoking thread already has exactly the captured context bound, for example because a continuation runs
+ * synchronously on the originating thread, the code is invoked directly without touching the {@code ThreadContext}.
+ * <p/>
+ * {@link #runnable(Runnable)} has the shape of a scheduling hook, so it can be installed as such in schedulers that
+ * decorate every task they run, for example with Project Reactor:
+ * <pre>
+ * Schedulers.onScheduleHook("shiro", SubjectPropagation::runnable);
+ * </pre>
+ *
+ * @see org.apache.shiro.subject.Subject#associateWith(Callable)
+ * @since 2.0
+ */
+public final class SubjectPropagation {
+
+    private SubjectPropagation() {
+    }
+
+    /**
+     * Returns an {@code Executor} that runs every task given to it on the target executor with the current thread
+     * context bound.
+     *
+     * @param executor the executor that runs the tasks
+     * @return an {@code Executor} running tasks with the current thread context bound.
+     */
+    public static Executor executor(Executor executor) {
+        return CapturedContext.capture().executor(executor);
+    }
+
+    /**
+     * Returns a {@code CompletionStage} that completes with the given stage, and runs every function passed to it,
+     * as well as to any stage derived from it, with the current thread context bound.  Functions passed to the
+     * {@link CompletionStage#toCompletableFuture() CompletableFuture} of the returned stage are not affected.
+     *
+     * @param stage the stage to propagate the current thread context to
+     * @param <T>   the type of the stage's result
+     * @return a {@code CompletionStage} running all functions with the current thread context bound.
+     */
+    public static <T> CompletionStage<T> propagate(CompletionStage<T> stage) {
+        if (stage == null) {
+            throw new NullPointerException("stage argument cannot be null.");
+        }
+        return new SubjectAwareCompletionStage<T>(stage, CapturedContext.capture());
+    }
+
+    /**
+     * Returns a {@code Runnable} that runs the given runnable with the current thread context bound.
+     *
+     * @param runnable the runnable to run
+     * @return a {@code Runnable} running the given runnable with the current thread context bound.
+     */
+    public static Runnable runnable(Runnable runnable) {
+        return CapturedContext.capture().runnable(runnable);
+    }
+
+    /**
+     * Returns a {@code Callable} that calls the given callable with the current thread context bound.
+     *
+     * @param callable the callable to call
+     * @param <V>      the type of the callable's result
+     * @return a {@code Callable} calling the given callable with the current thread context bound.
+     */
+    public static <V> Callable<V> callable(Callable<V> callable) {
+        return CapturedContext.capture().callable(callable);
+    }
+
+    /**
+     * Returns a {@code Supplier} that invokes the given supplier with the current thread context bound.
+     *
+     * @param supplier the supplier to invoke
+     * @param <T>      the type of the supplied result
+     * @return a {@code Supplier} invoking the given supplier with the current thread context bound.
+     */
+    public static <T> Supplier<T> supplier(Supplier<T> supplier) {
+        return CapturedContext.capture().supplier(supplier);
+    }
+
+    /**
+     * Returns a {@code Consumer} that invokes the given consumer with the current thread context bound.
+     *
+     * @param consumer the consumer to invoke
+     * @param <T>      the type of the consumed argument
+     * @return a {@code Consumer} invoking the given consumer with the current thread context bound.
+     */
+    public static <T> Consumer<T> consumer(Consumer<T> consumer) {
+        return CapturedContext.capture().consumer(consumer);
+    }
+
+    /**
+     * Returns a {@code BiConsumer} that invokes the given consumer with the current thread context bound, for
+     * example for {@link CompletionStage#whenComplete(BiConsumer) whenComplete}.
+     *
+     * @param consumer the consumer to invoke
+     * @param <T>      the type of the first consumed argument
+     * @param <U>      the type of the second consumed argument
+     * @return a {@code BiConsumer} invoking the given consumer with the current thread context bound.
+     */
+    public static <T, U> BiConsumer<T, U> biConsumer(BiConsumer<T, U> consumer) {
+        return CapturedContext.capture().biConsumer(consumer);
+    }
+
+    /**
+     * Returns a {@code Function} that applies the given function with the current thread context bound.
+     *
+     * @param function the function to apply
+     * @param <T>      the type of the function's argument
+     * @param <R>      the type of the function's result
+     * @return a {@code Function} applying the given function with the current thread context bound.
+     */
+    public static <T, R> Function<T, R> function(Function<T, R> function) {
+        return CapturedContext.capture().function(function);
+    }
+
+    /**
+     * Returns a {@code BiFunction} that applies the given function with the current thread context bound, for
+     * example for {@link CompletionStage#handle(BiFunction) handle}.
+     *
+     * @param function the function to apply
+     * @param <T>      the type of the function's first argument
+     * @param <U>      the type of the function's second argument
+     * @param <R>      the type of the function's result
+     * @return a {@code BiFunction} applying the given function with the current thread context bound.
+     */
+    public static <T, U, R> BiFunction<T, U, R> biFunction(BiFunction<T, U, R> function) {
+        return CapturedContext.capture().biFunction(function);
+    }
+}
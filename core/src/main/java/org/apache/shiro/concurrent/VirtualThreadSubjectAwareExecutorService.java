@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link SubjectAwareExecutorService} that runs every task on a new virtual thread when the JVM supports them
+ * (Java 21 or later), and on a cached pool of daemon platform threads otherwise.  Use {@link #isVirtualThreads()} to
+ * find out which one is in use.
+ * <p/>
+ * Tasks are associated with the current {@code Subject} exactly like with the parent class.  Binding the
+ * {@code Subject} on the new thread only swaps the thread's {@link org.apache.shiro.util.ThreadContext ThreadContext}
+ * resources, it never copies them, which makes it cheap enough to fan out even small pieces of work such as
+ * individual permission checks or realm calls:
+ * <pre>
+ * List&lt;Boolean&gt; permitted = executor.invokeAllAndJoin(Arrays.asList(
+ *         () -&gt; subject.isPermitted("invoice:read"),
+ *         () -&gt; subject.isPermitted("invoice:approve")));
+ * </pre>
+ *
+ * @see #invokeAllAndJoin(Collection)
+ * @since 2.0
+ */
+public class VirtualThreadSubjectAwareExecutorService extends SubjectAwareExecutorService {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadSubjectAwareExecutorService.class);
+
+    private static final String VIRTUAL_THREAD_FACTORY_METHOD = "newVirtualThreadPerTaskExecutor";
+
+    private final boolean virtualThreads;
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread, or on a cached pool of daemon platform
+     * threads if the JVM does not support virtual threads.
+     */
+    public VirtualThreadSubjectAwareExecutorService() {
+        ExecutorService target = createVirtualThreadExecutorService();
+        this.virtualThreads = target != null;
+        if (target == null) {
+            target = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger(1);
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setDaemon(true);
+                    thread.setName("SubjectAwareExecutor-" + count.getAndIncrement());
+                    return thread;
+                }
+            });
+        }
+        setTargetExecutorService(target);
+    }
+
+    /**
+     * Returns {@code true} if tasks run on virtual threads, {@code false} if they run on platform threads because the
+     * JVM does not support virtual threads.
+     *
+     * @return {@code true} if tasks run on virtual threads.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Runs all given tasks concurrently as the current {@code Subject} and waits for all of them to complete,
+     * returning their results in the iteration order of the tasks.
+     * <p/>
+     * The tasks do not outlive this call: as soon as one of them fails, or the calling thread is interrupted while
+     * waiting, the tasks still running are cancelled, and the failure is thrown once every task that had started has
+     * returned.  Tasks are cancelled by interrupting them, so a task that ignores interruption delays the failure
+     * until it completes.
+     *
+     * @param tasks the tasks to run
+     * @param <T>   the type of the tasks' results
+     * @return the results of the tasks, in the iteration order of the tasks
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     * @throws ExecutionException   if any of the tasks threw an exception, wrapping the first such exception
+     */
+    public <T> List<T> invokeAllAndJoin(Collection<? extends Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+        if (tasks == null) {
+            throw new NullPointerException("tasks argument cannot be null.");
+        }
+        Collection<Callable<T>> workItems = associateWithSubject(tasks);
+        CountDownLatch finished = new CountDownLatch(workItems.size());
+        List<JoinedTask<T>> joined = new ArrayList<JoinedTask<T>>(workItems.size());
+        for (Callable<T> work : workItems) {
+            joined.add(new JoinedTask<T>(work, finished));
+        }
+        CompletionService<T> completionService = new ExecutorCompletionService<T>(getTargetExecutorService());
+        List<Future<T>> futures = new ArrayList<Future<T>>(joined.size());
+        try {
+            for (JoinedTask<T> work : joined) {
+                futures.add(completionService.submit(work));
+            }
+            //wait in completion order so that the first failure is noticed right away:
+            for (int i = 0; i < futures.size(); i++) {
+                completionService.take().get();
+            }
+            List<T> results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+            for (JoinedTask<T> work : joined) {
+                work.skipIfNotStarted();
+            }
+            awaitUninterruptibly(finished);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a new virtual-thread-per-task {@code ExecutorService} if the JVM supports virtual threads, {@code null}
+     * otherwise.  The factory method is looked up reflectively since Shiro itself is built for older Java versions.
+     *
+     * @return a new virtual-thread-per-task {@code ExecutorService} or {@code null}.
+     */
+    private static ExecutorService createVirtualThreadExecutorService() {
+        try {
+            Method factory = Executors.class.getMethod(VIRTUAL_THREAD_FACTORY_METHOD);
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            log.debug("Virtual threads are not available on this JVM, using platform threads instead.");
+        } catch (InvocationTargetException e) {
+            //Java 19 and 20 only support virtual threads as a preview feature:
+            log.debug("Virtual threads are not enabled on this JVM, using platform threads instead.", e.getCause());
+        } catch (IllegalAccessException e) {
+            log.debug("Unable to create a virtual thread executor, using platform threads instead.", e);
+        }
+        return null;
+    }
+
+    /**
+     * Counts down a latch once its task has returned, or once it is certain that the task will never run, so that
+     * {@link #invokeAllAndJoin(Collection)} can wait for cancelled tasks.
+     */
+    private static final class JoinedTask<T> implements Callable<T> {
+
+        private final Callable<T> task;
+        private final CountDownLatch finished;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private JoinedTask(Callable<T> task, CountDownLatch finished) {
+            this.task = task;
+            this.finished = finished;
+        }
+
+        public T call() throws Exception {
+            if (!claimed.compareAndSet(false, true)) {
+                //skipped after the join was cancelled:
+                return null;
+            }
+            try {
+                return task.call();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        private void skipIfNotStarted() {
+            if (claimed.compareAndSet(false, true)) {
+                finished.countDown();
+            }
+        }
+    }
+}
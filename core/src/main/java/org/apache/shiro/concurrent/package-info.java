@@ -24,5 +24,7 @@
  * @see SubjectAwareExecutor
  * @see SubjectAwareExecutorService
  * @see SubjectAwareScheduledExecutorService
+ * @see SubjectPropagation
+ * @see VirtualThreadSubjectAwareExecutorService
  */
 package org.apache.shiro.concurrent;
\ No newline at end of file
@@ -116,7 +116,10 @@ public abstract class AbstractRememberMeManager implements RememberMeManager {
      * Sets the {@code Serializer} used to serialize and deserialize {@link PrincipalCollection} instances for
      * persistent remember me storage.
      * <p/>
-     * Unless overridden by this method, the default instance is a {@link DefaultSerializer}.
+     * Unless overridden by this method, the default instance is a {@link DefaultSerializer}.  A
+     * {@link org.apache.shiro.subject.CompactPrincipalCollectionSerializer CompactPrincipalCollectionSerializer} produces
+     * considerably smaller identities that are faster to deserialize, while still reading identities previously
+     * written by the {@code DefaultSerializer}.
      *
      * @param serializer the {@code Serializer} used to serialize and deserialize {@link PrincipalCollection} instances
      *                   for persistent remember me storage.
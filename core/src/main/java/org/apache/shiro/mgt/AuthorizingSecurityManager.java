@@ -22,6 +22,8 @@ import org.apache.shiro.authz.AuthorizationException;
 import org.apache.shiro.authz.Authorizer;
 import org.apache.shiro.authz.ModularRealmAuthorizer;
 import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.event.AuthorizationDeniedEvent;
+import org.apache.shiro.event.EventBusUtils;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.lang.util.LifecycleUtils;
 
@@ -134,19 +136,39 @@ public abstract class AuthorizingSecurityManager extends AuthenticatingSecurityM
     }
 
     public void checkPermission(PrincipalCollection principals, String permission) throws AuthorizationException {
-        this.authorizer.checkPermission(principals, permission);
+        try {
+            this.authorizer.checkPermission(principals, permission);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
     }
 
     public void checkPermission(PrincipalCollection principals, Permission permission) throws AuthorizationException {
-        this.authorizer.checkPermission(principals, permission);
+        try {
+            this.authorizer.checkPermission(principals, permission);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
     }
 
     public void checkPermissions(PrincipalCollection principals, String... permissions) throws AuthorizationException {
-        this.authorizer.checkPermissions(principals, permissions);
+        try {
+            this.authorizer.checkPermissions(principals, permissions);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
     }
 
     public void checkPermissions(PrincipalCollection principals, Collection<Permission> permissions) throws AuthorizationException {
-        this.authorizer.checkPermissions(principals, permissions);
+        try {
+            this.authorizer.checkPermissions(principals, permissions);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
     }
 
     public boolean hasRole(PrincipalCollection principals, String roleIdentifier) {
@@ -162,14 +184,42 @@ public abstract class AuthorizingSecurityManager extends AuthenticatingSecurityM
     }
 
     public void checkRole(PrincipalCollection principals, String role) throws AuthorizationException {
-        this.authorizer.checkRole(principals, role);
+        try {
+            this.authorizer.checkRole(principals, role);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
     }
 
     public void checkRoles(PrincipalCollection principals, Collection<String> roles) throws AuthorizationException {
-        this.authorizer.checkRoles(principals, roles);
+        try {
+            this.authorizer.checkRoles(principals, roles);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
     }
     
     public void checkRoles(PrincipalCollection principals, String... roles) throws AuthorizationException {
-        this.authorizer.checkRoles(principals, roles);
-    }    
+        try {
+            this.authorizer.checkRoles(principals, roles);
+        } catch (AuthorizationException e) {
+            publishAuthorizationDenied(principals, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Publishes an {@link AuthorizationDeniedEvent} for a failed permission or role check if anybody subscribed to it.
+     *
+     * @param principals the principals that were denied
+     * @param e          the exception about to be thrown to the caller
+     * @since 2.0
+     */
+    protected void publishAuthorizationDenied(PrincipalCollection principals, AuthorizationException e) {
+        if (EventBusUtils.hasSubscribers(getEventBus(), AuthorizationDeniedEvent.class)) {
+            publishEvent(new AuthorizationDeniedEvent(this, principals, e));
+        }
+    }
 }
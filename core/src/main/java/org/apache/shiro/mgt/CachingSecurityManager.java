@@ -138,6 +138,19 @@ public abstract class CachingSecurityManager implements SecurityManager, Destroy
         applyEventBusToCacheManager();
     }
 
+    /**
+     * Publishes the given event on the {@link #getEventBus() eventBus} if one is available, otherwise does nothing.
+     *
+     * @param event the event to publish
+     * @since 2.0
+     */
+    protected void publishEvent(Object event) {
+        EventBus eventBus = getEventBus();
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
+    }
+
     /**
      * Destroys the {@link #getCacheManager() cacheManager} via {@link LifecycleUtils#destroy LifecycleUtils.destroy}.
      */
@@ -23,7 +23,11 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.Authenticator;
 import org.apache.shiro.authc.LogoutAware;
+import org.apache.shiro.authc.event.LoginFailureEvent;
+import org.apache.shiro.authc.event.LoginSuccessEvent;
+import org.apache.shiro.authc.event.LogoutEvent;
 import org.apache.shiro.authz.Authorizer;
+import org.apache.shiro.event.EventBusUtils;
 import org.apache.shiro.realm.Realm;
 import org.apache.shiro.session.InvalidSessionException;
 import org.apache.shiro.session.Session;
@@ -282,6 +286,9 @@ public class DefaultSecurityManager extends SessionsSecurityManager {
                             "exception.  Logging and propagating original AuthenticationException.", e);
                 }
             }
+            if (EventBusUtils.hasSubscribers(getEventBus(), LoginFailureEvent.class)) {
+                publishEvent(new LoginFailureEvent(this, subject, token, ae));
+            }
             throw ae; //propagate
         }
 
@@ -289,6 +296,10 @@ public class DefaultSecurityManager extends SessionsSecurityManager {
 
         onSuccessfulLogin(token, info, loggedIn);
 
+        if (EventBusUtils.hasSubscribers(getEventBus(), LoginSuccessEvent.class)) {
+            publishEvent(new LoginSuccessEvent(this, loggedIn, token, info));
+        }
+
         return loggedIn;
     }
 
@@ -564,6 +575,10 @@ public class DefaultSecurityManager extends SessionsSecurityManager {
             }
         }
 
+        if (EventBusUtils.hasSubscribers(getEventBus(), LogoutEvent.class)) {
+            publishEvent(new LogoutEvent(this, subject, principals));
+        }
+
         try {
             delete(subject);
         } catch (Exception e) {
@@ -23,6 +23,7 @@ import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.subject.support.DefaultSubjectContext;
 import org.apache.shiro.subject.support.DelegatingSubject;
+import org.apache.shiro.subject.support.StoredSubjectState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -157,13 +158,31 @@ public class DefaultSubjectDAO implements SubjectDAO {
      * {@link org.apache.shiro.subject.Subject#getSession() session}.  The session can be retrieved at a later time
      * (typically from a {@link org.apache.shiro.session.mgt.SessionManager SessionManager} to be used to recreate
      * the {@code Subject} instance.
+     * <p/>
+     * As of 2.0, the session is not accessed at all if the subject is a {@link DelegatingSubject} whose state is
+     * {@link DelegatingSubject#isStoredSubjectStateCurrent() known to be stored} in its session already, which is
+     * the case for subjects that were built from their session and did not change since.  Subclasses that change how
+     * the state is stored by overriding {@link #mergePrincipals(Subject)} or
+     * {@link #mergeAuthenticationState(Subject)} should override this method as well.
      *
      * @param subject the subject for which state will be persisted to its session.
      */
     protected void saveToSession(Subject subject) {
+        DelegatingSubject delegating = subject instanceof DelegatingSubject ? (DelegatingSubject) subject : null;
+        if (delegating != null && delegating.isStoredSubjectStateCurrent()) {
+            log.trace("Principals and authentication state of Subject [{}] are already stored in its session.",
+                    subject);
+            return;
+        }
         //performs merge logic, only updating the Subject's session if it does not match the current state:
         mergePrincipals(subject);
         mergeAuthenticationState(subject);
+
+        if (delegating != null && subject.getSession(false) != null) {
+            PrincipalCollection principals = getCurrentPrincipals(subject);
+            delegating.setStoredSubjectState(new StoredSubjectState(isEmpty(principals) ? null : principals,
+                    subject.isAuthenticated() ? Boolean.TRUE : null));
+        }
     }
 
     private static boolean isEmpty(PrincipalCollection pc) {
@@ -180,25 +199,7 @@ public class DefaultSubjectDAO implements SubjectDAO {
     protected void mergePrincipals(Subject subject) {
         //merge PrincipalCollection state:
 
-        PrincipalCollection currentPrincipals = null;
-
-        //SHIRO-380: added if/else block - need to retain original (source) principals
-        //This technique (reflection) is only temporary - a proper long term solution needs to be found,
-        //but this technique allowed an immediate fix that is API point-version forwards and backwards compatible
-        //
-        //A more comprehensive review / cleaning of runAs should be performed for Shiro 1.3 / 2.0 +
-        if (subject.isRunAs() && subject instanceof DelegatingSubject) {
-            try {
-                Field field = DelegatingSubject.class.getDeclaredField("principals");
-                field.setAccessible(true);
-                currentPrincipals = (PrincipalCollection)field.get(subject);
-            } catch (Exception e) {
-                throw new IllegalStateException("Unable to access DelegatingSubject principals property.", e);
-            }
-        }
-        if (currentPrincipals == null || currentPrincipals.isEmpty()) {
-            currentPrincipals = subject.getPrincipals();
-        }
+        PrincipalCollection currentPrincipals = getCurrentPrincipals(subject);
 
         Session session = subject.getSession(false);
 
@@ -226,6 +227,29 @@ public class DefaultSubjectDAO implements SubjectDAO {
         }
     }
 
+    private static PrincipalCollection getCurrentPrincipals(Subject subject) {
+        PrincipalCollection currentPrincipals = null;
+
+        //SHIRO-380: added if/else block - need to retain original (source) principals
+        //This technique (reflection) is only temporary - a proper long term solution needs to be found,
+        //but this technique allowed an immediate fix that is API point-version forwards and backwards compatible
+        //
+        //A more comprehensive review / cleaning of runAs should be performed for Shiro 1.3 / 2.0 +
+        if (subject.isRunAs() && subject instanceof DelegatingSubject) {
+            try {
+                Field field = DelegatingSubject.class.getDeclaredField("principals");
+                field.setAccessible(true);
+                currentPrincipals = (PrincipalCollection)field.get(subject);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unable to access DelegatingSubject principals property.", e);
+            }
+        }
+        if (currentPrincipals == null || currentPrincipals.isEmpty()) {
+            currentPrincipals = subject.getPrincipals();
+        }
+        return currentPrincipals;
+    }
+
     /**
      * Merges the Subject's current authentication state with whatever may be in
      * any available session.  Only updates the Subject's session if the session does not match the current
@@ -273,6 +297,9 @@ public class DefaultSubjectDAO implements SubjectDAO {
             session.removeAttribute(DefaultSubjectContext.AUTHENTICATED_SESSION_KEY);
             session.removeAttribute(DefaultSubjectContext.PRINCIPALS_SESSION_KEY);
         }
+        if (subject instanceof DelegatingSubject) {
+            ((DelegatingSubject) subject).setStoredSubjectState(null);
+        }
     }
 
     /**
@@ -22,6 +22,7 @@ import org.apache.shiro.session.Session;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.subject.SubjectContext;
+import org.apache.shiro.subject.support.DefaultSubjectContext;
 import org.apache.shiro.subject.support.DelegatingSubject;
 
 
@@ -33,9 +34,36 @@ import org.apache.shiro.subject.support.DelegatingSubject;
  */
 public class DefaultSubjectFactory implements SubjectFactory {
 
+    private boolean authorizationMemoEnabled;
+
     public DefaultSubjectFactory() {
     }
 
+    /**
+     * Returns {@code true} if created subjects remember the outcome of their single permission and role checks,
+     * {@code false} otherwise.  Defaults to {@code false}.
+     *
+     * @return {@code true} if created subjects remember the outcome of their single permission and role checks.
+     * @see DelegatingSubject#setAuthorizationMemoEnabled(boolean)
+     * @since 2.0
+     */
+    public boolean isAuthorizationMemoEnabled() {
+        return authorizationMemoEnabled;
+    }
+
+    /**
+     * Sets whether created subjects remember the outcome of their single permission and role checks for as long as
+     * they live, which for web applications is the current request.
+     *
+     * @param authorizationMemoEnabled whether created subjects remember the outcome of their single permission and
+     *                                 role checks.
+     * @see DelegatingSubject#setAuthorizationMemoEnabled(boolean)
+     * @since 2.0
+     */
+    public void setAuthorizationMemoEnabled(boolean authorizationMemoEnabled) {
+        this.authorizationMemoEnabled = authorizationMemoEnabled;
+    }
+
     public Subject createSubject(SubjectContext context) {
         SecurityManager securityManager = context.resolveSecurityManager();
         Session session = context.resolveSession();
@@ -44,7 +72,24 @@ public class DefaultSubjectFactory implements SubjectFactory {
         boolean authenticated = context.resolveAuthenticated();
         String host = context.resolveHost();
 
-        return new DelegatingSubject(principals, authenticated, host, session, sessionCreationEnabled, securityManager);
+        DelegatingSubject subject = new DelegatingSubject(principals, authenticated, host, session,
+                sessionCreationEnabled, securityManager);
+        configure(subject, context);
+        return subject;
+    }
+
+    /**
+     * Applies this factory's settings and the state known from the context to a newly created subject.
+     *
+     * @param subject the newly created subject
+     * @param context the context the subject was created from
+     * @since 2.0
+     */
+    protected void configure(DelegatingSubject subject, SubjectContext context) {
+        subject.setAuthorizationMemoEnabled(isAuthorizationMemoEnabled());
+        if (context instanceof DefaultSubjectContext) {
+            subject.setStoredSubjectState(((DefaultSubjectContext) context).getStoredSubjectState());
+        }
     }
 
     /**
@@ -62,6 +62,7 @@ public abstract class SessionsSecurityManager extends AuthorizingSecurityManager
         super();
         this.sessionManager = new DefaultSessionManager();
         applyCacheManagerToSessionManager();
+        applyEventBusToSessionManager();
     }
 
     /**
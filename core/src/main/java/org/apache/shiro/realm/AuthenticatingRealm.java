@@ -22,14 +22,20 @@ import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.IncorrectCredentialsException;
+import org.apache.shiro.authc.SimpleAuthenticationInfo;
 import org.apache.shiro.authc.UsernamePasswordToken;
 import org.apache.shiro.authc.credential.AllowAllCredentialsMatcher;
 import org.apache.shiro.authc.credential.CredentialsMatcher;
 import org.apache.shiro.authc.credential.SimpleCredentialsMatcher;
+import org.apache.shiro.authc.credential.VerifiedCredentialsCache;
 import org.apache.shiro.cache.Cache;
 import org.apache.shiro.cache.CacheManager;
+import org.apache.shiro.event.EventBusUtils;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.lang.util.Initializable;
+import org.apache.shiro.realm.event.RealmCacheHitEvent;
+import org.apache.shiro.realm.event.RealmCacheLoadEvent;
+import org.apache.shiro.realm.event.RealmCacheMissEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -136,6 +142,8 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
     private boolean authenticationCachingEnabled;
     private String authenticationCacheName;
 
+    private VerifiedCredentialsCache verifiedCredentialsCache;
+
     /**
      * The class that this realm supports for authentication tokens.  This is used by the
      * default implementation of the {@link Realm#supports(org.apache.shiro.authc.AuthenticationToken)} method to
@@ -340,6 +348,37 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
         }
     }
 
+    /**
+     * Returns the cache of recently verified credentials consulted before the
+     * {@link #getCredentialsMatcher() credentialsMatcher}, or {@code null} if credential verifications are not cached
+     * (the default).
+     *
+     * @return the cache of recently verified credentials, or {@code null} if credential verifications are not cached.
+     * @see #setVerifiedCredentialsCache(VerifiedCredentialsCache)
+     * @since 2.0
+     */
+    public VerifiedCredentialsCache getVerifiedCredentialsCache() {
+        return verifiedCredentialsCache;
+    }
+
+    /**
+     * Sets a cache of recently verified credentials to consult before the
+     * {@link #getCredentialsMatcher() credentialsMatcher}.  This is useful when the matcher is expensive, such as an
+     * iterated password hash, and clients send the same credentials with every request, as is common with HTTP Basic
+     * authentication.  Entries are keyed by the {@link #getAuthenticationCacheKey(AuthenticationToken) authentication
+     * cache key} and are invalidated on logout and whenever
+     * {@link #clearCachedAuthenticationInfo(PrincipalCollection) cached authentication data is cleared}.
+     * <p/>
+     * The default value is {@code null}, meaning every authentication attempt is verified by the
+     * {@code credentialsMatcher}.
+     *
+     * @param verifiedCredentialsCache the cache of recently verified credentials, or {@code null} to disable it.
+     * @since 2.0
+     */
+    public void setVerifiedCredentialsCache(VerifiedCredentialsCache verifiedCredentialsCache) {
+        this.verifiedCredentialsCache = verifiedCredentialsCache;
+    }
+
     public void setName(String name) {
         super.setName(name);
         String authcCacheName = this.authenticationCacheName;
@@ -488,8 +527,14 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
             info = cache.get(key);
             if (info == null) {
                 log.trace("No AuthorizationInfo found in cache for key [{}]", key);
+                if (EventBusUtils.hasSubscribers(getEventBus(), RealmCacheMissEvent.class)) {
+                    publishEvent(new RealmCacheMissEvent(this, getAuthenticationCacheName(), key));
+                }
             } else {
                 log.trace("Found cached AuthorizationInfo for key [{}]", key);
+                if (EventBusUtils.hasSubscribers(getEventBus(), RealmCacheHitEvent.class)) {
+                    publishEvent(new RealmCacheHitEvent(this, getAuthenticationCacheName(), key));
+                }
             }
         }
 
@@ -517,6 +562,11 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
             Object key = getAuthenticationCacheKey(token);
             cache.put(key, info);
             log.trace("Cached AuthenticationInfo for continued authentication.  key=[{}], value=[{}].", key, info);
+            if (EventBusUtils.hasSubscribers(getEventBus(), RealmCacheLoadEvent.class)) {
+                //subscribers get the principals only, the cached credentials never leave the realm:
+                AuthenticationInfo value = new SimpleAuthenticationInfo(info.getPrincipals(), null);
+                publishEvent(new RealmCacheLoadEvent(this, getAuthenticationCacheName(), key, value));
+            }
         }
     }
 
@@ -597,11 +647,20 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
     protected void assertCredentialsMatch(AuthenticationToken token, AuthenticationInfo info) throws AuthenticationException {
         CredentialsMatcher cm = getCredentialsMatcher();
         if (cm != null) {
+            VerifiedCredentialsCache verified = getVerifiedCredentialsCache();
+            Object key = verified != null ? getAuthenticationCacheKey(token) : null;
+            if (key != null && verified.isVerified(key, token.getCredentials(), info.getCredentials())) {
+                log.trace("Submitted credentials for token [{}] were recently verified, skipping credentials matching.", token);
+                return;
+            }
             if (!cm.doCredentialsMatch(token, info)) {
                 //not successful - throw an exception to indicate this:
                 String msg = "Submitted credentials for token [" + token + "] did not match the expected credentials.";
                 throw new IncorrectCredentialsException(msg);
             }
+            if (key != null) {
+                verified.verified(key, token.getCredentials(), info.getCredentials());
+            }
         } else {
             throw new AuthenticationException("A CredentialsMatcher must be configured in order to verify " +
                     "credentials during authentication.  If you do not wish for credentials to be examined, you " +
@@ -674,6 +733,7 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
      * After this method is called, the next authentication for that same account will result in a call to
      * {@link #doGetAuthenticationInfo(org.apache.shiro.authc.AuthenticationToken) doGetAuthenticationInfo}, and the
      * resulting return value will be cached before being returned so it can be reused for later authentications.
+     * Any {@link #getVerifiedCredentialsCache() recently verified credentials} for the account are forgotten as well.
      * <p/>
      * If you wish to clear out all associated cached data (and not just authentication data), use the
      * {@link #clearCache(org.apache.shiro.subject.PrincipalCollection)} method instead (which will in turn call this
@@ -685,6 +745,10 @@ public abstract class AuthenticatingRealm extends CachingRealm implements Initia
      */
     protected void clearCachedAuthenticationInfo(PrincipalCollection principals) {
         if (!isEmpty(principals)) {
+            VerifiedCredentialsCache verified = getVerifiedCredentialsCache();
+            if (verified != null) {
+                verified.invalidate(getAuthenticationCacheKey(principals));
+            }
             Cache<Object, AuthenticationInfo> cache = getAvailableAuthenticationCache();
             //cache instance will be non-null if caching is enabled:
             if (cache != null) {
@@ -23,10 +23,15 @@ import org.apache.shiro.authz.*;
 import org.apache.shiro.authz.permission.*;
 import org.apache.shiro.cache.Cache;
 import org.apache.shiro.cache.CacheManager;
+import org.apache.shiro.event.EventBusUtils;
 import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.support.AuthorizationMemo;
 import org.apache.shiro.util.CollectionUtils;
 import org.apache.shiro.lang.util.Initializable;
 import org.apache.shiro.lang.util.StringUtils;
+import org.apache.shiro.realm.event.RealmCacheHitEvent;
+import org.apache.shiro.realm.event.RealmCacheLoadEvent;
+import org.apache.shiro.realm.event.RealmCacheMissEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -334,6 +339,13 @@ public abstract class AuthorizingRealm extends AuthenticatingRealm
                     log.trace("AuthorizationInfo found in cache for principals [" + principals + "]");
                 }
             }
+            if (info == null) {
+                if (EventBusUtils.hasSubscribers(getEventBus(), RealmCacheMissEvent.class)) {
+                    publishEvent(new RealmCacheMissEvent(this, getAuthorizationCacheName(), key));
+                }
+            } else if (EventBusUtils.hasSubscribers(getEventBus(), RealmCacheHitEvent.class)) {
+                publishEvent(new RealmCacheHitEvent(this, getAuthorizationCacheName(), key));
+            }
         }
 
 
@@ -347,6 +359,9 @@ public abstract class AuthorizingRealm extends AuthenticatingRealm
                 }
                 Object key = getAuthorizationCacheKey(principals);
                 cache.put(key, info);
+                if (EventBusUtils.hasSubscribers(getEventBus(), RealmCacheLoadEvent.class)) {
+                    publishEvent(new RealmCacheLoadEvent(this, getAuthorizationCacheName(), key, info));
+                }
             }
         }
 
@@ -386,6 +401,10 @@ public abstract class AuthorizingRealm extends AuthenticatingRealm
             Object key = getAuthorizationCacheKey(principals);
             cache.remove(key);
         }
+
+        //authorization decisions remembered by subjects may depend on the data just cleared.  Invalidating only after
+        //the cache entry is gone ensures no decision made from the stale entry in the meantime survives:
+        AuthorizationMemo.invalidateAll();
     }
 
     /**
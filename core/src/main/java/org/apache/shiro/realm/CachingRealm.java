@@ -21,6 +21,8 @@ package org.apache.shiro.realm;
 import org.apache.shiro.authc.LogoutAware;
 import org.apache.shiro.cache.CacheManager;
 import org.apache.shiro.cache.CacheManagerAware;
+import org.apache.shiro.event.EventBus;
+import org.apache.shiro.event.EventBusAware;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.util.CollectionUtils;
 import org.apache.shiro.lang.util.Nameable;
@@ -45,7 +47,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @see #getAvailablePrincipal(org.apache.shiro.subject.PrincipalCollection)
  * @since 0.9
  */
-public abstract class CachingRealm implements Realm, Nameable, CacheManagerAware, LogoutAware {
+public abstract class CachingRealm implements Realm, Nameable, CacheManagerAware, LogoutAware, EventBusAware {
 
     private static final Logger log = LoggerFactory.getLogger(CachingRealm.class);
 
@@ -59,6 +61,7 @@ public abstract class CachingRealm implements Realm, Nameable, CacheManagerAware
     private String name;
     private boolean cachingEnabled;
     private CacheManager cacheManager;
+    private EventBus eventBus;
 
     /**
      * Default no-argument constructor that defaults
@@ -137,6 +140,41 @@ public abstract class CachingRealm implements Realm, Nameable, CacheManagerAware
     protected void afterCacheManagerSet() {
     }
 
+    /**
+     * Returns the {@code EventBus} used to publish {@link org.apache.shiro.realm.event.RealmCacheEvent cache events},
+     * or {@code null} if no events are published.
+     *
+     * @return the {@code EventBus} used to publish cache events.
+     * @since 2.0
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Sets the {@code EventBus} used to publish {@link org.apache.shiro.realm.event.RealmCacheEvent cache events}.
+     * This is set automatically by the {@code SecurityManager} the realm is configured on.
+     *
+     * @param eventBus the {@code EventBus} used to publish cache events.
+     * @since 2.0
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Publishes the given event on the {@link #getEventBus() eventBus} if one is available, otherwise does nothing.
+     *
+     * @param event the event to publish
+     * @since 2.0
+     */
+    protected void publishEvent(Object event) {
+        EventBus eventBus = getEventBus();
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
+    }
+
     /**
      * If caching is enabled, this will clear any cached data associated with the specified account identity.
      * Subclasses are free to override for additional behavior, but be sure to call {@code super.onLogout} first.
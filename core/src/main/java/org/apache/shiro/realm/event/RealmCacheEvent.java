@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.realm.event;
+
+import org.apache.shiro.event.Event;
+import org.apache.shiro.realm.CachingRealm;
+
+/**
+ * Root class for the events published on the {@link org.apache.shiro.event.EventBus EventBus} when a
+ * {@link CachingRealm} looks up its authentication or authorization cache.  Subscribing to this type receives all of
+ * them, which is enough to compute the hit ratio of every realm cache.
+ *
+ * @since 2.0
+ */
+public abstract class RealmCacheEvent extends Event {
+
+    private final String cacheName;
+    private final Object key;
+
+    public RealmCacheEvent(CachingRealm realm, String cacheName, Object key) {
+        super(realm);
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    /**
+     * Returns the realm that owns the cache.
+     *
+     * @return the realm that owns the cache.
+     */
+    public CachingRealm getRealm() {
+        return (CachingRealm) getSource();
+    }
+
+    /**
+     * Returns the name of the cache, as configured on the realm.
+     *
+     * @return the name of the cache.
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Returns the key that was looked up.
+     *
+     * @return the key that was looked up.
+     */
+    public Object getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.realm.event;
+
+import org.apache.shiro.realm.CachingRealm;
+
+/**
+ * Event published after a realm looked up data missing from its cache and stored it in the cache.
+ *
+ * @see RealmCacheMissEvent
+ * @since 2.0
+ */
+public class RealmCacheLoadEvent extends RealmCacheEvent {
+
+    private final Object value;
+
+    public RealmCacheLoadEvent(CachingRealm realm, String cacheName, Object key, Object value) {
+        super(realm, cacheName, key);
+        this.value = value;
+    }
+
+    /**
+     * Returns the data that was loaded and cached.  For an authentication cache this is a copy of the cached
+     * {@code AuthenticationInfo} without its credentials.
+     *
+     * @return the data that was loaded and cached.
+     */
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.session.event;
+
+import org.apache.shiro.event.Event;
+import org.apache.shiro.session.Session;
+
+/**
+ * Root class for the events published on the {@link org.apache.shiro.event.EventBus EventBus} when a
+ * {@link Session} starts, stops or expires.  Subscribing to this type receives all of them.
+ *
+ * @since 2.0
+ */
+public abstract class SessionEvent extends Event {
+
+    private final Session session;
+
+    public SessionEvent(Object source, Session session) {
+        super(source);
+        this.session = session;
+    }
+
+    /**
+     * Returns the session this event is about.  For stopped and expired sessions this is an immutable view of the
+     * session, just like the one delivered to {@link org.apache.shiro.session.SessionListener SessionListener}s.
+     *
+     * @return the session this event is about.
+     */
+    public Session getSession() {
+        return session;
+    }
+}
@@ -21,11 +21,15 @@ package org.apache.shiro.session.mgt;
 import org.apache.shiro.authz.AuthorizationException;
 import org.apache.shiro.event.EventBus;
 import org.apache.shiro.event.EventBusAware;
+import org.apache.shiro.event.EventBusUtils;
 import org.apache.shiro.session.InvalidSessionException;
 import org.apache.shiro.session.Session;
 import org.apache.shiro.session.SessionException;
 import org.apache.shiro.session.SessionListener;
 import org.apache.shiro.session.UnknownSessionException;
+import org.apache.shiro.session.event.SessionExpirationEvent;
+import org.apache.shiro.session.event.SessionStartEvent;
+import org.apache.shiro.session.event.SessionStopEvent;
 import org.apache.shiro.util.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -193,6 +197,9 @@ public abstract class AbstractNativeSessionManager extends AbstractSessionManage
         for (SessionListener listener : this.listeners) {
             listener.onStart(session);
         }
+        if (EventBusUtils.hasSubscribers(getEventBus(), SessionStartEvent.class)) {
+            publishEvent(new SessionStartEvent(this, session));
+        }
     }
 
     protected void notifyStop(Session session) {
@@ -200,6 +207,9 @@ public abstract class AbstractNativeSessionManager extends AbstractSessionManage
         for (SessionListener listener : this.listeners) {
             listener.onStop(forNotification);
         }
+        if (EventBusUtils.hasSubscribers(getEventBus(), SessionStopEvent.class)) {
+            publishEvent(new SessionStopEvent(this, forNotification));
+        }
     }
 
     protected void notifyExpiration(Session session) {
@@ -207,6 +217,9 @@ public abstract class AbstractNativeSessionManager extends AbstractSessionManage
         for (SessionListener listener : this.listeners) {
             listener.onExpiration(forNotification);
         }
+        if (EventBusUtils.hasSubscribers(getEventBus(), SessionExpirationEvent.class)) {
+            publishEvent(new SessionExpirationEvent(this, forNotification));
+        }
     }
 
     public Date getStartTimestamp(SessionKey key) {
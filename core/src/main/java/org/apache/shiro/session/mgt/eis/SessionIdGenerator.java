@@ -36,6 +36,7 @@ import java.io.Serializable;
  *
  * @see org.apache.shiro.session.mgt.eis.JavaUuidSessionIdGenerator JavaUuidSessionIdGenerator
  * @see org.apache.shiro.session.mgt.eis.RandomSessionIdGenerator RandomSessionIdGenerator
+ * @see org.apache.shiro.session.mgt.eis.Base64UrlSessionIdGenerator Base64UrlSessionIdGenerator
  * @since 1.0
  */
 public interface SessionIdGenerator {
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.subject;
+
+import org.apache.shiro.lang.io.DefaultSerializer;
+import org.apache.shiro.lang.io.SerializationException;
+import org.apache.shiro.lang.io.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A {@link Serializer} for {@link PrincipalCollection}s that writes a compact binary format instead of using Java
+ * serialization, which makes for considerably smaller rememberMe cookies and faster decoding.
+ * <p/>
+ * Realm names are written as length-prefixed UTF-8 strings, and {@code String}, {@code Long}, {@code Integer} and
+ * {@code UUID} principals are written as compactly typed values.  Any other principal type, as well as collections
+ * that are not a {@link SimplePrincipalCollection}, is written with the {@link #getFallbackSerializer() fallback
+ * serializer}, which defaults to a {@link DefaultSerializer}.  Setting the fallback serializer to {@code null}
+ * restricts this serializer to the types above, so that no Java deserialization takes place at all.
+ * <p/>
+ * Data written by Java serialization, such as rememberMe cookies issued before switching to this serializer, is
+ * recognized by its stream header and also handed to the fallback serializer.
+ * <p/>
+ * To use this serializer for rememberMe cookies, configure it on the rememberMe manager:
+ * <pre>
+ * securityManager.rememberMeManager.serializer = org.apache.shiro.subject.CompactPrincipalCollectionSerializer
+ * </pre>
+ *
+ * @see org.apache.shiro.mgt.AbstractRememberMeManager#setSerializer(Serializer)
+ * @since 2.0
+ */
+public class CompactPrincipalCollectionSerializer implements Serializer<PrincipalCollection> {
+
+    private static final byte FORMAT_COMPACT = 1;
+    private static final byte FORMAT_FALLBACK = 2;
+
+    // the first two bytes of the Java serialization stream header
+    private static final byte JAVA_STREAM_MAGIC_0 = (byte) 0xAC;
+    private static final byte JAVA_STREAM_MAGIC_1 = (byte) 0xED;
+
+    private static final byte TYPE_STRING = 'S';
+    private static final byte TYPE_LONG = 'L';
+    private static final byte TYPE_INTEGER = 'I';
+    private static final byte TYPE_UUID = 'U';
+    private static final byte TYPE_OBJECT = 'O';
+
+    private Serializer<Object> fallbackSerializer;
+
+    public CompactPrincipalCollectionSerializer() {
+        this.fallbackSerializer = new DefaultSerializer<Object>();
+    }
+
+    public CompactPrincipalCollectionSerializer(Serializer<Object> fallbackSerializer) {
+        this.fallbackSerializer = fallbackSerializer;
+    }
+
+    /**
+     * Returns the serializer used for principals and collections that cannot be written in the compact format, or
+     * {@code null} if such principals are not supported.  Defaults to a {@link DefaultSerializer}.
+     *
+     * @return the serializer used for principals and collections that cannot be written in the compact format.
+     */
+    public Serializer<Object> getFallbackSerializer() {
+        return fallbackSerializer;
+    }
+
+    /**
+     * Sets the serializer used for principals and collections that cannot be written in the compact format;
+     * {@code null} makes serializing or deserializing such data fail with a {@link SerializationException}.
+     *
+     * @param fallbackSerializer the serializer used for principals and collections that cannot be written in the
+     *                           compact format.
+     */
+    public void setFallbackSerializer(Serializer<Object> fallbackSerializer) {
+        this.fallbackSerializer = fallbackSerializer;
+    }
+
+    public byte[] serialize(PrincipalCollection principals) throws SerializationException {
+        if (principals == null) {
+            String msg = "argument cannot be null.";
+            throw new IllegalArgumentException(msg);
+        }
+        Output out = new Output();
+        if (principals.getClass() != SimplePrincipalCollection.class) {
+            out.write(FORMAT_FALLBACK);
+            out.writeLengthPrefixed(ensureFallbackSerializer().serialize(principals));
+            return out.toByteArray();
+        }
+
+        out.write(FORMAT_COMPACT);
+        Set<String> realmNames = principals.getRealmNames();
+        if (realmNames == null || realmNames.isEmpty()) {
+            out.writeVarInt(0);
+            return out.toByteArray();
+        }
+        out.writeVarInt(realmNames.size());
+        for (String realmName : realmNames) {
+            Collection<?> realmPrincipals = principals.fromRealm(realmName);
+            out.writeString(realmName);
+            out.writeVarInt(realmPrincipals.size());
+            for (Object principal : realmPrincipals) {
+                writePrincipal(out, principal);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public PrincipalCollection deserialize(byte[] serialized) throws SerializationException {
+        if (serialized == null) {
+            String msg = "argument cannot be null.";
+            throw new IllegalArgumentException(msg);
+        }
+        if (serialized.length >= 2 && serialized[0] == JAVA_STREAM_MAGIC_0 && serialized[1] == JAVA_STREAM_MAGIC_1) {
+            return toPrincipalCollection(ensureFallbackSerializer().deserialize(serialized));
+        }
+        try {
+            Input in = new Input(serialized);
+            byte format = in.read();
+            if (format == FORMAT_FALLBACK) {
+                return toPrincipalCollection(ensureFallbackSerializer().deserialize(in.readBytes()));
+            }
+            if (format != FORMAT_COMPACT) {
+                throw new SerializationException("Unsupported principal collection format [" + format + "].");
+            }
+            SimplePrincipalCollection principals = new SimplePrincipalCollection();
+            int realmCount = in.readVarInt();
+            for (int i = 0; i < realmCount; i++) {
+                String realmName = in.readString();
+                int principalCount = in.readVarInt();
+                for (int j = 0; j < principalCount; j++) {
+                    principals.add(readPrincipal(in), realmName);
+                }
+            }
+            if (!in.isFinished()) {
+                throw new SerializationException("Unexpected trailing data after the serialized principal collection.");
+            }
+            return principals;
+        } catch (IndexOutOfBoundsException e) {
+            throw new SerializationException("Unable to deserialize argument byte array, the data is truncated.", e);
+        }
+    }
+
+    private void writePrincipal(Output out, Object principal) {
+        if (principal instanceof String) {
+            out.write(TYPE_STRING);
+            out.writeString((String) principal);
+        } else if (principal instanceof Long) {
+            out.write(TYPE_LONG);
+            out.writeVarLong(zigZag((Long) principal));
+        } else if (principal instanceof Integer) {
+            out.write(TYPE_INTEGER);
+            out.writeVarLong(zigZag((Integer) principal));
+        } else if (principal instanceof UUID) {
+            UUID uuid = (UUID) principal;
+            out.write(TYPE_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.write(TYPE_OBJECT);
+            out.writeLengthPrefixed(ensureFallbackSerializer().serialize(principal));
+        }
+    }
+
+    private Object readPrincipal(Input in) {
+        byte type = in.read();
+        switch (type) {
+            case TYPE_STRING:
+                return in.readString();
+            case TYPE_LONG:
+                return unZigZag(in.readVarLong());
+            case TYPE_INTEGER:
+                return (int) unZigZag(in.readVarLong());
+            case TYPE_UUID:
+                return new UUID(in.readLong(), in.readLong());
+            case TYPE_OBJECT:
+                return ensureFallbackSerializer().deserialize(in.readBytes());
+            default:
+                throw new SerializationException("Unsupported principal type [" + type + "].");
+        }
+    }
+
+    private Serializer<Object> ensureFallbackSerializer() {
+        Serializer<Object> serializer = getFallbackSerializer();
+        if (serializer == null) {
+            throw new SerializationException("No fallback serializer is configured, only SimplePrincipalCollection " +
+                    "instances containing String, Long, Integer and UUID principals are supported.");
+        }
+        return serializer;
+    }
+
+    private static PrincipalCollection toPrincipalCollection(Object deserialized) {
+        if (!(deserialized instanceof PrincipalCollection)) {
+            String type = deserialized != null ? deserialized.getClass().getName() : null;
+            throw new SerializationException("Deserialized object [" + type + "] is not a PrincipalCollection.");
+        }
+        return (PrincipalCollection) deserialized;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        private Output() {
+            super(64);
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        private void writeLengthPrefixed(byte[] bytes) {
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        private void writeString(String value) {
+            writeLengthPrefixed(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        private Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private byte read() {
+            return bytes[position++];
+        }
+
+        private int readVarInt() {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new SerializationException("Invalid length [" + value + "].");
+            }
+            return (int) value;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed variable length number.");
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (read() & 0xFF);
+            }
+            return value;
+        }
+
+        private byte[] readBytes() {
+            int length = readVarInt();
+            if (length > bytes.length - position) {
+                throw new IndexOutOfBoundsException();
+            }
+            byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return value;
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            if (length > bytes.length - position) {
+                throw new IndexOutOfBoundsException();
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private boolean isFinished() {
+            return position == bytes.length;
+        }
+    }
+}
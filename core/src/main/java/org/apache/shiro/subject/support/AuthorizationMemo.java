@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.subject.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the outcome of the single permission and role checks performed by one {@link DelegatingSubject}, so that
+ * repeating the same question during a request does not go through the {@code SecurityManager} and its realms again.
+ * <p/>
+ * A memo belongs to a single subject instance and only lives as long as that instance, which for web applications is
+ * the current request.  The owning subject {@link #clear() clears} it whenever its identity changes (login, logout,
+ * {@code runAs} and {@code releaseRunAs}).  In addition, all memos are discarded on their next use after
+ * {@link #invalidateAll()} is called, which {@link org.apache.shiro.realm.AuthorizingRealm AuthorizingRealm} does
+ * whenever cached authorization data is cleared.
+ *
+ * @see DelegatingSubject#setAuthorizationMemoEnabled(boolean)
+ * @since 2.0
+ */
+public final class AuthorizationMemo {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private volatile Decisions decisions = new Decisions(GENERATION.get());
+
+    /**
+     * Discards the decisions remembered by all memos, for example because the authorization data of an account has
+     * changed.  Memos are invalidated lazily, on their next use.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Discards the decisions remembered by this memo.
+     */
+    public void clear() {
+        this.decisions = new Decisions(GENERATION.get());
+    }
+
+    /**
+     * Returns a mark identifying the decisions currently remembered, to be passed back to the {@code put} methods
+     * once a decision has been made.
+     */
+    Object mark() {
+        return current();
+    }
+
+    Boolean getPermission(Object permission) {
+        return current().permissions.get(permission);
+    }
+
+    void putPermission(Object mark, Object permission, boolean permitted) {
+        if (isCurrent(mark)) {
+            ((Decisions) mark).permissions.put(permission, permitted);
+        }
+    }
+
+    Boolean getRole(String role) {
+        return current().roles.get(role);
+    }
+
+    void putRole(Object mark, String role, boolean hasRole) {
+        if (isCurrent(mark)) {
+            ((Decisions) mark).roles.put(role, hasRole);
+        }
+    }
+
+    // a decision made while the memo was cleared or invalidated must not outlive that:
+    private boolean isCurrent(Object mark) {
+        return mark == this.decisions && ((Decisions) mark).generation == GENERATION.get();
+    }
+
+    private Decisions current() {
+        Decisions decisions = this.decisions;
+        long generation = GENERATION.get();
+        if (decisions.generation != generation) {
+            decisions = new Decisions(generation);
+            this.decisions = decisions;
+        }
+        return decisions;
+    }
+
+    private static final class Decisions {
+
+        private final long generation;
+        private final ConcurrentMap<Object, Boolean> permissions = new ConcurrentHashMap<Object, Boolean>();
+        private final ConcurrentMap<String, Boolean> roles = new ConcurrentHashMap<String, Boolean>();
+
+        private Decisions(long generation) {
+            this.generation = generation;
+        }
+    }
+}
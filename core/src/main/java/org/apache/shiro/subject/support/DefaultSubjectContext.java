@@ -78,6 +78,13 @@ public class DefaultSubjectContext extends MapContext implements SubjectContext
 
     private static final transient Logger log = LoggerFactory.getLogger(DefaultSubjectContext.class);
 
+    //the session attributes read while resolving, so that each is read at most once (since 2.0):
+    private transient Session storedStateSession;
+    private transient boolean storedPrincipalsRead;
+    private transient PrincipalCollection storedPrincipals;
+    private transient boolean storedAuthenticatedRead;
+    private transient Boolean storedAuthenticated;
+
     public DefaultSubjectContext() {
         super();
     }
@@ -164,7 +171,7 @@ public class DefaultSubjectContext extends MapContext implements SubjectContext
             //try the session:
             Session session = resolveSession();
             if (session != null) {
-                principals = (PrincipalCollection) session.getAttribute(PRINCIPALS_SESSION_KEY);
+                principals = getStoredPrincipals(session);
             }
         }
 
@@ -222,7 +229,7 @@ public class DefaultSubjectContext extends MapContext implements SubjectContext
             //fall back to a session check:
             Session session = resolveSession();
             if (session != null) {
-                Boolean sessionAuthc = (Boolean) session.getAttribute(AUTHENTICATED_SESSION_KEY);
+                Boolean sessionAuthc = getStoredAuthenticated(session);
                 authc = sessionAuthc != null && sessionAuthc;
             }
         }
@@ -230,6 +237,50 @@ public class DefaultSubjectContext extends MapContext implements SubjectContext
         return authc;
     }
 
+    private void ensureStoredStateSession(Session session) {
+        if (session != storedStateSession) {
+            storedStateSession = session;
+            storedPrincipalsRead = false;
+            storedPrincipals = null;
+            storedAuthenticatedRead = false;
+            storedAuthenticated = null;
+        }
+    }
+
+    private PrincipalCollection getStoredPrincipals(Session session) {
+        ensureStoredStateSession(session);
+        if (!storedPrincipalsRead) {
+            storedPrincipals = (PrincipalCollection) session.getAttribute(PRINCIPALS_SESSION_KEY);
+            storedPrincipalsRead = true;
+        }
+        return storedPrincipals;
+    }
+
+    private Boolean getStoredAuthenticated(Session session) {
+        ensureStoredStateSession(session);
+        if (!storedAuthenticatedRead) {
+            storedAuthenticated = (Boolean) session.getAttribute(AUTHENTICATED_SESSION_KEY);
+            storedAuthenticatedRead = true;
+        }
+        return storedAuthenticated;
+    }
+
+    /**
+     * Returns the principals and authentication state stored in the {@link #resolveSession() resolved session}, if
+     * both were read from it while {@link #resolvePrincipals() resolving principals} and
+     * {@link #resolveAuthenticated() authentication state}, or {@code null} otherwise.
+     *
+     * @return the state stored in the resolved session, or {@code null} if it was not read from the session.
+     * @since 2.0
+     */
+    public StoredSubjectState getStoredSubjectState() {
+        Session session = resolveSession();
+        if (session == null || session != storedStateSession || !storedPrincipalsRead || !storedAuthenticatedRead) {
+            return null;
+        }
+        return new StoredSubjectState(storedPrincipals, storedAuthenticated);
+    }
+
     public AuthenticationInfo getAuthenticationInfo() {
         return getTypedValue(AUTHENTICATION_INFO, AuthenticationInfo.class);
     }
@@ -40,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 import java.util.concurrent.Callable;
@@ -87,6 +88,16 @@ public class DelegatingSubject implements Subject {
 
     protected transient SecurityManager securityManager;
 
+    private volatile AuthorizationMemo authorizationMemo;
+
+    /**
+     * The 'run as' principals stack read from or last written to the session, {@code null} if it has not been read
+     * yet.  Subject instances are short lived, so the stack is only read from the session once per instance.
+     */
+    private transient volatile List<PrincipalCollection> runAsPrincipalsStack;
+
+    private transient volatile StoredState storedState;
+
     public DelegatingSubject(SecurityManager securityManager) {
         this(null, false, null, null, securityManager);
     }
@@ -123,6 +134,114 @@ public class DelegatingSubject implements Subject {
         return securityManager;
     }
 
+    /**
+     * Returns {@code true} if this Subject remembers the outcome of its single permission and role checks,
+     * {@code false} otherwise.  Disabled by default.
+     *
+     * @return {@code true} if this Subject remembers the outcome of its single permission and role checks.
+     * @see AuthorizationMemo
+     * @since 2.0
+     */
+    public boolean isAuthorizationMemoEnabled() {
+        return this.authorizationMemo != null;
+    }
+
+    /**
+     * Sets whether this Subject remembers the outcome of its {@link #isPermitted(String)},
+     * {@link #isPermitted(Permission)}, {@link #hasRole(String)}, {@link #checkPermission(String)},
+     * {@link #checkPermission(Permission)} and {@link #checkRole(String)} calls for as long as this instance lives,
+     * instead of asking the {@code SecurityManager} every time.
+     * <p/>
+     * Remembered decisions are discarded when this Subject logs in or out, when it assumes or releases a 'run as'
+     * identity, and whenever cached authorization data is cleared in an
+     * {@link org.apache.shiro.realm.AuthorizingRealm AuthorizingRealm}.  Only enable this for Subject instances that
+     * are short lived, such as the Subject built for each web request, because changes to authorization data that
+     * do not go through the realms are not noticed.
+     *
+     * @param authorizationMemoEnabled whether this Subject remembers the outcome of its single permission and role
+     *                                 checks.
+     * @see AuthorizationMemo
+     * @since 2.0
+     */
+    public void setAuthorizationMemoEnabled(boolean authorizationMemoEnabled) {
+        if (authorizationMemoEnabled != isAuthorizationMemoEnabled()) {
+            this.authorizationMemo = authorizationMemoEnabled ? new AuthorizationMemo() : null;
+        }
+    }
+
+    /**
+     * Records the principals and authentication state known to be stored in this Subject's current session, so that
+     * a {@link org.apache.shiro.mgt.SubjectDAO SubjectDAO} can skip saving this Subject while its state does not
+     * change.  The recorded state only applies to the current session; it is discarded as soon as this Subject's
+     * session changes.
+     *
+     * @param storedSubjectState the state known to be stored in this Subject's current session, or {@code null} if
+     *                           it is not known.
+     * @see #isStoredSubjectStateCurrent()
+     * @since 2.0
+     */
+    public void setStoredSubjectState(StoredSubjectState storedSubjectState) {
+        Session session = this.session;
+        this.storedState = storedSubjectState != null && session != null
+                ? new StoredState(session, storedSubjectState) : null;
+    }
+
+    /**
+     * Returns {@code true} if this Subject's principals and authentication state are known to be stored in its
+     * current session already, {@code false} if they are not or if the stored state is not known.
+     * <p/>
+     * The principals compared are the Subject's own principals, not any assumed 'run as' identity, so that the
+     * check does not need to read the 'run as' stack from the session.
+     *
+     * @return {@code true} if this Subject's state is known to be stored in its current session already.
+     * @see #setStoredSubjectState(StoredSubjectState)
+     * @since 2.0
+     */
+    public boolean isStoredSubjectStateCurrent() {
+        StoredState stored = this.storedState;
+        if (stored == null || stored.session != this.session) {
+            return false;
+        }
+        PrincipalCollection current = !isEmpty(this.principals) ? this.principals : getPrincipals();
+        return stored.state.matches(current, this.authenticated && !isEmpty(current));
+    }
+
+    private void clearAuthorizationMemo() {
+        AuthorizationMemo memo = this.authorizationMemo;
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    private Object markAuthorizationMemo() {
+        AuthorizationMemo memo = this.authorizationMemo;
+        return memo != null ? memo.mark() : null;
+    }
+
+    private Boolean getMemoizedPermission(Object permission) {
+        AuthorizationMemo memo = this.authorizationMemo;
+        return memo != null && permission != null ? memo.getPermission(permission) : null;
+    }
+
+    private void memoizePermission(Object mark, Object permission, boolean permitted) {
+        AuthorizationMemo memo = this.authorizationMemo;
+        if (memo != null && mark != null && permission != null) {
+            memo.putPermission(mark, permission, permitted);
+        }
+    }
+
+    private Boolean getMemoizedRole(String role) {
+        AuthorizationMemo memo = this.authorizationMemo;
+        return memo != null && role != null ? memo.getRole(role) : null;
+    }
+
+    private void memoizeRole(Object mark, String role, boolean hasRole) {
+        AuthorizationMemo memo = this.authorizationMemo;
+        if (memo != null && mark != null && role != null) {
+            memo.putRole(mark, role, hasRole);
+        }
+    }
+
     private static boolean isEmpty(PrincipalCollection pc) {
         return pc == null || pc.isEmpty();
     }
@@ -160,11 +279,31 @@ public class DelegatingSubject implements Subject {
     }
 
     public boolean isPermitted(String permission) {
-        return hasPrincipals() && securityManager.isPermitted(getPrincipals(), permission);
+        if (!hasPrincipals()) {
+            return false;
+        }
+        Boolean memoized = getMemoizedPermission(permission);
+        if (memoized != null) {
+            return memoized;
+        }
+        Object mark = markAuthorizationMemo();
+        boolean permitted = securityManager.isPermitted(getPrincipals(), permission);
+        memoizePermission(mark, permission, permitted);
+        return permitted;
     }
 
     public boolean isPermitted(Permission permission) {
-        return hasPrincipals() && securityManager.isPermitted(getPrincipals(), permission);
+        if (!hasPrincipals()) {
+            return false;
+        }
+        Boolean memoized = getMemoizedPermission(permission);
+        if (memoized != null) {
+            return memoized;
+        }
+        Object mark = markAuthorizationMemo();
+        boolean permitted = securityManager.isPermitted(getPrincipals(), permission);
+        memoizePermission(mark, permission, permitted);
+        return permitted;
     }
 
     public boolean[] isPermitted(String... permissions) {
@@ -207,12 +346,23 @@ public class DelegatingSubject implements Subject {
 
     public void checkPermission(String permission) throws AuthorizationException {
         assertAuthzCheckPossible();
+        //denials always go through the SecurityManager so that it raises the appropriate exception:
+        if (Boolean.TRUE.equals(getMemoizedPermission(permission))) {
+            return;
+        }
+        Object mark = markAuthorizationMemo();
         securityManager.checkPermission(getPrincipals(), permission);
+        memoizePermission(mark, permission, true);
     }
 
     public void checkPermission(Permission permission) throws AuthorizationException {
         assertAuthzCheckPossible();
+        if (Boolean.TRUE.equals(getMemoizedPermission(permission))) {
+            return;
+        }
+        Object mark = markAuthorizationMemo();
         securityManager.checkPermission(getPrincipals(), permission);
+        memoizePermission(mark, permission, true);
     }
 
     public void checkPermissions(String... permissions) throws AuthorizationException {
@@ -226,7 +376,17 @@ public class DelegatingSubject implements Subject {
     }
 
     public boolean hasRole(String roleIdentifier) {
-        return hasPrincipals() && securityManager.hasRole(getPrincipals(), roleIdentifier);
+        if (!hasPrincipals()) {
+            return false;
+        }
+        Boolean memoized = getMemoizedRole(roleIdentifier);
+        if (memoized != null) {
+            return memoized;
+        }
+        Object mark = markAuthorizationMemo();
+        boolean hasRole = securityManager.hasRole(getPrincipals(), roleIdentifier);
+        memoizeRole(mark, roleIdentifier, hasRole);
+        return hasRole;
     }
 
     public boolean[] hasRoles(List<String> roleIdentifiers) {
@@ -243,7 +403,12 @@ public class DelegatingSubject implements Subject {
 
     public void checkRole(String role) throws AuthorizationException {
         assertAuthzCheckPossible();
+        if (Boolean.TRUE.equals(getMemoizedRole(role))) {
+            return;
+        }
+        Object mark = markAuthorizationMemo();
         securityManager.checkRole(getPrincipals(), role);
+        memoizeRole(mark, role, true);
     }
 
     public void checkRoles(String... roleIdentifiers) throws AuthorizationException {
@@ -292,6 +457,8 @@ public class DelegatingSubject implements Subject {
         } else {
             this.session = null;
         }
+        this.runAsPrincipalsStack = null;
+        clearAuthorizationMemo();
     }
 
     public boolean isAuthenticated() {
@@ -368,8 +535,10 @@ public class DelegatingSubject implements Subject {
             this.securityManager.logout(this);
         } finally {
             this.session = null;
+            this.runAsPrincipalsStack = null;
             this.principals = null;
             this.authenticated = false;
+            clearAuthorizationMemo();
             //Don't set securityManager to null here - the Subject can still be
             //used, it is just considered anonymous at this point.  The SecurityManager instance is
             //necessary if the subject would log in again or acquire a new session.  This is in response to
@@ -380,6 +549,7 @@ public class DelegatingSubject implements Subject {
 
     private void sessionStopped() {
         this.session = null;
+        this.runAsPrincipalsStack = null;
     }
 
     public <V> V execute(Callable<V> callable) throws ExecutionException {
@@ -411,6 +581,17 @@ public class DelegatingSubject implements Subject {
         return new SubjectRunnable(this, runnable);
     }
 
+    private static final class StoredState {
+
+        private final Session session;
+        private final StoredSubjectState state;
+
+        private StoredState(Session session, StoredSubjectState state) {
+            this.session = session;
+            this.state = state;
+        }
+    }
+
     private class StoppingAwareProxiedSession extends ProxiedSession {
 
         private final DelegatingSubject owner;
@@ -440,6 +621,7 @@ public class DelegatingSubject implements Subject {
             throw new IllegalStateException(msg);
         }
         pushIdentity(principals);
+        clearAuthorizationMemo();
     }
 
     public boolean isRunAs() {
@@ -464,23 +646,44 @@ public class DelegatingSubject implements Subject {
     }
 
     public PrincipalCollection releaseRunAs() {
-        return popIdentity();
+        PrincipalCollection popped = popIdentity();
+        clearAuthorizationMemo();
+        return popped;
     }
 
-    @SuppressWarnings("unchecked")
     private List<PrincipalCollection> getRunAsPrincipalsStack() {
+        List<PrincipalCollection> stack = this.runAsPrincipalsStack;
+        if (stack == null) {
+            stack = loadRunAsPrincipalsStack();
+            this.runAsPrincipalsStack = stack;
+        }
+        return stack;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PrincipalCollection> loadRunAsPrincipalsStack() {
         Session session = getSession(false);
         if (session != null) {
-            return (List<PrincipalCollection>) session.getAttribute(RUN_AS_PRINCIPALS_SESSION_KEY);
+            List<PrincipalCollection> stack =
+                    (List<PrincipalCollection>) session.getAttribute(RUN_AS_PRINCIPALS_SESSION_KEY);
+            if (!CollectionUtils.isEmpty(stack)) {
+                return stack;
+            }
         }
-        return null;
+        return Collections.emptyList();
     }
 
     private void clearRunAsIdentities() {
+        List<PrincipalCollection> stack = this.runAsPrincipalsStack;
+        if (stack != null && stack.isEmpty()) {
+            //known to be absent from the session, nothing to remove:
+            return;
+        }
         Session session = getSession(false);
         if (session != null) {
             session.removeAttribute(RUN_AS_PRINCIPALS_SESSION_KEY);
         }
+        this.runAsPrincipalsStack = Collections.emptyList();
     }
 
     private void pushIdentity(PrincipalCollection principals) throws NullPointerException {
@@ -488,13 +691,11 @@ public class DelegatingSubject implements Subject {
             String msg = "Specified Subject principals cannot be null or empty for 'run as' functionality.";
             throw new NullPointerException(msg);
         }
-        List<PrincipalCollection> stack = getRunAsPrincipalsStack();
-        if (stack == null) {
-            stack = new CopyOnWriteArrayList<PrincipalCollection>();
-        }
+        List<PrincipalCollection> stack = new CopyOnWriteArrayList<PrincipalCollection>(getRunAsPrincipalsStack());
         stack.add(0, principals);
         Session session = getSession();
         session.setAttribute(RUN_AS_PRINCIPALS_SESSION_KEY, stack);
+        this.runAsPrincipalsStack = stack;
     }
 
     private PrincipalCollection popIdentity() {
@@ -502,14 +703,16 @@ public class DelegatingSubject implements Subject {
 
         List<PrincipalCollection> stack = getRunAsPrincipalsStack();
         if (!CollectionUtils.isEmpty(stack)) {
+            stack = new CopyOnWriteArrayList<PrincipalCollection>(stack);
             popped = stack.remove(0);
-            Session session;
             if (!CollectionUtils.isEmpty(stack)) {
                 //persist the changed stack to the session
-                session = getSession();
+                Session session = getSession();
                 session.setAttribute(RUN_AS_PRINCIPALS_SESSION_KEY, stack);
+                this.runAsPrincipalsStack = stack;
             } else {
                 //stack is empty, remove it from the session:
+                this.runAsPrincipalsStack = null;
                 clearRunAsIdentities();
             }
         }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.subject.support;
+
+import org.apache.shiro.subject.PrincipalCollection;
+
+/**
+ * The principals and authentication state known to be stored in a {@code Subject}'s session, as last read from or
+ * written to the {@link DefaultSubjectContext#PRINCIPALS_SESSION_KEY PRINCIPALS_SESSION_KEY} and
+ * {@link DefaultSubjectContext#AUTHENTICATED_SESSION_KEY AUTHENTICATED_SESSION_KEY} session attributes.
+ * <p/>
+ * A {@link DelegatingSubject} carries this state so that the {@link org.apache.shiro.mgt.DefaultSubjectDAO
+ * DefaultSubjectDAO} does not need to read or write the session when the Subject is saved without its principals or
+ * authentication state having changed.
+ *
+ * @see DelegatingSubject#setStoredSubjectState(StoredSubjectState)
+ * @since 2.0
+ */
+public final class StoredSubjectState {
+
+    private final PrincipalCollection principals;
+
+    private final Boolean authenticated;
+
+    /**
+     * Creates a new instance with the values of the session attributes.
+     *
+     * @param principals    the value of the principals session attribute, may be {@code null}
+     * @param authenticated the value of the authenticated session attribute, may be {@code null}
+     */
+    public StoredSubjectState(PrincipalCollection principals, Boolean authenticated) {
+        this.principals = principals;
+        this.authenticated = authenticated;
+    }
+
+    /**
+     * Returns the value of the principals session attribute, or {@code null} if the attribute is not set.
+     *
+     * @return the value of the principals session attribute, or {@code null} if the attribute is not set.
+     */
+    public PrincipalCollection getPrincipals() {
+        return principals;
+    }
+
+    /**
+     * Returns the value of the authenticated session attribute, or {@code null} if the attribute is not set.
+     *
+     * @return the value of the authenticated session attribute, or {@code null} if the attribute is not set.
+     */
+    public Boolean getAuthenticated() {
+        return authenticated;
+    }
+
+    /**
+     * Returns {@code true} if saving a Subject with the given principals and authentication state would leave the
+     * session attributes unchanged, {@code false} otherwise.
+     *
+     * @param currentPrincipals the principals that would be saved
+     * @param authenticated     whether the Subject is authenticated
+     * @return {@code true} if saving the given state would leave the session attributes unchanged.
+     */
+    public boolean matches(PrincipalCollection currentPrincipals, boolean authenticated) {
+        boolean principalsMatch = currentPrincipals == null || currentPrincipals.isEmpty()
+                ? principals == null || principals.isEmpty()
+                : currentPrincipals.equals(principals);
+        return principalsMatch && (authenticated ? Boolean.TRUE.equals(this.authenticated) : this.authenticated == null);
+    }
+}
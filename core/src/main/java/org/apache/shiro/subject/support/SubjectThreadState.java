@@ -20,12 +20,10 @@ package org.apache.shiro.subject.support;
 
 import org.apache.shiro.mgt.SecurityManager;
 import org.apache.shiro.subject.Subject;
-import org.apache.shiro.util.CollectionUtils;
 import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadResources;
 import org.apache.shiro.util.ThreadState;
 
-import java.util.Map;
-
 /**
  * Manages thread-state for {@link Subject Subject} access (supporting
  * {@code SecurityUtils.}{@link org.apache.shiro.SecurityUtils#getSubject() getSubject()} calls)
@@ -41,10 +39,12 @@ import java.util.Map;
  */
 public class SubjectThreadState implements ThreadState {
 
-    private Map<Object, Object> originalResources;
+    private ThreadResources originalResources;
 
     private final Subject subject;
     private transient SecurityManager securityManager;
+    //the resources to bind, created once so that binding and restoring only swap references:
+    private transient ThreadResources resources;
 
     /**
      * Creates a new {@code SubjectThreadState} that will bind and unbind the specified {@code Subject} to the
@@ -66,6 +66,9 @@ public class SubjectThreadState implements ThreadState {
             securityManager = ThreadContext.getSecurityManager();
         }
         this.securityManager = securityManager;
+        if (securityManager != null) {
+            this.resources = ThreadResources.of(subject, securityManager);
+        }
     }
 
     /**
@@ -83,22 +86,17 @@ public class SubjectThreadState implements ThreadState {
      * {@code SecurityUtils.}{@link org.apache.shiro.SecurityUtils#getSubject() getSubject()} calls that might occur
      * during the thread's execution.
      * <p/>
-     * Prior to binding, the {@code ThreadContext}'s existing {@link ThreadContext#getResources() resources} are
+     * Prior to binding, the {@code ThreadContext}'s existing {@link ThreadContext#capture() resources} are
      * retained so they can be restored later via the {@link #restore restore} call.
      */
     public void bind() {
-        SecurityManager securityManager = this.securityManager;
-        if ( securityManager == null ) {
+        ThreadResources resources = this.resources;
+        if (resources == null) {
             //try just in case the constructor didn't find one at the time:
-            securityManager = ThreadContext.getSecurityManager();
-        }
-        this.originalResources = ThreadContext.getResources();
-        ThreadContext.remove();
-
-        ThreadContext.bind(this.subject);
-        if (securityManager != null) {
-            ThreadContext.bind(securityManager);
+            resources = ThreadResources.of(this.subject, ThreadContext.getSecurityManager());
         }
+        this.originalResources = ThreadContext.capture();
+        ThreadContext.restore(resources);
     }
 
     /**
@@ -107,10 +105,7 @@ public class SubjectThreadState implements ThreadState {
      * {@code ThreadContext} to ensure the thread state is exactly as it was before binding.
      */
     public void restore() {
-        ThreadContext.remove();
-        if (!CollectionUtils.isEmpty(this.originalResources)) {
-            ThreadContext.setResources(this.originalResources);
-        }
+        ThreadContext.restore(this.originalResources);
     }
 
     /**
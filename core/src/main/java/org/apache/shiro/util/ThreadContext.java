@@ -24,7 +24,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
 
@@ -32,8 +31,10 @@ import java.util.Map;
  * A ThreadContext provides a means of binding and unbinding objects to the
  * current thread based on key/value pairs.
  * <p/>
- * <p>An internal {@link java.util.HashMap} is used to maintain the key/value pairs
- * for each thread.</p>
+ * <p>The key/value pairs of each thread are held in an immutable {@link ThreadResources} instance, which keeps the
+ * {@link #getSubject() Subject} and {@link #getSecurityManager() SecurityManager} in dedicated fields.  How that
+ * instance is associated with the thread, and whether threads inherit it, is determined by the
+ * {@link #setStorage(ThreadContextStorage) storage}.</p>
  * <p/>
  * <p>If the desired behavior is to ensure that bound data is not shared across
  * threads in a pooled or reusable threaded environment, the application (or more likely a framework) must
@@ -53,7 +54,7 @@ public abstract class ThreadContext {
     public static final String SECURITY_MANAGER_KEY = ThreadContext.class.getName() + "_SECURITY_MANAGER_KEY";
     public static final String SUBJECT_KEY = ThreadContext.class.getName() + "_SUBJECT_KEY";
 
-    private static final ThreadLocal<Map<Object, Object>> resources = new InheritableThreadLocalMap<Map<Object, Object>>();
+    private static volatile ThreadContextStorage storage = new ThreadLocalContextStorage(true);
 
     /**
      * Default no-argument constructor.
@@ -68,10 +69,11 @@ public abstract class ThreadContext {
      * @return the map of bound resources
      */
     public static Map<Object, Object> getResources() {
-        if (resources.get() == null){
+        ThreadResources resources = storage.get();
+        if (resources == null || resources.isEmpty()) {
             return Collections.emptyMap();
         } else {
-            return new HashMap<Object, Object>(resources.get());
+            return resources.toMap();
         }
     }
 
@@ -87,9 +89,61 @@ public abstract class ThreadContext {
         if (CollectionUtils.isEmpty(newResources)) {
             return;
         }
-        ensureResourcesInitialized();
-        resources.get().clear();
-        resources.get().putAll(newResources);
+        storage.set(ThreadResources.of(newResources));
+    }
+
+    /**
+     * Returns the resources currently bound to the thread, {@link ThreadResources#EMPTY empty} if there are none.
+     * As resources are immutable, this does not copy anything; the returned instance can be handed to
+     * {@link #restore(ThreadResources)} later, on this or any other thread, to bind exactly these resources again.
+     *
+     * @return the resources currently bound to the thread.
+     * @since 2.0
+     */
+    public static ThreadResources capture() {
+        ThreadResources resources = storage.get();
+        return resources != null ? resources : ThreadResources.EMPTY;
+    }
+
+    /**
+     * Replaces all resources bound to the thread with the given ones, typically obtained via {@link #capture()}.
+     * Restoring {@code null} or {@link ThreadResources#isEmpty() empty} resources has the same effect as
+     * {@link #remove()}.
+     *
+     * @param resources the resources to bind to the thread
+     * @since 2.0
+     */
+    public static void restore(ThreadResources resources) {
+        if (resources == null || resources.isEmpty()) {
+            storage.remove();
+        } else {
+            storage.set(resources);
+        }
+    }
+
+    /**
+     * Returns the strategy associating resources with threads, by default a {@link ThreadLocalContextStorage} that
+     * lets threads inherit the resources of the thread that created them.
+     *
+     * @return the strategy associating resources with threads.
+     * @since 2.0
+     */
+    public static ThreadContextStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Sets the strategy associating resources with threads.  This is a global setting that should be made once, when
+     * the application starts; resources bound before the change are no longer visible afterwards.
+     *
+     * @param storage the strategy associating resources with threads
+     * @since 2.0
+     */
+    public static void setStorage(ThreadContextStorage storage) {
+        if (storage == null) {
+            throw new IllegalArgumentException("storage argument cannot be null.");
+        }
+        ThreadContext.storage = storage;
     }
 
     /**
@@ -102,14 +156,8 @@ public abstract class ThreadContext {
      * @since 1.0
      */
     private static Object getValue(Object key) {
-        Map<Object, Object> perThreadResources = resources.get();
-        return perThreadResources != null ? perThreadResources.get(key) : null;
-    }
-
-    private static void ensureResourcesInitialized(){
-        if (resources.get() == null){
-           resources.set(new HashMap<Object, Object>());
-        }
+        ThreadResources resources = storage.get();
+        return resources != null ? resources.get(key) : null;
     }
 
     /**
@@ -121,11 +169,6 @@ public abstract class ThreadContext {
      *         no value exists for the specified <code>key</code>
      */
     public static Object get(Object key) {
-        if (log.isTraceEnabled()) {
-            String msg = "get() - in thread [" + Thread.currentThread().getName() + "]";
-            log.trace(msg);
-        }
-
         Object value = getValue(key);
         if ((value != null) && log.isTraceEnabled()) {
             String msg = "Retrieved value of type [" + value.getClass().getName() + "] for key [" +
@@ -160,8 +203,7 @@ public abstract class ThreadContext {
             return;
         }
 
-        ensureResourcesInitialized();
-        resources.get().put(key, value);
+        storage.set(capture().with(key, value));
 
         if (log.isTraceEnabled()) {
             String msg = "Bound value of type [" + value.getClass().getName() + "] for key [" +
@@ -179,8 +221,11 @@ public abstract class ThreadContext {
      *         under the specified <tt>key</tt> name.
      */
     public static Object remove(Object key) {
-        Map<Object, Object> perThreadResources = resources.get();
-        Object value = perThreadResources != null ? perThreadResources.remove(key) : null;
+        ThreadResources resources = storage.get();
+        Object value = resources != null ? resources.get(key) : null;
+        if (value != null) {
+            restore(resources.with(key, null));
+        }
 
         if ((value != null) && log.isTraceEnabled()) {
             String msg = "Removed value of type [" + value.getClass().getName() + "] for key [" +
@@ -200,7 +245,7 @@ public abstract class ThreadContext {
      * @since 1.0
      */
     public static void remove() {
-        resources.remove();
+        storage.remove();
     }
 
     /**
@@ -219,7 +264,8 @@ public abstract class ThreadContext {
      * @since 0.9
      */
     public static SecurityManager getSecurityManager() {
-        return (SecurityManager) get(SECURITY_MANAGER_KEY);
+        ThreadResources resources = storage.get();
+        return resources != null ? (SecurityManager) resources.getSecurityManager() : null;
     }
 
 
@@ -278,7 +324,8 @@ public abstract class ThreadContext {
      * @since 0.2
      */
     public static Subject getSubject() {
-        return (Subject) get(SUBJECT_KEY);
+        ThreadResources resources = storage.get();
+        return resources != null ? (Subject) resources.getSubject() : null;
     }
 
 
@@ -320,24 +367,4 @@ public abstract class ThreadContext {
     public static Subject unbindSubject() {
         return (Subject) remove(SUBJECT_KEY);
     }
-    
-    private static final class InheritableThreadLocalMap<T extends Map<Object, Object>> extends InheritableThreadLocal<Map<Object, Object>> {
-
-        /**
-         * This implementation was added to address a
-         * <a href="http://jsecurity.markmail.org/search/?q=#query:+page:1+mid:xqi2yxurwmrpqrvj+state:results">
-         * user-reported issue</a>.
-         * @param parentValue the parent value, a HashMap as defined in the {@link #initialValue()} method.
-         * @return the HashMap to be used by any parent-spawned child threads (a clone of the parent HashMap).
-         */
-        @SuppressWarnings({"unchecked"})
-        protected Map<Object, Object> childValue(Map<Object, Object> parentValue) {
-            if (parentValue != null) {
-                return (Map<Object, Object>) ((HashMap<Object, Object>) parentValue).clone();
-            } else {
-                return null;
-            }
-        }
-    }
 }
-
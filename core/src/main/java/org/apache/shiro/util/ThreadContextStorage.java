@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.util;
+
+/**
+ * Strategy used by the {@link ThreadContext} to associate {@link ThreadResources} with the current thread, which
+ * determines how bound resources propagate to other threads.
+ * <p/>
+ * Shiro ships with a {@link ThreadLocalContextStorage}, which either lets threads inherit the resources of the thread
+ * that created them (the default, matching earlier Shiro versions) or keeps resources strictly per thread.  The latter
+ * suits virtual threads and thread pools best, and is the scoped-value style of propagation: resources reach another
+ * thread only when they are handed over explicitly, either by
+ * {@link org.apache.shiro.subject.Subject#associateWith(java.util.concurrent.Callable) associating} a task with a
+ * {@code Subject}, or by {@link ThreadContext#capture() capturing} the resources and
+ * {@link ThreadContext#restore restoring} them for the duration of the task.
+ *
+ * @see ThreadContext#setStorage(ThreadContextStorage)
+ * @since 2.0
+ */
+public interface ThreadContextStorage {
+
+    /**
+     * Returns the resources associated with the current thread, or {@code null} if there are none.
+     *
+     * @return the resources associated with the current thread, or {@code null} if there are none.
+     */
+    ThreadResources get();
+
+    /**
+     * Associates the given resources with the current thread, replacing any resources associated before.
+     *
+     * @param resources the resources to associate with the current thread, never {@code null}
+     */
+    void set(ThreadResources resources);
+
+    /**
+     * Removes any resources associated with the current thread.
+     */
+    void remove();
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.util;
+
+/**
+ * {@link ThreadContextStorage} backed by a {@link ThreadLocal}, or by an {@link InheritableThreadLocal} so that
+ * threads start out with the resources of the thread that created them.
+ * <p/>
+ * Because {@link ThreadResources} are immutable, inheriting threads share the parent's instance instead of copying
+ * it, and binding a resource in either thread never affects the other one.
+ *
+ * @since 2.0
+ */
+public class ThreadLocalContextStorage implements ThreadContextStorage {
+
+    private final ThreadLocal<ThreadResources> resources;
+    private final boolean inheritable;
+
+    /**
+     * Creates a storage whose resources are not inherited by other threads.
+     */
+    public ThreadLocalContextStorage() {
+        this(false);
+    }
+
+    /**
+     * Creates a storage whose resources are inherited by threads created by a thread with bound resources if
+     * {@code inheritable} is {@code true}, or are never visible to other threads otherwise.
+     *
+     * @param inheritable whether threads inherit the resources of the thread that created them
+     */
+    public ThreadLocalContextStorage(boolean inheritable) {
+        this.inheritable = inheritable;
+        this.resources = inheritable ? new InheritableThreadLocal<ThreadResources>() : new ThreadLocal<ThreadResources>();
+    }
+
+    /**
+     * Returns {@code true} if threads inherit the resources of the thread that created them, {@code false}
+     * otherwise.
+     *
+     * @return {@code true} if threads inherit the resources of the thread that created them.
+     */
+    public boolean isInheritable() {
+        return inheritable;
+    }
+
+    public ThreadResources get() {
+        return resources.get();
+    }
+
+    public void set(ThreadResources resources) {
+        this.resources.set(resources);
+    }
+
+    public void remove() {
+        resources.remove();
+    }
+}
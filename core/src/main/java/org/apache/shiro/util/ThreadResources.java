@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable set of resources bound to a thread by the {@link ThreadContext}.
+ * <p/>
+ * The {@link ThreadContext#SUBJECT_KEY Subject} and {@link ThreadContext#SECURITY_MANAGER_KEY SecurityManager}, which
+ * are looked up on virtually every request, are held in dedicated fields; any other resource lives in a side map that
+ * is only created when such a resource is bound.  Binding or unbinding a resource creates a new instance, so an
+ * instance obtained via {@link ThreadContext#capture()} can be kept and {@link ThreadContext#restore restored} later
+ * without copying, and threads inheriting the resources can share the same instance.
+ *
+ * @see ThreadContext#capture()
+ * @see ThreadContext#restore(ThreadResources)
+ * @since 2.0
+ */
+public final class ThreadResources {
+
+    /**
+     * Resources with nothing bound.
+     */
+    public static final ThreadResources EMPTY = new ThreadResources(null, null, Collections.emptyMap());
+
+    private final Object securityManager;
+    private final Object subject;
+    private final Map<Object, Object> resources; // never modified once this instance is constructed
+
+    private ThreadResources(Object securityManager, Object subject, Map<Object, Object> resources) {
+        this.securityManager = securityManager;
+        this.subject = subject;
+        this.resources = resources;
+    }
+
+    /**
+     * Returns resources with the given {@code Subject} and {@code SecurityManager} bound, either of which may be
+     * {@code null}.
+     *
+     * @param subject         the {@code Subject} to bind
+     * @param securityManager the {@code SecurityManager} to bind
+     * @return resources with the given {@code Subject} and {@code SecurityManager} bound.
+     */
+    public static ThreadResources of(Object subject, Object securityManager) {
+        if (subject == null && securityManager == null) {
+            return EMPTY;
+        }
+        return new ThreadResources(securityManager, subject, Collections.emptyMap());
+    }
+
+    /**
+     * Returns resources holding all the entries of the given map.  Entries with a {@code null} key or value are
+     * ignored.
+     *
+     * @param resources the resources to bind
+     * @return resources holding all the entries of the given map.
+     */
+    public static ThreadResources of(Map<?, ?> resources) {
+        if (CollectionUtils.isEmpty(resources)) {
+            return EMPTY;
+        }
+        Object securityManager = null;
+        Object subject = null;
+        Map<Object, Object> others = new HashMap<Object, Object>();
+        for (Map.Entry<?, ?> entry : resources.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            if (key == null || value == null) {
+                continue;
+            }
+            if (isSubjectKey(key)) {
+                subject = value;
+            } else if (isSecurityManagerKey(key)) {
+                securityManager = value;
+            } else {
+                others.put(key, value);
+            }
+        }
+        return create(securityManager, subject, others.isEmpty() ? Collections.emptyMap() : others);
+    }
+
+    Object getSecurityManager() {
+        return securityManager;
+    }
+
+    Object getSubject() {
+        return subject;
+    }
+
+    /**
+     * Returns the resource bound under the given key, or {@code null} if there is none.
+     *
+     * @param key the key the resource is bound under
+     * @return the resource bound under the given key, or {@code null} if there is none.
+     */
+    public Object get(Object key) {
+        if (isSubjectKey(key)) {
+            return subject;
+        }
+        if (isSecurityManagerKey(key)) {
+            return securityManager;
+        }
+        return resources.isEmpty() ? null : resources.get(key);
+    }
+
+    /**
+     * Returns resources equal to these ones, except for the given key being bound to the given value, or being
+     * unbound if the value is {@code null}.
+     *
+     * @param key   the key to bind the value under
+     * @param value the value to bind, or {@code null} to unbind the key
+     * @return resources with the given key bound to the given value.
+     */
+    public ThreadResources with(Object key, Object value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        if (isSubjectKey(key)) {
+            return value == subject ? this : create(securityManager, value, resources);
+        }
+        if (isSecurityManagerKey(key)) {
+            return value == securityManager ? this : create(value, subject, resources);
+        }
+        if (value == null && !resources.containsKey(key)) {
+            return this;
+        }
+        Map<Object, Object> copy = new HashMap<Object, Object>(resources);
+        if (value == null) {
+            copy.remove(key);
+        } else {
+            copy.put(key, value);
+        }
+        return create(securityManager, subject, copy.isEmpty() ? Collections.emptyMap() : copy);
+    }
+
+    /**
+     * Returns {@code true} if no resource is bound, {@code false} otherwise.
+     *
+     * @return {@code true} if no resource is bound, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return subject == null && securityManager == null && resources.isEmpty();
+    }
+
+    /**
+     * Returns a new, mutable map holding all bound resources.
+     *
+     * @return a new, mutable map holding all bound resources.
+     */
+    public Map<Object, Object> toMap() {
+        Map<Object, Object> map = new HashMap<Object, Object>(resources);
+        if (securityManager != null) {
+            map.put(ThreadContext.SECURITY_MANAGER_KEY, securityManager);
+        }
+        if (subject != null) {
+            map.put(ThreadContext.SUBJECT_KEY, subject);
+        }
+        return map;
+    }
+
+    private static ThreadResources create(Object securityManager, Object subject, Map<Object, Object> resources) {
+        if (securityManager == null && subject == null && resources.isEmpty()) {
+            return EMPTY;
+        }
+        return new ThreadResources(securityManager, subject, resources);
+    }
+
+    private static boolean isSubjectKey(Object key) {
+        return key == ThreadContext.SUBJECT_KEY || ThreadContext.SUBJECT_KEY.equals(key);
+    }
+
+    private static boolean isSecurityManagerKey(Object key) {
+        return key == ThreadContext.SECURITY_MANAGER_KEY || ThreadContext.SECURITY_MANAGER_KEY.equals(key);
+    }
+}
@@ -140,6 +140,50 @@ class DefaultPasswordServiceTest {
         verify factory
     }
 
+    @Test
+    void testParsedHashCache() {
+
+        def factory = createMock(HashFormatFactory)
+        def hash = new Sha512Hash("test", new SecureRandomNumberGenerator().nextBytes(), 100)
+        String saved = new Shiro1CryptFormat().format(hash)
+
+        //the stored hash is only parsed once:
+        expect(factory.getInstance(eq(saved))).andReturn(new Shiro1CryptFormat()).once()
+
+        replay factory
+
+        def service = new DefaultPasswordService()
+        service.hashFormatFactory = factory
+
+        assertTrue service.passwordsMatch("test", saved)
+        assertTrue service.passwordsMatch("test", saved)
+        assertFalse service.passwordsMatch("other", saved)
+        assertEquals 1, service.parsedHashCache.size()
+
+        verify factory
+    }
+
+    @Test
+    void testWithoutParsedHashCache() {
+
+        def factory = createMock(HashFormatFactory)
+        def hash = new Sha512Hash("test", new SecureRandomNumberGenerator().nextBytes(), 100)
+        String saved = new Shiro1CryptFormat().format(hash)
+
+        expect(factory.getInstance(eq(saved))).andReturn(new Shiro1CryptFormat()).times(2)
+
+        replay factory
+
+        def service = new DefaultPasswordService()
+        service.hashFormatFactory = factory
+        service.parsedHashCache = null
+
+        assertTrue service.passwordsMatch("test", saved)
+        assertTrue service.passwordsMatch("test", saved)
+
+        verify factory
+    }
+
     @Test
     void testStringComparisonWhenNotUsingAParsableHashFormat() {
 
@@ -19,6 +19,7 @@
 package org.apache.shiro.realm
 
 import org.apache.shiro.authc.credential.CredentialsMatcher
+import org.apache.shiro.authc.credential.VerifiedCredentialsCache
 import org.apache.shiro.cache.Cache
 import org.apache.shiro.cache.CacheManager
 import org.apache.shiro.subject.PrincipalCollection
@@ -289,6 +290,58 @@ class AuthenticatingRealmTest {
     }
 
 
+    @Test
+    void testVerifiedCredentialsCache() {
+        def info = new SimpleAuthenticationInfo("foo", "bar", "testRealm")
+        def token = new UsernamePasswordToken("foo", "bar")
+        def matcher = createStrictMock(CredentialsMatcher)
+
+        // once for the first attempt and once more after the logout, the second attempt is served from the cache
+        expect(matcher.doCredentialsMatch(same(token), same(info))).andReturn(true).times(2)
+
+        replay matcher
+
+        AuthenticatingRealm realm = new TestAuthenticatingRealm(matcher)
+        realm.name = "testRealm"
+        realm.info = info
+        realm.verifiedCredentialsCache = new VerifiedCredentialsCache()
+
+        assertSame info, realm.getAuthenticationInfo(token)
+        assertSame info, realm.getAuthenticationInfo(token)
+        realm.onLogout(info.principals)
+        assertSame info, realm.getAuthenticationInfo(token)
+
+        verify matcher
+    }
+
+    @Test
+    void testVerifiedCredentialsCacheWithDifferentCredentials() {
+        def info = new SimpleAuthenticationInfo("foo", "bar", "testRealm")
+        def token = new UsernamePasswordToken("foo", "bar")
+        def wrongToken = new UsernamePasswordToken("foo", "baz")
+        def matcher = createStrictMock(CredentialsMatcher)
+
+        expect(matcher.doCredentialsMatch(same(token), same(info))).andReturn true
+        expect(matcher.doCredentialsMatch(same(wrongToken), same(info))).andReturn false
+
+        replay matcher
+
+        AuthenticatingRealm realm = new TestAuthenticatingRealm(matcher)
+        realm.name = "testRealm"
+        realm.info = info
+        realm.verifiedCredentialsCache = new VerifiedCredentialsCache()
+
+        realm.getAuthenticationInfo(token)
+        try {
+            realm.getAuthenticationInfo(wrongToken)
+            fail("IncorrectCredentialsException should have been thrown.")
+        } catch (IncorrectCredentialsException expected) {
+        }
+
+        verify matcher
+    }
+
+
     private class TestAuthenticatingRealm extends AuthenticatingRealm {
 
         def AuthenticationInfo info;
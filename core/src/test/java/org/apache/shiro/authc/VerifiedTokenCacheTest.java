@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 2.0
+ */
+public class VerifiedTokenCacheTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    @Test
+    public void testPutAndGet() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        AuthenticationInfo info = new SimpleAuthenticationInfo("jsmith", null, "realm");
+        cache.put("token-1", info, System.currentTimeMillis() + HOUR);
+
+        assertSame(info, cache.get("token-1"));
+        assertNull(cache.get("token-2"));
+        assertNull(cache.get(""));
+        assertNull(cache.get(null));
+    }
+
+    @Test
+    public void testExpiredEntriesAreNotReturned() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        cache.put("expired", new SimpleAuthenticationInfo("jsmith", null, "realm"), System.currentTimeMillis() - 1);
+        assertNull(cache.get("expired"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRevoke() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        cache.put("token-1", new SimpleAuthenticationInfo("jsmith", null, "realm"), System.currentTimeMillis() + HOUR);
+
+        assertTrue(cache.revoke("token-1"));
+        assertFalse(cache.revoke("token-1"));
+        assertNull(cache.get("token-1"));
+    }
+
+    @Test
+    public void testRevokePrincipal() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        cache.put("token-1", new SimpleAuthenticationInfo("jsmith", null, "realm"), expiresAt);
+        cache.put("token-2", new SimpleAuthenticationInfo("jsmith", null, "realm"), expiresAt);
+        cache.put("token-3", new SimpleAuthenticationInfo("bjones", null, "realm"), expiresAt);
+
+        assertEquals(2, cache.revokePrincipal("jsmith"));
+        assertNull(cache.get("token-1"));
+        assertNull(cache.get("token-2"));
+        assertEquals("bjones", cache.get("token-3").getPrincipals().getPrimaryPrincipal());
+    }
+
+    @Test
+    public void testEvictsOldestEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        long now = System.currentTimeMillis();
+        cache.put("token-1", new SimpleAuthenticationInfo("a", null, "realm"), now + 2 * HOUR);
+        cache.put("token-2", new SimpleAuthenticationInfo("b", null, "realm"), now + HOUR);
+        cache.put("token-3", new SimpleAuthenticationInfo("c", null, "realm"), now + 3 * HOUR);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("token-1"));
+        assertEquals("b", cache.get("token-2").getPrincipals().getPrimaryPrincipal());
+        assertEquals("c", cache.get("token-3").getPrincipals().getPrimaryPrincipal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new VerifiedTokenCache(0);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc.credential;
+
+import org.apache.shiro.crypto.hash.Hash;
+import org.apache.shiro.crypto.hash.Sha256Hash;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 2.0
+ */
+public class ParsedHashCacheTest {
+
+    @Test
+    public void testPutAndGet() {
+        ParsedHashCache cache = new ParsedHashCache();
+        Hash hash = new Sha256Hash("secret");
+        cache.put("$shiro1$SHA-256$1$$abc", hash);
+
+        assertSame(hash, cache.get("$shiro1$SHA-256$1$$abc"));
+        assertNull(cache.get("$shiro1$SHA-256$1$$abd"));
+        assertNull(cache.get(""));
+        assertNull(cache.get(null));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        ParsedHashCache cache = new ParsedHashCache();
+        cache.put("first", new Sha256Hash("first"));
+        cache.put("second", new Sha256Hash("second"));
+
+        assertTrue(cache.remove("first"));
+        assertFalse(cache.remove("first"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        ParsedHashCache cache = new ParsedHashCache(2);
+        cache.put("first", new Sha256Hash("first"));
+        cache.put("second", new Sha256Hash("second"));
+        cache.put("second", new Sha256Hash("second"));
+        assertEquals(2, cache.size());
+
+        Hash third = new Sha256Hash("third");
+        cache.put("third", third);
+        assertEquals(2, cache.size());
+        assertSame(third, cache.get("third"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new ParsedHashCache(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNullHash() {
+        new ParsedHashCache().put("formatted", null);
+    }
+}
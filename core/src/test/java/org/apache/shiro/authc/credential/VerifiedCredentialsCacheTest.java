@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.authc.credential;
+
+import org.apache.shiro.crypto.hash.Sha256Hash;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 2.0
+ */
+public class VerifiedCredentialsCacheTest {
+
+    @Test
+    public void testVerified() {
+        VerifiedCredentialsCache cache = new VerifiedCredentialsCache();
+        Sha256Hash stored = new Sha256Hash("secret");
+        assertFalse(cache.isVerified("jsmith", "secret".toCharArray(), stored));
+
+        cache.verified("jsmith", "secret".toCharArray(), stored);
+
+        assertTrue(cache.isVerified("jsmith", "secret".toCharArray(), stored));
+        assertTrue(cache.isVerified("jsmith", "secret", stored));
+        assertFalse(cache.isVerified("jsmith", "Secret".toCharArray(), stored));
+        assertFalse(cache.isVerified("bjones", "secret".toCharArray(), stored));
+    }
+
+    @Test
+    public void testChangedStoredCredentials() {
+        VerifiedCredentialsCache cache = new VerifiedCredentialsCache();
+        cache.verified("jsmith", "secret", new Sha256Hash("secret"));
+        assertFalse(cache.isVerified("jsmith", "secret", new Sha256Hash("secret", "salt")));
+    }
+
+    @Test
+    public void testInvalidate() {
+        VerifiedCredentialsCache cache = new VerifiedCredentialsCache();
+        cache.verified("jsmith", "secret", "stored");
+        cache.invalidate("jsmith");
+        assertFalse(cache.isVerified("jsmith", "secret", "stored"));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        VerifiedCredentialsCache cache = new VerifiedCredentialsCache(1, 10);
+        cache.verified("jsmith", "secret", "stored");
+        Thread.sleep(5);
+        assertFalse(cache.isVerified("jsmith", "secret", "stored"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        VerifiedCredentialsCache cache = new VerifiedCredentialsCache(VerifiedCredentialsCache.DEFAULT_TIME_TO_LIVE, 2);
+        cache.verified("a", "secret", "stored");
+        cache.verified("b", "secret", "stored");
+        cache.verified("c", "secret", "stored");
+        assertEquals(2, cache.size());
+        assertTrue(cache.isVerified("c", "secret", "stored"));
+    }
+
+    @Test
+    public void testUnsupportedCredentialsAreNotCached() {
+        VerifiedCredentialsCache cache = new VerifiedCredentialsCache();
+        cache.verified("jsmith", new ByteArrayInputStream(new byte[]{1}), "stored");
+        assertEquals(0, cache.size());
+    }
+}
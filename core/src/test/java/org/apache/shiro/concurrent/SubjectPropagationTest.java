@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.concurrent;
+
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.test.SecurityManagerTestSupport;
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadContextStorage;
+import org.apache.shiro.util.ThreadLocalContextStorage;
+import org.apache.shiro.util.ThreadResources;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for the {@link SubjectPropagation} utilities.
+ *
+ * @since 2.0
+ */
+public class SubjectPropagationTest extends SecurityManagerTestSupport {
+
+    private ExecutorService worker;
+
+    @Before
+    public void createWorker() throws Exception {
+        worker = Executors.newSingleThreadExecutor();
+        //the worker thread must not start out with the test thread's context:
+        worker.submit(new Runnable() {
+            public void run() {
+                ThreadContext.remove();
+            }
+        }).get();
+    }
+
+    @After
+    public void shutdownWorker() {
+        worker.shutdownNow();
+    }
+
+    @Test
+    public void testExecutor() throws Exception {
+        Subject subject = SecurityUtils.getSubject();
+        final AtomicReference<Subject> bound = new AtomicReference<Subject>();
+
+        SubjectPropagation.executor(worker).execute(new Runnable() {
+            public void run() {
+                bound.set(ThreadContext.getSubject());
+            }
+        });
+
+        assertNull(worker.submit(new Callable<Subject>() {
+            public Subject call() {
+                return ThreadContext.getSubject();
+            }
+        }).get());
+        assertSame(subject, bound.get());
+    }
+
+    @Test
+    public void testPropagateCompletionStage() throws Exception {
+        Subject subject = SecurityUtils.getSubject();
+        CompletableFuture<String> source = new CompletableFuture<String>();
+
+        CompletionStage<Subject> stage = SubjectPropagation.propagate(source)
+                .thenApply(value -> ThreadContext.getSubject())
+                .thenApplyAsync(value -> ThreadContext.getSubject(), worker);
+
+        //completed by a thread without any context, which runs the first continuation:
+        worker.submit(() -> source.complete("done")).get();
+
+        assertSame(subject, stage.toCompletableFuture().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testScheduleHook() throws Exception {
+        Subject subject = SecurityUtils.getSubject();
+        Function<Runnable, Runnable> hook = SubjectPropagation::runnable;
+        final AtomicReference<Subject> bound = new AtomicReference<Subject>();
+
+        Runnable decorated = hook.apply(() -> bound.set(ThreadContext.getSubject()));
+        worker.submit(decorated).get();
+
+        assertSame(subject, bound.get());
+    }
+
+    @Test
+    public void testSameThreadDoesNotRebind() throws Exception {
+        SecurityManager securityManager = ThreadContext.getSecurityManager();
+        ThreadContextStorage original = ThreadContext.getStorage();
+        CountingStorage storage = new CountingStorage();
+        ThreadContext.setStorage(storage);
+        try {
+            ThreadContext.bind(securityManager);
+            final ThreadResources resources = ThreadContext.capture();
+            Callable<ThreadResources> callable = SubjectPropagation.callable(ThreadContext::capture);
+            int sets = storage.sets.get();
+
+            assertSame(resources, callable.call());
+            assertEquals(sets, storage.sets.get());
+        } finally {
+            ThreadContext.setStorage(original);
+        }
+    }
+
+    private static class CountingStorage extends ThreadLocalContextStorage {
+
+        private final AtomicInteger sets = new AtomicInteger();
+
+        @Override
+        public void set(ThreadResources resources) {
+            sets.incrementAndGet();
+            super.set(resources);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.concurrent;
+
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.test.SecurityManagerTestSupport;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for the {@link VirtualThreadSubjectAwareExecutorService} implementation.
+ *
+ * @since 2.0
+ */
+public class VirtualThreadSubjectAwareExecutorServiceTest extends SecurityManagerTestSupport {
+
+    private final VirtualThreadSubjectAwareExecutorService executor = new VirtualThreadSubjectAwareExecutorService();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testVirtualThreadsWhenSupported() {
+        boolean supported;
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            supported = Integer.parseInt(System.getProperty("java.specification.version")) >= 21;
+        } catch (NoSuchMethodException e) {
+            supported = false;
+        } catch (NumberFormatException e) {
+            supported = false;
+        }
+        assertEquals(supported, executor.isVirtualThreads());
+    }
+
+    @Test
+    public void testInvokeAllAndJoin() throws Exception {
+        final Subject subject = SecurityUtils.getSubject();
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 5; i++) {
+            final int index = i;
+            tasks.add(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    //finish in reverse order, results must still be returned in task order:
+                    Thread.sleep(10 * (5 - index));
+                    assertSame(subject, SecurityUtils.getSubject());
+                    return index;
+                }
+            });
+        }
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), executor.invokeAllAndJoin(tasks));
+    }
+
+    @Test
+    public void testFailureCancelsRemainingTasks() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicBoolean returned = new AtomicBoolean();
+        Callable<String> slow = new Callable<String>() {
+            public String call() throws Exception {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    return "slow";
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    //returning late must still delay the failure:
+                    Thread.sleep(100);
+                    throw e;
+                } finally {
+                    returned.set(true);
+                }
+            }
+        };
+        Callable<String> failing = new Callable<String>() {
+            public String call() throws Exception {
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        try {
+            executor.invokeAllAndJoin(Arrays.asList(slow, failing));
+            fail("ExecutionException expected");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(0, interrupted.getCount());
+        assertTrue("the cancelled task must have returned", returned.get());
+    }
+
+    @Test
+    public void testSubmitRunsAsCurrentSubject() throws Exception {
+        final Subject subject = SecurityUtils.getSubject();
+        Subject result = executor.submit(new Callable<Subject>() {
+            public Subject call() {
+                return SecurityUtils.getSubject();
+            }
+        }).get(10, TimeUnit.SECONDS);
+        assertSame(subject, result);
+    }
+}
@@ -20,13 +20,28 @@ package org.apache.shiro.mgt;
 
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.UnavailableSecurityManagerException;
+import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.UsernamePasswordToken;
+import org.apache.shiro.authc.event.AuthenticationEvent;
+import org.apache.shiro.authc.event.LoginFailureEvent;
+import org.apache.shiro.authc.event.LoginSuccessEvent;
+import org.apache.shiro.authc.event.LogoutEvent;
+import org.apache.shiro.authz.AuthorizationException;
+import org.apache.shiro.authz.event.AuthorizationDeniedEvent;
 import org.apache.shiro.config.Ini;
+import org.apache.shiro.event.Subscribe;
+import org.apache.shiro.event.support.DefaultEventBus;
 import org.apache.shiro.realm.text.IniRealm;
 import org.apache.shiro.session.ExpiredSessionException;
 import org.apache.shiro.session.Session;
+import org.apache.shiro.session.UnknownSessionException;
+import org.apache.shiro.session.event.SessionEvent;
+import org.apache.shiro.session.event.SessionStartEvent;
+import org.apache.shiro.session.event.SessionStopEvent;
 import org.apache.shiro.session.mgt.AbstractValidatingSessionManager;
+import org.apache.shiro.session.mgt.DefaultSessionManager;
+import org.apache.shiro.session.mgt.eis.MemorySessionDAO;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.subject.support.DelegatingSubject;
 import org.apache.shiro.util.ThreadContext;
@@ -35,6 +50,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -183,4 +200,117 @@ public class DefaultSecurityManagerTest extends AbstractSecurityManagerTest {
         subject.login(token);
         assertEquals(sm, subject.getSecurityManager());
     }
+
+    @Test
+    public void testSecurityEvents() {
+        SecurityEventRecorder recorder = new SecurityEventRecorder();
+        sm.getEventBus().register(recorder);
+
+        Subject subject = SecurityUtils.getSubject();
+        try {
+            subject.login(new UsernamePasswordToken("guest", "wrong"));
+            fail("Login should have failed.");
+        } catch (AuthenticationException expected) {
+        }
+        subject.login(new UsernamePasswordToken("guest", "guest"));
+        try {
+            subject.checkRole("goodguy");
+            fail("Role check should have failed.");
+        } catch (AuthorizationException expected) {
+        }
+        subject.logout();
+
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        for (Object event : recorder.events) {
+            types.add(event.getClass());
+        }
+        assertEquals(LoginFailureEvent.class, types.get(0));
+        assertTrue(types.indexOf(SessionStartEvent.class) < types.indexOf(LoginSuccessEvent.class));
+        assertTrue(types.indexOf(LoginSuccessEvent.class) < types.indexOf(AuthorizationDeniedEvent.class));
+        assertTrue(types.indexOf(AuthorizationDeniedEvent.class) < types.indexOf(LogoutEvent.class));
+        assertTrue(types.indexOf(LogoutEvent.class) < types.indexOf(SessionStopEvent.class));
+
+        LoginSuccessEvent success = (LoginSuccessEvent) recorder.events.get(types.indexOf(LoginSuccessEvent.class));
+        assertSame(sm, success.getSource());
+        assertEquals("guest", success.getInfo().getPrincipals().getPrimaryPrincipal());
+        LogoutEvent logout = (LogoutEvent) recorder.events.get(types.indexOf(LogoutEvent.class));
+        assertEquals("guest", logout.getPrincipals().getPrimaryPrincipal());
+    }
+
+    @Test
+    public void testNoSecurityEventsWithoutSubscribers() {
+        sm.setEventBus(new DefaultEventBus() {
+            @Override
+            public void publish(Object event) {
+                fail("No event should be published without subscribers: " + event);
+            }
+        });
+
+        Subject subject = SecurityUtils.getSubject();
+        subject.login(new UsernamePasswordToken("guest", "guest"));
+        assertFalse(subject.hasRole("goodguy"));
+        subject.logout();
+        assertNull(subject.getPrincipal());
+    }
+
+    @Test
+    public void testUnchangedSubjectIsNotSavedToSession() {
+        CountingSessionDAO sessionDAO = new CountingSessionDAO();
+        ((DefaultSessionManager) sm.getSessionManager()).setSessionDAO(sessionDAO);
+
+        Subject subject = SecurityUtils.getSubject();
+        subject.login(new UsernamePasswordToken("guest", "guest"));
+        Serializable sessionId = subject.getSession().getId();
+
+        sessionDAO.reads = 0;
+        sessionDAO.updates = 0;
+        Subject rebuilt = new Subject.Builder(sm).sessionId(sessionId).buildSubject();
+        //the session, its host and the principals and authenticated attributes are each read once, nothing is saved:
+        assertEquals(4, sessionDAO.reads);
+        assertEquals(0, sessionDAO.updates);
+        assertTrue(rebuilt.isAuthenticated());
+        assertEquals("guest", rebuilt.getPrincipal());
+
+        //a changed subject is still saved:
+        rebuilt.logout();
+        assertNull(new Subject.Builder(sm).sessionId(sessionId).buildSubject().getPrincipal());
+    }
+
+    private static class CountingSessionDAO extends MemorySessionDAO {
+
+        private int reads;
+        private int updates;
+
+        @Override
+        public Session readSession(Serializable sessionId) throws UnknownSessionException {
+            reads++;
+            return super.readSession(sessionId);
+        }
+
+        @Override
+        public void update(Session session) throws UnknownSessionException {
+            updates++;
+            super.update(session);
+        }
+    }
+
+    public static class SecurityEventRecorder {
+
+        private final List<Object> events = new ArrayList<Object>();
+
+        @Subscribe
+        public void onAuthenticationEvent(AuthenticationEvent event) {
+            events.add(event);
+        }
+
+        @Subscribe
+        public void onSessionEvent(SessionEvent event) {
+            events.add(event);
+        }
+
+        @Subscribe
+        public void onAuthorizationDenied(AuthorizationDeniedEvent event) {
+            events.add(event);
+        }
+    }
 }
@@ -38,6 +38,13 @@ import org.apache.shiro.authz.UnauthorizedException;
 import org.apache.shiro.authz.permission.RolePermissionResolver;
 import org.apache.shiro.authz.permission.WildcardPermission;
 import org.apache.shiro.authz.permission.WildcardPermissionResolver;
+import org.apache.shiro.cache.MemoryConstrainedCacheManager;
+import org.apache.shiro.event.Subscribe;
+import org.apache.shiro.event.support.DefaultEventBus;
+import org.apache.shiro.realm.event.RealmCacheEvent;
+import org.apache.shiro.realm.event.RealmCacheHitEvent;
+import org.apache.shiro.realm.event.RealmCacheLoadEvent;
+import org.apache.shiro.realm.event.RealmCacheMissEvent;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.SimplePrincipalCollection;
 import org.junit.After;
@@ -47,6 +54,8 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -262,6 +271,52 @@ public class AuthorizingRealmTest {
         assertEquals(permissions.size(), 4);
     }
 
+    @Test
+    public void testAuthorizationCacheEvents() {
+        RealmCacheEventRecorder recorder = new RealmCacheEventRecorder();
+        DefaultEventBus eventBus = new DefaultEventBus();
+        eventBus.register(recorder);
+        realm.setCacheManager(new MemoryConstrainedCacheManager());
+        realm.setEventBus(eventBus);
+
+        PrincipalCollection principals = new SimplePrincipalCollection(USERNAME, realm.getName());
+        assertTrue(realm.hasRole(principals, ROLE));
+        assertTrue(realm.hasRole(principals, ROLE));
+
+        List<RealmCacheEvent> events = recorder.events;
+        assertEquals(3, events.size());
+        assertTrue(events.get(0) instanceof RealmCacheMissEvent);
+        assertTrue(events.get(1) instanceof RealmCacheLoadEvent);
+        assertTrue(events.get(2) instanceof RealmCacheHitEvent);
+        for (RealmCacheEvent event : events) {
+            assertSame(realm, event.getRealm());
+            assertEquals(realm.getAuthorizationCacheName(), event.getCacheName());
+            assertEquals(principals, event.getKey());
+        }
+        assertSame(realm.getAuthorizationInfo(principals), ((RealmCacheLoadEvent) events.get(1)).getValue());
+    }
+
+    @Test
+    public void testAuthenticationCacheLoadEventOmitsCredentials() {
+        RealmCacheEventRecorder recorder = new RealmCacheEventRecorder();
+        DefaultEventBus eventBus = new DefaultEventBus();
+        eventBus.register(recorder);
+        realm.setCacheManager(new MemoryConstrainedCacheManager());
+        realm.setAuthenticationCachingEnabled(true);
+        realm.setEventBus(eventBus);
+
+        AuthenticationInfo info = realm.getAuthenticationInfo(new UsernamePasswordToken(USERNAME, PASSWORD));
+        assertNotNull(info.getCredentials());
+
+        List<RealmCacheEvent> events = recorder.events;
+        assertEquals(2, events.size());
+        assertTrue(events.get(1) instanceof RealmCacheLoadEvent);
+        assertEquals(realm.getAuthenticationCacheName(), events.get(1).getCacheName());
+        AuthenticationInfo value = (AuthenticationInfo) ((RealmCacheLoadEvent) events.get(1)).getValue();
+        assertEquals(info.getPrincipals(), value.getPrincipals());
+        assertNull(value.getCredentials());
+    }
+
     private void assertArrayEquals(boolean[] expected, boolean[] actual) {
         if (expected.length != actual.length) {
             fail("Expected array of length [" + expected.length + "] but received array of length [" + actual.length + "]");
@@ -273,6 +328,16 @@ public class AuthorizingRealmTest {
         }
     }
 
+    public static class RealmCacheEventRecorder {
+
+        private final List<RealmCacheEvent> events = new ArrayList<RealmCacheEvent>();
+
+        @Subscribe
+        public void onRealmCacheEvent(RealmCacheEvent event) {
+            events.add(event);
+        }
+    }
+
     public class AllowAllRealm extends AuthorizingRealm {
 
         public AllowAllRealm() {
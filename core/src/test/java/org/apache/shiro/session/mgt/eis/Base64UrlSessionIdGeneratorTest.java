@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.session.mgt.eis;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 2.0
+ */
+public class Base64UrlSessionIdGeneratorTest {
+
+    private static final Pattern BASE64_URL = Pattern.compile("[A-Za-z0-9_-]+");
+
+    @Test
+    public void testDefaultIdsAre128BitBase64Url() {
+        Base64UrlSessionIdGenerator generator = new Base64UrlSessionIdGenerator();
+        Set<String> ids = new HashSet<String>();
+        for (int i = 0; i < 1000; i++) {
+            String id = (String) generator.generateId(null);
+            assertEquals(22, id.length());
+            assertTrue(id, BASE64_URL.matcher(id).matches());
+            assertTrue(ids.add(id));
+        }
+    }
+
+    @Test
+    public void testIdLength() {
+        Base64UrlSessionIdGenerator generator = new Base64UrlSessionIdGenerator();
+        generator.setIdLength(32);
+        assertEquals(43, ((String) generator.generateId(null)).length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdLengthBelowMinimum() {
+        new Base64UrlSessionIdGenerator().setIdLength(8);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.subject;
+
+import org.apache.shiro.lang.io.DefaultSerializer;
+import org.apache.shiro.lang.io.SerializationException;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 2.0
+ */
+public class CompactPrincipalCollectionSerializerTest {
+
+    @Test
+    public void testRoundTrip() {
+        SimplePrincipalCollection principals = new SimplePrincipalCollection();
+        principals.add("jsmith", "ldapRealm");
+        principals.add(42L, "ldapRealm");
+        principals.add(-7, "jdbcRealm");
+        principals.add(UUID.randomUUID(), "jdbcRealm");
+        principals.add("ünicøde", "jdbcRealm");
+
+        CompactPrincipalCollectionSerializer serializer = new CompactPrincipalCollectionSerializer();
+        PrincipalCollection deserialized = serializer.deserialize(serializer.serialize(principals));
+
+        assertEquals(principals, deserialized);
+        assertEquals("jsmith", deserialized.getPrimaryPrincipal());
+        assertEquals(Arrays.asList("ldapRealm", "jdbcRealm"), Arrays.asList(deserialized.getRealmNames().toArray()));
+    }
+
+    @Test
+    public void testEmptyCollection() {
+        CompactPrincipalCollectionSerializer serializer = new CompactPrincipalCollectionSerializer();
+        assertTrue(serializer.deserialize(serializer.serialize(new SimplePrincipalCollection())).isEmpty());
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        SimplePrincipalCollection principals = new SimplePrincipalCollection("jsmith", "iniRealm");
+        byte[] compact = new CompactPrincipalCollectionSerializer().serialize(principals);
+        byte[] java = new DefaultSerializer<PrincipalCollection>().serialize(principals);
+        assertTrue(compact.length * 10 < java.length);
+    }
+
+    @Test
+    public void testFallbackPrincipal() {
+        SimplePrincipalCollection principals = new SimplePrincipalCollection(new CustomPrincipal("jsmith"), "realm");
+        CompactPrincipalCollectionSerializer serializer = new CompactPrincipalCollectionSerializer();
+        assertEquals(principals, serializer.deserialize(serializer.serialize(principals)));
+    }
+
+    @Test
+    public void testReadsJavaSerializedCollections() {
+        SimplePrincipalCollection principals = new SimplePrincipalCollection("jsmith", "realm");
+        byte[] java = new DefaultSerializer<PrincipalCollection>().serialize(principals);
+        assertEquals(principals, new CompactPrincipalCollectionSerializer().deserialize(java));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testFallbackDisabled() {
+        CompactPrincipalCollectionSerializer serializer = new CompactPrincipalCollectionSerializer(null);
+        serializer.serialize(new SimplePrincipalCollection(new CustomPrincipal("jsmith"), "realm"));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testTruncatedData() {
+        CompactPrincipalCollectionSerializer serializer = new CompactPrincipalCollectionSerializer();
+        byte[] serialized = serializer.serialize(new SimplePrincipalCollection("jsmith", "realm"));
+        serializer.deserialize(Arrays.copyOf(serialized, serialized.length - 1));
+    }
+
+    private static class CustomPrincipal implements Serializable {
+
+        private final String name;
+
+        private CustomPrincipal(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CustomPrincipal && ((CustomPrincipal) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
@@ -20,11 +20,14 @@ package org.apache.shiro.subject;
 
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.authc.UsernamePasswordToken;
+import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.config.Ini;
 import org.apache.shiro.ini.IniSecurityManagerFactory;
 import org.apache.shiro.mgt.DefaultSecurityManager;
 import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.realm.SimpleAccountRealm;
 import org.apache.shiro.session.Session;
+import org.apache.shiro.session.mgt.SimpleSession;
 import org.apache.shiro.subject.support.DelegatingSubject;
 import org.apache.shiro.lang.util.LifecycleUtils;
 import org.apache.shiro.util.ThreadContext;
@@ -217,6 +220,105 @@ public class DelegatingSubjectTest {
         LifecycleUtils.destroy(sm);
     }
 
+    @Test
+    public void testRunAsStackIsReadFromTheSessionOnce() {
+        DefaultSecurityManager sm = new DefaultSecurityManager();
+        CountingSession session = new CountingSession();
+        PrincipalCollection user1 = new SimplePrincipalCollection("user1", "realm");
+        DelegatingSubject subject = new DelegatingSubject(user1, true, null, session, sm);
+
+        assertEquals("user1", subject.getPrincipal());
+        assertFalse(subject.isRunAs());
+        assertNull(subject.getPreviousPrincipals());
+        assertEquals(1, session.reads);
+
+        subject.runAs(new SimplePrincipalCollection("user2", "realm"));
+        assertEquals("user2", subject.getPrincipal());
+        assertTrue(subject.isRunAs());
+        assertEquals("user1", subject.getPreviousPrincipals().getPrimaryPrincipal());
+        assertEquals(1, session.reads);
+
+        //a new Subject instance for the same session picks up the stored stack:
+        DelegatingSubject other = new DelegatingSubject(user1, true, null, session, sm);
+        assertEquals("user2", other.getPrincipal());
+        assertEquals(2, session.reads);
+
+        assertEquals("user2", subject.releaseRunAs().getPrimaryPrincipal());
+        assertFalse(subject.isRunAs());
+        assertEquals("user1", subject.getPrincipal());
+        assertNull(session.getAttribute(DelegatingSubject.class.getName() + ".RUN_AS_PRINCIPALS_SESSION_KEY"));
+
+        LifecycleUtils.destroy(sm);
+    }
+
+    private static class CountingSession extends SimpleSession {
+
+        private int reads;
+
+        @Override
+        public Object getAttribute(Object key) {
+            reads++;
+            return super.getAttribute(key);
+        }
+    }
+
+    @Test
+    public void testAuthorizationMemo() {
+        CountingRealm realm = new CountingRealm();
+        realm.addAccount("user1", "user1", "role1");
+        realm.addAccount("user2", "user2", "role2");
+        DefaultSecurityManager sm = new DefaultSecurityManager(realm);
+
+        DelegatingSubject subject = (DelegatingSubject) new Subject.Builder(sm).buildSubject();
+        assertFalse(subject.isAuthorizationMemoEnabled());
+        subject.setAuthorizationMemoEnabled(true);
+        subject.login(new UsernamePasswordToken("user1", "user1"));
+
+        assertTrue(subject.hasRole("role1"));
+        assertTrue(subject.hasRole("role1"));
+        subject.checkRole("role1");
+        assertEquals(1, realm.lookups);
+        assertFalse(subject.isPermitted("foo:bar"));
+        assertFalse(subject.isPermitted("foo:bar"));
+        assertEquals(2, realm.lookups);
+
+        //clearing cached authorization data invalidates remembered decisions:
+        realm.clearCachedAuthorizationInfo(subject.getPrincipals());
+        assertTrue(subject.hasRole("role1"));
+        assertEquals(3, realm.lookups);
+
+        //so does assuming another identity:
+        subject.runAs(new SimplePrincipalCollection("user2", realm.getName()));
+        assertFalse(subject.hasRole("role1"));
+        assertTrue(subject.hasRole("role2"));
+        assertEquals(5, realm.lookups);
+        subject.releaseRunAs();
+        assertTrue(subject.hasRole("role1"));
+        assertFalse(subject.hasRole("role2"));
+        assertEquals(7, realm.lookups);
+
+        subject.logout();
+        assertFalse(subject.hasRole("role1"));
+
+        LifecycleUtils.destroy(sm);
+    }
+
+    private static class CountingRealm extends SimpleAccountRealm {
+
+        private int lookups;
+
+        @Override
+        protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals) {
+            lookups++;
+            return super.doGetAuthorizationInfo(principals);
+        }
+
+        @Override
+        public void clearCachedAuthorizationInfo(PrincipalCollection principals) {
+            super.clearCachedAuthorizationInfo(principals);
+        }
+    }
+
     @Test
     public void testToString() {
         // given
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.util;
+
+import org.apache.shiro.mgt.DefaultSecurityManager;
+import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.subject.support.DelegatingSubject;
+import org.apache.shiro.subject.support.SubjectThreadState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 2.0
+ */
+public class ThreadContextTest {
+
+    private ThreadContextStorage originalStorage;
+    private SecurityManager securityManager;
+    private Subject subject;
+
+    @Before
+    public void setUp() {
+        originalStorage = ThreadContext.getStorage();
+        securityManager = new DefaultSecurityManager();
+        subject = new DelegatingSubject(null, false, null, null, securityManager);
+        ThreadContext.remove();
+    }
+
+    @After
+    public void tearDown() {
+        ThreadContext.remove();
+        ThreadContext.setStorage(originalStorage);
+    }
+
+    @Test
+    public void testPutGetAndRemove() {
+        ThreadContext.bind(subject);
+        ThreadContext.bind(securityManager);
+        ThreadContext.put("key", "value");
+
+        assertSame(subject, ThreadContext.getSubject());
+        assertSame(subject, ThreadContext.get(ThreadContext.SUBJECT_KEY));
+        assertSame(securityManager, ThreadContext.getSecurityManager());
+        assertEquals("value", ThreadContext.get("key"));
+
+        Map<Object, Object> resources = ThreadContext.getResources();
+        assertEquals(3, resources.size());
+        assertSame(subject, resources.get(ThreadContext.SUBJECT_KEY));
+
+        assertEquals("value", ThreadContext.remove("key"));
+        assertNull(ThreadContext.get("key"));
+        assertSame(subject, ThreadContext.unbindSubject());
+        assertNull(ThreadContext.getSubject());
+        assertSame(securityManager, ThreadContext.getSecurityManager());
+
+        ThreadContext.put("other", null);
+        assertEquals(1, ThreadContext.getResources().size());
+    }
+
+    @Test
+    public void testSetResources() {
+        Map<Object, Object> resources = new HashMap<Object, Object>();
+        resources.put(ThreadContext.SUBJECT_KEY, subject);
+        resources.put("key", "value");
+        ThreadContext.put("previous", "value");
+
+        ThreadContext.setResources(resources);
+
+        assertSame(subject, ThreadContext.getSubject());
+        assertEquals("value", ThreadContext.get("key"));
+        assertNull(ThreadContext.get("previous"));
+        assertEquals(resources, ThreadContext.getResources());
+    }
+
+    @Test
+    public void testCaptureAndRestore() {
+        assertSame(ThreadResources.EMPTY, ThreadContext.capture());
+
+        ThreadContext.bind(subject);
+        ThreadResources captured = ThreadContext.capture();
+        assertSame(captured, ThreadContext.capture());
+
+        ThreadContext.put("key", "value");
+        assertNull(captured.get("key"));
+
+        ThreadContext.restore(captured);
+        assertNull(ThreadContext.get("key"));
+        assertSame(subject, ThreadContext.getSubject());
+
+        ThreadContext.restore(null);
+        assertSame(ThreadResources.EMPTY, ThreadContext.capture());
+    }
+
+    @Test
+    public void testSubjectThreadState() {
+        ThreadContext.put("key", "value");
+        ThreadResources original = ThreadContext.capture();
+
+        SubjectThreadState state = new SubjectThreadState(subject);
+        state.bind();
+        ThreadResources bound = ThreadContext.capture();
+
+        assertSame(subject, ThreadContext.getSubject());
+        assertSame(securityManager, ThreadContext.getSecurityManager());
+        assertNull(ThreadContext.get("key"));
+
+        state.restore();
+        assertSame(original, ThreadContext.capture());
+
+        //binding again reuses the resources created for the subject:
+        state.bind();
+        assertSame(bound, ThreadContext.capture());
+        state.clear();
+        assertTrue(ThreadContext.getResources().isEmpty());
+    }
+
+    @Test
+    public void testInheritableStorage() throws InterruptedException {
+        ThreadContext.setStorage(new ThreadLocalContextStorage(true));
+        ThreadContext.bind(subject);
+
+        assertSame(subject, getSubjectInNewThread());
+    }
+
+    @Test
+    public void testThreadLocalStorage() throws InterruptedException {
+        ThreadContext.setStorage(new ThreadLocalContextStorage());
+        ThreadContext.bind(subject);
+
+        assertSame(subject, ThreadContext.getSubject());
+        assertNull(getSubjectInNewThread());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullStorage() {
+        ThreadContext.setStorage(null);
+    }
+
+    private static Subject getSubjectInNewThread() throws InterruptedException {
+        final AtomicReference<Subject> subject = new AtomicReference<Subject>();
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                subject.set(ThreadContext.getSubject());
+            }
+        });
+        thread.start();
+        thread.join();
+        return subject.get();
+    }
+}
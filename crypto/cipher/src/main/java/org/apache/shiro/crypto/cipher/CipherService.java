@@ -21,8 +21,16 @@ package org.apache.shiro.crypto.cipher;
 import org.apache.shiro.crypto.CryptoException;
 import org.apache.shiro.lang.util.ByteSource;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * A {@code CipherService} uses a cryptographic algorithm called a
@@ -173,4 +181,149 @@ public interface CipherService {
      */
     void encrypt(InputStream in, OutputStream out, byte[] encryptionKey) throws CryptoException;
 
+    /**
+     * Encrypts the {@link ByteBuffer#remaining() remaining} bytes of the {@code plaintext} buffer via the specified
+     * cipher key and writes the encrypted representation into the {@code output} buffer, exactly as
+     * {@link #encrypt(byte[], byte[])} would.  Both buffers may be direct buffers.
+     * <p/>
+     * On success the {@code plaintext} buffer's position is advanced to its limit and the {@code output} buffer's
+     * position is advanced by the number of bytes written.  The {@code output} buffer must have enough room for the
+     * encrypted data, including any initialization vector and padding or authentication tag; if it does not, a
+     * {@code CryptoException} is thrown and the {@code output} buffer's position is left unchanged.
+     * <p/>
+     * This default implementation copies the data through a byte array and delegates to
+     * {@link #encrypt(byte[], byte[])}; implementations are encouraged to avoid the intermediate copies.
+     *
+     * @param plaintext     the buffer supplying the data to encrypt
+     * @param output        the buffer receiving the encrypted data
+     * @param encryptionKey the cipher key used during encryption.
+     * @return the number of bytes written to the {@code output} buffer
+     * @throws CryptoException if there is an error during encryption
+     * @since 2.0
+     */
+    default int encrypt(ByteBuffer plaintext, ByteBuffer output, byte[] encryptionKey) throws CryptoException {
+        byte[] raw = new byte[plaintext.remaining()];
+        plaintext.duplicate().get(raw);
+        byte[] encrypted = encrypt(raw, encryptionKey).getBytes();
+        if (encrypted.length > output.remaining()) {
+            throw new CryptoException("Output buffer is too small, " + encrypted.length + " bytes are required.");
+        }
+        plaintext.position(plaintext.limit());
+        output.put(encrypted);
+        return encrypted.length;
+    }
+
+    /**
+     * Decrypts the {@link ByteBuffer#remaining() remaining} bytes of the {@code encrypted} buffer via the specified
+     * cipher key and writes the original (pre-encrypted) data into the {@code output} buffer, exactly as
+     * {@link #decrypt(byte[], byte[])} would.  Both buffers may be direct buffers.
+     * <p/>
+     * On success the {@code encrypted} buffer's position is advanced to its limit and the {@code output} buffer's
+     * position is advanced by the number of bytes written.  If the {@code output} buffer does not have enough room
+     * for the decrypted data, a {@code CryptoException} is thrown and the {@code output} buffer's position is left
+     * unchanged.
+     * <p/>
+     * This default implementation copies the data through a byte array and delegates to
+     * {@link #decrypt(byte[], byte[])}; implementations are encouraged to avoid the intermediate copies.
+     *
+     * @param encrypted     the buffer supplying the previously encrypted data to decrypt
+     * @param output        the buffer receiving the decrypted data
+     * @param decryptionKey the cipher key used during decryption.
+     * @return the number of bytes written to the {@code output} buffer
+     * @throws CryptoException if there is an error during decryption
+     * @since 2.0
+     */
+    default int decrypt(ByteBuffer encrypted, ByteBuffer output, byte[] decryptionKey) throws CryptoException {
+        byte[] raw = new byte[encrypted.remaining()];
+        encrypted.duplicate().get(raw);
+        byte[] decrypted = decrypt(raw, decryptionKey).getBytes();
+        if (decrypted.length > output.remaining()) {
+            throw new CryptoException("Output buffer is too small, " + decrypted.length + " bytes are required.");
+        }
+        encrypted.position(encrypted.limit());
+        output.put(decrypted);
+        return decrypted.length;
+    }
+
+    /**
+     * Reads the data from the given channel until end-of-stream, encrypts it, and writes the resulting encrypted data
+     * to the given channel, in the same format as {@link #encrypt(InputStream, OutputStream, byte[])}.
+     * <p/>
+     * Like the stream based method, this method <em>does NOT</em> close either channel.
+     * <p/>
+     * This default implementation adapts the channels to streams and delegates to
+     * {@link #encrypt(InputStream, OutputStream, byte[])}.
+     *
+     * @param in            the channel supplying the data to encrypt
+     * @param out           the channel to send the encrypted data
+     * @param encryptionKey the cipher key to use for encryption
+     * @throws CryptoException if there is any problem during encryption.
+     * @since 2.0
+     */
+    default void encrypt(ReadableByteChannel in, WritableByteChannel out, byte[] encryptionKey) throws CryptoException {
+        encrypt(Channels.newInputStream(in), Channels.newOutputStream(out), encryptionKey);
+    }
+
+    /**
+     * Reads encrypted data from the given channel until end-of-stream, decrypts it, and writes the resulting
+     * decrypted data to the given channel.  The data is expected in the format written by
+     * {@link #encrypt(InputStream, OutputStream, byte[])}.
+     * <p/>
+     * Like the stream based method, this method <em>does NOT</em> close either channel.
+     * <p/>
+     * This default implementation adapts the channels to streams and delegates to
+     * {@link #decrypt(InputStream, OutputStream, byte[])}.
+     *
+     * @param in            the channel supplying the data to decrypt
+     * @param out           the channel to send the decrypted data
+     * @param decryptionKey the cipher key to use for decryption
+     * @throws CryptoException if there is any problem during decryption.
+     * @since 2.0
+     */
+    default void decrypt(ReadableByteChannel in, WritableByteChannel out, byte[] decryptionKey) throws CryptoException {
+        decrypt(Channels.newInputStream(in), Channels.newOutputStream(out), decryptionKey);
+    }
+
+    /**
+     * Encrypts the contents of the {@code source} file and writes the encrypted data to the {@code target} file, in the
+     * same format as {@link #encrypt(InputStream, OutputStream, byte[])}.  The {@code target} file is created if it
+     * does not exist and truncated if it does.
+     *
+     * @param source        the file to encrypt
+     * @param target        the file receiving the encrypted data
+     * @param encryptionKey the cipher key to use for encryption
+     * @throws CryptoException if there is any problem reading, encrypting or writing the data.
+     * @since 2.0
+     */
+    default void encrypt(Path source, Path target, byte[] encryptionKey) throws CryptoException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            encrypt(in, out, encryptionKey);
+        } catch (IOException e) {
+            throw new CryptoException("Unable to encrypt [" + source + "] to [" + target + "].", e);
+        }
+    }
+
+    /**
+     * Decrypts the contents of the {@code source} file, previously encrypted by
+     * {@link #encrypt(Path, Path, byte[])} or {@link #encrypt(InputStream, OutputStream, byte[])}, and writes the
+     * decrypted data to the {@code target} file.  The {@code target} file is created if it does not exist and truncated
+     * if it does.
+     *
+     * @param source        the file to decrypt
+     * @param target        the file receiving the decrypted data
+     * @param decryptionKey the cipher key to use for decryption
+     * @throws CryptoException if there is any problem reading, decrypting or writing the data.
+     * @since 2.0
+     */
+    default void decrypt(Path source, Path target, byte[] decryptionKey) throws CryptoException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            decrypt(in, out, decryptionKey);
+        } catch (IOException e) {
+            throw new CryptoException("Unable to decrypt [" + source + "] to [" + target + "].", e);
+        }
+    }
 }
@@ -507,6 +507,22 @@ public class DefaultBlockCipherService extends AbstractSymmetricCipherService {
         return streaming || super.isGenerateInitializationVectors() && isModeInitializationVectorCompatible(getModeName());
     }
 
+    /**
+     * Returns {@code true} if the (streaming) mode is {@link OperationMode#CTR CTR} and no padding scheme other than
+     * {@link PaddingScheme#NONE NONE} is configured.
+     *
+     * @param streaming whether the streaming or the non-streaming configuration is to be checked
+     * @return {@code true} if the configured mode is {@code CTR} without padding, {@code false} otherwise.
+     * @since 2.0
+     */
+    @Override
+    protected boolean isCounterMode(boolean streaming) {
+        String mode = streaming ? getStreamingModeName() : getModeName();
+        String paddingScheme = streaming ? getStreamingPaddingSchemeName() : getPaddingSchemeName();
+        return OperationMode.CTR.name().equalsIgnoreCase(mode) && (!StringUtils.hasText(paddingScheme) ||
+                PaddingScheme.NONE.getTransformationName().equalsIgnoreCase(paddingScheme));
+    }
+
     @Override
     protected byte[] generateInitializationVector(boolean streaming) {
         if (streaming) {
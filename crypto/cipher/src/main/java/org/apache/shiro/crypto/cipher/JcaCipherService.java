@@ -19,6 +19,7 @@
 package org.apache.shiro.crypto.cipher;
 
 import org.apache.shiro.crypto.CryptoException;
+import org.apache.shiro.crypto.StripedSecureRandomNumberGenerator;
 import org.apache.shiro.lang.util.ByteSource;
 import org.apache.shiro.lang.util.StringUtils;
 import org.slf4j.Logger;
@@ -30,9 +31,22 @@ import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Abstract {@code CipherService} implementation utilizing Java's JCA APIs.
@@ -64,6 +78,26 @@ import java.security.spec.AlgorithmParameterSpec;
  * vectors are always specified as a byte array, so ensure that if you set this property, that the value is a multiple
  * of {@code 8} to ensure that the IV can be correctly represented as a byte array (the
  * {@link #setInitializationVectorSize(int) setInitializationVectorSize} mutator method enforces this).
+ * <h2>Cipher Instance Pooling</h2>
+ * Acquiring a JCA {@code Cipher} via {@code Cipher.getInstance} involves a provider lookup and is comparatively
+ * expensive.  The byte array and {@link ByteBuffer} based {@code encrypt} and {@code decrypt} methods therefore reuse
+ * {@code Cipher} instances: after an operation completes, its instance is returned to a small pool, keyed by
+ * transformation string, and re-initialized with the key and initialization vector of the next operation.  The
+ * {@link #setCipherPoolSize(int) cipherPoolSize} property sets the maximum number of idle instances kept per
+ * transformation; {@code 0} disables pooling.  The streaming methods always use a new instance.  Note that an idle
+ * pooled instance still holds the key of its last operation, see {@link #setCipherPoolSize(int)}.
+ * <h2>Channels and Files</h2>
+ * The {@code ReadableByteChannel}/{@code WritableByteChannel} and {@code Path} based methods use the streaming
+ * configuration and produce exactly the same format as the {@code InputStream}/{@code OutputStream} methods, so data
+ * written by one can be read by the other.  Instead of a {@code CipherInputStream} they feed large buffers of
+ * {@link #setChannelBufferSize(int) channelBufferSize} bytes through {@code Cipher.update(ByteBuffer, ByteBuffer)},
+ * which is considerably faster for large amounts of data.
+ * <p/>
+ * If the streaming mode is a counter mode (such as {@code CTR} without padding), any block of the data can be
+ * encrypted or decrypted independently of the others.  Setting the {@link #setParallelSegmentSize(long)
+ * parallelSegmentSize} property then makes the {@code Path} based methods split files larger than that size into
+ * segments that are processed in parallel on the common {@code ForkJoinPool}.  The result is identical to sequential
+ * processing.
  *
  * @since 1.0
  */
@@ -84,6 +118,16 @@ public abstract class JcaCipherService implements CipherService {
      */
     private static final int DEFAULT_STREAMING_BUFFER_SIZE = 512;
 
+    /**
+     * Default size of the buffers used by the channel and file based operations, 256 KiB.
+     */
+    private static final int DEFAULT_CHANNEL_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Default maximum number of idle Cipher instances pooled per transformation.
+     */
+    private static final int DEFAULT_CIPHER_POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
     private static final int BITS_PER_BYTE = 8;
 
     /**
@@ -112,6 +156,15 @@ public abstract class JcaCipherService implements CipherService {
 
     private SecureRandom secureRandom;
 
+    private volatile int cipherPoolSize;
+
+    private int channelBufferSize;
+
+    private long parallelSegmentSize;
+
+    private final ConcurrentMap<String, BlockingQueue<javax.crypto.Cipher>> cipherPools =
+            new ConcurrentHashMap<String, BlockingQueue<javax.crypto.Cipher>>();
+
     /**
      * Creates a new {@code JcaCipherService} instance which will use the specified cipher {@code algorithmName}
      * for all encryption, decryption, and key operations.  Also, the following defaults are set:
@@ -132,6 +185,8 @@ public abstract class JcaCipherService implements CipherService {
         this.initializationVectorSize = DEFAULT_KEY_SIZE; //default to same size as the key size (a common algorithm practice)
         this.streamingBufferSize = DEFAULT_STREAMING_BUFFER_SIZE;
         this.generateInitializationVectors = true;
+        this.cipherPoolSize = DEFAULT_CIPHER_POOL_SIZE;
+        this.channelBufferSize = DEFAULT_CHANNEL_BUFFER_SIZE;
     }
 
     /**
@@ -200,6 +255,19 @@ public abstract class JcaCipherService implements CipherService {
         return isGenerateInitializationVectors();
     }
 
+    /**
+     * Returns {@code true} if the configured (streaming) mode is a counter mode without padding, in which the
+     * keystream for any block can be derived by adding the block's index to the initialization vector, so that
+     * segments of the data can be processed independently.  This implementation returns {@code false}.
+     *
+     * @param streaming whether the streaming or the non-streaming configuration is to be checked
+     * @return {@code true} if the configured mode is a counter mode without padding, {@code false} otherwise.
+     * @since 2.0
+     */
+    protected boolean isCounterMode(boolean streaming) {
+        return false;
+    }
+
     /**
      * Returns the size in bytes of the internal buffer used to transfer data from one stream to another during stream
      * operations ({@link #encrypt(java.io.InputStream, java.io.OutputStream, byte[])} and
@@ -228,6 +296,62 @@ public abstract class JcaCipherService implements CipherService {
         this.streamingBufferSize = streamingBufferSize;
     }
 
+    /**
+     * Returns the size in bytes of the buffers used by the channel and file based operations, for example
+     * {@link #encrypt(ReadableByteChannel, WritableByteChannel, byte[])} and {@link #encrypt(Path, Path, byte[])}.
+     * <p/>
+     * Default size is {@code 256} KiB.
+     *
+     * @return the size in bytes of the buffers used by the channel and file based operations.
+     * @since 2.0
+     */
+    public int getChannelBufferSize() {
+        return channelBufferSize;
+    }
+
+    /**
+     * Sets the size in bytes of the buffers used by the channel and file based operations.  Each operation, and
+     * each segment processed in parallel, allocates its own input and output buffer of about this size.
+     *
+     * @param channelBufferSize the size in bytes of the buffers used by the channel and file based operations.
+     * @since 2.0
+     */
+    public void setChannelBufferSize(int channelBufferSize) {
+        if (channelBufferSize <= 0) {
+            throw new IllegalArgumentException("channelBufferSize must be greater than zero.");
+        }
+        this.channelBufferSize = channelBufferSize;
+    }
+
+    /**
+     * Returns the size in bytes of the segments files are split into when they are encrypted or decrypted in parallel
+     * by the {@code Path} based methods, or {@code 0} (the default) if files are always processed sequentially.
+     * Parallel processing only takes place if the streaming mode is a {@link #isCounterMode(boolean) counter mode}.
+     *
+     * @return the size in bytes of the segments files are split into for parallel processing, or {@code 0} if
+     *         files are always processed sequentially.
+     * @since 2.0
+     */
+    public long getParallelSegmentSize() {
+        return parallelSegmentSize;
+    }
+
+    /**
+     * Sets the size in bytes of the segments files are split into when they are encrypted or decrypted in parallel
+     * by the {@code Path} based methods.  Files no larger than one segment are processed sequentially.  The size is
+     * rounded down to a multiple of the cipher's block size; {@code 0} disables parallel processing.
+     *
+     * @param parallelSegmentSize the size in bytes of the segments files are split into for parallel processing, or
+     *                            {@code 0} to always process files sequentially.
+     * @since 2.0
+     */
+    public void setParallelSegmentSize(long parallelSegmentSize) {
+        if (parallelSegmentSize < 0) {
+            throw new IllegalArgumentException("parallelSegmentSize cannot be negative.");
+        }
+        this.parallelSegmentSize = parallelSegmentSize;
+    }
+
     /**
      * Returns a source of randomness for encryption operations.  If one is not configured, and the underlying
      * algorithm needs one, the JDK {@code SHA1PRNG} instance will be used by default.
@@ -250,6 +374,40 @@ public abstract class JcaCipherService implements CipherService {
         this.secureRandom = secureRandom;
     }
 
+    /**
+     * Returns the maximum number of idle JCA {@code Cipher} instances kept for reuse per transformation string by the
+     * byte array and {@code ByteBuffer} based {@code encrypt} and {@code decrypt} methods.  Defaults to twice the
+     * number of available processors, but at least {@code 4}.
+     *
+     * @return the maximum number of idle {@code Cipher} instances kept for reuse per transformation string.
+     * @since 2.0
+     */
+    public int getCipherPoolSize() {
+        return cipherPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of idle JCA {@code Cipher} instances kept for reuse per transformation string.  A value
+     * of {@code 0} disables pooling so that every operation acquires a new {@code Cipher} instance.
+     * <p/>
+     * An idle pooled instance stays initialized with the key of the last operation it performed until it is reused,
+     * so up to this many keys remain reachable on the heap (for example in a heap dump) after the operations that
+     * supplied them have completed.  Applications that must not retain keys beyond their use, such as services
+     * handed short-lived per-user keys, should set this to {@code 0}; the cost is a {@code Cipher.getInstance} call per
+     * operation.
+     *
+     * @param cipherPoolSize the maximum number of idle {@code Cipher} instances kept for reuse per transformation
+     *                       string.
+     * @since 2.0
+     */
+    public void setCipherPoolSize(int cipherPoolSize) {
+        if (cipherPoolSize < 0) {
+            throw new IllegalArgumentException("cipherPoolSize cannot be negative.");
+        }
+        this.cipherPoolSize = cipherPoolSize;
+        this.cipherPools.clear();
+    }
+
     protected static SecureRandom getDefaultSecureRandom() {
         try {
             return java.security.SecureRandom.getInstance(RANDOM_NUM_GENERATOR_ALGORITHM_NAME);
@@ -296,8 +454,13 @@ public abstract class JcaCipherService implements CipherService {
         }
         int sizeInBytes = size / BITS_PER_BYTE;
         byte[] ivBytes = new byte[sizeInBytes];
-        SecureRandom random = ensureSecureRandom();
-        random.nextBytes(ivBytes);
+        SecureRandom random = getSecureRandom();
+        if (random != null) {
+            random.nextBytes(ivBytes);
+        } else {
+            // no explicitly configured SecureRandom, avoid contending on (or seeding) a new one for every vector:
+            DefaultRandomHolder.INSTANCE.nextBytes(ivBytes);
+        }
         return ivBytes;
     }
 
@@ -442,8 +605,62 @@ public abstract class JcaCipherService implements CipherService {
         if (key == null || key.length == 0) {
             throw new IllegalArgumentException("key argument cannot be null or empty.");
         }
-        javax.crypto.Cipher cipher = initNewCipher(mode, key, iv, false);
-        return crypt(cipher, bytes);
+        javax.crypto.Cipher cipher = initPooledCipher(mode, key, iv);
+        try {
+            return crypt(cipher, bytes);
+        } finally {
+            releaseCipher(cipher);
+        }
+    }
+
+    /**
+     * Acquires an idle {@code Cipher} instance for the non-streaming {@link #getTransformationString(boolean)
+     * transformation} from the pool, or a {@link #newCipherInstance(boolean) new instance} if none is available, and
+     * initializes it for the given mode, key and initialization vector.  The instance must be handed back via
+     * {@link #releaseCipher(javax.crypto.Cipher)} once the operation is finished.
+     */
+    private javax.crypto.Cipher initPooledCipher(int jcaCipherMode, byte[] key, byte[] iv) throws CryptoException {
+        javax.crypto.Cipher cipher = null;
+        if (cipherPoolSize > 0) {
+            BlockingQueue<javax.crypto.Cipher> pool = cipherPools.get(getTransformationString(false));
+            if (pool != null) {
+                cipher = pool.poll();
+            }
+        }
+        if (cipher == null) {
+            cipher = newCipherInstance(false);
+        }
+        try {
+            init(cipher, jcaCipherMode, key, iv, false);
+        } catch (CryptoException e) {
+            // A failed init can leave the instance unusable, for example when the JCA could not select a provider for
+            // the key, so it is dropped rather than returned to the pool; the pool creates a replacement on demand.
+            log.trace("Discarding Cipher instance [{}] after a failed init.", cipher.getAlgorithm());
+            throw e;
+        }
+        return cipher;
+    }
+
+    /**
+     * Returns a {@code Cipher} instance acquired via {@link #initPooledCipher(int, byte[], byte[])} to the pool.  It is
+     * always re-initialized before its next use, so it is returned regardless of whether its operation succeeded.
+     */
+    private void releaseCipher(javax.crypto.Cipher cipher) {
+        int poolSize = cipherPoolSize;
+        if (poolSize <= 0) {
+            return;
+        }
+        // Cipher.getAlgorithm() returns the transformation string the instance was acquired with:
+        String transformation = cipher.getAlgorithm();
+        BlockingQueue<javax.crypto.Cipher> pool = cipherPools.get(transformation);
+        if (pool == null) {
+            BlockingQueue<javax.crypto.Cipher> created = new ArrayBlockingQueue<javax.crypto.Cipher>(poolSize);
+            pool = cipherPools.putIfAbsent(transformation, created);
+            if (pool == null) {
+                pool = created;
+            }
+        }
+        pool.offer(cipher);
     }
 
     /**
@@ -498,6 +715,103 @@ public abstract class JcaCipherService implements CipherService {
     }
 
 
+    /**
+     * Encrypts the remaining bytes of the {@code plaintext} buffer directly into the {@code output} buffer via
+     * {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}, without intermediate copies.  If initialization
+     * vectors are {@link #isGenerateInitializationVectors() generated}, the generated vector is written to the
+     * {@code output} buffer first, exactly as with {@link #encrypt(byte[], byte[])}.
+     *
+     * @since 2.0
+     */
+    @Override
+    public int encrypt(ByteBuffer plaintext, ByteBuffer output, byte[] key) throws CryptoException {
+        assertBuffers(plaintext, output, key);
+        byte[] iv = null;
+        boolean generate = isGenerateInitializationVectors(false);
+        if (generate) {
+            iv = generateInitializationVector(false);
+            if (iv == null || iv.length == 0) {
+                throw new IllegalStateException("Initialization vector generation is enabled - generated vector " +
+                        "cannot be null or empty.");
+            }
+        }
+        int start = output.position();
+        try {
+            if (generate) {
+                if (output.remaining() < iv.length) {
+                    throw new CryptoException("Output buffer is too small for the initialization vector.");
+                }
+                output.put(iv);
+            }
+            return (generate ? iv.length : 0) + crypt(plaintext, output, key, iv, javax.crypto.Cipher.ENCRYPT_MODE);
+        } catch (CryptoException e) {
+            output.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Decrypts the remaining bytes of the {@code ciphertext} buffer directly into the {@code output} buffer via
+     * {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}, without intermediate copies.  If initialization
+     * vectors are {@link #isGenerateInitializationVectors() generated}, the vector is first read from the
+     * {@code ciphertext} buffer, exactly as with {@link #decrypt(byte[], byte[])}.
+     *
+     * @since 2.0
+     */
+    @Override
+    public int decrypt(ByteBuffer ciphertext, ByteBuffer output, byte[] key) throws CryptoException {
+        assertBuffers(ciphertext, output, key);
+        byte[] iv = null;
+        if (isGenerateInitializationVectors(false)) {
+            int ivByteSize = getInitializationVectorSize() / BITS_PER_BYTE;
+            if (ciphertext.remaining() < ivByteSize) {
+                throw new CryptoException("Unable to correctly extract the Initialization Vector or ciphertext.");
+            }
+            iv = new byte[ivByteSize];
+            ciphertext.get(iv);
+        }
+        int start = output.position();
+        try {
+            return crypt(ciphertext, output, key, iv, javax.crypto.Cipher.DECRYPT_MODE);
+        } catch (CryptoException e) {
+            output.position(start);
+            throw e;
+        }
+    }
+
+    private static void assertBuffers(ByteBuffer input, ByteBuffer output, byte[] key) {
+        if (input == null) {
+            throw new NullPointerException("input buffer argument cannot be null.");
+        }
+        if (output == null) {
+            throw new NullPointerException("output buffer argument cannot be null.");
+        }
+        if (output.isReadOnly()) {
+            throw new IllegalArgumentException("output buffer argument cannot be read-only.");
+        }
+        if (key == null || key.length == 0) {
+            throw new IllegalArgumentException("key argument cannot be null or empty.");
+        }
+    }
+
+    private int crypt(ByteBuffer input, ByteBuffer output, byte[] key, byte[] iv, int mode) throws CryptoException {
+        javax.crypto.Cipher cipher = initPooledCipher(mode, key, iv);
+        try {
+            if (output.remaining() < cipher.getOutputSize(input.remaining())) {
+                throw new CryptoException("Output buffer is too small, " + cipher.getOutputSize(input.remaining()) +
+                        " bytes are required.");
+            }
+            return cipher.doFinal(input, output);
+        } catch (CryptoException e) {
+            throw e;
+        } catch (Exception e) {
+            String msg = "Unable to execute 'doFinal' with cipher instance [" + cipher + "].";
+            throw new CryptoException(msg, e);
+        } finally {
+            releaseCipher(cipher);
+        }
+    }
+
     public void encrypt(InputStream in, OutputStream out, byte[] key) throws CryptoException {
         byte[] iv = null;
         boolean generate = isGenerateInitializationVectors(true);
@@ -586,10 +900,266 @@ public abstract class JcaCipherService implements CipherService {
         }
     }
 
+    /**
+     * Encrypts the data read from the given channel with the streaming configuration, feeding
+     * {@link #getChannelBufferSize() channelBufferSize} buffers through
+     * {@link javax.crypto.Cipher#update(ByteBuffer, ByteBuffer)} instead of going through a {@code CipherInputStream}.
+     *
+     * @since 2.0
+     */
+    @Override
+    public void encrypt(ReadableByteChannel in, WritableByteChannel out, byte[] key) throws CryptoException {
+        byte[] iv = null;
+        if (isGenerateInitializationVectors(true)) {
+            iv = generateStreamingInitializationVector();
+            try {
+                writeFully(out, ByteBuffer.wrap(iv));
+            } catch (IOException e) {
+                throw new CryptoException(e);
+            }
+        }
+        crypt(in, out, key, iv, javax.crypto.Cipher.ENCRYPT_MODE);
+    }
+
+    /**
+     * Decrypts the data read from the given channel with the streaming configuration, feeding
+     * {@link #getChannelBufferSize() channelBufferSize} buffers through
+     * {@link javax.crypto.Cipher#update(ByteBuffer, ByteBuffer)} instead of going through a {@code CipherInputStream}.
+     *
+     * @since 2.0
+     */
+    @Override
+    public void decrypt(ReadableByteChannel in, WritableByteChannel out, byte[] key) throws CryptoException {
+        byte[] iv = null;
+        if (isGenerateInitializationVectors(true)) {
+            ByteBuffer ivBuffer = ByteBuffer.allocate(getInitializationVectorSize() / BITS_PER_BYTE);
+            try {
+                while (ivBuffer.hasRemaining()) {
+                    if (in.read(ivBuffer) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                String msg = "Unable to correctly read the Initialization Vector from the input channel.";
+                throw new CryptoException(msg, e);
+            }
+            if (ivBuffer.hasRemaining()) {
+                throw new CryptoException("Unable to read initialization vector bytes from the channel.  " +
+                        "This is required when initialization vectors are autogenerated during an encryption " +
+                        "operation.");
+            }
+            iv = ivBuffer.array();
+        }
+        crypt(in, out, key, iv, javax.crypto.Cipher.DECRYPT_MODE);
+    }
+
+    /**
+     * Encrypts the {@code source} file into the {@code target} file.  If the streaming mode is a
+     * {@link #isCounterMode(boolean) counter mode} and the file is larger than the
+     * {@link #getParallelSegmentSize() parallelSegmentSize}, its segments are encrypted in parallel.
+     *
+     * @since 2.0
+     */
+    @Override
+    public void encrypt(Path source, Path target, byte[] key) throws CryptoException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long length = in.size();
+            if (!isParallel(length)) {
+                encrypt(in, out, key);
+                return;
+            }
+            byte[] iv = generateStreamingInitializationVector();
+            writeFully(out, ByteBuffer.wrap(iv), 0);
+            cryptSegments(in, 0, out, iv.length, length, key, iv, javax.crypto.Cipher.ENCRYPT_MODE);
+        } catch (IOException e) {
+            throw new CryptoException("Unable to encrypt [" + source + "] to [" + target + "].", e);
+        }
+    }
+
+    /**
+     * Decrypts the {@code source} file into the {@code target} file.  If the streaming mode is a
+     * {@link #isCounterMode(boolean) counter mode} and the file is larger than the
+     * {@link #getParallelSegmentSize() parallelSegmentSize}, its segments are decrypted in parallel.
+     *
+     * @since 2.0
+     */
+    @Override
+    public void decrypt(Path source, Path target, byte[] key) throws CryptoException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            int ivByteSize = getInitializationVectorSize() / BITS_PER_BYTE;
+            long length = in.size() - ivByteSize;
+            if (!isParallel(length)) {
+                decrypt(in, out, key);
+                return;
+            }
+            ByteBuffer iv = ByteBuffer.allocate(ivByteSize);
+            readFully(in, iv, 0);
+            cryptSegments(in, ivByteSize, out, 0, length, key, iv.array(), javax.crypto.Cipher.DECRYPT_MODE);
+        } catch (IOException e) {
+            throw new CryptoException("Unable to decrypt [" + source + "] to [" + target + "].", e);
+        }
+    }
+
+    private byte[] generateStreamingInitializationVector() {
+        byte[] iv = generateInitializationVector(true);
+        if (iv == null || iv.length == 0) {
+            throw new IllegalStateException("Initialization vector generation is enabled - generated vector " +
+                    "cannot be null or empty.");
+        }
+        return iv;
+    }
+
+    private boolean isParallel(long length) {
+        long segmentSize = getParallelSegmentSize();
+        return segmentSize > 0 && length > segmentSize &&
+                isCounterMode(true) && isGenerateInitializationVectors(true);
+    }
+
+    private void crypt(ReadableByteChannel in, WritableByteChannel out, byte[] keyBytes, byte[] iv, int cryptMode)
+            throws CryptoException {
+        if (in == null) {
+            throw new NullPointerException("ReadableByteChannel argument cannot be null.");
+        }
+        if (out == null) {
+            throw new NullPointerException("WritableByteChannel argument cannot be null.");
+        }
+
+        javax.crypto.Cipher cipher = initNewCipher(cryptMode, keyBytes, iv, true);
+        int bufferSize = getChannelBufferSize();
+        ByteBuffer input = ByteBuffer.allocate(bufferSize);
+        ByteBuffer output = ByteBuffer.allocate(cipher.getOutputSize(bufferSize));
+        try {
+            while (in.read(input) >= 0) {
+                input.flip();
+                output = ensureCapacity(output, cipher.getOutputSize(input.remaining()));
+                cipher.update(input, output);
+                output.flip();
+                writeFully(out, output);
+                output.clear();
+                input.clear();
+            }
+            input.flip();
+            output = ensureCapacity(output, cipher.getOutputSize(0));
+            cipher.doFinal(input, output);
+            output.flip();
+            writeFully(out, output);
+        } catch (IOException e) {
+            throw new CryptoException(e);
+        } catch (GeneralSecurityException e) {
+            String msg = "Unable to execute 'doFinal' with cipher instance [" + cipher + "].";
+            throw new CryptoException(msg, e);
+        }
+    }
+
+    /**
+     * Encrypts or decrypts {@code length} bytes of {@code in}, starting at {@code inOffset}, into {@code out}, starting
+     * at {@code outOffset}, in segments of {@link #getParallelSegmentSize() parallelSegmentSize} bytes that are
+     * processed in parallel.  Only valid in counter modes, where each segment's counter is derived from the
+     * initialization vector.
+     */
+    private void cryptSegments(FileChannel in, long inOffset, FileChannel out, long outOffset, long length,
+                               byte[] keyBytes, byte[] iv, int cryptMode) throws CryptoException {
+        // in counter modes the initialization vector is a full counter block:
+        int blockSize = iv.length;
+        long segmentSize = Math.max(blockSize, getParallelSegmentSize() - getParallelSegmentSize() % blockSize);
+        long segments = (length + segmentSize - 1) / segmentSize;
+        SegmentTask task = new SegmentTask(in, inOffset, out, outOffset, length, segmentSize, 0, segments,
+                keyBytes, iv, cryptMode);
+        ForkJoinPool.commonPool().invoke(task);
+    }
+
+    private void cryptSegment(FileChannel in, long inOffset, FileChannel out, long outOffset, long length,
+                              byte[] keyBytes, byte[] counter, int cryptMode) throws CryptoException {
+        javax.crypto.Cipher cipher = initNewCipher(cryptMode, keyBytes, counter, true);
+        int bufferSize = (int) Math.min(getChannelBufferSize(), length);
+        ByteBuffer input = ByteBuffer.allocate(bufferSize);
+        ByteBuffer output = ByteBuffer.allocate(cipher.getOutputSize(bufferSize));
+        long read = 0;
+        long written = 0;
+        try {
+            while (read < length) {
+                input.limit((int) Math.min(input.capacity(), length - read));
+                readFully(in, input, inOffset + read);
+                read += input.limit();
+                input.flip();
+                output = ensureCapacity(output, cipher.getOutputSize(input.remaining()));
+                cipher.update(input, output);
+                output.flip();
+                written += writeFully(out, output, outOffset + written);
+                output.clear();
+                input.clear();
+            }
+            input.flip();
+            output = ensureCapacity(output, cipher.getOutputSize(0));
+            cipher.doFinal(input, output);
+            output.flip();
+            writeFully(out, output, outOffset + written);
+        } catch (IOException e) {
+            throw new CryptoException(e);
+        } catch (GeneralSecurityException e) {
+            String msg = "Unable to execute 'doFinal' with cipher instance [" + cipher + "].";
+            throw new CryptoException(msg, e);
+        }
+    }
+
+    /**
+     * Returns the counter block for the block with the given index, which is the initialization vector interpreted as
+     * a big-endian number plus the index.
+     */
+    private static byte[] counterBlock(byte[] iv, long blockIndex) {
+        byte[] counter = iv.clone();
+        long carry = blockIndex;
+        for (int i = counter.length - 1; i >= 0 && carry != 0; i--) {
+            long sum = (counter[i] & 0xFF) + (carry & 0xFF);
+            counter[i] = (byte) sum;
+            carry = (carry >>> 8) + (sum >>> 8);
+        }
+        return counter;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        return buffer.capacity() >= capacity ? buffer : ByteBuffer.allocate(capacity);
+    }
+
+    private static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static int writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int n = in.read(buffer, position + read);
+            if (n < 0) {
+                throw new CryptoException("Unexpected end of file at position " + (position + read) + ".");
+            }
+            read += n;
+        }
+    }
+
     private javax.crypto.Cipher initNewCipher(int jcaCipherMode, byte[] key, byte[] iv, boolean streaming)
             throws CryptoException {
 
         javax.crypto.Cipher cipher = newCipherInstance(streaming);
+        init(cipher, jcaCipherMode, key, iv, streaming);
+        return cipher;
+    }
+
+    private void init(javax.crypto.Cipher cipher, int jcaCipherMode, byte[] key, byte[] iv, boolean streaming)
+            throws CryptoException {
         java.security.Key jdkKey = new SecretKeySpec(key, getAlgorithmName());
         AlgorithmParameterSpec ivSpec = null;
 
@@ -598,11 +1168,70 @@ public abstract class JcaCipherService implements CipherService {
         }
 
         init(cipher, jcaCipherMode, jdkKey, ivSpec, getSecureRandom());
-
-        return cipher;
     }
 
     protected AlgorithmParameterSpec createParameterSpec(byte[] iv, boolean streaming) {
         return new IvParameterSpec(iv);
     }
+
+    /**
+     * Processes a range of segments, splitting it in halves until a single segment remains.
+     */
+    private final class SegmentTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel in;
+        private final long inOffset;
+        private final FileChannel out;
+        private final long outOffset;
+        private final long length;
+        private final long segmentSize;
+        private final long fromSegment;
+        private final long toSegment;
+        private final byte[] keyBytes;
+        private final byte[] iv;
+        private final int cryptMode;
+
+        private SegmentTask(FileChannel in, long inOffset, FileChannel out, long outOffset, long length,
+                            long segmentSize, long fromSegment, long toSegment, byte[] keyBytes, byte[] iv,
+                            int cryptMode) {
+            this.in = in;
+            this.inOffset = inOffset;
+            this.out = out;
+            this.outOffset = outOffset;
+            this.length = length;
+            this.segmentSize = segmentSize;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+            this.keyBytes = keyBytes;
+            this.iv = iv;
+            this.cryptMode = cryptMode;
+        }
+
+        @Override
+        protected void compute() {
+            if (toSegment - fromSegment > 1) {
+                long middle = (fromSegment + toSegment) >>> 1;
+                invokeAll(segments(fromSegment, middle), segments(middle, toSegment));
+                return;
+            }
+            long offset = fromSegment * segmentSize;
+            byte[] counter = counterBlock(iv, offset / iv.length);
+            cryptSegment(in, inOffset + offset, out, outOffset + offset, Math.min(segmentSize, length - offset),
+                    keyBytes, counter, cryptMode);
+        }
+
+        private SegmentTask segments(long from, long to) {
+            return new SegmentTask(in, inOffset, out, outOffset, length, segmentSize, from, to, keyBytes, iv,
+                    cryptMode);
+        }
+    }
+
+    /**
+     * Lazily creates the generator used for initialization vectors when no {@code SecureRandom} is configured.
+     */
+    private static final class DefaultRandomHolder {
+        private static final StripedSecureRandomNumberGenerator INSTANCE = new StripedSecureRandomNumberGenerator();
+    }
 }
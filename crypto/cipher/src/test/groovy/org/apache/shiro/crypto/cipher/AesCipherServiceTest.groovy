@@ -19,8 +19,12 @@
 package org.apache.shiro.crypto.cipher
 
 
+import org.apache.shiro.crypto.CryptoException
 import org.bouncycastle.jce.provider.BouncyCastleProvider
 
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
 import java.security.Security
 
 import static org.junit.Assert.*;
@@ -57,6 +61,95 @@ class AesCipherServiceTest {
         assertStreaming(cipher)
     }
 
+    @Test
+    void testByteBufferOperations() {
+        assertByteBuffer(new AesCipherService(), false)
+        assertByteBuffer(new AesCipherService(), true)
+    }
+
+    @Test
+    void testByteBufferOperationsGcm() {
+        AesCipherService cipher = new AesCipherService()
+        cipher.setMode(OperationMode.GCM)
+        cipher.setPaddingScheme(PaddingScheme.NONE)
+        assertByteBuffer(cipher, false)
+        assertByteBuffer(cipher, true)
+    }
+
+    @Test
+    void testBlockOperationsWithoutCipherPool() {
+        AesCipherService cipher = new AesCipherService()
+        cipher.setCipherPoolSize(0)
+        assertBlock(cipher)
+        assertByteBuffer(cipher, false)
+    }
+
+    @Test
+    void testCipherPoolSurvivesFailedInit() {
+        AesCipherService cipher = new AesCipherService()
+        cipher.setCipherPoolSize(1)
+        try {
+            cipher.encrypt(CodecSupport.toBytes(PLAINTEXTS[1]), new byte[5])
+            fail("CryptoException expected")
+        } catch (CryptoException expected) {
+        }
+        //the instance that failed to init with the invalid key must not be reused:
+        assertBlock(cipher)
+    }
+
+    @Test
+    void testByteBufferOutputTooSmall() {
+        AesCipherService cipher = new AesCipherService()
+        byte[] key = cipher.generateNewKey().getEncoded()
+        ByteBuffer output = ByteBuffer.allocate(20)
+        output.position(3)
+        try {
+            cipher.encrypt(ByteBuffer.wrap(CodecSupport.toBytes(PLAINTEXTS[1])), output, key)
+            fail("CryptoException expected")
+        } catch (CryptoException expected) {
+            assertEquals(3, output.position())
+        }
+    }
+
+    @Test
+    void testFileOperations() {
+        AesCipherService cipher = new AesCipherService()
+        cipher.setChannelBufferSize(1000)
+        [0, 1, 16, 999, 1000, 1001, 100000].each { assertFiles(cipher, it) }
+    }
+
+    @Test
+    void testFileOperationsGcm() {
+        AesCipherService cipher = new AesCipherService()
+        cipher.setStreamingMode(OperationMode.GCM)
+        cipher.setStreamingPaddingScheme(PaddingScheme.NONE)
+        cipher.setChannelBufferSize(100)
+        [0, 5, 1000, 10001].each { assertFiles(cipher, it) }
+    }
+
+    @Test
+    void testParallelCtrFileOperations() {
+        AesCipherService cipher = new AesCipherService()
+        cipher.setStreamingMode(OperationMode.CTR)
+        cipher.setStreamingPaddingScheme(PaddingScheme.NONE)
+        cipher.setChannelBufferSize(777)
+        cipher.setParallelSegmentSize(1000)
+        assertTrue(cipher.isCounterMode(true))
+        // the parallel output is verified against the sequential stream implementation in assertFiles:
+        [0, 5, 1000, 1001, 4096, 100003].each { assertFiles(cipher, it) }
+    }
+
+    @Test
+    void testIsCounterMode() {
+        AesCipherService cipher = new AesCipherService()
+        assertFalse(cipher.isCounterMode(true))
+        cipher.setStreamingMode(OperationMode.CTR)
+        assertFalse(cipher.isCounterMode(true)) // PKCS5 padding
+        cipher.setStreamingPaddingScheme(PaddingScheme.NONE)
+        assertTrue(cipher.isCounterMode(true))
+        assertFalse(cipher.isCounterMode(false))
+    }
+
     @Test
     void testAesGcm() {
         assertBlock(OperationMode.GCM)
@@ -176,4 +269,65 @@ class AesCipherServiceTest {
             assertTrue(Arrays.equals(plaintext, decrypted))
         }
     }
+
+    private static assertByteBuffer(AesCipherService cipher, boolean direct) {
+        byte[] key = cipher.generateNewKey().getEncoded()
+        for (String plain : PLAINTEXTS) {
+            byte[] plaintext = CodecSupport.toBytes(plain)
+            ByteBuffer plainIn = allocate(plaintext.length, direct).put(plaintext)
+            plainIn.flip()
+            ByteBuffer cipherOut = allocate(plaintext.length + 64, direct)
+            int written = cipher.encrypt(plainIn, cipherOut, key)
+            assertEquals(written, cipherOut.position())
+            assertFalse(plainIn.hasRemaining())
+            cipherOut.flip()
+
+            // the ByteBuffer and byte array formats are interchangeable:
+            byte[] ciphertext = new byte[cipherOut.remaining()]
+            cipherOut.duplicate().get(ciphertext)
+            assertTrue(Arrays.equals(plaintext, cipher.decrypt(ciphertext, key).getBytes()))
+
+            ByteBuffer plainOut = allocate(ciphertext.length, direct)
+            assertEquals(plaintext.length, cipher.decrypt(cipherOut, plainOut, key))
+            plainOut.flip()
+            byte[] decrypted = new byte[plainOut.remaining()]
+            plainOut.get(decrypted)
+            assertTrue(Arrays.equals(plaintext, decrypted))
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity)
+    }
+
+    private static assertFiles(AesCipherService cipher, int size) {
+        byte[] key = cipher.generateNewKey().getEncoded()
+        byte[] plaintext = new byte[size]
+        new Random(size).nextBytes(plaintext)
+        Path source = Files.createTempFile("plain", ".bin")
+        Path encrypted = Files.createTempFile("encrypted", ".bin")
+        Path decrypted = Files.createTempFile("decrypted", ".bin")
+        try {
+            Files.write(source, plaintext)
+            cipher.encrypt(source, encrypted, key)
+
+            // the file and stream formats are interchangeable:
+            ByteArrayOutputStream plainOut = new ByteArrayOutputStream()
+            cipher.decrypt(new ByteArrayInputStream(Files.readAllBytes(encrypted)), plainOut, key)
+            assertTrue(Arrays.equals(plaintext, plainOut.toByteArray()))
+
+            cipher.decrypt(encrypted, decrypted, key)
+            assertTrue(Arrays.equals(plaintext, Files.readAllBytes(decrypted)))
+
+            ByteArrayOutputStream cipherOut = new ByteArrayOutputStream()
+            cipher.encrypt(new ByteArrayInputStream(plaintext), cipherOut, key)
+            Files.write(encrypted, cipherOut.toByteArray())
+            cipher.decrypt(encrypted, decrypted, key)
+            assertTrue(Arrays.equals(plaintext, Files.readAllBytes(decrypted)))
+        } finally {
+            Files.deleteIfExists(source)
+            Files.deleteIfExists(encrypted)
+            Files.deleteIfExists(decrypted)
+        }
+    }
 }
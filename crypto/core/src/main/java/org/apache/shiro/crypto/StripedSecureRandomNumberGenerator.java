@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.crypto;
+
+import org.apache.shiro.lang.util.ByteSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A {@link RandomNumberGenerator RandomNumberGenerator} for heavily concurrent use, such as generating session ids,
+ * salts and initialization vectors on every request.
+ * <p/>
+ * A single {@link SecureRandom SecureRandom}, as used by {@link SecureRandomNumberGenerator}, serializes all callers.
+ * This implementation instead spreads callers over a number of <em>stripes</em>, selected by the calling thread, each
+ * with its own independently seeded {@code SecureRandom} instance.  Each stripe also generates its random data in
+ * chunks of {@link #getBufferSize() bufferSize} bytes and hands them out in small pieces, so that the per-call overhead
+ * of the {@code SecureRandom} implementation is paid once per chunk rather than on every call.  Bytes are cleared from
+ * the buffer as soon as they are handed out, and are never handed out twice.
+ * <p/>
+ * Stripes are shared by threads instead of being kept in a {@code ThreadLocal}, so that no state is left behind in
+ * pooled threads (for example when an application is redeployed in a servlet container).  The stripe instances use
+ * the {@code DRBG} algorithm where available (Java 9 and later), and {@code SHA1PRNG} otherwise: unlike the
+ * platform's default {@code NativePRNG}, whose instances all share a global lock, these algorithms keep their state
+ * per instance.
+ *
+ * @since 2.0
+ */
+public class StripedSecureRandomNumberGenerator implements RandomNumberGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(StripedSecureRandomNumberGenerator.class);
+
+    /**
+     * The default size of the random data buffer kept by each stripe, {@code 512} bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 512;
+
+    private static final int DEFAULT_NEXT_BYTES_SIZE = 16; //16 bytes == 128 bits (a common number in crypto)
+
+    private static final int MAX_DEFAULT_STRIPES = 64;
+
+    private static final String[] ALGORITHM_NAMES = {"DRBG", "SHA1PRNG"};
+
+    private final Stripe[] stripes;
+
+    private final int bufferSize;
+
+    private volatile int defaultNextBytesSize;
+
+    /**
+     * Creates a new instance with one stripe per available processor (rounded up to a power of two, at most
+     * {@code 64}) and a {@link #DEFAULT_BUFFER_SIZE default buffer size} of 512 bytes per stripe.
+     */
+    public StripedSecureRandomNumberGenerator() {
+        this(Math.min(MAX_DEFAULT_STRIPES, Runtime.getRuntime().availableProcessors()), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new instance with the given number of stripes, rounded up to a power of two, and the given buffer
+     * size per stripe.
+     *
+     * @param stripes    the number of independent {@code SecureRandom} instances to spread callers over
+     * @param bufferSize the number of random bytes each stripe generates at once
+     * @throws IllegalArgumentException if either argument is 0 or negative
+     */
+    public StripedSecureRandomNumberGenerator(int stripes, int bufferSize) throws IllegalArgumentException {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be a positive integer (1 or larger)");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be a positive integer (1 or larger)");
+        }
+        int count = Integer.highestOneBit(stripes);
+        if (count < stripes) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(newSecureRandom(), bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.defaultNextBytesSize = DEFAULT_NEXT_BYTES_SIZE;
+    }
+
+    private static SecureRandom newSecureRandom() {
+        for (String algorithmName : ALGORITHM_NAMES) {
+            try {
+                return SecureRandom.getInstance(algorithmName);
+            } catch (NoSuchAlgorithmException e) {
+                log.trace("The SecureRandom {} algorithm is not available on the current platform.", algorithmName);
+            }
+        }
+        log.debug("Neither the DRBG nor the SHA1PRNG SecureRandom algorithm is available on the current platform.  " +
+                "Using the platform's default SecureRandom algorithm.");
+        return new SecureRandom();
+    }
+
+    /**
+     * Returns the number of stripes, each backed by its own {@code SecureRandom} instance.
+     *
+     * @return the number of stripes.
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the number of random bytes each stripe generates at once.
+     *
+     * @return the number of random bytes each stripe generates at once.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the size of the generated byte array for calls to {@link #nextBytes() nextBytes()}.  Defaults to
+     * {@code 16}, which equals 128 bits, a size commonly used in cryptographic algorithms.
+     *
+     * @return the size of the generated byte array for calls to {@link #nextBytes() nextBytes()}.
+     */
+    public int getDefaultNextBytesSize() {
+        return defaultNextBytesSize;
+    }
+
+    /**
+     * Sets the size of the generated byte array for calls to {@link #nextBytes() nextBytes()}. Defaults to
+     * {@code 16}, which equals 128 bits, a size commonly used in cryptographic algorithms.
+     *
+     * @param defaultNextBytesSize the size of the generated byte array for calls to {@link #nextBytes() nextBytes()}.
+     * @throws IllegalArgumentException if the argument is 0 or negative
+     */
+    public void setDefaultNextBytesSize(int defaultNextBytesSize) throws IllegalArgumentException {
+        if (defaultNextBytesSize <= 0) {
+            throw new IllegalArgumentException("size value must be a positive integer (1 or larger)");
+        }
+        this.defaultNextBytesSize = defaultNextBytesSize;
+    }
+
+    public ByteSource nextBytes() {
+        return nextBytes(getDefaultNextBytesSize());
+    }
+
+    public ByteSource nextBytes(int numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("numBytes argument must be a positive integer (1 or larger)");
+        }
+        byte[] bytes = new byte[numBytes];
+        nextBytes(bytes);
+        return ByteSource.Util.bytes(bytes);
+    }
+
+    /**
+     * Fills the given array with random bytes.
+     *
+     * @param bytes the array to fill with random bytes
+     */
+    public void nextBytes(byte[] bytes) {
+        if (bytes == null) {
+            throw new NullPointerException("bytes argument cannot be null.");
+        }
+        currentStripe().nextBytes(bytes);
+    }
+
+    private Stripe currentStripe() {
+        long id = Thread.currentThread().getId();
+        // spread sequential thread ids over the stripes:
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final SecureRandom random;
+        private final byte[] buffer;
+        private int position;
+
+        private Stripe(SecureRandom random, int bufferSize) {
+            this.random = random;
+            this.buffer = new byte[bufferSize];
+            this.position = bufferSize;
+        }
+
+        private synchronized void nextBytes(byte[] bytes) {
+            if (bytes.length > buffer.length) {
+                random.nextBytes(bytes);
+                return;
+            }
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (position == buffer.length) {
+                    random.nextBytes(buffer);
+                    position = 0;
+                }
+                int count = Math.min(bytes.length - offset, buffer.length - position);
+                System.arraycopy(buffer, position, bytes, offset, count);
+                Arrays.fill(buffer, position, position + count, (byte) 0);
+                position += count;
+                offset += count;
+            }
+        }
+    }
+}
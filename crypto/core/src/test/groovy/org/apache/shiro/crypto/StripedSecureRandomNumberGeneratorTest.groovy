@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.crypto
+
+import org.apache.shiro.lang.util.ByteSource
+import org.junit.Test
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+
+import static org.junit.Assert.*
+
+/**
+ * Tests for the {@link StripedSecureRandomNumberGenerator} class.
+ *
+ * @since 2.0
+ */
+class StripedSecureRandomNumberGeneratorTest {
+
+    @Test
+    void testDefaultNextBytesSize() {
+        StripedSecureRandomNumberGenerator rng = new StripedSecureRandomNumberGenerator()
+        assertEquals(16, rng.nextBytes().getBytes().length)
+
+        rng.setDefaultNextBytesSize(64)
+        assertEquals(64, rng.nextBytes().getBytes().length)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidDefaultNextBytesSize() {
+        new StripedSecureRandomNumberGenerator().setDefaultNextBytesSize(0)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidNextBytesSize() {
+        new StripedSecureRandomNumberGenerator().nextBytes(0)
+    }
+
+    @Test
+    void testStripesAreRoundedToPowerOfTwo() {
+        assertEquals(1, new StripedSecureRandomNumberGenerator(1, 64).getStripes())
+        assertEquals(8, new StripedSecureRandomNumberGenerator(5, 64).getStripes())
+        assertEquals(8, new StripedSecureRandomNumberGenerator(8, 64).getStripes())
+    }
+
+    @Test
+    void testRequestsSpanningAndExceedingTheBuffer() {
+        StripedSecureRandomNumberGenerator rng = new StripedSecureRandomNumberGenerator(1, 32)
+        [1, 7, 16, 31, 32, 33, 100].each {
+            assertEquals(it, rng.nextBytes(it).getBytes().length)
+        }
+    }
+
+    @Test
+    void testBufferedBytesAreNeverRepeated() {
+        StripedSecureRandomNumberGenerator rng = new StripedSecureRandomNumberGenerator(2, 100)
+        Set<String> values = new HashSet<String>()
+        10000.times {
+            ByteSource bytes = rng.nextBytes(12)
+            assertTrue(values.add(bytes.toHex()))
+        }
+    }
+
+    @Test
+    void testConcurrentUse() {
+        StripedSecureRandomNumberGenerator rng = new StripedSecureRandomNumberGenerator(4, 64)
+        Set<String> values = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>())
+        int threads = 16
+        int perThread = 1000
+        CountDownLatch done = new CountDownLatch(threads)
+        threads.times {
+            Thread.start {
+                try {
+                    perThread.times { values.add(rng.nextBytes().toHex()) }
+                } finally {
+                    done.countDown()
+                }
+            }
+        }
+        done.await()
+        assertEquals(threads * perThread, values.size())
+    }
+}
@@ -18,10 +18,14 @@
  */
 package org.apache.shiro.crypto.hash;
 
+import org.apache.shiro.crypto.CryptoException;
 import org.apache.shiro.crypto.RandomNumberGenerator;
-import org.apache.shiro.crypto.SecureRandomNumberGenerator;
+import org.apache.shiro.crypto.StripedSecureRandomNumberGenerator;
 import org.apache.shiro.lang.util.ByteSource;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
 /**
  * Default implementation of the {@link HashService} interface, supporting a customizable hash algorithm name,
  * secure-random salt generation, multiple hash iterations and an optional internal
@@ -36,7 +40,7 @@ import org.apache.shiro.lang.util.ByteSource;
  * {@link #setRandomNumberGenerator(org.apache.shiro.crypto.RandomNumberGenerator) randomNumberGenerator} property.
  * Random salts (and potentially combined with the internal {@link #getPrivateSalt() privateSalt}) is a very strong
  * salting strategy, as salts should ideally never be based on known/guessable data.  The default instance is a
- * {@link SecureRandomNumberGenerator}.
+ * {@link StripedSecureRandomNumberGenerator}.
  * <h2>Hash Iterations</h2>
  * Secure hashing strategies often employ multiple hash iterations to slow down the hashing process.  This technique
  * is usually used for password hashing, since the longer it takes to compute a password hash, the longer it would
@@ -99,7 +103,7 @@ public class DefaultHashService implements ConfigurableHashService {
      * <li>{@link #setHashAlgorithmName(String) hashAlgorithmName} = {@code SHA-512}</li>
      * <li>{@link #setHashIterations(int) hashIterations} = {@code 1}</li>
      * <li>{@link #setRandomNumberGenerator(org.apache.shiro.crypto.RandomNumberGenerator) randomNumberGenerator} =
-     * new {@link SecureRandomNumberGenerator}()</li>
+     * new {@link StripedSecureRandomNumberGenerator}()</li>
      * <li>{@link #setGeneratePublicSalt(boolean) generatePublicSalt} = {@code false}</li>
      * </ul>
      * <p/>
@@ -111,7 +115,7 @@ public class DefaultHashService implements ConfigurableHashService {
         this.algorithmName = "SHA-512";
         this.iterations = 1;
         this.generatePublicSalt = false;
-        this.rng = new SecureRandomNumberGenerator();
+        this.rng = new StripedSecureRandomNumberGenerator();
     }
 
     /**
@@ -142,28 +146,40 @@ public class DefaultHashService implements ConfigurableHashService {
      * The returned {@code Hash}'s {@link Hash#getSalt() salt} property
      * will contain <em>only</em> the 'public' part of the salt and <em>NOT</em> the privateSalt.  See the class-level
      * JavaDoc explanation for more info.
+     * <p/>
+     * A {@link StreamingHashRequest} is read from its {@link StreamingHashRequest#openSource() source channel} through
+     * a fixed size buffer, so that arbitrarily large sources can be hashed without loading them into memory.  Unlike
+     * other requests, streaming requests are hashed even if their source turns out to be empty.
      *
      * @param request the request to process
      * @return the response containing the result of the hash computation, as well as any hash salt used that should be
      *         exposed to the caller.
      */
     public Hash computeHash(HashRequest request) {
-        if (request == null || request.getSource() == null || request.getSource().isEmpty()) {
+        if (request == null) {
+            return null;
+        }
+        boolean streaming = request instanceof StreamingHashRequest;
+        if (!streaming && (request.getSource() == null || request.getSource().isEmpty())) {
             return null;
         }
 
         String algorithmName = getAlgorithmName(request);
-        ByteSource source = request.getSource();
         int iterations = getIterations(request);
 
         ByteSource publicSalt = getPublicSalt(request);
         ByteSource privateSalt = getPrivateSalt();
         ByteSource salt = combine(privateSalt, publicSalt);
 
-        Hash computed = new SimpleHash(algorithmName, source, salt, iterations);
-
         SimpleHash result = new SimpleHash(algorithmName);
-        result.setBytes(computed.getBytes());
+        byte[] saltBytes = salt != null ? salt.getBytes() : null;
+        if (streaming) {
+            result.setBytes(computeStreamingHash((StreamingHashRequest) request, algorithmName, saltBytes, iterations));
+        } else {
+            //same result as new SimpleHash(algorithmName, source, salt, iterations), without the intermediate instance:
+            byte[] source = request.getSource().getBytes();
+            result.setBytes(MessageDigestPool.getDefault().hash(algorithmName, source, saltBytes, iterations));
+        }
         result.setIterations(iterations);
         //Only expose the public salt - not the real/combined salt that might have been used:
         result.setSalt(publicSalt);
@@ -171,6 +187,15 @@ public class DefaultHashService implements ConfigurableHashService {
         return result;
     }
 
+    private byte[] computeStreamingHash(StreamingHashRequest request, String algorithmName, byte[] salt,
+                                        int iterations) {
+        try (ReadableByteChannel source = request.openSource()) {
+            return MessageDigestPool.getDefault().hash(algorithmName, source, salt, iterations);
+        } catch (IOException e) {
+            throw new CryptoException("Unable to read the source of the hash request.", e);
+        }
+    }
+
     protected String getAlgorithmName(HashRequest request) {
         String name = request.getAlgorithmName();
         if (name == null) {
@@ -20,6 +20,10 @@ package org.apache.shiro.crypto.hash;
 
 import org.apache.shiro.lang.util.ByteSource;
 
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
 /**
  * A {@code HashRequest} is composed of data that will be used by a {@link HashService} to compute a hash (aka
  * 'digest').  While you can instantiate a concrete {@code HashRequest} class directly, most will find using the
@@ -85,6 +89,9 @@ public interface HashRequest {
     public static class Builder {
 
         private ByteSource source;
+        private Path sourcePath;
+        private ReadableByteChannel sourceChannel;
+        private InputStream sourceStream;
         private ByteSource salt;
         private int iterations;
         private String algorithmName;
@@ -131,6 +138,50 @@ public interface HashRequest {
             return this;
         }
 
+        /**
+         * Sets a file whose contents will be hashed by a {@link HashService}, read incrementally instead of being
+         * loaded into memory.  This takes precedence over any {@link #setSource(ByteSource) source} data.
+         *
+         * @param sourcePath the file whose contents will be hashed by a {@link HashService}.
+         * @return this {@code Builder} instance for method chaining.
+         * @see StreamingHashRequest
+         * @since 2.0
+         */
+        public Builder setSourcePath(Path sourcePath) {
+            this.sourcePath = sourcePath;
+            return this;
+        }
+
+        /**
+         * Sets a channel supplying the data that will be hashed by a {@link HashService}, read incrementally instead
+         * of being loaded into memory.  This takes precedence over any {@link #setSource(ByteSource) source} data.
+         * The channel is closed once it has been read, and can only be hashed once.
+         *
+         * @param sourceChannel the channel supplying the data that will be hashed by a {@link HashService}.
+         * @return this {@code Builder} instance for method chaining.
+         * @see StreamingHashRequest
+         * @since 2.0
+         */
+        public Builder setSourceChannel(ReadableByteChannel sourceChannel) {
+            this.sourceChannel = sourceChannel;
+            return this;
+        }
+
+        /**
+         * Sets a stream supplying the data that will be hashed by a {@link HashService}, read incrementally instead
+         * of being loaded into memory.  This takes precedence over any {@link #setSource(ByteSource) source} data.
+         * The stream is closed once it has been read, and can only be hashed once.
+         *
+         * @param sourceStream the stream supplying the data that will be hashed by a {@link HashService}.
+         * @return this {@code Builder} instance for method chaining.
+         * @see StreamingHashRequest
+         * @since 2.0
+         */
+        public Builder setSourceStream(InputStream sourceStream) {
+            this.sourceStream = sourceStream;
+            return this;
+        }
+
         /**
          * Sets a salt to be used by the {@link HashService} during hash computation.
          * <p/>
@@ -214,11 +265,21 @@ public interface HashRequest {
         }
 
         /**
-         * Builds a {@link HashRequest} instance reflecting the specified configuration.
+         * Builds a {@link HashRequest} instance reflecting the specified configuration.  If a source path, channel or
+         * stream was set, the returned instance is a {@link StreamingHashRequest}.
          *
          * @return a {@link HashRequest} instance reflecting the specified configuration.
          */
         public HashRequest build() {
+            if (this.sourcePath != null) {
+                return new SimpleStreamingHashRequest(this.algorithmName, this.sourcePath, this.salt, this.iterations);
+            }
+            if (this.sourceChannel != null) {
+                return new SimpleStreamingHashRequest(this.algorithmName, this.sourceChannel, this.salt, this.iterations);
+            }
+            if (this.sourceStream != null) {
+                return new SimpleStreamingHashRequest(this.algorithmName, this.sourceStream, this.salt, this.iterations);
+            }
             return new SimpleHashRequest(this.algorithmName, this.source, this.salt, this.iterations);
         }
     }
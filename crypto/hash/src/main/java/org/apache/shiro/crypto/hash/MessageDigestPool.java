@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.crypto.hash;
+
+import org.apache.shiro.crypto.UnknownAlgorithmException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hashing engine that reuses {@link MessageDigest} instances and computes iterated hashes without allocating per
+ * iteration.
+ * <p/>
+ * Obtaining a {@code MessageDigest} via {@code MessageDigest.getInstance} involves a provider lookup on every call.
+ * This pool instead keeps a prototype per algorithm name, creates new instances by cloning it, and keeps a bounded
+ * number of idle instances per algorithm for reuse.  Instances are shared by all threads rather than held in
+ * {@code ThreadLocal}s, so no state is left behind in pooled threads.
+ * <p/>
+ * {@link #hash(String, byte[], byte[], int) hash} computes exactly the same result as
+ * {@link SimpleHash}{@code (algorithmName, source, salt, iterations)} always has, but digests every iteration into the
+ * same output buffer via {@link MessageDigest#digest(byte[], int, int)}, so a hash with hundreds of thousands of
+ * iterations allocates a single array instead of one per iteration.
+ *
+ * @see SimpleHash
+ * @see DefaultHashService
+ * @since 2.0
+ */
+public final class MessageDigestPool {
+
+    private static final int DEFAULT_POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private static final int STREAMING_BUFFER_SIZE = 64 * 1024;
+
+    private static final MessageDigestPool DEFAULT = new MessageDigestPool(DEFAULT_POOL_SIZE);
+
+    private final ConcurrentMap<String, Algorithm> algorithms = new ConcurrentHashMap<String, Algorithm>();
+
+    private final int poolSize;
+
+    /**
+     * Creates a new pool keeping at most {@code poolSize} idle instances per algorithm.
+     *
+     * @param poolSize the maximum number of idle instances kept per algorithm, {@code 0} to disable reuse
+     */
+    public MessageDigestPool(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("poolSize cannot be negative.");
+        }
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Returns the pool shared by {@link SimpleHash} and {@link DefaultHashService}.
+     *
+     * @return the pool shared by {@link SimpleHash} and {@link DefaultHashService}.
+     */
+    public static MessageDigestPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the maximum number of idle instances kept per algorithm.
+     *
+     * @return the maximum number of idle instances kept per algorithm.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Returns a reset {@code MessageDigest} for the given algorithm name, which should be handed back via
+     * {@link #release(MessageDigest)} once it is no longer used.
+     *
+     * @param algorithmName the {@code MessageDigest} algorithm name
+     * @return a reset {@code MessageDigest} for the given algorithm name
+     * @throws UnknownAlgorithmException if the algorithm is not available
+     */
+    public MessageDigest acquire(String algorithmName) throws UnknownAlgorithmException {
+        return algorithm(algorithmName).acquire();
+    }
+
+    /**
+     * Resets the given {@code MessageDigest}, previously obtained from {@link #acquire(String)}, and keeps it for reuse
+     * if fewer than {@link #getPoolSize() poolSize} instances of its algorithm are idle.
+     *
+     * @param digest the {@code MessageDigest} to release, may be {@code null}
+     */
+    public void release(MessageDigest digest) {
+        if (digest == null || poolSize == 0) {
+            return;
+        }
+        Algorithm algorithm = algorithms.get(digest.getAlgorithm());
+        if (algorithm != null) {
+            digest.reset();
+            algorithm.idle.offer(digest);
+        }
+    }
+
+    /**
+     * Hashes the given bytes, prefixed with the given salt, for the given number of iterations, using a pooled
+     * {@code MessageDigest}.
+     *
+     * @param algorithmName  the {@code MessageDigest} algorithm name
+     * @param bytes          the bytes to hash
+     * @param salt           the salt to use for the initial hash, may be {@code null}
+     * @param hashIterations the number of times the {@code bytes} will be hashed
+     * @return the hashed bytes
+     * @throws UnknownAlgorithmException if the algorithm is not available
+     */
+    public byte[] hash(String algorithmName, byte[] bytes, byte[] salt, int hashIterations)
+            throws UnknownAlgorithmException {
+        MessageDigest digest = acquire(algorithmName);
+        try {
+            return hash(digest, bytes, salt, hashIterations);
+        } finally {
+            release(digest);
+        }
+    }
+
+    /**
+     * Hashes the given bytes, prefixed with the given salt, for the given number of iterations with the given
+     * {@code MessageDigest}, digesting every iteration into the same output buffer.
+     *
+     * @param digest         the {@code MessageDigest} to use
+     * @param bytes          the bytes to hash
+     * @param salt           the salt to use for the initial hash, may be {@code null}
+     * @param hashIterations the number of times the {@code bytes} will be hashed
+     * @return the hashed bytes
+     */
+    static byte[] hash(MessageDigest digest, byte[] bytes, byte[] salt, int hashIterations) {
+        digest.reset();
+        if (salt != null) {
+            digest.update(salt);
+        }
+        digest.update(bytes);
+        return iterate(digest, hashIterations);
+    }
+
+    /**
+     * Hashes the data read from the given channel until end-of-stream, prefixed with the given salt, for the given
+     * number of iterations, using a pooled {@code MessageDigest}.  The data is fed to the digest incrementally through
+     * a fixed size buffer, so the amount of data hashed is not limited by the available memory.  The channel is not
+     * closed.
+     *
+     * @param algorithmName  the {@code MessageDigest} algorithm name
+     * @param source         the channel supplying the data to hash
+     * @param salt           the salt to use for the initial hash, may be {@code null}
+     * @param hashIterations the number of times the data will be hashed
+     * @return the hashed bytes
+     * @throws UnknownAlgorithmException if the algorithm is not available
+     * @throws IOException               if the channel cannot be read
+     */
+    public byte[] hash(String algorithmName, ReadableByteChannel source, byte[] salt, int hashIterations)
+            throws UnknownAlgorithmException, IOException {
+        if (source == null) {
+            throw new NullPointerException("source argument cannot be null.");
+        }
+        MessageDigest digest = acquire(algorithmName);
+        try {
+            if (salt != null) {
+                digest.update(salt);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(STREAMING_BUFFER_SIZE);
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return iterate(digest, hashIterations);
+        } finally {
+            release(digest);
+        }
+    }
+
+    /**
+     * Completes the digest of the data fed to the given {@code MessageDigest} so far, then re-hashes the result for
+     * the remaining iterations, digesting every iteration into the same output buffer.
+     */
+    private static byte[] iterate(MessageDigest digest, int hashIterations) {
+        int length = digest.getDigestLength();
+        if (length <= 0) {
+            // the provider does not report its digest length, iterate the allocating way:
+            byte[] hashed = digest.digest();
+            for (int i = 1; i < hashIterations; i++) {
+                hashed = digest.digest(hashed);
+            }
+            return hashed;
+        }
+        byte[] hashed = new byte[length];
+        try {
+            digest.digest(hashed, 0, length);
+            for (int i = 1; i < hashIterations; i++) {
+                digest.update(hashed, 0, length);
+                digest.digest(hashed, 0, length);
+            }
+        } catch (DigestException e) {
+            throw new IllegalStateException("Unable to digest into a buffer of the reported digest length.", e);
+        }
+        return hashed;
+    }
+
+    private Algorithm algorithm(String algorithmName) throws UnknownAlgorithmException {
+        Algorithm algorithm = algorithms.get(algorithmName);
+        if (algorithm == null) {
+            MessageDigest prototype;
+            try {
+                prototype = MessageDigest.getInstance(algorithmName);
+            } catch (NoSuchAlgorithmException e) {
+                String msg = "No native '" + algorithmName + "' MessageDigest instance available on the current JVM.";
+                throw new UnknownAlgorithmException(msg, e);
+            }
+            Algorithm created = new Algorithm(algorithmName, prototype, Math.max(1, poolSize));
+            algorithm = algorithms.putIfAbsent(algorithmName, created);
+            if (algorithm == null) {
+                algorithm = created;
+            }
+        }
+        return algorithm;
+    }
+
+    private static final class Algorithm {
+
+        private final String name;
+        // never updated, only cloned; null if the implementation does not support cloning
+        private final MessageDigest prototype;
+        private final BlockingQueue<MessageDigest> idle;
+
+        private Algorithm(String name, MessageDigest prototype, int poolSize) {
+            this.name = name;
+            this.prototype = isCloneable(prototype) ? prototype : null;
+            this.idle = new ArrayBlockingQueue<MessageDigest>(poolSize);
+            if (this.prototype == null) {
+                this.idle.offer(prototype);
+            }
+        }
+
+        private static boolean isCloneable(MessageDigest prototype) {
+            try {
+                prototype.clone();
+                return true;
+            } catch (CloneNotSupportedException e) {
+                return false;
+            }
+        }
+
+        private MessageDigest acquire() throws UnknownAlgorithmException {
+            MessageDigest digest = idle.poll();
+            if (digest != null) {
+                return digest;
+            }
+            if (prototype != null) {
+                try {
+                    return (MessageDigest) prototype.clone();
+                } catch (CloneNotSupportedException e) {
+                    // cloning was supported when the prototype was created, fall through to a new instance
+                }
+            }
+            try {
+                return MessageDigest.getInstance(name);
+            } catch (NoSuchAlgorithmException e) {
+                String msg = "No native '" + name + "' MessageDigest instance available on the current JVM.";
+                throw new UnknownAlgorithmException(msg, e);
+            }
+        }
+    }
+}
@@ -44,6 +44,25 @@ public class SimpleHash extends AbstractHash {
 
     private static final int DEFAULT_ITERATIONS = 1;
 
+    /**
+     * Whether a subclass overrides {@link #getDigest(String)}, in which case its digests are used instead of the
+     * {@link MessageDigestPool#getDefault() default MessageDigestPool}.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_GET_DIGEST = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != SimpleHash.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("getDigest", String.class);
+                    return Boolean.TRUE;
+                } catch (NoSuchMethodException e) {
+                    //not declared here, check the superclass
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
+
     /**
      * The {@link java.security.MessageDigest MessageDigest} algorithm name to use when performing the hash.
      */
@@ -293,6 +312,9 @@ public class SimpleHash extends AbstractHash {
 
     /**
      * Returns the JDK MessageDigest instance to use for executing the hash.
+     * <p/>
+     * As of Shiro 2.0, hashes are computed with pooled instances of the {@link MessageDigestPool#getDefault() default
+     * MessageDigestPool}, and this method is only called if a subclass overrides it.
      *
      * @param algorithmName the algorithm to use for the hash, provided by subclasses.
      * @return the MessageDigest object for the specified {@code algorithm}.
@@ -340,19 +362,12 @@ public class SimpleHash extends AbstractHash {
      * @throws UnknownAlgorithmException if the {@link #getAlgorithmName() algorithmName} is not available.
      */
     protected byte[] hash(byte[] bytes, byte[] salt, int hashIterations) throws UnknownAlgorithmException {
-        MessageDigest digest = getDigest(getAlgorithmName());
-        if (salt != null) {
-            digest.reset();
-            digest.update(salt);
+        if (!OVERRIDES_GET_DIGEST.get(getClass())) {
+            return MessageDigestPool.getDefault().hash(getAlgorithmName(), bytes, salt, hashIterations);
         }
-        byte[] hashed = digest.digest(bytes);
-        int iterations = hashIterations - 1; //already hashed once above
-        //iterate remaining number:
-        for (int i = 0; i < iterations; i++) {
-            digest.reset();
-            hashed = digest.digest(hashed);
-        }
-        return hashed;
+        //a subclass provides its own MessageDigest instances:
+        MessageDigest digest = getDigest(getAlgorithmName());
+        return MessageDigestPool.hash(digest, bytes, salt, hashIterations);
     }
 
     public boolean isEmpty() {
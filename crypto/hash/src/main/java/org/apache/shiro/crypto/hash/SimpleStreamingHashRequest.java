@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.crypto.hash;
+
+import org.apache.shiro.crypto.CryptoException;
+import org.apache.shiro.lang.util.ByteSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simple implementation of the {@link StreamingHashRequest} interface, reading the source data from a file, an
+ * {@code InputStream} or a {@code ReadableByteChannel}.
+ * <p/>
+ * A file can be read any number of times.  A stream or channel can only be read once, and is closed together with
+ * the channel returned by {@link #openSource()}.
+ *
+ * @since 2.0
+ */
+public class SimpleStreamingHashRequest implements StreamingHashRequest {
+
+    private final Path path; //null if the source is a stream or channel
+    private final AtomicReference<ReadableByteChannel> channel; //null if the source is a file
+    private final ByteSource salt; //null = no salt specified
+    private final int iterations; //0 = not specified by the requestor; let the HashService decide.
+    private final String algorithmName; //null = let the HashService decide.
+
+    /**
+     * Creates a new request hashing the contents of the given file.
+     *
+     * @param algorithmName the name of the hash algorithm to use, or {@code null} to use the HashService's default
+     * @param source        the file to hash, cannot be null
+     * @param salt          the public salt to use, or {@code null} to let the HashService decide
+     * @param iterations    the number of hash iterations, or {@code 0} to let the HashService decide
+     * @throws NullPointerException if {@code source} is null
+     */
+    public SimpleStreamingHashRequest(String algorithmName, Path source, ByteSource salt, int iterations) {
+        if (source == null) {
+            throw new NullPointerException("source argument cannot be null");
+        }
+        this.path = source;
+        this.channel = null;
+        this.salt = salt;
+        this.algorithmName = algorithmName;
+        this.iterations = Math.max(0, iterations);
+    }
+
+    /**
+     * Creates a new request hashing the data read from the given channel.
+     *
+     * @param algorithmName the name of the hash algorithm to use, or {@code null} to use the HashService's default
+     * @param source        the channel supplying the data to hash, cannot be null
+     * @param salt          the public salt to use, or {@code null} to let the HashService decide
+     * @param iterations    the number of hash iterations, or {@code 0} to let the HashService decide
+     * @throws NullPointerException if {@code source} is null
+     */
+    public SimpleStreamingHashRequest(String algorithmName, ReadableByteChannel source, ByteSource salt,
+                                      int iterations) {
+        if (source == null) {
+            throw new NullPointerException("source argument cannot be null");
+        }
+        this.path = null;
+        this.channel = new AtomicReference<ReadableByteChannel>(source);
+        this.salt = salt;
+        this.algorithmName = algorithmName;
+        this.iterations = Math.max(0, iterations);
+    }
+
+    /**
+     * Creates a new request hashing the data read from the given stream.
+     *
+     * @param algorithmName the name of the hash algorithm to use, or {@code null} to use the HashService's default
+     * @param source        the stream supplying the data to hash, cannot be null
+     * @param salt          the public salt to use, or {@code null} to let the HashService decide
+     * @param iterations    the number of hash iterations, or {@code 0} to let the HashService decide
+     * @throws NullPointerException if {@code source} is null
+     */
+    public SimpleStreamingHashRequest(String algorithmName, InputStream source, ByteSource salt, int iterations) {
+        this(algorithmName, toChannel(source), salt, iterations);
+    }
+
+    private static ReadableByteChannel toChannel(InputStream source) {
+        if (source == null) {
+            throw new NullPointerException("source argument cannot be null");
+        }
+        return Channels.newChannel(source);
+    }
+
+    public ReadableByteChannel openSource() throws IOException {
+        if (path != null) {
+            return Files.newByteChannel(path);
+        }
+        ReadableByteChannel source = channel.getAndSet(null);
+        if (source == null) {
+            throw new IllegalStateException("The source stream or channel of this request has already been read.");
+        }
+        return source;
+    }
+
+    /**
+     * Reads the entire source into memory, for {@link HashService} implementations that do not support streaming.
+     *
+     * @return the entire source data.
+     * @throws CryptoException if the source cannot be read
+     */
+    public ByteSource getSource() {
+        try (ReadableByteChannel source = openSource()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (source.read(buffer) >= 0) {
+                out.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            return ByteSource.Util.bytes(out.toByteArray());
+        } catch (IOException e) {
+            throw new CryptoException("Unable to read the hash request source.", e);
+        }
+    }
+
+    public ByteSource getSalt() {
+        return this.salt;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.crypto.hash;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A {@link HashRequest} whose source data is read incrementally from a channel instead of being held in memory, for
+ * example to compute the checksum of a large file.
+ * <p/>
+ * {@link HashService} implementations that support streaming, such as {@link DefaultHashService}, read the source
+ * via {@link #openSource()} and feed it to the digest through a fixed size buffer.  Other implementations can still
+ * use {@link #getSource()}, which reads the entire source into memory.
+ *
+ * @see SimpleStreamingHashRequest
+ * @see HashRequest.Builder#setSourcePath(java.nio.file.Path)
+ * @since 2.0
+ */
+public interface StreamingHashRequest extends HashRequest {
+
+    /**
+     * Returns a channel supplying the source data to hash, which the caller must close when it is finished reading.
+     * Depending on the source, this may only be called once.
+     *
+     * @return a channel supplying the source data to hash.
+     * @throws IOException if the source cannot be opened
+     */
+    ReadableByteChannel openSource() throws IOException;
+}
@@ -24,13 +24,18 @@ import org.apache.shiro.lang.util.UnknownClassException;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This default {@code HashFormatFactory} implementation heuristically determines a {@code HashFormat} class to
  * instantiate based on the input argument and returns a new instance of the discovered class.  The heuristics are
  * detailed in the {@link #getInstance(String) getInstance} method documentation.
+ * <p/>
+ * As of 2.0, shared instances of Shiro's {@link ProvidedHashFormat provided formats} and any other
+ * {@link #getFormats() registered formats} are returned directly, without any class lookup or instantiation.
  *
  * @since 1.2
  */
@@ -40,9 +45,46 @@ public class DefaultHashFormatFactory implements HashFormatFactory {
 
     private Set<String> searchPackages; //packages to search for HashFormat implementations
 
+    private Map<String, HashFormat> formats; //id or fully qualified class name - to - shared instance
+
     public DefaultHashFormatFactory() {
         this.searchPackages = new HashSet<String>();
         this.formatClassNames = new HashMap<String, String>();
+        this.formats = new ConcurrentHashMap<String, HashFormat>();
+        for (ProvidedHashFormat provided : ProvidedHashFormat.values()) {
+            HashFormat format = newHashFormatInstance(provided.getHashFormatClass());
+            this.formats.put(provided.name().toLowerCase(Locale.ENGLISH), format);
+            this.formats.put(format.getClass().getName(), format);
+        }
+    }
+
+    /**
+     * Returns an {@code id}-to-{@code HashFormat} map of shared instances returned by
+     * {@link #getInstance(String) getInstance} without any class lookup or instantiation.  Keys are matched exactly
+     * against the {@code getInstance} argument or, for Modular Crypt Format strings, against the MCF id.
+     * <p/>
+     * By default, the map contains instances of all {@link ProvidedHashFormat provided formats}, keyed by their
+     * lower case id (e.g. {@code shiro1}) as well as their fully qualified class name.  Because registered instances
+     * are shared by all callers, they must be thread-safe.  A {@link #getFormatClassNames() formatClassNames} entry
+     * with the same key takes precedence over a registered instance.
+     *
+     * @return an {@code id}-to-{@code HashFormat} map of shared, thread-safe instances.
+     * @since 2.0
+     */
+    public Map<String, HashFormat> getFormats() {
+        return formats;
+    }
+
+    /**
+     * Sets the {@code id}-to-{@code HashFormat} map of shared, thread-safe instances returned by
+     * {@link #getInstance(String) getInstance}, replacing the default map.  See the {@link #getFormats()} JavaDoc for
+     * more information.
+     *
+     * @param formats the {@code id}-to-{@code HashFormat} map of shared, thread-safe instances.
+     * @since 2.0
+     */
+    public void setFormats(Map<String, HashFormat> formats) {
+        this.formats = formats != null ? new ConcurrentHashMap<String, HashFormat>(formats) : null;
     }
 
     /**
@@ -126,17 +168,23 @@ public class DefaultHashFormatFactory implements HashFormatFactory {
             //odds are high that the input argument is not a fully qualified class name or a format key (e.g. 'hex',
             //base64' or 'shiro1').  Try to find the key and lookup via that:
             String test = in.substring(ModularCryptFormat.TOKEN_DELIMITER.length());
-            String[] tokens = test.split("\\" + ModularCryptFormat.TOKEN_DELIMITER);
             //the MCF ID is always the first token in the delimited string:
-            String possibleMcfId = (tokens != null && tokens.length > 0) ? tokens[0] : null;
-            if (possibleMcfId != null) {
-                //found a possible MCF ID - test it using our heuristics to see if we can find a corresponding class:
-                clazz = getHashFormatClass(possibleMcfId);
+            int end = test.indexOf(ModularCryptFormat.TOKEN_DELIMITER);
+            String possibleMcfId = end >= 0 ? test.substring(0, end) : test;
+            hashFormat = getRegisteredFormat(possibleMcfId);
+            if (hashFormat != null) {
+                return hashFormat;
             }
+            //test the possible MCF ID using our heuristics to see if we can find a corresponding class:
+            clazz = getHashFormatClass(possibleMcfId);
         }
 
         if (clazz == null) {
             //not an MCF-formatted string - use the unaltered input arg and go through our heuristics:
+            hashFormat = getRegisteredFormat(in);
+            if (hashFormat != null) {
+                return hashFormat;
+            }
             clazz = getHashFormatClass(in);
         }
 
@@ -148,6 +196,15 @@ public class DefaultHashFormatFactory implements HashFormatFactory {
         return hashFormat;
     }
 
+    private HashFormat getRegisteredFormat(String token) {
+        Map<String, HashFormat> formats = this.formats;
+        if (formats == null || (this.formatClassNames != null && this.formatClassNames.containsKey(token))) {
+            //configured aliases take precedence:
+            return null;
+        }
+        return formats.get(token);
+    }
+
     /**
      * Heuristically determine the fully qualified HashFormat implementation class name based on the specified
      * token.
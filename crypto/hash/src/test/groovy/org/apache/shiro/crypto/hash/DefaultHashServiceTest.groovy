@@ -23,6 +23,9 @@ import org.apache.shiro.crypto.SecureRandomNumberGenerator
 import org.apache.shiro.lang.util.ByteSource
 import org.junit.Test
 
+import java.nio.channels.Channels
+import java.nio.file.Files
+
 import static org.easymock.EasyMock.*
 import static org.junit.Assert.*
 
@@ -147,6 +150,76 @@ class DefaultHashServiceTest {
         assertFalse first == second
     }
 
+    @Test
+    void testStreamingFileRequest() {
+        def service = new DefaultHashService(hashAlgorithmName: 'SHA-256', hashIterations: 3)
+        byte[] data = createData(200 * 1024)
+        def path = Files.createTempFile('shiro-hash', '.bin')
+        try {
+            Files.write(path, data)
+            def request = new HashRequest.Builder().setSourcePath(path).setSalt('salt').build()
+            assertTrue request instanceof StreamingHashRequest
+
+            Hash streamed = service.computeHash(request)
+            assertEquals new SimpleHash('SHA-256', data, 'salt', 3), streamed
+            assertEquals 3, streamed.iterations
+            assertEquals ByteSource.Util.bytes('salt'), streamed.salt
+            //files can be hashed repeatedly:
+            assertEquals streamed, service.computeHash(request)
+        } finally {
+            Files.delete(path)
+        }
+    }
+
+    @Test
+    void testStreamingStreamRequest() {
+        def service = createServiceWithPrivateSalt()
+        byte[] data = createData(100 * 1024 + 7)
+        def request = new HashRequest.Builder().setSourceStream(new ByteArrayInputStream(data)).setSalt('salt').build()
+
+        Hash streamed = service.computeHash(request)
+        assertEquals service.computeHash(new HashRequest.Builder().setSource(data).setSalt('salt').build()), streamed
+
+        //streams can only be read once:
+        try {
+            service.computeHash(request)
+            fail "IllegalStateException should be thrown"
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    void testStreamingChannelRequest() {
+        def service = createService()
+        byte[] data = createData(1000)
+        def channel = Channels.newChannel(new ByteArrayInputStream(data))
+        def request = new HashRequest.Builder().setSourceChannel(channel).setSalt('salt').build()
+
+        Hash streamed = service.computeHash(request)
+        assertEquals hash(service, data, 'salt'), streamed
+        assertFalse channel.isOpen()
+    }
+
+    @Test
+    void testStreamingEmptyRequest() {
+        def service = new DefaultHashService(hashAlgorithmName: 'MD5')
+        def request = new HashRequest.Builder().setSourceStream(new ByteArrayInputStream(new byte[0])).build()
+        assertEquals new SimpleHash('MD5', new byte[0]), service.computeHash(request)
+    }
+
+    @Test
+    void testStreamingRequestGetSource() {
+        byte[] data = createData(20000)
+        def request = new SimpleStreamingHashRequest(null, new ByteArrayInputStream(data), null, 0)
+        assertArrayEquals data, request.source.bytes
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length]
+        new Random(42).nextBytes(data)
+        return data
+    }
+
     protected Hash hash(HashService hashService, def source) {
         return hashService.computeHash(new HashRequest.Builder().setSource(source).build());
     }
@@ -61,4 +61,18 @@ class HashRequestBuilderTest {
         assertEquals 2, request.iterations
         assertEquals 'MD5', request.algorithmName
     }
+
+    @Test
+    void testStreamingSource() {
+        def request = new HashRequest.Builder()
+            .setSource("ignored")
+            .setSourceStream(new ByteArrayInputStream("test".bytes))
+            .setIterations(2)
+            .setAlgorithmName('MD5').build()
+
+        assertTrue request instanceof StreamingHashRequest
+        assertEquals ByteSource.Util.bytes("test"), request.source
+        assertEquals 2, request.iterations
+        assertEquals 'MD5', request.algorithmName
+    }
 }
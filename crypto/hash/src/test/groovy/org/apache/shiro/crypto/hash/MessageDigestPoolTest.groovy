@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.crypto.hash
+
+import org.apache.shiro.crypto.UnknownAlgorithmException
+import org.apache.shiro.lang.util.ByteSource
+import org.junit.Test
+
+import java.security.MessageDigest
+
+import static org.junit.Assert.*
+
+/**
+ * Unit tests for the {@link MessageDigestPool} class.
+ *
+ * @since 2.0
+ */
+class MessageDigestPoolTest {
+
+    @Test
+    void testHashMatchesAllocatingImplementation() {
+        byte[] source = "password".getBytes("UTF-8")
+        ["MD5", "SHA-1", "SHA-256", "SHA-512"].each { String algorithm ->
+            [1, 2, 1000].each { int iterations ->
+                [null, new byte[0], "salt".getBytes("UTF-8")].each { byte[] salt ->
+                    byte[] expected = allocatingHash(algorithm, source, salt, iterations)
+                    assertArrayEquals(expected, MessageDigestPool.getDefault().hash(algorithm, source, salt, iterations))
+                    ByteSource saltSource = salt != null ? ByteSource.Util.bytes(salt) : null
+                    assertArrayEquals(expected, new SimpleHash(algorithm, source, saltSource, iterations).getBytes())
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReleasedDigestsAreReused() {
+        MessageDigestPool pool = new MessageDigestPool(2)
+        MessageDigest digest = pool.acquire("SHA-256")
+        digest.update((byte) 1)
+        pool.release(digest)
+
+        MessageDigest reused = pool.acquire("SHA-256")
+        assertSame(digest, reused)
+        // released digests are reset:
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(), reused.digest())
+    }
+
+    @Test
+    void testDisabledPool() {
+        MessageDigestPool pool = new MessageDigestPool(0)
+        MessageDigest digest = pool.acquire("SHA-256")
+        pool.release(digest)
+        assertNotSame(digest, pool.acquire("SHA-256"))
+    }
+
+    @Test(expected = UnknownAlgorithmException)
+    void testUnknownAlgorithm() {
+        MessageDigestPool.getDefault().hash("NO-SUCH-ALGORITHM", new byte[1], null, 1)
+    }
+
+    @Test
+    void testSimpleHashSubclassDigestIsUsed() {
+        CustomDigestHash hash = new CustomDigestHash()
+        hash.hashBytes(new byte[1])
+        assertEquals(1, hash.digests)
+    }
+
+    @Test
+    void testDefaultHashServiceResultIsUnchanged() {
+        DefaultHashService service = new DefaultHashService()
+        service.setHashIterations(5)
+        service.setPrivateSalt(ByteSource.Util.bytes("private"))
+        Hash hash = service.computeHash(new HashRequest.Builder().setSource("password").setSalt("public").build())
+
+        SimpleHash expected = new SimpleHash("SHA-512", "password", ByteSource.Util.bytes("privatepublic"), 5)
+        assertArrayEquals(expected.getBytes(), hash.getBytes())
+        assertEquals(ByteSource.Util.bytes("public"), hash.getSalt())
+        assertEquals(5, hash.getIterations())
+    }
+
+    private static byte[] allocatingHash(String algorithm, byte[] bytes, byte[] salt, int iterations) {
+        MessageDigest digest = MessageDigest.getInstance(algorithm)
+        if (salt != null) {
+            digest.update(salt)
+        }
+        byte[] hashed = digest.digest(bytes)
+        for (int i = 1; i < iterations; i++) {
+            hashed = digest.digest(hashed)
+        }
+        return hashed
+    }
+
+    private static class CustomDigestHash extends SimpleHash {
+
+        int digests
+
+        CustomDigestHash() {
+            super("SHA-256")
+        }
+
+        @Override
+        protected MessageDigest getDigest(String algorithmName) {
+            digests++
+            return super.getDigest(algorithmName)
+        }
+
+        byte[] hashBytes(byte[] bytes) {
+            return hash(bytes)
+        }
+    }
+}
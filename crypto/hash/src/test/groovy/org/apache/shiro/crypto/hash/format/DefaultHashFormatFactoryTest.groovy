@@ -130,6 +130,47 @@ class DefaultHashFormatFactoryTest {
         assertNull factory.getInstance('bar')
     }
 
+    @Test
+    void testProvidedFormatsAreShared() {
+        def factory = new DefaultHashFormatFactory()
+        def formatted = new Shiro1CryptFormat().format(new Sha1Hash("test"))
+
+        def instance = factory.getInstance(formatted)
+        assertTrue instance instanceof Shiro1CryptFormat
+        assertSame instance, factory.getInstance(formatted)
+        assertSame instance, factory.getInstance('shiro1')
+        assertSame instance, factory.getInstance(Shiro1CryptFormat.class.name)
+        assertSame factory.getInstance('hex'), factory.getInstance(HexFormat.class.name)
+        assertTrue factory.getInstance('base64') instanceof Base64Format
+    }
+
+    @Test
+    void testRegisteredFormat() {
+        def format = new ToStringHashFormat()
+        def factory = new DefaultHashFormatFactory()
+        factory.formats['custom'] = format
+
+        assertSame format, factory.getInstance('custom')
+        assertSame format, factory.getInstance('$custom$value')
+    }
+
+    @Test
+    void testFormatClassNamesTakePrecedence() {
+        def factory = new DefaultHashFormatFactory(formatClassNames: ['hex': Base64Format.class.name])
+        def instance = factory.getInstance('hex')
+        assertTrue instance instanceof Base64Format
+        assertNotSame instance, factory.getInstance('hex')
+    }
+
+    @Test
+    void testWithoutRegisteredFormats() {
+        def factory = new DefaultHashFormatFactory()
+        factory.formats = null
+        def instance = factory.getInstance('hex')
+        assertTrue instance instanceof HexFormat
+        assertNotSame instance, factory.getInstance('hex')
+    }
+
     @Test
     void testWithInvalidHashFormatImplementation() {
         def factory = new DefaultHashFormatFactory()
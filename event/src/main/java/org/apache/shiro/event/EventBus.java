@@ -82,4 +82,26 @@ public interface EventBus {
      * @param subscriber the previously
      */
     void unregister(Object subscriber);
+
+    /**
+     * Returns {@code true} if an event of the given type published now could be delivered to at least one subscriber,
+     * {@code false} if it would certainly be ignored.
+     * <p/>
+     * Components that publish frequently can check this before creating an event object, so that publishing costs
+     * next to nothing when nobody is interested:
+     * <pre>
+     *     if (eventBus.hasSubscribers(MyEvent.class)) {
+     *         eventBus.publish(createMyEvent());
+     *     }
+     * </pre>
+     * The default implementation always returns {@code true}, so that implementations that cannot answer the question
+     * cheaply still receive every event.
+     *
+     * @param eventType the type of the event that would be published
+     * @return {@code true} if an event of the given type could be delivered to a subscriber, {@code false} otherwise.
+     * @since 2.0
+     */
+    default boolean hasSubscribers(Class<?> eventType) {
+        return true;
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.event;
+
+/**
+ * Static helper methods for components that publish events on an optional {@link EventBus}.
+ *
+ * @since 2.0
+ */
+public abstract class EventBusUtils {
+
+    /**
+     * Returns {@code true} if an event of the given type published now on the given bus would reach at least one
+     * subscriber, {@code false} if there is no bus or nobody is interested.  Publishers check this before creating an
+     * event, so that publishing is next to free when nobody subscribes.
+     *
+     * @param eventBus  the bus the event would be published on, may be {@code null}
+     * @param eventType the type of the event that would be published
+     * @return {@code true} if an event of the given type would reach a subscriber, {@code false} otherwise.
+     * @see EventBus#hasSubscribers(Class)
+     */
+    public static boolean hasSubscribers(EventBus eventBus, Class<?> eventType) {
+        return eventBus != null && eventBus.hasSubscribers(eventType);
+    }
+}
@@ -33,6 +33,9 @@ import java.util.List;
  * <p/>
  * The default {@link #setAnnotationClass(Class) annotationClass} is {@link Subscribe}, indicating each
  * {@link Subscribe}-annotated method will be represented as an EventListener.
+ * <p/>
+ * The annotated methods of each class, and the invokers used to call them, are only discovered once per resolver, so
+ * registering many instances of the same class is cheap.
  *
  * @see SingleArgumentMethodEventListener
  * @since 1.3
@@ -41,8 +44,12 @@ public class AnnotationEventListenerResolver implements EventListenerResolver {
 
     private Class<? extends Annotation> annotationClass;
 
+    //annotated methods per class, replaced whenever the annotation class changes:
+    private volatile ClassValue<Handler[]> handlers;
+
     public AnnotationEventListenerResolver() {
         this.annotationClass = Subscribe.class;
+        this.handlers = createHandlers(this.annotationClass);
     }
 
     /**
@@ -58,20 +65,38 @@ public class AnnotationEventListenerResolver implements EventListenerResolver {
             return Collections.emptyList();
         }
 
-        List<Method> methods = ClassUtils.getAnnotatedMethods(instance.getClass(), getAnnotationClass());
-        if (methods == null || methods.isEmpty()) {
+        Handler[] handlers = this.handlers.get(instance.getClass());
+        if (handlers.length == 0) {
             return Collections.emptyList();
         }
 
-        List<EventListener> listeners = new ArrayList<EventListener>(methods.size());
+        List<EventListener> listeners = new ArrayList<EventListener>(handlers.length);
 
-        for (Method m : methods) {
-            listeners.add(new SingleArgumentMethodEventListener(instance, m));
+        for (Handler handler : handlers) {
+            listeners.add(new SingleArgumentMethodEventListener(instance, handler.method, handler.invoker));
         }
 
         return listeners;
     }
 
+    private static ClassValue<Handler[]> createHandlers(final Class<? extends Annotation> annotationClass) {
+        return new ClassValue<Handler[]>() {
+            @Override
+            protected Handler[] computeValue(Class<?> type) {
+                List<Method> methods = ClassUtils.getAnnotatedMethods(type, annotationClass);
+                if (methods == null || methods.isEmpty()) {
+                    return new Handler[0];
+                }
+                Handler[] handlers = new Handler[methods.size()];
+                for (int i = 0; i < handlers.length; i++) {
+                    Method method = methods.get(i);
+                    handlers[i] = new Handler(method, EventHandlerInvoker.create(method));
+                }
+                return handlers;
+            }
+        };
+    }
+
     /**
      * Returns the type of annotation that indicates a method that should be represented as an {@link EventListener},
      * defaults to {@link Subscribe}.
@@ -92,5 +117,17 @@ public class AnnotationEventListenerResolver implements EventListenerResolver {
      */
     public void setAnnotationClass(Class<? extends Annotation> annotationClass) {
         this.annotationClass = annotationClass;
+        this.handlers = createHandlers(annotationClass);
+    }
+
+    private static final class Handler {
+
+        private final Method method;
+        private final EventHandlerInvoker invoker;
+
+        private Handler(Method method, EventHandlerInvoker invoker) {
+            this.method = method;
+            this.invoker = invoker;
+        }
     }
 }
@@ -0,0 +1,601 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.event.support;
+
+import org.apache.shiro.event.EventBus;
+import org.apache.shiro.lang.util.Destroyable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An event bus implementation that delivers events to registered listeners asynchronously, so that slow listeners
+ * (for example an audit log writer) do not add latency to the thread publishing the event.
+ * <p/>
+ * Listeners are resolved and invoked exactly as with the {@link DefaultEventBus}, including
+ * {@link org.apache.shiro.event.Subscribe Subscribe}-annotated methods.  Each registered subscriber has its own
+ * bounded queue, which is only used for events the subscriber has listeners for.  Queued events are delivered in
+ * batches of up to {@link #getBatchSize() batchSize} events by the configured {@link #getExecutor() executor}, and
+ * never by more than one thread at a time, so every subscriber receives events in the order they were published.
+ * Slow subscribers therefore only delay their own events.
+ * <h2>Overflow</h2>
+ * When a subscriber's queue is full, the {@link #getOverflowPolicy() overflowPolicy} decides what happens to a newly
+ * published event; see {@link OverflowPolicy}.  A listener that publishes an event to its own full queue always
+ * receives it on its own thread, as blocking would never complete.
+ * <h2>Metrics</h2>
+ * The number of events waiting for a subscriber and the number of events published but not yet delivered to it are
+ * available from {@link #getQueueDepth(Object)} and {@link #getLag(Object)}; {@link #getDroppedCount()} reports how
+ * many events were discarded by the {@link OverflowPolicy#DROP_OLDEST DROP_OLDEST} policy.
+ * <h2>Executor</h2>
+ * Unless an executor is configured, a pool of daemon threads is created on first use and shut down by
+ * {@link #destroy()}.  An executor configured via {@link #setExecutor(Executor)} is never shut down by this event bus.
+ * Events published after {@code destroy()} are ignored.
+ *
+ * @see DefaultEventBus
+ * @since 2.0
+ */
+public class AsyncEventBus implements EventBus, Destroyable {
+
+    /**
+     * What to do with a newly published event when the queue of a subscriber is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The publishing thread waits until the subscriber's queue has room for the event.  Listeners that publish
+         * events themselves should not rely on this policy with a bounded executor, as all of its threads could end
+         * up waiting for each other.
+         */
+        BLOCK,
+
+        /**
+         * The oldest event waiting in the subscriber's queue is discarded to make room for the new event.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The publishing thread delivers the events waiting in the subscriber's queue, followed by the new event,
+         * itself.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * The default maximum number of events waiting for a single subscriber, {@code 1024}.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The default maximum number of events delivered to a subscriber in one executor task, {@code 64}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncEventBus.class);
+
+    private static final Mailbox[] NO_MAILBOXES = new Mailbox[0];
+
+    private EventListenerResolver eventListenerResolver;
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    private volatile Executor executor;
+
+    private ExecutorService defaultExecutor; //created on first use unless an executor is configured
+
+    private volatile boolean destroyed;
+
+    private String threadNamePrefix = "EventBusThread-";
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    //registration order is retained as in the DefaultEventBus.  Mailboxes are only accessed by (rare) registrations and
+    //removals while holding the registry lock; publishing uses the immutable snapshot and its per event class cache.
+    private final Map<Object, Mailbox> registry = new LinkedHashMap<Object, Mailbox>();
+    private final Lock registryLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(NO_MAILBOXES);
+
+    public AsyncEventBus() {
+        this.eventListenerResolver = new AnnotationEventListenerResolver();
+    }
+
+    public AsyncEventBus(Executor executor) {
+        this();
+        this.executor = executor;
+    }
+
+    public EventListenerResolver getEventListenerResolver() {
+        return eventListenerResolver;
+    }
+
+    public void setEventListenerResolver(EventListenerResolver eventListenerResolver) {
+        this.eventListenerResolver = eventListenerResolver;
+    }
+
+    /**
+     * Returns the maximum number of events waiting for a single subscriber.  Defaults to
+     * {@link #DEFAULT_QUEUE_CAPACITY}.
+     *
+     * @return the maximum number of events waiting for a single subscriber.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of events waiting for a single subscriber.  Only applies to subscribers registered
+     * afterwards.
+     *
+     * @param queueCapacity the maximum number of events waiting for a single subscriber.
+     * @throws IllegalArgumentException if {@code queueCapacity} is not positive
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be greater than zero.");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Returns the maximum number of events delivered to a subscriber in one executor task, before the remaining
+     * events are handed back to the executor so that other subscribers get their turn.  Defaults to
+     * {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @return the maximum number of events delivered to a subscriber in one executor task.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of events delivered to a subscriber in one executor task.
+     *
+     * @param batchSize the maximum number of events delivered to a subscriber in one executor task.
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than zero.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns what happens to a newly published event when the queue of a subscriber is full.  Defaults to
+     * {@link OverflowPolicy#BLOCK BLOCK}.
+     *
+     * @return what happens to a newly published event when the queue of a subscriber is full.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets what happens to a newly published event when the queue of a subscriber is full.
+     *
+     * @param overflowPolicy what happens to a newly published event when the queue of a subscriber is full.
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy argument cannot be null.");
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Returns the executor delivering queued events, or {@code null} if a pool of daemon threads will be created on
+     * first use.
+     *
+     * @return the executor delivering queued events.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor delivering queued events.  The executor is not shut down by {@link #destroy()}.
+     *
+     * @param executor the executor delivering queued events.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    public void publish(Object event) {
+        if (event == null) {
+            log.info("Received null event for publishing.  Ignoring and returning.");
+            return;
+        }
+        if (this.destroyed) {
+            log.debug("Event bus has been destroyed.  Ignoring event [{}].", event);
+            return;
+        }
+        for (Mailbox mailbox : this.snapshot.getMailboxes(event.getClass())) {
+            mailbox.enqueue(event);
+        }
+    }
+
+    @Override
+    public boolean hasSubscribers(Class<?> eventType) {
+        return eventType != null && this.snapshot.getMailboxes(eventType).length > 0;
+    }
+
+    public void register(Object instance) {
+        if (instance == null) {
+            log.info("Received null instance for event listener registration.  Ignoring registration request.");
+            return;
+        }
+
+        unregister(instance);
+
+        List<EventListener> listeners = getEventListenerResolver().getEventListeners(instance);
+
+        if (listeners == null || listeners.isEmpty()) {
+            log.warn("Unable to resolve event listeners for subscriber instance [{}]. Ignoring registration request.",
+                    instance);
+            return;
+        }
+
+        //the subscriber's listeners are resolved and invoked by a dedicated synchronous bus:
+        final List<EventListener> resolved = listeners;
+        DefaultEventBus delivery = new DefaultEventBus();
+        delivery.setEventListenerResolver(new EventListenerResolver() {
+            public List<EventListener> getEventListeners(Object instance) {
+                return resolved;
+            }
+        });
+        delivery.register(instance);
+
+        Mailbox mailbox = new Mailbox(delivery, this.queueCapacity);
+
+        this.registryLock.lock();
+        try {
+            this.registry.put(instance, mailbox);
+            updateSnapshot();
+        } finally {
+            this.registryLock.unlock();
+        }
+    }
+
+    /**
+     * Unregisters the given subscriber.  Events already queued for the subscriber are discarded, but an event that
+     * is being delivered at the time of this call may still complete.
+     *
+     * @param instance the subscriber to unregister
+     */
+    public void unregister(Object instance) {
+        if (instance == null) {
+            return;
+        }
+        this.registryLock.lock();
+        try {
+            Mailbox mailbox = this.registry.remove(instance);
+            if (mailbox != null) {
+                updateSnapshot();
+                mailbox.queue.clear();
+            }
+        } finally {
+            this.registryLock.unlock();
+        }
+    }
+
+    //must be called while holding the registry lock
+    private void updateSnapshot() {
+        this.snapshot = new Snapshot(this.registry.values().toArray(new Mailbox[this.registry.size()]));
+    }
+
+    /**
+     * Returns the number of events waiting in the queue of the given subscriber, or {@code 0} if it is not
+     * registered.
+     *
+     * @param subscriber a registered subscriber
+     * @return the number of events waiting in the queue of the given subscriber.
+     */
+    public int getQueueDepth(Object subscriber) {
+        Mailbox mailbox = getMailbox(subscriber);
+        return mailbox != null ? mailbox.queue.size() : 0;
+    }
+
+    /**
+     * Returns the number of events waiting in the queues of all subscribers.
+     *
+     * @return the number of events waiting in the queues of all subscribers.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Mailbox mailbox : this.snapshot.mailboxes) {
+            depth += mailbox.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of events published to the given subscriber that have not been delivered yet, including
+     * any events that are currently being delivered, or {@code 0} if it is not registered.
+     *
+     * @param subscriber a registered subscriber
+     * @return the number of events published to the given subscriber that have not been delivered yet.
+     */
+    public long getLag(Object subscriber) {
+        Mailbox mailbox = getMailbox(subscriber);
+        return mailbox != null ? mailbox.getLag() : 0;
+    }
+
+    /**
+     * Returns the number of events discarded because of the {@link OverflowPolicy#DROP_OLDEST DROP_OLDEST} policy.
+     *
+     * @return the number of events discarded because of the {@code DROP_OLDEST} policy.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Waits until every event published so far has been delivered to the subscribers that are registered when this
+     * method is called, for example before shutting down.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the {@code timeout} argument
+     * @return {@code true} if all events were delivered, {@code false} if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Mailbox mailbox : this.snapshot.mailboxes) {
+            while (mailbox.getLag() > 0) {
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuts down the thread pool created by this event bus, if any.  Events still waiting in the queues are not
+     * delivered, and events published afterwards are ignored.
+     */
+    public void destroy() {
+        ExecutorService service;
+        synchronized (this) {
+            this.destroyed = true;
+            service = this.defaultExecutor;
+            this.defaultExecutor = null;
+        }
+        if (service != null) {
+            service.shutdownNow();
+        }
+    }
+
+    private Mailbox getMailbox(Object subscriber) {
+        if (subscriber == null) {
+            return null;
+        }
+        this.registryLock.lock();
+        try {
+            return this.registry.get(subscriber);
+        } finally {
+            this.registryLock.unlock();
+        }
+    }
+
+    //returns null once this event bus is destroyed, so that a publish racing with destroy() cannot create a new pool
+    private Executor ensureExecutor() {
+        Executor executor = this.executor;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (this) {
+            if (this.destroyed) {
+                return null;
+            }
+            if (this.defaultExecutor == null) {
+                int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                this.defaultExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger(1);
+
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r);
+                        thread.setDaemon(true);
+                        thread.setName(threadNamePrefix + count.getAndIncrement());
+                        return thread;
+                    }
+                });
+            }
+            return this.defaultExecutor;
+        }
+    }
+
+    /**
+     * An immutable snapshot of the registered mailboxes, lazily resolving the mailboxes interested in each concrete
+     * event class.
+     */
+    private static final class Snapshot {
+
+        private final Mailbox[] mailboxes;
+        private final ConcurrentMap<Class<?>, Mailbox[]> mailboxesByEventClass;
+
+        private Snapshot(Mailbox[] mailboxes) {
+            this.mailboxes = mailboxes;
+            this.mailboxesByEventClass = new ConcurrentHashMap<Class<?>, Mailbox[]>();
+        }
+
+        private Mailbox[] getMailboxes(Class<?> eventClass) {
+            Mailbox[] interested = this.mailboxesByEventClass.get(eventClass);
+            if (interested == null) {
+                List<Mailbox> resolved = new ArrayList<Mailbox>();
+                for (Mailbox mailbox : this.mailboxes) {
+                    if (mailbox.delivery.hasSubscribers(eventClass)) {
+                        resolved.add(mailbox);
+                    }
+                }
+                interested = resolved.isEmpty() ? NO_MAILBOXES : resolved.toArray(new Mailbox[resolved.size()]);
+                this.mailboxesByEventClass.putIfAbsent(eventClass, interested);
+            }
+            return interested;
+        }
+    }
+
+    /**
+     * The queue of a single subscriber.  Events are delivered by whichever thread holds the delivery lock, which is
+     * either an executor task scheduled when events are queued or, for the {@code CALLER_RUNS} policy, a publishing
+     * thread.
+     */
+    private final class Mailbox implements Runnable {
+
+        private final DefaultEventBus delivery;
+        private final BlockingQueue<Object> queue;
+        private final ReentrantLock deliveryLock = new ReentrantLock();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong enqueued = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong(); //delivered or dropped
+
+        private Mailbox(DefaultEventBus delivery, int capacity) {
+            this.delivery = delivery;
+            this.queue = new ArrayBlockingQueue<Object>(capacity);
+        }
+
+        private long getLag() {
+            return Math.max(0, enqueued.get() - completed.get());
+        }
+
+        private void enqueue(Object event) {
+            enqueued.incrementAndGet();
+            if (!queue.offer(event)) {
+                overflow(event);
+            }
+            schedule();
+        }
+
+        private void overflow(Object event) {
+            OverflowPolicy policy = overflowPolicy;
+            if (policy == OverflowPolicy.CALLER_RUNS || deliveryLock.isHeldByCurrentThread()) {
+                //deliver everything queued so far first to preserve the order:
+                deliveryLock.lock();
+                try {
+                    drain(Integer.MAX_VALUE);
+                    deliver(event);
+                } finally {
+                    deliveryLock.unlock();
+                }
+            } else if (policy == OverflowPolicy.DROP_OLDEST) {
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        completed.incrementAndGet();
+                        droppedCount.incrementAndGet();
+                    }
+                }
+            } else {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while waiting to queue event [{}].  The event is delivered by the " +
+                            "publishing thread.", event);
+                    deliveryLock.lock();
+                    try {
+                        drain(Integer.MAX_VALUE);
+                        deliver(event);
+                    } finally {
+                        deliveryLock.unlock();
+                    }
+                }
+            }
+        }
+
+        private void schedule() {
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                Executor executor = ensureExecutor();
+                if (executor == null) {
+                    //destroyed, queued events are not delivered:
+                    scheduled.set(false);
+                    return;
+                }
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    log.warn("Event delivery task was rejected by the executor, queued events will be delivered " +
+                            "when the next event is published.", e);
+                }
+            }
+        }
+
+        public void run() {
+            deliveryLock.lock();
+            try {
+                drain(batchSize);
+            } finally {
+                deliveryLock.unlock();
+                scheduled.set(false);
+            }
+            //events queued during or after the batch:
+            schedule();
+        }
+
+        private void drain(int max) {
+            for (int i = 0; i < max; i++) {
+                Object event = queue.poll();
+                if (event == null) {
+                    return;
+                }
+                deliver(event);
+            }
+        }
+
+        private void deliver(Object event) {
+            try {
+                delivery.publish(event);
+            } finally {
+                completed.incrementAndGet();
+            }
+        }
+    }
+}
@@ -24,13 +24,13 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A default event bus implementation that synchronously publishes events to registered listeners.  Listeners can be
@@ -68,7 +68,13 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * concept, although no code was shared/imported (even though Guava is Apache 2.0 licensed and could have
  * been used).
  *
- * This implementation is thread-safe and may be used concurrently.
+ * This implementation is thread-safe and may be used concurrently.  Publishing does not acquire any locks: each
+ * concrete event class is dispatched through a precomputed array of the listeners that may receive it, which is
+ * built the first time an event of that class is published and discarded whenever a listener is registered or
+ * unregistered.  {@link TypedEventListener}s whose {@link TypedEventListener#getEventType() event type} does not match
+ * are left out of that array; every remaining listener is still asked whether it
+ * {@link EventListener#accepts(Object) accepts} the event, and each registered object receives an event only once,
+ * from its first accepting listener.
  *
  * @since 1.3
  */
@@ -88,25 +94,17 @@ public class DefaultEventBus implements EventBus {
     //with the event bus.  This has the nice effect that any Shiro system-level components that are registered first
     //(likely to happen upon startup) have precedence over those registered by end-user components later.
     //
-    //One might think that this could have been done by just using a ConcurrentSkipListMap (which is available only on
-    //JDK 6 or later).  However, this approach requires the implementation of a Comparator to sort elements, and this
-    //surfaces a problem: for any given random event listener, there isn't any guaranteed property to exist that can be
-    //inspected to determine order of registration, since registration order is an artifact of this EventBus
-    //implementation, not the listeners themselves.
-    //
-    //Therefore, we use a simple concurrent lock to wrap a LinkedHashMap - the LinkedHashMap retains insertion order
-    //and the lock provides thread-safety in probably a much simpler mechanism than attempting to write a
-    //EventBus-specific Comparator.  This technique is also likely to be faster than a ConcurrentSkipListMap, which
-    //is about 3-5 times slower than a standard ConcurrentMap.
+    //The registry is a LinkedHashMap, which retains insertion order, and is only accessed by (rare) registrations and
+    //removals while holding the registry lock.  Every modification replaces the volatile dispatcher with an immutable
+    //snapshot of the subscriptions in registration order, so publishing never has to lock or copy the registry.
     private final Map<Object, Subscription> registry;
-    private final Lock registryReadLock;
-    private final Lock registryWriteLock;
+    private final Lock registryLock;
+    private volatile Dispatcher dispatcher;
 
     public DefaultEventBus() {
-        this.registry = new LinkedHashMap<Object, Subscription>(); //not thread safe, so we need locks:
-        ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-        this.registryReadLock = rwl.readLock();
-        this.registryWriteLock = rwl.writeLock();
+        this.registry = new LinkedHashMap<Object, Subscription>(); //not thread safe, so we need a lock:
+        this.registryLock = new ReentrantLock();
+        this.dispatcher = new Dispatcher(new Subscription[0]);
         this.eventListenerResolver = new AnnotationEventListenerResolver();
     }
 
@@ -124,27 +122,12 @@ public class DefaultEventBus implements EventBus {
             return;
         }
 
-        registryReadLock.lock();
-        try {
-            //performing the entire iteration within the lock will be a slow operation if the registry has a lot of
-            //contention.  However, it is expected that the very large majority of cases the registry will be
-            //read-mostly with very little writes (registrations or removals) occurring during a typical application
-            //lifetime.
-            //
-            //The alternative would be to copy the registry.values() collection to a new LinkedHashSet within the lock
-            //only and the iteration on this new collection could be outside the lock.  This has the performance penalty
-            //however of always creating a new collection every time an event is published,  which could be more
-            //costly for the majority of applications, especially if the number of listeners is large.
-            //
-            //Finally, the read lock is re-entrant, so multiple publish calls will be
-            //concurrent without penalty since publishing is a read-only operation on the registry.
-
-            for (Subscription subscription : this.registry.values()) {
-                subscription.onEvent(event);
-            }
-        } finally {
-            registryReadLock.unlock();
-        }
+        this.dispatcher.getRoute(event.getClass()).deliver(event);
+    }
+
+    @Override
+    public boolean hasSubscribers(Class<?> eventType) {
+        return eventType != null && this.dispatcher.getRoute(eventType).listeners.length > 0;
     }
 
     public void register(Object instance) {
@@ -165,11 +148,12 @@ public class DefaultEventBus implements EventBus {
 
         Subscription subscription = new Subscription(listeners);
 
-        this.registryWriteLock.lock();
+        this.registryLock.lock();
         try {
             this.registry.put(instance, subscription);
+            updateDispatcher();
         } finally {
-            this.registryWriteLock.unlock();
+            this.registryLock.unlock();
         }
     }
 
@@ -177,41 +161,162 @@ public class DefaultEventBus implements EventBus {
         if (instance == null) {
             return;
         }
-        this.registryWriteLock.lock();
+        this.registryLock.lock();
         try {
-            this.registry.remove(instance);
+            if (this.registry.remove(instance) != null) {
+                updateDispatcher();
+            }
         } finally {
-            this.registryWriteLock.unlock();
+            this.registryLock.unlock();
         }
     }
 
-    private class Subscription {
+    //must be called while holding the registry lock
+    private void updateDispatcher() {
+        Subscription[] subscriptions = this.registry.values().toArray(new Subscription[this.registry.size()]);
+        this.dispatcher = new Dispatcher(subscriptions);
+    }
 
-        private final List<EventListener> listeners;
+    /**
+     * An immutable snapshot of the registered subscriptions, lazily resolving the route each concrete event class
+     * is delivered through.
+     */
+    private static final class Dispatcher {
 
-        public Subscription(List<EventListener> listeners) {
-            List<EventListener> toSort = new ArrayList<EventListener>(listeners);
-            Collections.sort(toSort, EVENT_LISTENER_COMPARATOR);
-            this.listeners = toSort;
+        private final Subscription[] subscriptions;
+        private final ConcurrentMap<Class<?>, Route> routesByEventClass;
+
+        private Dispatcher(Subscription[] subscriptions) {
+            this.subscriptions = subscriptions;
+            this.routesByEventClass = new ConcurrentHashMap<Class<?>, Route>();
         }
 
-        public void onEvent(Object event) {
+        private Route getRoute(Class<?> eventClass) {
+            Route route = this.routesByEventClass.get(eventClass);
+            if (route == null) {
+                //concurrent publishers may both resolve the route, but the result is always the same:
+                route = new Route(this.subscriptions, eventClass);
+                this.routesByEventClass.putIfAbsent(eventClass, route);
+            }
+            return route;
+        }
+    }
 
-            Set<Object> delivered = new HashSet<Object>();
+    /**
+     * The listeners that may receive events of one concrete class, grouped by subscription in registration order.
+     */
+    private static final class Route {
 
-            for (EventListener listener : this.listeners) {
-                Object target = listener;
-                if (listener instanceof SingleArgumentMethodEventListener) {
-                    SingleArgumentMethodEventListener singleArgListener = (SingleArgumentMethodEventListener) listener;
-                    target = singleArgListener.getTarget();
+        private final EventListener[] listeners;
+        private final Object[] targets;
+        private final int[] subscriptionEnds; //exclusive end index of each subscription's listeners
+        private final int maxSubscriptionSize;
+
+        private Route(Subscription[] subscriptions, Class<?> eventClass) {
+            List<EventListener> listeners = new ArrayList<EventListener>();
+            List<Object> targets = new ArrayList<Object>();
+            List<Integer> ends = new ArrayList<Integer>();
+            int maxSubscriptionSize = 0;
+            for (Subscription subscription : subscriptions) {
+                int start = listeners.size();
+                subscription.collectListeners(eventClass, listeners, targets);
+                int end = listeners.size();
+                if (end > start) {
+                    ends.add(end);
+                    maxSubscriptionSize = Math.max(maxSubscriptionSize, end - start);
                 }
-                if (listener.accepts(event) && !delivered.contains(target)) {
+            }
+            this.listeners = listeners.toArray(new EventListener[listeners.size()]);
+            this.targets = targets.toArray();
+            this.subscriptionEnds = new int[ends.size()];
+            for (int i = 0; i < this.subscriptionEnds.length; i++) {
+                this.subscriptionEnds[i] = ends.get(i);
+            }
+            this.maxSubscriptionSize = maxSubscriptionSize;
+        }
+
+        /**
+         * Delivers the event to every accepting listener, but to each target only once per subscription: the first
+         * accepting listener of a target, which is its most specific one, wins.
+         */
+        private void deliver(Object event) {
+            //only allocated if a subscription has more than one candidate listener for this event class:
+            Object[] delivered = null;
+            int start = 0;
+            for (int end : this.subscriptionEnds) {
+                int deliveredCount = 0;
+                for (int i = start; i < end; i++) {
+                    EventListener listener = this.listeners[i];
+                    if (!listener.accepts(event)) {
+                        continue;
+                    }
+                    if (end - start > 1) {
+                        Object target = this.targets[i];
+                        if (contains(delivered, deliveredCount, target)) {
+                            continue;
+                        }
+                        if (delivered == null) {
+                            delivered = new Object[this.maxSubscriptionSize];
+                        }
+                        delivered[deliveredCount++] = target;
+                    }
                     try {
                         listener.onEvent(event);
                     } catch (Throwable t) {
                         log.warn(EVENT_LISTENER_ERROR_MSG, t);
                     }
-                    delivered.add(target);
+                }
+                start = end;
+            }
+        }
+
+        private static boolean contains(Object[] targets, int count, Object target) {
+            for (int i = 0; i < count; i++) {
+                if (targets[i].equals(target)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Subscription {
+
+        private final EventListener[] listeners;
+        private final Class<?>[] eventTypes; //null entries for listeners that are not typed
+        private final Object[] targets;
+
+        private Subscription(List<EventListener> listeners) {
+            List<EventListener> toSort = new ArrayList<EventListener>(listeners);
+            Collections.sort(toSort, EVENT_LISTENER_COMPARATOR);
+            int size = toSort.size();
+            this.listeners = toSort.toArray(new EventListener[size]);
+            this.eventTypes = new Class<?>[size];
+            this.targets = new Object[size];
+            for (int i = 0; i < size; i++) {
+                EventListener listener = this.listeners[i];
+                if (listener instanceof TypedEventListener) {
+                    this.eventTypes[i] = ((TypedEventListener) listener).getEventType();
+                }
+                Object target = listener;
+                if (listener instanceof SingleArgumentMethodEventListener) {
+                    target = ((SingleArgumentMethodEventListener) listener).getTarget();
+                }
+                this.targets[i] = target;
+            }
+        }
+
+        /**
+         * Adds, in order, every listener that may receive events of the given class, together with its target.
+         * Typed listeners are left out if their event type does not match; whether a listener accepts an event, and
+         * which listener of a target receives it, is only decided when the event is published.
+         */
+        private void collectListeners(Class<?> eventClass, List<EventListener> listeners, List<Object> targets) {
+            for (int i = 0; i < this.listeners.length; i++) {
+                Class<?> eventType = this.eventTypes[i];
+                if (eventType == null || eventType.isAssignableFrom(eventClass)) {
+                    listeners.add(this.listeners[i]);
+                    targets.add(this.targets[i]);
                 }
             }
         }
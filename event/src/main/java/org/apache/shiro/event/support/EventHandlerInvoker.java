@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.event.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+
+/**
+ * Invokes an event handler method on a target object.
+ * <p/>
+ * Whenever possible, {@link #create(Method)} generates a direct call to the method via {@link LambdaMetafactory}, which
+ * the JIT compiler can inline like any other call.  Methods that cannot be called directly from this package, such as
+ * methods of non-public classes, static methods, or methods of classes that are not visible to this class's
+ * ClassLoader, are invoked via reflection.
+ * <p/>
+ * Either way, an exception thrown by the method propagates as-is, so callers see the same exception regardless of
+ * how the method was invoked.
+ *
+ * @since 2.0
+ */
+abstract class EventHandlerInvoker {
+
+    private static final Logger log = LoggerFactory.getLogger(EventHandlerInvoker.class);
+
+    private static final MethodType ERASED_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    abstract void invoke(Object target, Object event) throws Throwable;
+
+    static EventHandlerInvoker create(Method method) {
+        if (isDirectlyCallable(method)) {
+            try {
+                return new DirectInvoker(createConsumer(method));
+            } catch (Throwable t) {
+                log.debug("Unable to generate a direct invoker for event handler method [{}], using reflection.",
+                        method, t);
+            }
+        }
+        return new ReflectiveInvoker(method);
+    }
+
+    private static boolean isDirectlyCallable(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) &&
+                Modifier.isPublic(declaringClass.getModifiers()) && method.getParameterTypes().length == 1 &&
+                isVisible(declaringClass) && isVisible(method.getParameterTypes()[0]);
+    }
+
+    //the generated class links against the method's types through this class's ClassLoader:
+    private static boolean isVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, EventHandlerInvoker.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createConsumer(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(method);
+        MethodType instantiatedType =
+                MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                ERASED_TYPE, handle, instantiatedType);
+        return (BiConsumer<Object, Object>) site.getTarget().invoke();
+    }
+
+    private static final class DirectInvoker extends EventHandlerInvoker {
+
+        private final BiConsumer<Object, Object> consumer;
+
+        private DirectInvoker(BiConsumer<Object, Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        void invoke(Object target, Object event) {
+            consumer.accept(target, event);
+        }
+    }
+
+    private static final class ReflectiveInvoker extends EventHandlerInvoker {
+
+        private final Method method;
+
+        private ReflectiveInvoker(Method method) {
+            this.method = method;
+        }
+
+        void invoke(Object target, Object event) throws Throwable {
+            invokeReflectively(method, target, event);
+        }
+    }
+
+    /**
+     * Invokes the given method via reflection, unwrapping the {@code InvocationTargetException} around any exception
+     * thrown by the method itself.
+     */
+    static void invokeReflectively(Method method, Object target, Object event) throws Throwable {
+        try {
+            method.invoke(target, event);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+}
@@ -23,6 +23,9 @@ import java.lang.reflect.Modifier;
 
 /**
  * A event listener that invokes a target object's method that accepts a single event argument.
+ * <p/>
+ * As of 2.0, the method is called directly rather than via reflection whenever it is accessible from this package,
+ * see {@link EventHandlerInvoker}.
  *
  * @since 1.3
  */
@@ -30,14 +33,25 @@ public class SingleArgumentMethodEventListener implements TypedEventListener {
 
     private final Object target;
     private final Method method;
+    private final Class eventType;
+    private final EventHandlerInvoker invoker;
 
     public SingleArgumentMethodEventListener(Object target, Method method) {
+        this(target, method, null);
+    }
+
+    /**
+     * Creates a listener invoking the given method through an invoker shared by all listeners for the same method,
+     * or a new invoker if {@code invoker} is {@code null}.
+     */
+    SingleArgumentMethodEventListener(Object target, Method method, EventHandlerInvoker invoker) {
         this.target = target;
         this.method = method;
         //assert that the method is defined as expected:
-        getMethodArgumentType(method);
+        this.eventType = getMethodArgumentType(method);
 
         assertPublicMethod(method);
+        this.invoker = invoker != null ? invoker : EventHandlerInvoker.create(method);
     }
 
     public Object getTarget() {
@@ -60,15 +74,22 @@ public class SingleArgumentMethodEventListener implements TypedEventListener {
     }
 
     public Class getEventType() {
-        return getMethodArgumentType(getMethod());
+        Method method = getMethod();
+        //getMethod() may be overridden, in which case the type cached from the constructor's method doesn't apply:
+        return method == this.method ? this.eventType : getMethodArgumentType(method);
     }
 
     public void onEvent(Object event) {
         Method method = getMethod();
         try {
-            method.invoke(getTarget(), event);
-        } catch (Exception e) {
-            throw new IllegalStateException("Unable to invoke event handler method [" + method + "].", e);
+            if (method == this.method) {
+                this.invoker.invoke(getTarget(), event);
+            } else {
+                //getMethod() is overridden, so the invoker doesn't apply:
+                EventHandlerInvoker.invokeReflectively(method, getTarget(), event);
+            }
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unable to invoke event handler method [" + method + "].", t);
         }
     }
 
@@ -49,4 +49,32 @@ class AnnotationEventListenerResolverTest {
         assertNotNull collection
         assertTrue collection.isEmpty()
     }
+
+    @Test
+    void testInvokersAreSharedPerClass() {
+        def resolver = new AnnotationEventListenerResolver()
+        def first = new TestSubscriber()
+        def second = new TestSubscriber()
+
+        def firstListeners = resolver.getEventListeners(first)
+        def secondListeners = resolver.getEventListeners(second)
+
+        assertEquals 2, firstListeners.size()
+        assertEquals 2, secondListeners.size()
+        firstListeners.eachWithIndex { listener, i ->
+            assertSame first, listener.target
+            assertSame second, secondListeners[i].target
+            assertSame listener.method, secondListeners[i].method
+            assertSame listener.invoker, secondListeners[i].invoker
+        }
+    }
+
+    @Test
+    void testSetAnnotationClassAfterResolving() {
+        def resolver = new AnnotationEventListenerResolver()
+        assertEquals 2, resolver.getEventListeners(new TestSubscriber()).size()
+
+        resolver.annotationClass = Deprecated.class
+        assertTrue resolver.getEventListeners(new TestSubscriber()).isEmpty()
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.event.support
+
+import org.junit.After
+import org.junit.Test
+
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+import static org.junit.Assert.*
+
+/**
+ * Unit tests for the {@link AsyncEventBus} implementation.
+ *
+ * @since 2.0
+ */
+class AsyncEventBusTest {
+
+    AsyncEventBus bus = new AsyncEventBus()
+
+    @After
+    void tearDown() {
+        bus.destroy()
+    }
+
+    @Test
+    void testAsyncDelivery() {
+        def subscriber = new TestSubscriber()
+        bus.register(subscriber)
+
+        def event = new BarEvent(this)
+        bus.publish(event)
+
+        assertTrue bus.awaitDelivery(10, TimeUnit.SECONDS)
+        assertSame event, subscriber.lastEvent
+        assertEquals 1, subscriber.barCount
+        assertEquals 0, subscriber.fooCount
+        assertEquals 0, bus.getLag(subscriber)
+    }
+
+    @Test
+    void testPerSubscriberOrdering() {
+        def executor = Executors.newFixedThreadPool(4)
+        try {
+            bus.executor = executor
+            bus.batchSize = 8
+            def first = new RecordingSubscriber()
+            def second = new RecordingSubscriber()
+            bus.register(first)
+            bus.register(second)
+
+            def expected = (1..2000).toList()
+            expected.each { bus.publish(new FooEvent(it)) }
+
+            assertTrue bus.awaitDelivery(10, TimeUnit.SECONDS)
+            assertEquals expected, first.sources
+            assertEquals expected, second.sources
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    @Test
+    void testEventsWithoutListenersAreNotQueued() {
+        def executor = new ManualExecutor()
+        bus.executor = executor
+        def subscriber = new RecordingSubscriber()
+        bus.register(subscriber)
+
+        bus.publish(new SimpleEvent())
+
+        assertEquals 0, bus.getQueueDepth(subscriber)
+        assertTrue executor.tasks.isEmpty()
+    }
+
+    @Test
+    void testHasSubscribers() {
+        bus.executor = new ManualExecutor()
+        assertFalse bus.hasSubscribers(FooEvent)
+
+        def subscriber = new RecordingSubscriber()
+        bus.register(subscriber)
+
+        assertTrue bus.hasSubscribers(FooEvent)
+        assertFalse bus.hasSubscribers(SimpleEvent)
+
+        bus.unregister(subscriber)
+
+        assertFalse bus.hasSubscribers(FooEvent)
+    }
+
+    @Test
+    void testDropOldest() {
+        def executor = new ManualExecutor()
+        bus.executor = executor
+        bus.queueCapacity = 2
+        bus.overflowPolicy = AsyncEventBus.OverflowPolicy.DROP_OLDEST
+        def subscriber = new RecordingSubscriber()
+        bus.register(subscriber)
+
+        (1..3).each { bus.publish(new FooEvent(it)) }
+
+        assertEquals 2, bus.getQueueDepth(subscriber)
+        assertEquals 2, bus.queueDepth
+        assertEquals 2, bus.getLag(subscriber)
+        assertEquals 1, bus.droppedCount
+
+        executor.runAll()
+        assertEquals([2, 3], subscriber.sources)
+        assertEquals 0, bus.getLag(subscriber)
+    }
+
+    @Test
+    void testCallerRuns() {
+        def executor = new ManualExecutor()
+        bus.executor = executor
+        bus.queueCapacity = 1
+        bus.overflowPolicy = AsyncEventBus.OverflowPolicy.CALLER_RUNS
+        def subscriber = new RecordingSubscriber()
+        bus.register(subscriber)
+
+        bus.publish(new FooEvent(1))
+        assertTrue subscriber.sources.isEmpty()
+
+        //the queue is full, the caller delivers the queued event and then its own:
+        bus.publish(new FooEvent(2))
+        assertEquals([1, 2], subscriber.sources)
+        assertEquals 0, bus.getQueueDepth(subscriber)
+
+        executor.runAll()
+        assertEquals([1, 2], subscriber.sources)
+    }
+
+    @Test
+    void testUnregister() {
+        def executor = new ManualExecutor()
+        bus.executor = executor
+        def subscriber = new RecordingSubscriber()
+        bus.register(subscriber)
+        bus.publish(new FooEvent(1))
+
+        bus.unregister(subscriber)
+        bus.publish(new FooEvent(2))
+        executor.runAll()
+
+        assertTrue subscriber.sources.isEmpty()
+        assertEquals 0, bus.getQueueDepth(subscriber)
+    }
+
+    @Test
+    void testContinueThroughListenerExceptions() {
+        def ok = new SimpleSubscriber()
+        def error = new ExceptionThrowingSubscriber()
+
+        bus.register(ok)
+        bus.register(error)
+
+        bus.publish(new ErrorCausingEvent())
+        bus.publish(new SimpleEvent())
+
+        assertTrue bus.awaitDelivery(10, TimeUnit.SECONDS)
+        assertEquals 1, ok.count
+        assertEquals 0, error.count
+    }
+
+    @Test
+    void testPublishAfterDestroy() {
+        def subscriber = new TestSubscriber()
+        bus.register(subscriber)
+        bus.publish(new FooEvent(this))
+        assertTrue bus.awaitDelivery(10, TimeUnit.SECONDS)
+
+        bus.destroy()
+        bus.publish(new FooEvent(this))
+
+        assertEquals 0, bus.getLag(subscriber)
+        assertEquals 1, subscriber.fooCount
+        assertNull bus.@defaultExecutor
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidQueueCapacity() {
+        bus.queueCapacity = 0
+    }
+
+    /**
+     * Collects tasks until they are run explicitly.
+     */
+    static class ManualExecutor implements Executor {
+
+        final List<Runnable> tasks = []
+
+        void execute(Runnable command) {
+            tasks << command
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run()
+            }
+        }
+    }
+}
@@ -188,4 +188,131 @@ class DefaultEventBusTest {
         assertEquals 0, error.count
     }
 
+    @Test
+    void testRegisterAfterPublish() {
+        def first = new TestSubscriber()
+        bus.register(first)
+        bus.publish(new FooEvent(this))
+
+        def second = new TestSubscriber()
+        bus.register(second)
+        bus.publish(new FooEvent(this))
+
+        assertEquals 2, first.fooCount
+        assertEquals 1, second.fooCount
+    }
+
+    @Test
+    void testUnregisterAfterPublish() {
+        def subscriber = new TestSubscriber()
+        bus.register(subscriber)
+        bus.publish(new BarEvent(this))
+
+        bus.unregister(subscriber)
+        bus.publish(new BarEvent(this))
+
+        assertEquals 1, subscriber.barCount
+    }
+
+    @Test
+    void testUntypedListener() {
+        def received = []
+        def listener = new EventListener() {
+            boolean accepts(Object event) {
+                return event instanceof String && event.startsWith('a')
+            }
+
+            void onEvent(Object event) {
+                received << event
+            }
+        }
+        bus.eventListenerResolver = new EventListenerResolver() {
+            List<EventListener> getEventListeners(Object instance) {
+                return [listener]
+            }
+        }
+        bus.register(this)
+
+        bus.publish('abc')
+        bus.publish('xyz')
+        bus.publish(42)
+        bus.publish('aaa')
+
+        assertEquals(['abc', 'aaa'], received)
+    }
+
+    @Test
+    void testHasSubscribers() {
+        assertFalse bus.hasSubscribers(FooEvent)
+
+        def subscriber = new TestSubscriber()
+        bus.register(subscriber)
+
+        assertTrue bus.hasSubscribers(FooEvent)
+        assertTrue bus.hasSubscribers(BazEvent)
+        assertFalse bus.hasSubscribers(SimpleEvent)
+        assertFalse bus.hasSubscribers(null)
+
+        bus.unregister(subscriber)
+
+        assertFalse bus.hasSubscribers(FooEvent)
+    }
+
+    @Test
+    void testTypedListenerMustAccept() {
+        def received = []
+        def listener = new TypedEventListener() {
+            Class getEventType() {
+                return FooEvent
+            }
+
+            boolean accepts(Object event) {
+                return event instanceof FooEvent && event.source == 'accepted'
+            }
+
+            void onEvent(Object event) {
+                received << event
+            }
+        }
+        bus.eventListenerResolver = new EventListenerResolver() {
+            List<EventListener> getEventListeners(Object instance) {
+                return [listener]
+            }
+        }
+        bus.register(this)
+
+        def accepted = new BarEvent('accepted')
+        bus.publish(new FooEvent('rejected'))
+        bus.publish(accepted)
+
+        assertEquals([accepted], received)
+    }
+
+    @Test
+    void testTargetReceivesEventFromFirstAcceptingListener() {
+        def subscriber = new TestSubscriber()
+        def onBar = new SingleArgumentMethodEventListener(subscriber,
+                TestSubscriber.getMethod('onBarEvent', BarEvent)) {
+            boolean accepts(Object event) {
+                return super.accepts(event) && event.source != 'skip'
+            }
+        }
+        def onFoo = new SingleArgumentMethodEventListener(subscriber,
+                TestSubscriber.getMethod('onFooEvent', FooEvent))
+        bus.eventListenerResolver = new EventListenerResolver() {
+            List<EventListener> getEventListeners(Object instance) {
+                return [onFoo, onBar]
+            }
+        }
+        bus.register(subscriber)
+
+        bus.publish(new BarEvent('deliver'))
+        assertEquals 0, subscriber.fooCount
+        assertEquals 1, subscriber.barCount
+
+        //the more specific listener declines, so the event falls back to the next listener of the same target:
+        bus.publish(new BarEvent('skip'))
+        assertEquals 1, subscriber.fooCount
+        assertEquals 1, subscriber.barCount
+    }
 }
@@ -91,6 +91,24 @@ class SingleArgumentMethodEventListenerTest {
         assertTrue listener.accepts(new FooEvent(this))
     }
 
+    @Test
+    void testEventTypeFollowsOverriddenMethod() {
+        def target = new TestSubscriber()
+        def fooMethod = TestSubscriber.class.getMethods().find { it.name == "onFooEvent" }
+        def barMethod = TestSubscriber.class.getMethods().find { it.name == "onBarEvent" }
+
+        def listener = new SingleArgumentMethodEventListener(target, fooMethod) {
+            @Override
+            Method getMethod() {
+                return barMethod
+            }
+        }
+
+        assertEquals BarEvent, listener.eventType
+        assertFalse listener.accepts(new FooEvent(this))
+        assertTrue listener.accepts(new BarEvent(this))
+    }
+
     @Test(expected=IllegalArgumentException)
     void testNonPublicMethodSubscriber() {
         def target = new InvalidMethodModiferSubscriber()
@@ -99,6 +117,82 @@ class SingleArgumentMethodEventListenerTest {
         new SingleArgumentMethodEventListener(target, method)
     }
 
+    @Test
+    void testDirectInvocation() {
+        def target = new TestSubscriber()
+        def method = TestSubscriber.class.getMethods().find { it.name == "onFooEvent" }
+
+        def listener = new SingleArgumentMethodEventListener(target, method)
+        assertEquals 'DirectInvoker', listener.invoker.class.simpleName
+
+        def event = new FooEvent(this)
+        listener.onEvent(event)
+
+        assertEquals 1, target.fooCount
+        assertSame event, target.lastEvent
+    }
+
+    @Test
+    void testReflectiveInvocation() {
+        def target = new PackagePrivateSubscriber()
+        def method = PackagePrivateSubscriber.class.getMethods().find { it.name == "onEvent" }
+
+        def listener = new SingleArgumentMethodEventListener(target, method)
+        assertEquals 'ReflectiveInvoker', listener.invoker.class.simpleName
+
+        listener.onEvent(new SimpleEvent())
+
+        assertEquals 1, target.count
+    }
+
+    @Test
+    void testListenerExceptionIsWrapped() {
+        def target = new ExceptionThrowingSubscriber()
+        def method = ExceptionThrowingSubscriber.class.getMethods().find { it.name == "onEvent" }
+
+        def listener = new SingleArgumentMethodEventListener(target, method)
+
+        try {
+            listener.onEvent(new ErrorCausingEvent())
+            fail("exception expected")
+        } catch (IllegalStateException ise) {
+            assertTrue ise.message.startsWith("Unable to invoke event handler method")
+            assertTrue ise.cause instanceof UnsupportedOperationException
+        }
+    }
+
+    @Test
+    void testReflectiveListenerExceptionIsWrapped() {
+        def target = new PackagePrivateSubscriber()
+        def method = PackagePrivateSubscriber.class.getMethods().find { it.name == "onErrorCausingEvent" }
+
+        def listener = new SingleArgumentMethodEventListener(target, method)
+        assertEquals 'ReflectiveInvoker', listener.invoker.class.simpleName
+
+        try {
+            listener.onEvent(new ErrorCausingEvent())
+            fail("exception expected")
+        } catch (IllegalStateException ise) {
+            assertTrue ise.message.startsWith("Unable to invoke event handler method")
+            //the same cause as for a directly invoked method, not an InvocationTargetException:
+            assertTrue ise.cause instanceof UnsupportedOperationException
+        }
+    }
+
+    @Test
+    void testListenerErrorIsWrapped() {
+        def target = new ErrorThrowingSubscriber()
+        def method = ErrorThrowingSubscriber.class.getMethods().find { it.name == "onEvent" }
 
+        def listener = new SingleArgumentMethodEventListener(target, method)
+        assertEquals 'DirectInvoker', listener.invoker.class.simpleName
 
+        try {
+            listener.onEvent(new ErrorCausingEvent())
+            fail("exception expected")
+        } catch (IllegalStateException ise) {
+            assertTrue ise.message.startsWith("Unable to invoke event handler method")
+            assertEquals Error, ise.cause.class
+        }
+    }
 }
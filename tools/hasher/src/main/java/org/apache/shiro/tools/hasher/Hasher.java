@@ -33,6 +33,7 @@ import org.apache.shiro.crypto.hash.DefaultHashService;
 import org.apache.shiro.crypto.hash.Hash;
 import org.apache.shiro.crypto.hash.HashRequest;
 import org.apache.shiro.crypto.hash.SimpleHashRequest;
+import org.apache.shiro.crypto.hash.SimpleStreamingHashRequest;
 import org.apache.shiro.crypto.hash.format.DefaultHashFormatFactory;
 import org.apache.shiro.crypto.hash.format.HashFormat;
 import org.apache.shiro.crypto.hash.format.HashFormatFactory;
@@ -44,6 +45,8 @@ import org.apache.shiro.lang.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 /**
@@ -224,7 +227,16 @@ public final class Hasher {
 
             ByteSource publicSalt = getSalt(saltString, saltBytesString, generateSalt, generatedSaltSize);
             ByteSource privateSalt = getSalt(privateSaltString, privateSaltBytesString, false, generatedSaltSize);
-            HashRequest hashRequest = new SimpleHashRequest(algorithm, ByteSource.Util.bytes(source), publicSalt, iterations);
+            HashRequest hashRequest;
+            if (source instanceof File) {
+                //stream files and other resources through the digest rather than loading them into memory:
+                Path path = ((File) source).toPath();
+                hashRequest = new SimpleStreamingHashRequest(algorithm, path, publicSalt, iterations);
+            } else if (source instanceof InputStream) {
+                hashRequest = new SimpleStreamingHashRequest(algorithm, (InputStream) source, publicSalt, iterations);
+            } else {
+                hashRequest = new SimpleHashRequest(algorithm, ByteSource.Util.bytes(source), publicSalt, iterations);
+            }
 
             DefaultHashService hashService = new DefaultHashService();
             hashService.setPrivateSalt(privateSalt);
@@ -24,8 +24,6 @@ import org.apache.shiro.web.util.WebUtils;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * A request filter that blocks malicious requests. Invalid request will respond with a 400 response code.
@@ -36,15 +34,64 @@ import java.util.List;
  *     <li>Backslash - can be disabled by setting {@code blockBackslash = false}</li>
  *     <li>Non-ASCII characters - can be disabled by setting {@code blockNonAscii = false}, the ability to disable this check will be removed in future version.</li>
  * </ul>
+ * The following checks are disabled by default and can be enabled as needed:
+ * <ul>
+ *     <li>Encoded slash ({@code %2f}) - enabled by setting {@code blockEncodedSlash = true}</li>
+ *     <li>Dot segments ({@code /./} and {@code /../}, plain or {@code %2e} encoded) - enabled by setting
+ *         {@code blockTraversal = true}</li>
+ *     <li>Null byte (raw or {@code %00} encoded) - enabled by setting {@code blockNullByte = true}</li>
+ * </ul>
+ * All enabled checks are performed in a single pass over the request URI, driven by a static character class
+ * table, so the cost of the filter does not grow with the number of enabled checks and no objects are allocated
+ * per request.
  *
  * @see <a href="https://docs.spring.io/spring-security/site/docs/current/api/org/springframework/security/web/firewall/StrictHttpFirewall.html">This class was inspired by Spring Security StrictHttpFirewall</a>
  * @since 1.6
  */
 public class InvalidRequestFilter extends AccessControlFilter {
 
-    private static final List<String> SEMICOLON = Collections.unmodifiableList(Arrays.asList(";", "%3b", "%3B"));
+    private static final int SEMICOLON = 1;
+    private static final int BACKSLASH = 1 << 1;
+    private static final int NON_ASCII = 1 << 2;
+    private static final int ENCODED_SLASH = 1 << 3;
+    private static final int TRAVERSAL = 1 << 4;
+    private static final int NULL_BYTE = 1 << 5;
+
+    // character classes used by the scanner, indexed by the (raw or percent-decoded) ASCII character
+    private static final byte OTHER = 0;
+    private static final byte CLASS_SEMICOLON = 1;
+    private static final byte CLASS_BACKSLASH = 2;
+    private static final byte CLASS_SLASH = 3;
+    private static final byte CLASS_DOT = 4;
+    private static final byte CLASS_PERCENT = 5;
+    private static final byte CLASS_NULL = 6;
+    private static final byte CLASS_CONTROL = 7;
+
+    private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            CHARACTER_CLASSES[c] = CLASS_CONTROL;
+        }
+        CHARACTER_CLASSES[0] = CLASS_NULL;
+        CHARACTER_CLASSES[0x7f] = CLASS_CONTROL;
+        CHARACTER_CLASSES[';'] = CLASS_SEMICOLON;
+        CHARACTER_CLASSES['\\'] = CLASS_BACKSLASH;
+        CHARACTER_CLASSES['/'] = CLASS_SLASH;
+        CHARACTER_CLASSES['.'] = CLASS_DOT;
+        CHARACTER_CLASSES['%'] = CLASS_PERCENT;
 
-    private static final List<String> BACKSLASH = Collections.unmodifiableList(Arrays.asList("\\", "%5c", "%5C"));
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int c = '0'; c <= '9'; c++) {
+            HEX_VALUES[c] = (byte) (c - '0');
+        }
+        for (int c = 'a'; c <= 'f'; c++) {
+            HEX_VALUES[c] = (byte) (c - 'a' + 10);
+            HEX_VALUES[c - 'a' + 'A'] = (byte) (c - 'a' + 10);
+        }
+    }
 
     private boolean blockSemicolon = true;
 
@@ -52,12 +99,18 @@ public class InvalidRequestFilter extends AccessControlFilter {
 
     private boolean blockNonAscii = true;
 
+    private boolean blockEncodedSlash = false;
+
+    private boolean blockTraversal = false;
+
+    private boolean blockNullByte = false;
+
+    private volatile int rules = SEMICOLON | BACKSLASH | NON_ASCII;
+
     @Override
     protected boolean isAccessAllowed(ServletRequest request, ServletResponse response, Object mappedValue) throws Exception {
         String uri = WebUtils.toHttp(request).getRequestURI();
-        return !containsSemicolon(uri)
-            && !containsBackslash(uri)
-            && !containsNonAsciiCharacters(uri);
+        return !isInvalid(uri, this.rules);
     }
 
     @Override
@@ -66,36 +119,128 @@ public class InvalidRequestFilter extends AccessControlFilter {
         return false;
     }
 
-    private boolean containsSemicolon(String uri) {
-        if (isBlockSemicolon()) {
-            return SEMICOLON.stream().anyMatch(uri::contains);
+    /**
+     * Scans the given URI once, returning {@code true} as soon as any of the given rules is violated.
+     */
+    private static boolean isInvalid(String uri, int rules) {
+        if (uri == null || rules == 0) {
+            return false;
         }
-        return false;
+        int length = uri.length();
+        // number of dots in the current path segment, or -1 if the segment contains anything other than dots
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = uri.charAt(i);
+            boolean encoded = false;
+            if (c >= 0x80) {
+                if ((rules & NON_ASCII) != 0) {
+                    return true;
+                }
+                dots = -1;
+                continue;
+            }
+            byte type = CHARACTER_CLASSES[c];
+            if (type == CLASS_PERCENT && i + 2 < length) {
+                int decoded = decode(uri.charAt(i + 1), uri.charAt(i + 2));
+                if (decoded >= 0) {
+                    c = (char) decoded;
+                    type = CHARACTER_CLASSES[c];
+                    encoded = true;
+                    i += 2;
+                }
+            }
+            switch (type) {
+                case CLASS_SEMICOLON:
+                    // a path parameter ends the segment, e.g. "/..;/" is treated as "/../" by some containers
+                    if ((rules & SEMICOLON) != 0 || isDotSegment(dots, rules)) {
+                        return true;
+                    }
+                    dots = -1;
+                    break;
+                case CLASS_BACKSLASH:
+                    // some containers treat a backslash as a path separator
+                    if ((rules & BACKSLASH) != 0 || isDotSegment(dots, rules)) {
+                        return true;
+                    }
+                    dots = 0;
+                    break;
+                case CLASS_SLASH:
+                    if (encoded) {
+                        if ((rules & ENCODED_SLASH) != 0) {
+                            return true;
+                        }
+                        dots = -1;
+                        break;
+                    }
+                    if (isDotSegment(dots, rules)) {
+                        return true;
+                    }
+                    dots = 0;
+                    break;
+                case CLASS_DOT:
+                    if (dots >= 0) {
+                        dots++;
+                    }
+                    break;
+                case CLASS_NULL:
+                    if ((rules & NULL_BYTE) != 0 || (!encoded && (rules & NON_ASCII) != 0)) {
+                        return true;
+                    }
+                    dots = -1;
+                    break;
+                case CLASS_CONTROL:
+                    if (!encoded && (rules & NON_ASCII) != 0) {
+                        return true;
+                    }
+                    dots = -1;
+                    break;
+                default:
+                    dots = -1;
+                    break;
+            }
+        }
+        return isDotSegment(dots, rules);
     }
 
-    private boolean containsBackslash(String uri) {
-        if (isBlockBackslash()) {
-            return BACKSLASH.stream().anyMatch(uri::contains);
-        }
-        return false;
+    private static boolean isDotSegment(int dots, int rules) {
+        return (dots == 1 || dots == 2) && (rules & TRAVERSAL) != 0;
     }
 
-    private boolean containsNonAsciiCharacters(String uri) {
-        if (isBlockNonAscii()) {
-            return !containsOnlyPrintableAsciiCharacters(uri);
+    private static int decode(char high, char low) {
+        if (high >= 0x80 || low >= 0x80) {
+            return -1;
         }
-        return false;
+        int h = HEX_VALUES[high];
+        int l = HEX_VALUES[low];
+        if (h < 0 || l < 0) {
+            return -1;
+        }
+        int value = (h << 4) | l;
+        // only ASCII is classified, encoded multi-byte sequences are treated as ordinary characters
+        return value < 0x80 ? value : -1;
     }
 
-    private static boolean containsOnlyPrintableAsciiCharacters(String uri) {
-        int length = uri.length();
-        for (int i = 0; i < length; i++) {
-            char c = uri.charAt(i);
-            if (c < '\u0020' || c > '\u007e') {
-                return false;
-            }
+    private synchronized void updateRules() {
+        int rules = 0;
+        if (blockSemicolon) {
+            rules |= SEMICOLON;
         }
-        return true;
+        if (blockBackslash) {
+            rules |= BACKSLASH;
+        }
+        if (blockNonAscii) {
+            rules |= NON_ASCII;
+        }
+        if (blockEncodedSlash) {
+            rules |= ENCODED_SLASH;
+        }
+        if (blockTraversal) {
+            rules |= TRAVERSAL;
+        }
+        if (blockNullByte) {
+            rules |= NULL_BYTE;
+        }
+        this.rules = rules;
     }
 
     public boolean isBlockSemicolon() {
@@ -104,6 +249,7 @@ public class InvalidRequestFilter extends AccessControlFilter {
 
     public void setBlockSemicolon(boolean blockSemicolon) {
         this.blockSemicolon = blockSemicolon;
+        updateRules();
     }
 
     public boolean isBlockBackslash() {
@@ -112,6 +258,7 @@ public class InvalidRequestFilter extends AccessControlFilter {
 
     public void setBlockBackslash(boolean blockBackslash) {
         this.blockBackslash = blockBackslash;
+        updateRules();
     }
 
     public boolean isBlockNonAscii() {
@@ -120,5 +267,73 @@ public class InvalidRequestFilter extends AccessControlFilter {
 
     public void setBlockNonAscii(boolean blockNonAscii) {
         this.blockNonAscii = blockNonAscii;
+        updateRules();
+    }
+
+    /**
+     * Returns {@code true} if request URIs containing an encoded slash ({@code %2f} or {@code %2F}) are blocked,
+     * {@code false} otherwise.  Defaults to {@code false}.
+     *
+     * @return {@code true} if request URIs containing an encoded slash are blocked.
+     * @since 2.0
+     */
+    public boolean isBlockEncodedSlash() {
+        return blockEncodedSlash;
+    }
+
+    /**
+     * Sets whether request URIs containing an encoded slash ({@code %2f} or {@code %2F}) are blocked.
+     *
+     * @param blockEncodedSlash whether request URIs containing an encoded slash are blocked.
+     * @since 2.0
+     */
+    public void setBlockEncodedSlash(boolean blockEncodedSlash) {
+        this.blockEncodedSlash = blockEncodedSlash;
+        updateRules();
+    }
+
+    /**
+     * Returns {@code true} if request URIs containing a {@code .} or {@code ..} path segment (with the dots either
+     * plain or {@code %2e} encoded) are blocked, {@code false} otherwise.  Defaults to {@code false}.
+     *
+     * @return {@code true} if request URIs containing dot segments are blocked.
+     * @since 2.0
+     */
+    public boolean isBlockTraversal() {
+        return blockTraversal;
+    }
+
+    /**
+     * Sets whether request URIs containing a {@code .} or {@code ..} path segment are blocked.
+     *
+     * @param blockTraversal whether request URIs containing dot segments are blocked.
+     * @since 2.0
+     */
+    public void setBlockTraversal(boolean blockTraversal) {
+        this.blockTraversal = blockTraversal;
+        updateRules();
+    }
+
+    /**
+     * Returns {@code true} if request URIs containing a null byte (raw or {@code %00} encoded) are blocked,
+     * {@code false} otherwise.  Defaults to {@code false}; note that a raw null byte is also blocked by the
+     * {@link #isBlockNonAscii() non-ASCII} check.
+     *
+     * @return {@code true} if request URIs containing a null byte are blocked.
+     * @since 2.0
+     */
+    public boolean isBlockNullByte() {
+        return blockNullByte;
+    }
+
+    /**
+     * Sets whether request URIs containing a null byte (raw or {@code %00} encoded) are blocked.
+     *
+     * @param blockNullByte whether request URIs containing a null byte are blocked.
+     * @since 2.0
+     */
+    public void setBlockNullByte(boolean blockNullByte) {
+        this.blockNullByte = blockNullByte;
+        updateRules();
     }
 }
@@ -18,8 +18,15 @@
  */
 package org.apache.shiro.web.filter.authc;
 
+import org.apache.shiro.authc.AuthenticationException;
+import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.BearerToken;
 import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.SimpleAuthenticationInfo;
+import org.apache.shiro.authc.VerifiedBearerToken;
+import org.apache.shiro.authc.VerifiedTokenCache;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +42,13 @@ import javax.servlet.ServletResponse;
  * The {@link #onAccessDenied(ServletRequest, ServletResponse)} method will
  * only be called if the subject making the request is not
  * {@link org.apache.shiro.subject.Subject#isAuthenticated() authenticated}
+ * <p/>
+ * Optionally, a {@link #setVerifiedTokenCache(VerifiedTokenCache) VerifiedTokenCache} can be configured to avoid
+ * verifying the same token against the realms on every request.  After a successful login the token is cached with
+ * the principals it resolved to until {@link #getVerifiedTokenExpiration(BearerToken, Subject) it expires}; requests
+ * presenting a cached token still {@link Subject#login(AuthenticationToken) log in} the request's Subject, but with a
+ * {@link VerifiedBearerToken} that the authenticator accepts without consulting the realms.  Revoked tokens must be
+ * removed from the cache via {@link VerifiedTokenCache#revoke(String)}.
  *
  * @see <a href="https://tools.ietf.org/html/rfc2617">RFC 2617</a>
  * @see <a href="https://tools.ietf.org/html/rfc6750#section-2.1">OAuth2 Authorization Request Header Field</a>
@@ -49,6 +63,17 @@ public class BearerHttpAuthenticationFilter extends HttpAuthenticationFilter {
 
     private static final String BEARER = "Bearer";
 
+    /**
+     * The default maximum time a verified token is cached, five minutes.
+     *
+     * @since 2.0
+     */
+    public static final long DEFAULT_VERIFIED_TOKEN_TIME_TO_LIVE = 5 * 60 * 1000;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private long verifiedTokenTimeToLive = DEFAULT_VERIFIED_TOKEN_TIME_TO_LIVE;
+
     public BearerHttpAuthenticationFilter() {
         setAuthcScheme(BEARER);
         setAuthzScheme(BEARER);
@@ -90,6 +115,118 @@ public class BearerHttpAuthenticationFilter extends HttpAuthenticationFilter {
         String token = prinCred[0] != null ? prinCred[0] : "";
         return createBearerToken(token, request);
     }
+
+    /**
+     * Returns the cache of already verified tokens, or {@code null} if verified tokens are not cached (the default).
+     *
+     * @return the cache of already verified tokens, or {@code null} if verified tokens are not cached.
+     * @since 2.0
+     */
+    public VerifiedTokenCache getVerifiedTokenCache() {
+        return verifiedTokenCache;
+    }
+
+    /**
+     * Sets the cache of already verified tokens; {@code null} disables caching.
+     *
+     * @param verifiedTokenCache the cache of already verified tokens.
+     * @since 2.0
+     */
+    public void setVerifiedTokenCache(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a verified token is cached, defaults to
+     * {@link #DEFAULT_VERIFIED_TOKEN_TIME_TO_LIVE five minutes}.
+     *
+     * @return the maximum time in milliseconds a verified token is cached.
+     * @since 2.0
+     */
+    public long getVerifiedTokenTimeToLive() {
+        return verifiedTokenTimeToLive;
+    }
+
+    /**
+     * Sets the maximum time in milliseconds a verified token is cached.
+     *
+     * @param verifiedTokenTimeToLive the maximum time in milliseconds a verified token is cached.
+     * @since 2.0
+     */
+    public void setVerifiedTokenTimeToLive(long verifiedTokenTimeToLive) {
+        if (verifiedTokenTimeToLive <= 0) {
+            throw new IllegalArgumentException("verifiedTokenTimeToLive must be greater than zero.");
+        }
+        this.verifiedTokenTimeToLive = verifiedTokenTimeToLive;
+    }
+
+    /**
+     * Overrides the default behavior to first consult the {@link #getVerifiedTokenCache() verified token cache}, if
+     * one is configured.  On a cache hit the request's Subject is logged in with a {@link VerifiedBearerToken}
+     * carrying the cached {@code AuthenticationInfo}, so that the realms are skipped while authentication listeners,
+     * login events and the Subject retained for asynchronous dispatches see a regular login; on a miss the token is
+     * verified via {@link Subject#login(AuthenticationToken)} as usual and cached afterwards.
+     *
+     * @since 2.0
+     */
+    @Override
+    protected boolean executeLogin(ServletRequest request, ServletResponse response) throws Exception {
+        VerifiedTokenCache cache = getVerifiedTokenCache();
+        if (cache == null) {
+            return super.executeLogin(request, response);
+        }
+        AuthenticationToken token = createToken(request, response);
+        if (token == null) {
+            String msg = "createToken method implementation returned null. A valid non-null AuthenticationToken " +
+                    "must be created in order to execute a login attempt.";
+            throw new IllegalStateException(msg);
+        }
+        BearerToken bearerToken = token instanceof BearerToken ? (BearerToken) token : null;
+        AuthenticationInfo info = bearerToken != null ? cache.get(bearerToken.getToken()) : null;
+        try {
+            Subject subject = getSubject(request, response);
+            if (info != null) {
+                log.trace("Bearer token found in the verified token cache, skipping realm authentication.");
+                subject.login(new VerifiedBearerToken(bearerToken, info));
+            } else {
+                subject.login(token);
+                if (bearerToken != null) {
+                    cacheVerifiedToken(cache, bearerToken, subject);
+                }
+            }
+            return onLoginSuccess(token, subject, request, response);
+        } catch (AuthenticationException e) {
+            return onLoginFailure(token, e, request, response);
+        }
+    }
+
+    /**
+     * Returns the time, in milliseconds since the epoch, until which a token that was just verified may be served from
+     * the {@link #getVerifiedTokenCache() verified token cache}.
+     * <p/>
+     * This implementation returns the current time plus the {@link #getVerifiedTokenTimeToLive() time to live}.
+     * Subclasses that understand the token format, such as a JWT {@code exp} claim, should override this method to
+     * return the token's own expiration when it is earlier.
+     *
+     * @param token   the verified bearer token
+     * @param subject the Subject the token was verified for
+     * @return the time, in milliseconds since the epoch, at which the cache entry expires
+     * @since 2.0
+     */
+    protected long getVerifiedTokenExpiration(BearerToken token, Subject subject) {
+        return System.currentTimeMillis() + getVerifiedTokenTimeToLive();
+    }
+
+    private void cacheVerifiedToken(VerifiedTokenCache cache, BearerToken token, Subject subject) {
+        String value = token.getToken();
+        PrincipalCollection principals = subject.getPrincipals();
+        if (value == null || value.isEmpty() || principals == null || principals.isEmpty()) {
+            return;
+        }
+        // credentials are deliberately not retained, the token itself is the credential
+        cache.put(value, new SimpleAuthenticationInfo(principals, null), getVerifiedTokenExpiration(token, subject));
+    }
+
     @Override
     protected String[] getPrincipalsAndCredentials(String scheme, String token) {
         return new String[] {token};
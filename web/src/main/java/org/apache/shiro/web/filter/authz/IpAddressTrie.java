@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.filter.authz;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * A binary radix trie of IPv4 and IPv6 address ranges (CIDR blocks) supporting longest-prefix lookups.
+ * <p/>
+ * Lookups cost at most one step per address bit (32 for IPv4, 128 for IPv6) regardless of how many ranges the trie
+ * holds, and parse canonical dotted-quad and colon-separated address strings without allocating.  Anything else is
+ * resolved via {@link InetAddress#getByName(String)}, matching {@link IpAddressMatcher}.  IPv4-mapped IPv6 addresses
+ * ({@code ::ffff:a.b.c.d}) are treated as the IPv4 address they map, and an IPv4 range never matches an IPv6
+ * address or vice-versa.
+ * <p/>
+ * Instances are not safe for concurrent modification, but once fully populated they may be read by any number of
+ * threads as long as the trie is safely published (for example through a {@code volatile} field) and no longer
+ * modified.
+ *
+ * @param <V> the type of value associated with each range
+ * @since 2.0
+ */
+public final class IpAddressTrie<V> {
+
+    private static final int IPV4_BITS = 32;
+    private static final int IPV6_BITS = 128;
+
+    private final Node<V> ipv4Root = new Node<V>();
+    private final Node<V> ipv6Root = new Node<V>();
+    private int size;
+
+    /**
+     * Associates the given value with an address range.
+     *
+     * @param range an address (e.g. {@code 10.1.2.3}) or CIDR range (e.g. {@code 192.168.0.0/16}); a single address
+     *              is treated as a range containing only that address
+     * @param value the value to associate with the range, may not be {@code null}
+     * @return the value previously associated with exactly this range, or {@code null} if there was none.
+     * @throws IllegalArgumentException if the range cannot be parsed
+     */
+    public V put(String range, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value argument cannot be null.");
+        }
+        Range parsed = Range.parse(range);
+        Node<V> node = parsed.address.length == 4 ? ipv4Root : ipv6Root;
+        for (int i = 0; i < parsed.prefixLength; i++) {
+            int bit = (parsed.address[i >>> 3] >>> (7 - (i & 7))) & 1;
+            Node<V> child = node.children[bit];
+            if (child == null) {
+                child = new Node<V>();
+                node.children[bit] = child;
+            }
+            node = child;
+        }
+        V previous = node.value;
+        node.value = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the value of the most specific range that covers <em>every</em> address in the given range, that is
+     * the longest stored prefix no longer than the given range's prefix, or {@code null} if there is none.
+     *
+     * @param range an address or CIDR range
+     * @return the value of the most specific stored range covering the given range, or {@code null} if none does.
+     * @throws IllegalArgumentException if the range cannot be parsed
+     */
+    public V getCovering(String range) {
+        Range parsed = Range.parse(range);
+        Node<V> node = parsed.address.length == 4 ? ipv4Root : ipv6Root;
+        V match = node.value;
+        for (int i = 0; i < parsed.prefixLength && node != null; i++) {
+            node = node.children[(parsed.address[i >>> 3] >>> (7 - (i & 7))) & 1];
+            if (node != null && node.value != null) {
+                match = node.value;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns the value of the longest (most specific) range containing the given address, or {@code null} if no
+     * range contains it.
+     *
+     * @param address an IPv4 or IPv6 address string
+     * @return the value of the most specific range containing the address, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the address cannot be parsed
+     */
+    public V get(String address) {
+        if (address == null) {
+            return null;
+        }
+        int length = address.length();
+        int percent = address.indexOf('%');
+        if (percent >= 0) {
+            length = percent; //ignore IPv6 zone ids
+        }
+        if (address.indexOf(':') >= 0) {
+            int start = 0;
+            if (length > 1 && address.charAt(0) == '[' && address.charAt(length - 1) == ']') {
+                start = 1;
+                length--;
+            }
+            return getIpv6(address, start, length);
+        }
+        long ipv4 = parseIpv4(address, 0, length);
+        if (ipv4 >= 0) {
+            return getIpv4((int) ipv4);
+        }
+        return getResolved(address);
+    }
+
+    /**
+     * Returns the number of ranges in this trie.
+     *
+     * @return the number of ranges in this trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private V getIpv4(int address) {
+        Node<V> node = ipv4Root;
+        V match = null;
+        for (int i = 0; node != null; i++) {
+            if (node.value != null) {
+                match = node.value;
+            }
+            if (i == IPV4_BITS) {
+                break;
+            }
+            node = node.children[(address >>> (31 - i)) & 1];
+        }
+        return match;
+    }
+
+    private V getIpv6(long high, long low) {
+        Node<V> node = ipv6Root;
+        V match = null;
+        for (int i = 0; node != null; i++) {
+            if (node.value != null) {
+                match = node.value;
+            }
+            if (i == IPV6_BITS) {
+                break;
+            }
+            long word = i < 64 ? high : low;
+            node = node.children[(int) (word >>> (63 - (i & 63))) & 1];
+        }
+        return match;
+    }
+
+    /**
+     * Parses the colon-separated IPv6 address in {@code s[start, end)} into two 64 bit halves and looks it up.
+     */
+    private V getIpv6(String s, int start, int end) {
+        //the groups before a '::' (or all groups if there is none), and the groups after it:
+        long headHigh = 0, headLow = 0, tailHigh = 0, tailLow = 0;
+        int headGroups = 0, tailGroups = 0;
+        boolean compressed = false;
+
+        int i = start;
+        if (end - start >= 2 && s.charAt(i) == ':' && s.charAt(i + 1) == ':') {
+            compressed = true;
+            i += 2;
+        }
+        while (i < end) {
+            int groupEnd = i;
+            int group = 0;
+            while (groupEnd < end && groupEnd - i < 5) {
+                int digit = hexDigit(s.charAt(groupEnd));
+                if (digit < 0) {
+                    break;
+                }
+                group = (group << 4) | digit;
+                groupEnd++;
+            }
+            int groups = compressed ? tailGroups : headGroups;
+            if (groupEnd < end && s.charAt(groupEnd) == '.') {
+                //embedded IPv4 address, which must be the final 32 bits:
+                long ipv4 = parseIpv4(s, i, end);
+                if (ipv4 < 0 || groups > 6) {
+                    return getResolved(s.substring(start, end));
+                }
+                for (int half = 0; half < 2; half++) {
+                    long value = half == 0 ? ipv4 >>> 16 : ipv4 & 0xFFFF;
+                    if (compressed) {
+                        tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+                        tailLow = (tailLow << 16) | value;
+                        tailGroups++;
+                    } else {
+                        headHigh = (headHigh << 16) | (headLow >>> 48);
+                        headLow = (headLow << 16) | value;
+                        headGroups++;
+                    }
+                }
+                i = end;
+                break;
+            }
+            if (groupEnd == i || groupEnd - i > 4 || groups == 8) {
+                return getResolved(s.substring(start, end));
+            }
+            if (compressed) {
+                tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+                tailLow = (tailLow << 16) | group;
+                tailGroups++;
+            } else {
+                headHigh = (headHigh << 16) | (headLow >>> 48);
+                headLow = (headLow << 16) | group;
+                headGroups++;
+            }
+            i = groupEnd;
+            if (i < end) {
+                if (s.charAt(i) != ':' || i + 1 == end) {
+                    return getResolved(s.substring(start, end));
+                }
+                i++;
+                if (s.charAt(i) == ':') {
+                    if (compressed) {
+                        return getResolved(s.substring(start, end));
+                    }
+                    compressed = true;
+                    i++;
+                }
+            }
+        }
+
+        int total = headGroups + tailGroups;
+        if (compressed ? total > 7 : total != 8) {
+            return getResolved(s.substring(start, end));
+        }
+        //shift the head groups into place in front of the (zero) compressed groups and the tail groups:
+        for (int shift = 8 - headGroups; shift > 0; shift--) {
+            headHigh = (headHigh << 16) | (headLow >>> 48);
+            headLow <<= 16;
+        }
+        long high = headHigh | tailHigh;
+        long low = headLow | tailLow;
+        if (high == 0 && (low >>> 32) == 0xFFFFL) {
+            return getIpv4((int) low); //IPv4-mapped
+        }
+        return getIpv6(high, low);
+    }
+
+    /**
+     * Resolves addresses in any form {@link InetAddress} accepts, for inputs the fast paths do not handle.
+     */
+    private V getResolved(String address) {
+        byte[] bytes = resolve(address).getAddress();
+        if (bytes.length == 4) {
+            return getIpv4(toInt(bytes, 0));
+        }
+        return getIpv6(toLong(bytes, 0), toLong(bytes, 8));
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a strict dotted-quad IPv4 address in {@code s[start, end)} into its unsigned 32 bit value, returning
+     * {@code -1} if it is not one.
+     */
+    private static long parseIpv4(String s, int start, int end) {
+        long result = 0;
+        int octets = 0;
+        int i = start;
+        while (i < end) {
+            int value = 0;
+            int digits = 0;
+            while (i < end && digits < 4) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                digits++;
+                i++;
+            }
+            if (digits == 0 || digits > 3 || value > 255) {
+                return -1;
+            }
+            result = (result << 8) | value;
+            octets++;
+            if (i < end) {
+                if (s.charAt(i) != '.' || octets == 4 || i + 1 == end) {
+                    return -1;
+                }
+                i++;
+            }
+        }
+        return octets == 4 ? result : -1;
+    }
+
+    private static int toInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) |
+                ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        return ((long) toInt(bytes, offset) << 32) | (toInt(bytes, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private static InetAddress resolve(String address) {
+        try {
+            return InetAddress.getByName(address);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Failed to parse address " + address, e);
+        }
+    }
+
+    private static final class Node<V> {
+        @SuppressWarnings("unchecked")
+        private final Node<V>[] children = new Node[2];
+        private V value;
+    }
+
+    /**
+     * A parsed address range, using the same parsing rules as {@link IpAddressMatcher}.
+     */
+    private static final class Range {
+        private final byte[] address;
+        private final int prefixLength;
+
+        private Range(byte[] address, int prefixLength) {
+            this.address = address;
+            this.prefixLength = prefixLength;
+        }
+
+        private static Range parse(String range) {
+            if (range == null) {
+                throw new IllegalArgumentException("range argument cannot be null.");
+            }
+            String address = range.trim();
+            int prefixLength = -1;
+            int slash = address.indexOf('/');
+            if (slash > 0) {
+                try {
+                    prefixLength = Integer.parseInt(address.substring(slash + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid prefix length in range " + range, e);
+                }
+                address = address.substring(0, slash);
+            }
+            InetAddress inetAddress = resolve(address);
+            byte[] bytes = inetAddress.getAddress();
+            int maxLength = inetAddress instanceof Inet4Address ? IPV4_BITS : IPV6_BITS;
+            if (prefixLength < 0 || prefixLength > maxLength) {
+                prefixLength = maxLength;
+            }
+            return new Range(bytes, prefixLength);
+        }
+    }
+}
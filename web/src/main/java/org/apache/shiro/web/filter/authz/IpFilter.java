@@ -23,10 +23,9 @@ import org.apache.shiro.lang.util.StringUtils;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * A Filter that requires the request to be from within a specific set of IP
@@ -44,6 +43,11 @@ import java.util.Collection;
  * # override for just this path:
  * /another/path/** = localLan
  * </pre>
+ * <p/>
+ * All configured and {@link IpSource}-provided ranges are compiled into a single {@link IpAddressTrie}, so checking
+ * a request costs one address parse and one walk of at most 128 trie nodes however many ranges are configured.  The
+ * trie is rebuilt, and atomically swapped in, whenever the {@code IpSource} returns different collections than it
+ * did for the previous request.
  *
  * @since 2.0 
  */
@@ -60,8 +64,13 @@ public class IpFilter extends AuthorizationFilter {
     
     private IpSource ipSource = DEFAULT_IP_SOURCE;
 
-    private List<IpAddressMatcher> authorizedIpMatchers = Collections.emptyList();
-    private List<IpAddressMatcher> deniedIpMatchers = Collections.emptyList();
+    private Collection<String> authorizedIps = Collections.emptyList();
+    private Collection<String> deniedIps = Collections.emptyList();
+
+    /**
+     * The compiled form of the static and {@code IpSource} ranges, replaced as a whole whenever either changes.
+     */
+    private volatile IpRanges ipRanges;
 
     /**
      * Specifies a set of (comma, tab or space-separated) strings representing
@@ -73,10 +82,8 @@ public class IpFilter extends AuthorizationFilter {
     public void setAuthorizedIps(String authorizedIps) {
         String[] ips = StringUtils.tokenizeToStringArray(authorizedIps, ", \t");
         if (ips != null && ips.length > 0) {
-            authorizedIpMatchers = new ArrayList<IpAddressMatcher>();
-            for (String ip : ips) {
-                authorizedIpMatchers.add(new IpAddressMatcher(ip));
-            }
+            this.authorizedIps = validate(ips);
+            this.ipRanges = null;
         }
     }
 
@@ -88,15 +95,19 @@ public class IpFilter extends AuthorizationFilter {
     public void setDeniedIps(String deniedIps) {
         String[] ips = StringUtils.tokenizeToStringArray(deniedIps, ", \t");
         if (ips != null && ips.length > 0) {
-            deniedIpMatchers = new ArrayList<IpAddressMatcher>();
-            for (String ip : ips) {
-                deniedIpMatchers.add(new IpAddressMatcher(ip));
-            }
+            this.deniedIps = validate(ips);
+            this.ipRanges = null;
         }
     }
 
+    /**
+     * Sets the source of dynamically provided ranges.  The filter compiles the source's ranges once and re-uses
+     * them for as long as the source keeps returning the same (or equal) collections, so a source whose ranges
+     * change should return new collection instances rather than modify previously returned ones.
+     */
     public void setIpSource(IpSource source) {
         this.ipSource = source;
+        this.ipRanges = null;
     }
 
     /**
@@ -111,28 +122,80 @@ public class IpFilter extends AuthorizationFilter {
 
     protected boolean isAccessAllowed(ServletRequest request, ServletResponse response, Object mappedValue) throws Exception {
         String remoteIp = getHostFromRequest(request);
-        for (IpAddressMatcher matcher : deniedIpMatchers) {
-            if (matcher.matches(remoteIp)) {
-                return false;
-            }
+        return Boolean.TRUE.equals(getIpRanges().trie.get(remoteIp));
+    }
+
+    /**
+     * Returns the compiled ranges for the {@code IpSource}'s current collections, compiling and publishing new ones
+     * if the collections have changed since the last call.
+     */
+    private IpRanges getIpRanges() {
+        Collection<String> sourceAuthorized = nullSafe(ipSource.getAuthorizedIps());
+        Collection<String> sourceDenied = nullSafe(ipSource.getDeniedIps());
+        IpRanges ranges = this.ipRanges;
+        if (ranges == null || !ranges.isFor(sourceAuthorized, sourceDenied)) {
+            ranges = new IpRanges(sourceAuthorized, sourceDenied,
+                    compile(authorizedIps, deniedIps, sourceAuthorized, sourceDenied));
+            this.ipRanges = ranges;
         }
-        for (String ip : ipSource.getDeniedIps()) {
-            IpAddressMatcher matcher = new IpAddressMatcher(ip);
-            if (matcher.matches(remoteIp)) {
-                return false;
+        return ranges;
+    }
+
+    /**
+     * Compiles all ranges into a trie mapping each range to {@code TRUE} (authorized) or {@code FALSE} (denied).
+     * Denied ranges take precedence over authorized ones, so they are added first and authorized ranges that lie
+     * entirely within a denied range are left out.  Longest-prefix lookups then give the correct answer for
+     * authorized ranges that contain denied ones.
+     */
+    private static IpAddressTrie<Boolean> compile(Collection<String> authorized, Collection<String> denied,
+                                                  Collection<String> sourceAuthorized,
+                                                  Collection<String> sourceDenied) {
+        IpAddressTrie<Boolean> trie = new IpAddressTrie<Boolean>();
+        for (Collection<String> ranges : Arrays.asList(denied, sourceDenied)) {
+            for (String range : ranges) {
+                trie.put(range, Boolean.FALSE);
             }
         }
-        for (IpAddressMatcher matcher : authorizedIpMatchers) {
-            if (matcher.matches(remoteIp)) {
-                return true;
+        for (Collection<String> ranges : Arrays.asList(authorized, sourceAuthorized)) {
+            for (String range : ranges) {
+                if (!Boolean.FALSE.equals(trie.getCovering(range))) {
+                    trie.put(range, Boolean.TRUE);
+                }
             }
         }
-        for (String ip : ipSource.getAuthorizedIps()) {
-            IpAddressMatcher matcher = new IpAddressMatcher(ip);
-            if (matcher.matches(remoteIp)) {
-                return true;
-            }
+        return trie;
+    }
+
+    private static Collection<String> validate(String[] ips) {
+        IpAddressTrie<Boolean> trie = new IpAddressTrie<Boolean>();
+        for (String ip : ips) {
+            trie.put(ip, Boolean.TRUE);
+        }
+        return Arrays.asList(ips);
+    }
+
+    private static Collection<String> nullSafe(Collection<String> ips) {
+        return ips != null ? ips : Collections.<String>emptySet();
+    }
+
+    /**
+     * An immutable snapshot of the compiled ranges together with the {@code IpSource} collections it was built from.
+     */
+    private static final class IpRanges {
+        private final Collection<String> sourceAuthorized;
+        private final Collection<String> sourceDenied;
+        private final IpAddressTrie<Boolean> trie;
+
+        private IpRanges(Collection<String> sourceAuthorized, Collection<String> sourceDenied,
+                         IpAddressTrie<Boolean> trie) {
+            this.sourceAuthorized = sourceAuthorized;
+            this.sourceDenied = sourceDenied;
+            this.trie = trie;
+        }
+
+        private boolean isFor(Collection<String> authorized, Collection<String> denied) {
+            return (authorized == sourceAuthorized || authorized.equals(sourceAuthorized)) &&
+                    (denied == sourceDenied || denied.equals(sourceDenied));
         }
-        return false;
     }
 }
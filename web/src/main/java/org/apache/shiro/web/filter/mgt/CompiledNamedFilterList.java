@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.filter.mgt;
+
+import org.apache.shiro.lang.util.StringUtils;
+import org.apache.shiro.web.servlet.OncePerRequestFilter;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Collection;
+
+/**
+ * An immutable {@link NamedFilterList} that links a chain's filters into a fixed array once, so that
+ * {@link #proxy(FilterChain) proxying} a request only allocates a small index cursor that walks the array.
+ * <p/>
+ * Compiling a list does not change the filters it contains.  The {@link DefaultFilterChainManager} additionally
+ * {@link OncePerRequestFilter#setAlreadyFilteredBit(String, int) assigns} the {@link OncePerRequestFilter}s of the
+ * chains it compiles a bit in a per-request bit set.
+ * <p/>
+ * The list is a snapshot: later changes to the list it was compiled from are not reflected.  Any attempt to modify
+ * a compiled list throws an {@code UnsupportedOperationException}.
+ *
+ * @see DefaultFilterChainManager#setCompiledChainsEnabled(boolean)
+ * @since 2.0
+ */
+public class CompiledNamedFilterList extends AbstractList<Filter> implements NamedFilterList {
+
+    private final String name;
+    private final Filter[] filters;
+
+    public CompiledNamedFilterList(String name, Collection<? extends Filter> filters) {
+        if (!StringUtils.hasText(name)) {
+            throw new IllegalArgumentException("Cannot specify a null or empty name.");
+        }
+        if (filters == null) {
+            throw new NullPointerException("filters constructor argument cannot be null.");
+        }
+        this.name = name;
+        this.filters = filters.toArray(new Filter[0]);
+    }
+
+    /**
+     * Compiles the given list, retaining its name and current filters.
+     *
+     * @param source the list to compile
+     * @return the compiled list, or {@code source} itself if it is already compiled
+     */
+    public static CompiledNamedFilterList compile(NamedFilterList source) {
+        if (source instanceof CompiledNamedFilterList) {
+            return (CompiledNamedFilterList) source;
+        }
+        return new CompiledNamedFilterList(source.getName(), source);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FilterChain proxy(FilterChain orig) {
+        if (orig == null) {
+            throw new NullPointerException("original FilterChain cannot be null.");
+        }
+        return filters.length == 0 ? orig : new Cursor(orig, filters);
+    }
+
+    public Filter get(int index) {
+        return filters[index];
+    }
+
+    public int size() {
+        return filters.length;
+    }
+
+    /**
+     * Per-request position within a compiled filter array.
+     */
+    private static final class Cursor implements FilterChain {
+
+        private final FilterChain orig;
+        private final Filter[] filters;
+        private int index;
+
+        private Cursor(FilterChain orig, Filter[] filters) {
+            this.orig = orig;
+            this.filters = filters;
+        }
+
+        public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+            if (index < filters.length) {
+                filters[index++].doFilter(request, response, this);
+            } else {
+                orig.doFilter(request, response);
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.shiro.util.CollectionUtils;
 import org.apache.shiro.lang.util.Nameable;
 import org.apache.shiro.lang.util.StringUtils;
 import org.apache.shiro.web.filter.PathConfigProcessor;
+import org.apache.shiro.web.servlet.OncePerRequestFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +37,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Default {@link FilterChainManager} implementation maintaining a map of {@link Filter Filter} instances
@@ -50,6 +53,8 @@ public class DefaultFilterChainManager implements FilterChainManager {
 
     private static transient final Logger log = LoggerFactory.getLogger(DefaultFilterChainManager.class);
 
+    private static final AtomicInteger INSTANCE_SEQUENCE = new AtomicInteger();
+
     private FilterConfig filterConfig;
 
     private Map<String, Filter> filters; //pool of filters available for creating chains
@@ -58,6 +63,20 @@ public class DefaultFilterChainManager implements FilterChainManager {
 
     private Map<String, NamedFilterList> filterChains; //key: chain name, value: chain
 
+    private boolean compiledChainsEnabled; //whether proxy() uses immutable, pre-linked snapshots of each chain
+
+    private final Map<String, CompiledNamedFilterList> compiledChains = new ConcurrentHashMap<String, CompiledNamedFilterList>();
+
+    //the request attribute holding the 'already filtered' bit set of this manager's compiled chains, distinct per
+    //manager so that the bit indexes below never clash with those assigned by another manager:
+    private final String alreadyFilteredBitsAttributeName =
+            OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE + "." + INSTANCE_SEQUENCE.incrementAndGet();
+
+    //the bit indexes assigned while compiling chains, kept when compiled chains are disabled so that a filter always
+    //gets the same bit and the bit set never grows beyond the number of filters in this manager's chains:
+    private final Map<OncePerRequestFilter, Integer> alreadyFilteredBitIndexes =
+            new LinkedHashMap<OncePerRequestFilter, Integer>();
+
     public DefaultFilterChainManager() {
         this.filters = new LinkedHashMap<String, Filter>();
         this.filterChains = new LinkedHashMap<String, NamedFilterList>();
@@ -107,6 +126,45 @@ public class DefaultFilterChainManager implements FilterChainManager {
     @SuppressWarnings({"UnusedDeclaration"})
     public void setFilterChains(Map<String, NamedFilterList> filterChains) {
         this.filterChains = filterChains;
+        this.compiledChains.clear();
+    }
+
+    /**
+     * Returns {@code true} if {@link #proxy(FilterChain, String) proxy} executes immutable, pre-linked
+     * {@link CompiledNamedFilterList compiled} snapshots of the configured chains, {@code false} if it proxies the
+     * configured lists directly.  The default is {@code false}.
+     * <p/>
+     * A chain is compiled on first use and recompiled after it is modified through this manager's
+     * {@link #addToChain(String, String, String) addToChain} or {@link #createChain(String, String) createChain}
+     * methods.  Modifications made directly to a list returned from {@link #getChain(String)} are not seen once the
+     * chain has been compiled.
+     * <p/>
+     * While enabled, the {@link OncePerRequestFilter}s of compiled chains track whether they already executed for a
+     * request in a per-request bit set of this manager, see {@link OncePerRequestFilter#setAlreadyFilteredBit}.  Each
+     * filter keeps its bit for the life of this manager.  Filters overriding {@code getAlreadyFilteredAttributeName},
+     * and filters already assigned a bit elsewhere, keep their configuration.
+     *
+     * @return {@code true} if configured chains are compiled before execution, {@code false} otherwise.
+     * @since 2.0
+     */
+    public boolean isCompiledChainsEnabled() {
+        return compiledChainsEnabled;
+    }
+
+    /**
+     * Sets whether {@link #proxy(FilterChain, String) proxy} executes immutable, pre-linked
+     * {@link CompiledNamedFilterList compiled} snapshots of the configured chains.  See
+     * {@link #isCompiledChainsEnabled()} for details.
+     *
+     * @param compiledChainsEnabled whether configured chains are compiled before execution.
+     * @since 2.0
+     */
+    public void setCompiledChainsEnabled(boolean compiledChainsEnabled) {
+        this.compiledChainsEnabled = compiledChainsEnabled;
+        this.compiledChains.clear();
+        if (!compiledChainsEnabled) {
+            disableAlreadyFilteredBitSets();
+        }
     }
 
     public Filter getFilter(String name) {
@@ -291,6 +349,7 @@ public class DefaultFilterChainManager implements FilterChainManager {
 
         NamedFilterList chain = ensureChain(chainName);
         chain.add(filter);
+        this.compiledChains.remove(chainName);
     }
 
     public void setGlobalFilters(List<String> globalFilterNames) throws ConfigurationException {
@@ -351,7 +410,7 @@ public class DefaultFilterChainManager implements FilterChainManager {
     }
 
     public FilterChain proxy(FilterChain original, String chainName) {
-        NamedFilterList configured = getChain(chainName);
+        NamedFilterList configured = isCompiledChainsEnabled() ? getCompiledChain(chainName) : getChain(chainName);
         if (configured == null) {
             String msg = "There is no configured chain under the name/key [" + chainName + "].";
             throw new IllegalArgumentException(msg);
@@ -359,6 +418,71 @@ public class DefaultFilterChainManager implements FilterChainManager {
         return configured.proxy(original);
     }
 
+    /**
+     * Returns the {@link CompiledNamedFilterList compiled} snapshot of the named chain, compiling it first if
+     * necessary.
+     *
+     * @param chainName the name of the configured chain
+     * @return the compiled snapshot of the named chain, or {@code null} if there is no such chain.
+     * @since 2.0
+     */
+    protected NamedFilterList getCompiledChain(String chainName) {
+        CompiledNamedFilterList compiled = this.compiledChains.get(chainName);
+        if (compiled == null) {
+            NamedFilterList configured = getChain(chainName);
+            if (configured == null) {
+                return null;
+            }
+            compiled = CompiledNamedFilterList.compile(configured);
+            if (isCompiledChainsEnabled()) {
+                enableAlreadyFilteredBitSets(compiled);
+            }
+            this.compiledChains.put(chainName, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Switches the {@link OncePerRequestFilter}s of a compiled chain to this manager's per-request bit set, except
+     * those that override {@code getAlreadyFilteredAttributeName} and may therefore share their state with other
+     * filters.  Filters that already use a bit set are left alone, unless this manager assigned their bit.  Each
+     * filter is given the next free index the first time and keeps it afterwards.
+     */
+    private synchronized void enableAlreadyFilteredBitSets(NamedFilterList chain) {
+        for (Filter filter : chain) {
+            if (filter instanceof OncePerRequestFilter) {
+                OncePerRequestFilter once = (OncePerRequestFilter) filter;
+                Integer index = this.alreadyFilteredBitIndexes.get(once);
+                if (index == null) {
+                    if (once.isAlreadyFilteredBitSetEnabled() || overridesAlreadyFilteredAttributeName(once)) {
+                        continue;
+                    }
+                    index = this.alreadyFilteredBitIndexes.size();
+                    this.alreadyFilteredBitIndexes.put(once, index);
+                }
+                once.setAlreadyFilteredBit(this.alreadyFilteredBitsAttributeName, index);
+            }
+        }
+    }
+
+    private synchronized void disableAlreadyFilteredBitSets() {
+        for (OncePerRequestFilter filter : this.alreadyFilteredBitIndexes.keySet()) {
+            filter.setAlreadyFilteredBit(null, -1);
+        }
+    }
+
+    private static boolean overridesAlreadyFilteredAttributeName(OncePerRequestFilter filter) {
+        for (Class<?> clazz = filter.getClass(); clazz != OncePerRequestFilter.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("getAlreadyFilteredAttributeName");
+                return true;
+            } catch (NoSuchMethodException e) {
+                //not declared at this level, keep looking
+            }
+        }
+        return false;
+    }
+
     /**
      * Initializes the filter by calling <code>filter.init( {@link #getFilterConfig() getFilterConfig()} );</code>.
      *
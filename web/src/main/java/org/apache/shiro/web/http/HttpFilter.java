@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A non-blocking filter executed by an {@link HttpFilterPipeline}.
+ * <p/>
+ * An implementation either continues the request by returning the stage from
+ * {@link HttpFilterChain#proceed(HttpRequest, HttpResponse) chain.proceed}, possibly composed with further work, or
+ * ends it by writing the response and returning a completed stage without proceeding.  Implementations must not
+ * block the calling thread; anything that might block should be performed asynchronously and composed with the
+ * chain's stage.
+ *
+ * @since 2.0
+ */
+public interface HttpFilter {
+
+    /**
+     * Filters the request, typically continuing with {@code chain.proceed(request, response)}.
+     *
+     * @param request  the incoming request
+     * @param response the outgoing response
+     * @param chain    the remainder of the pipeline
+     * @return a stage that completes when this filter, and anything it proceeded to, has completed
+     */
+    CompletionStage<Void> filter(HttpRequest request, HttpResponse response, HttpFilterChain chain);
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The remainder of an {@link HttpFilterPipeline} execution, passed to each {@link HttpFilter}.
+ *
+ * @since 2.0
+ */
+public interface HttpFilterChain {
+
+    /**
+     * Continues processing with the next filter or, after the last filter, with the application's handler.
+     *
+     * @param request  the request to continue with
+     * @param response the response to continue with
+     * @return a stage that completes when the rest of the chain has completed
+     */
+    CompletionStage<Void> proceed(HttpRequest request, HttpResponse response);
+}
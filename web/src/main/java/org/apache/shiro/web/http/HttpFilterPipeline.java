@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An immutable, ordered list of {@link HttpFilter}s that can be executed against any {@link HttpRequest} and
+ * {@link HttpResponse} implementation.
+ * <p/>
+ * The pipeline itself holds no per-request state and is safe to share across threads; each
+ * {@link #execute(HttpRequest, HttpResponse, HttpFilterChain) execution} walks the filters with a small index
+ * cursor.  Because filters return {@link CompletionStage}s, a filter may suspend the request and resume it on a
+ * different thread without blocking the caller, which is what event-loop servers require.
+ * <p/>
+ * Any exception thrown synchronously by a filter or the handler is reported through the returned stage rather than
+ * thrown to the caller.
+ *
+ * @since 2.0
+ */
+public class HttpFilterPipeline {
+
+    private final HttpFilter[] filters;
+
+    public HttpFilterPipeline(List<? extends HttpFilter> filters) {
+        if (filters == null) {
+            throw new IllegalArgumentException("filters argument cannot be null.");
+        }
+        this.filters = filters.toArray(new HttpFilter[0]);
+        for (HttpFilter filter : this.filters) {
+            if (filter == null) {
+                throw new IllegalArgumentException("filters argument cannot contain null elements.");
+            }
+        }
+    }
+
+    public HttpFilterPipeline(HttpFilter... filters) {
+        this(Arrays.asList(filters));
+    }
+
+    /**
+     * Returns the number of filters in this pipeline.
+     *
+     * @return the number of filters in this pipeline.
+     */
+    public int size() {
+        return filters.length;
+    }
+
+    /**
+     * Executes this pipeline's filters in order, followed by the {@code handler} if every filter proceeds.
+     *
+     * @param request  the incoming request
+     * @param response the outgoing response
+     * @param handler  the application's handler, invoked after the last filter proceeds
+     * @return a stage that completes when the pipeline execution has completed
+     */
+    public CompletionStage<Void> execute(HttpRequest request, HttpResponse response, HttpFilterChain handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler argument cannot be null.");
+        }
+        return new Cursor(filters, handler).proceed(request, response);
+    }
+
+    private static final class Cursor implements HttpFilterChain {
+
+        private final HttpFilter[] filters;
+        private final HttpFilterChain handler;
+        private int index;
+
+        private Cursor(HttpFilter[] filters, HttpFilterChain handler) {
+            this.filters = filters;
+            this.handler = handler;
+        }
+
+        public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+            try {
+                CompletionStage<Void> stage;
+                if (index < filters.length) {
+                    stage = filters[index++].filter(request, response, this);
+                } else {
+                    stage = handler.proceed(request, response);
+                }
+                if (stage == null) {
+                    throw new IllegalStateException("HttpFilter or handler returned a null CompletionStage.");
+                }
+                return stage;
+            } catch (Throwable t) {
+                CompletableFuture<Void> failed = new CompletableFuture<Void>();
+                failed.completeExceptionally(t);
+                return failed;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+/**
+ * The container-agnostic view of an incoming HTTP request used by {@link HttpFilter}s.  It exposes only what Shiro
+ * needs to make security decisions, so implementations can be cheap adapters over any HTTP server's native request
+ * type.
+ *
+ * @since 2.0
+ */
+public interface HttpRequest {
+
+    /**
+     * Returns the HTTP method of the request, for example {@code GET} or {@code POST}.
+     *
+     * @return the HTTP method of the request.
+     */
+    String getMethod();
+
+    /**
+     * Returns the request path within the application, without the query string or any context path, for example
+     * {@code /account/settings}.
+     *
+     * @return the request path within the application.
+     */
+    String getPath();
+
+    /**
+     * Returns the first value of the named header, or {@code null} if the request does not contain it.  Header
+     * names are case-insensitive.
+     *
+     * @param name the header name
+     * @return the first value of the named header, or {@code null} if the request does not contain it.
+     */
+    String getHeader(String name);
+
+    /**
+     * Returns the value of the named cookie, or {@code null} if the request does not contain it.
+     *
+     * @param name the cookie name
+     * @return the value of the named cookie, or {@code null} if the request does not contain it.
+     */
+    String getCookie(String name);
+
+    /**
+     * Returns the IP address of the client that sent the request.
+     *
+     * @return the IP address of the client that sent the request.
+     */
+    String getRemoteAddress();
+
+    /**
+     * Returns the request-scoped attribute with the given name, or {@code null} if there is none.
+     *
+     * @param name the attribute name
+     * @return the request-scoped attribute with the given name, or {@code null} if there is none.
+     */
+    Object getAttribute(String name);
+
+    /**
+     * Sets a request-scoped attribute, removing it if {@code value} is {@code null}.
+     *
+     * @param name  the attribute name
+     * @param value the attribute value, or {@code null} to remove it
+     */
+    void setAttribute(String name, Object value);
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+/**
+ * The container-agnostic view of an outgoing HTTP response used by {@link HttpFilter}s.
+ *
+ * @since 2.0
+ */
+public interface HttpResponse {
+
+    /**
+     * Sets the response status code.
+     *
+     * @param status the response status code
+     */
+    void setStatus(int status);
+
+    /**
+     * Sets a response header, replacing any existing values.
+     *
+     * @param name  the header name
+     * @param value the header value
+     */
+    void setHeader(String name, String value);
+
+    /**
+     * Adds a response header value, retaining any existing values.  This is used for headers such as
+     * {@code Set-Cookie} that may appear more than once.
+     *
+     * @param name  the header name
+     * @param value the header value
+     */
+    void addHeader(String name, String value);
+}
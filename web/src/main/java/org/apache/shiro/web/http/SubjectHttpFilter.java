@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+import org.apache.shiro.concurrent.SubjectPropagation;
+import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.subject.support.SubjectThreadState;
+import org.apache.shiro.util.ThreadState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The {@link HttpFilter} that establishes the {@link Subject} for each request, and should therefore be first in a
+ * pipeline.
+ * <p/>
+ * The {@code Subject} is built from the request's {@link HttpRequest#getRemoteAddress() remote address} and, if the
+ * request carries the {@link #getSessionIdCookieName() session id cookie}, the referenced session.  It is made
+ * available to later filters and the handler in two ways:
+ * <ul>
+ * <li>as the {@link #SUBJECT_ATTRIBUTE} request attribute, which is how code running on a different thread from the
+ * one that started the request should obtain it, and</li>
+ * <li>bound to the current thread while the remainder of the pipeline runs synchronously, and around every
+ * continuation of the stage returned by {@link #filter filter}, so {@code SecurityUtils.getSubject()} works as usual
+ * there.</li>
+ * </ul>
+ * Once the returned stage completes, the subject's session, if any, is {@link Session#touch() touched}.
+ *
+ * @since 2.0
+ */
+public class SubjectHttpFilter implements HttpFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SubjectHttpFilter.class);
+
+    /**
+     * Request attribute key under which the request's {@code Subject} is stored.
+     */
+    public static final String SUBJECT_ATTRIBUTE = SubjectHttpFilter.class.getName() + "_SUBJECT";
+
+    /**
+     * The default name of the cookie carrying the session id, matching the servlet support's default.
+     */
+    public static final String DEFAULT_SESSION_ID_COOKIE_NAME = "JSESSIONID";
+
+    private final SecurityManager securityManager;
+    private String sessionIdCookieName = DEFAULT_SESSION_ID_COOKIE_NAME;
+
+    public SubjectHttpFilter(SecurityManager securityManager) {
+        if (securityManager == null) {
+            throw new IllegalArgumentException("SecurityManager argument cannot be null.");
+        }
+        this.securityManager = securityManager;
+    }
+
+    /**
+     * Returns the {@code Subject} established for the given request, or {@code null} if the request has not passed
+     * through a {@code SubjectHttpFilter}.
+     *
+     * @param request the request
+     * @return the {@code Subject} established for the request, or {@code null} if none has been established.
+     */
+    public static Subject getSubject(HttpRequest request) {
+        Object subject = request.getAttribute(SUBJECT_ATTRIBUTE);
+        return subject instanceof Subject ? (Subject) subject : null;
+    }
+
+    public SecurityManager getSecurityManager() {
+        return securityManager;
+    }
+
+    /**
+     * Returns the name of the cookie that carries the session id, or {@code null} if session ids are not read from
+     * cookies.  The default value is {@link #DEFAULT_SESSION_ID_COOKIE_NAME}.
+     *
+     * @return the name of the cookie that carries the session id, or {@code null} if not read from cookies.
+     */
+    public String getSessionIdCookieName() {
+        return sessionIdCookieName;
+    }
+
+    public void setSessionIdCookieName(String sessionIdCookieName) {
+        this.sessionIdCookieName = sessionIdCookieName;
+    }
+
+    public CompletionStage<Void> filter(HttpRequest request, HttpResponse response, HttpFilterChain chain) {
+        Subject subject = createSubject(request);
+        request.setAttribute(SUBJECT_ATTRIBUTE, subject);
+
+        ThreadState threadState = new SubjectThreadState(subject);
+        threadState.bind();
+        try {
+            //the returned stage may complete on another thread, so its continuations run with the subject bound too:
+            return SubjectPropagation.propagate(chain.proceed(request, response))
+                    .whenComplete((result, failure) -> updateSessionLastAccessTime(subject));
+        } finally {
+            threadState.restore();
+        }
+    }
+
+    /**
+     * Updates the last access time of the given subject's session, if it has one, once the request has been
+     * processed.  This is the counterpart of the servlet filter's {@code updateSessionLastAccessTime}: without it,
+     * sessions used only through a pipeline would expire while their client is still active.
+     *
+     * @param subject the request's {@code Subject}
+     */
+    protected void updateSessionLastAccessTime(Subject subject) {
+        Session session = subject.getSession(false);
+        if (session != null) {
+            try {
+                session.touch();
+            } catch (Throwable t) {
+                log.error("session.touch() method invocation has failed.  Unable to update " +
+                        "the corresponding session's last access time based on the incoming request.", t);
+            }
+        }
+    }
+
+    /**
+     * Creates the {@code Subject} for the given request.
+     *
+     * @param request the incoming request
+     * @return the {@code Subject} for the given request.
+     */
+    protected Subject createSubject(HttpRequest request) {
+        Subject.Builder builder = new Subject.Builder(securityManager).host(request.getRemoteAddress());
+        String cookieName = getSessionIdCookieName();
+        if (cookieName != null) {
+            builder.sessionId(request.getCookie(cookieName));
+        }
+        return builder.buildSubject();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+/**
+ * A minimal, container-agnostic HTTP request/response abstraction and a non-blocking filter chain engine built on
+ * it.  Nothing in this package depends on the Servlet API, so it can be adapted to event-loop HTTP servers; the
+ * Servlet API is supported through adapters in {@link org.apache.shiro.web.servlet}.
+ *
+ * @see HttpFilterPipeline
+ * @since 2.0
+ */
+package org.apache.shiro.web.http;
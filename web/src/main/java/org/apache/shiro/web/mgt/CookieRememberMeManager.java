@@ -20,6 +20,7 @@ package org.apache.shiro.web.mgt;
 
 import org.apache.shiro.lang.codec.Base64;
 import org.apache.shiro.mgt.AbstractRememberMeManager;
+import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.subject.SubjectContext;
 import org.apache.shiro.web.servlet.Cookie;
@@ -65,6 +66,11 @@ import javax.servlet.http.HttpServletResponse;
  * <p/>
  * Note that because this class subclasses the {@link AbstractRememberMeManager} which already provides serialization
  * and encryption logic, this class utilizes both for added security before setting the cookie value.
+ * <p/>
+ * If a {@link #setRememberedPrincipalsCache(RememberedPrincipalsCache) RememberedPrincipalsCache} is configured, the
+ * principals resolved from a cookie value are cached so that requests presenting the same cookie (for example from
+ * clients that do not keep a session) skip decoding, decryption and deserialization.  Entries never outlive the
+ * cookie's {@link Cookie#getMaxAge() maxAge} and are removed when the identity is forgotten, e.g. on logout.
  *
  * @since 1.0
  */
@@ -81,6 +87,8 @@ public class CookieRememberMeManager extends AbstractRememberMeManager {
 
     private Cookie cookie;
 
+    private RememberedPrincipalsCache rememberedPrincipalsCache;
+
     /**
      * Constructs a new {@code CookieRememberMeManager} with a default {@code rememberMe} cookie template.
      */
@@ -122,6 +130,27 @@ public class CookieRememberMeManager extends AbstractRememberMeManager {
         this.cookie = cookie;
     }
 
+    /**
+     * Returns the cache of principals resolved from rememberMe cookie values, or {@code null} if resolved principals
+     * are not cached (the default).
+     *
+     * @return the cache of principals resolved from rememberMe cookie values, or {@code null}.
+     * @since 2.0
+     */
+    public RememberedPrincipalsCache getRememberedPrincipalsCache() {
+        return rememberedPrincipalsCache;
+    }
+
+    /**
+     * Sets the cache of principals resolved from rememberMe cookie values; {@code null} disables caching.
+     *
+     * @param rememberedPrincipalsCache the cache of principals resolved from rememberMe cookie values.
+     * @since 2.0
+     */
+    public void setRememberedPrincipalsCache(RememberedPrincipalsCache rememberedPrincipalsCache) {
+        this.rememberedPrincipalsCache = rememberedPrincipalsCache;
+    }
+
     /**
      * Base64-encodes the specified serialized byte array and sets that base64-encoded String as the cookie value.
      * <p/>
@@ -235,6 +264,43 @@ public class CookieRememberMeManager extends AbstractRememberMeManager {
         }
     }
 
+    /**
+     * Overrides the default behavior to first consult the
+     * {@link #getRememberedPrincipalsCache() remembered principals cache}, if one is configured.  On a miss the
+     * principals are resolved as usual and then cached for at most the cookie's {@link Cookie#getMaxAge() maxAge}.
+     *
+     * @param subjectContext the contextual data, usually provided by a {@link Subject.Builder} implementation, that
+     *                       is being used to construct a {@link Subject} instance.
+     * @return the remembered principals or {@code null} if none could be acquired.
+     * @since 2.0
+     */
+    @Override
+    public PrincipalCollection getRememberedPrincipals(SubjectContext subjectContext) {
+        RememberedPrincipalsCache cache = getRememberedPrincipalsCache();
+        if (cache == null || !WebUtils.isHttp(subjectContext) || isIdentityRemoved((WebSubjectContext) subjectContext)) {
+            return super.getRememberedPrincipals(subjectContext);
+        }
+
+        String value = getCookie().readValue(WebUtils.getHttpRequest(subjectContext),
+                WebUtils.getHttpResponse(subjectContext));
+        if (value == null || Cookie.DELETED_COOKIE_VALUE.equals(value)) {
+            return super.getRememberedPrincipals(subjectContext);
+        }
+
+        PrincipalCollection principals = cache.get(value);
+        if (principals != null) {
+            log.trace("Using cached remembered principals.");
+            return principals;
+        }
+        principals = super.getRememberedPrincipals(subjectContext);
+        if (principals != null && !principals.isEmpty()) {
+            int maxAge = getCookie().getMaxAge();
+            long timeToLive = maxAge > 0 ? maxAge * 1000L : cache.getTimeToLive();
+            cache.put(value, principals, timeToLive);
+        }
+        return principals;
+    }
+
     /**
      * Sometimes a user agent will send the rememberMe cookie value without padding,
      * most likely because {@code =} is a separator in the cookie header.
@@ -297,6 +363,10 @@ public class CookieRememberMeManager extends AbstractRememberMeManager {
      * @param response the outgoing HTTP servlet response
      */
     private void forgetIdentity(HttpServletRequest request, HttpServletResponse response) {
+        RememberedPrincipalsCache cache = getRememberedPrincipalsCache();
+        if (cache != null) {
+            cache.remove(getCookie().readValue(request, response));
+        }
         getCookie().removeFrom(request, response);
     }
 }
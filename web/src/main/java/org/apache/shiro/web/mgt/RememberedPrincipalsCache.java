@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.mgt;
+
+import org.apache.shiro.cache.ExpiringMapCache;
+import org.apache.shiro.crypto.hash.Sha256Hash;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+
+/**
+ * A bounded cache mapping rememberMe cookie values to the {@link PrincipalCollection} they were decrypted and
+ * deserialized to, so that clients presenting the same cookie on every request (typically clients without a session)
+ * don't pay for Base64 decoding, decryption and deserialization each time.
+ * <p/>
+ * Cookie values are never stored as-is; entries are keyed by the SHA-256 digest of the cookie value.  Entries expire
+ * after the {@link #getTimeToLive() time to live}, or earlier when {@link #put put} with an earlier expiration, and
+ * are removed explicitly when the identity is forgotten.
+ *
+ * @see CookieRememberMeManager#setRememberedPrincipalsCache(RememberedPrincipalsCache)
+ * @since 2.0
+ */
+public class RememberedPrincipalsCache {
+
+    /**
+     * The default time remembered principals are cached, five minutes.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 5 * 60 * 1000;
+
+    /**
+     * The default maximum number of cookie values held by the cache, {@code 10000}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final ExpiringMapCache<String, PrincipalCollection> entries;
+
+    public RememberedPrincipalsCache() {
+        this(DEFAULT_TIME_TO_LIVE, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public RememberedPrincipalsCache(long timeToLive, int maximumSize) {
+        this.entries = new ExpiringMapCache<String, PrincipalCollection>(getClass().getName(), timeToLive,
+                maximumSize);
+    }
+
+    /**
+     * Returns the maximum time in milliseconds remembered principals are cached.
+     *
+     * @return the maximum time in milliseconds remembered principals are cached.
+     */
+    public long getTimeToLive() {
+        return entries.getTimeToLive();
+    }
+
+    /**
+     * Returns the maximum number of cookie values held by this cache.
+     *
+     * @return the maximum number of cookie values held by this cache.
+     */
+    public int getMaximumSize() {
+        return entries.getMaximumSize();
+    }
+
+    /**
+     * Returns a copy of the principals cached for the given cookie value, or {@code null} if the value is not cached
+     * or its entry has expired.  Each call returns a new collection, so callers may not affect each other or the
+     * cached entry.
+     *
+     * @param cookieValue the raw rememberMe cookie value
+     * @return a copy of the cached principals or {@code null}
+     */
+    public PrincipalCollection get(String cookieValue) {
+        if (cookieValue == null || cookieValue.isEmpty()) {
+            return null;
+        }
+        PrincipalCollection cached = entries.get(digest(cookieValue));
+        return cached != null ? new SimplePrincipalCollection(cached) : null;
+    }
+
+    /**
+     * Caches a copy of the given principals for the given cookie value for the {@link #getTimeToLive() time to live}.
+     *
+     * @param cookieValue the raw rememberMe cookie value
+     * @param principals  the principals the cookie value resolved to
+     */
+    public void put(String cookieValue, PrincipalCollection principals) {
+        put(cookieValue, principals, getTimeToLive());
+    }
+
+    /**
+     * Caches a copy of the given principals for the given cookie value for the given time, capped by the
+     * {@link #getTimeToLive() time to live}.
+     *
+     * @param cookieValue the raw rememberMe cookie value
+     * @param principals  the principals the cookie value resolved to
+     * @param timeToLive  the time in milliseconds the entry may be used
+     */
+    public void put(String cookieValue, PrincipalCollection principals, long timeToLive) {
+        if (cookieValue == null || cookieValue.isEmpty()) {
+            throw new IllegalArgumentException("cookieValue argument cannot be null or empty.");
+        }
+        if (principals == null) {
+            throw new IllegalArgumentException("principals argument cannot be null.");
+        }
+        if (timeToLive <= 0) {
+            return;
+        }
+        entries.put(digest(cookieValue), new SimplePrincipalCollection(principals), timeToLive);
+    }
+
+    /**
+     * Removes the given cookie value from the cache.
+     *
+     * @param cookieValue the raw rememberMe cookie value
+     * @return {@code true} if the cookie value was cached, {@code false} otherwise
+     */
+    public boolean remove(String cookieValue) {
+        if (cookieValue == null || cookieValue.isEmpty()) {
+            return false;
+        }
+        return entries.remove(digest(cookieValue)) != null;
+    }
+
+    /**
+     * Removes all cached cookie values.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cookie values currently cached, including entries that have expired but have not yet been
+     * purged.
+     *
+     * @return the number of cookie values currently cached.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String cookieValue) {
+        return new Sha256Hash(cookieValue).toBase64();
+    }
+}
@@ -29,6 +29,10 @@ import org.apache.shiro.web.subject.WebSubject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -67,6 +71,17 @@ import java.util.concurrent.Callable;
  * </pre>
  * See the Shiro <a href="http://shiro.apache.org/subject.html">Subject documentation</a> for more information as to
  * if you would do this, particularly the sections on the {@code Subject.Builder} and Thread Association.
+ * <h3>Asynchronous requests</h3>
+ * This filter should be registered as {@code async-supported} and mapped to the {@code ASYNC} dispatcher type.
+ * When a request enters asynchronous mode (via {@code ServletRequest.startAsync}), the request's {@code Subject} is
+ * retained so that:
+ * <ul>
+ * <li>work started via {@code AsyncContext.start} and {@code AsyncListener} callbacks run with that {@code Subject}
+ * bound (see {@link ShiroAsyncContext});</li>
+ * <li>subsequent {@code ASYNC} dispatches re-use that {@code Subject} instead of building a new one;</li>
+ * <li>the session's last access time is updated when asynchronous processing completes, via
+ * {@link #onAsyncComplete(ServletRequest, ServletResponse)}, rather than on each dispatch.</li>
+ * </ul>
  *
  * @since 1.0
  * @see <a href="http://shiro.apache.org/subject.html">Subject documentation</a>
@@ -356,13 +371,21 @@ public abstract class AbstractShiroFilter extends OncePerRequestFilter {
             final ServletRequest request = prepareServletRequest(servletRequest, servletResponse, chain);
             final ServletResponse response = prepareServletResponse(request, servletResponse, chain);
 
-            final Subject subject = createSubject(request, response);
+            //an ASYNC dispatch continues a request that was already set-up on a previous dispatch:
+            Subject asyncSubject = getAsyncDispatchSubject(request);
+            final boolean asyncDispatch = asyncSubject != null;
+            final Subject subject = asyncDispatch ? asyncSubject : createSubject(request, response);
 
             //noinspection unchecked
             subject.execute(new Callable() {
                 public Object call() throws Exception {
-                    updateSessionLastAccessTime(request, response);
+                    if (!asyncDispatch) {
+                        updateSessionLastAccessTime(request, response);
+                    }
                     executeChain(request, response, chain);
+                    if (request.isAsyncStarted()) {
+                        onAsyncStarted(request, response, subject);
+                    }
                     return null;
                 }
             });
@@ -385,6 +408,72 @@ public abstract class AbstractShiroFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Returns the {@code Subject} retained by a previous dispatch if the given request is an {@code ASYNC}
+     * dispatch, or {@code null} if a new {@code Subject} should be created for the request.
+     *
+     * @param request the incoming {@code ServletRequest}
+     * @return the {@code Subject} retained by a previous dispatch, or {@code null} if one should be created.
+     * @since 2.0
+     */
+    protected Subject getAsyncDispatchSubject(ServletRequest request) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            return null;
+        }
+        Object subject = request.getAttribute(ShiroHttpServletRequest.ASYNC_SUBJECT_KEY);
+        return subject instanceof Subject ? (Subject) subject : null;
+    }
+
+    /**
+     * Called on the request thread, with the {@code subject} still bound, when the filter chain returns after the
+     * request entered asynchronous mode.  The container does not complete the request before this dispatch
+     * returns, so it is always safe to register listeners here.
+     * <p/>
+     * This implementation retains the {@code subject} as a request attribute for subsequent {@code ASYNC} dispatches
+     * and registers an {@link AsyncListener} that calls {@link #onAsyncComplete(ServletRequest, ServletResponse)}
+     * with the {@code subject} bound when asynchronous processing completes.
+     *
+     * @param request  the request passed to the filter chain
+     * @param response the response passed to the filter chain
+     * @param subject  the {@code Subject} associated with the request
+     * @since 2.0
+     */
+    protected void onAsyncStarted(final ServletRequest request, final ServletResponse response, Subject subject) {
+        request.setAttribute(ShiroHttpServletRequest.ASYNC_SUBJECT_KEY, subject);
+        AsyncContext asyncContext = request.getAsyncContext();
+        AsyncListener listener = new AsyncListener() {
+            public void onComplete(AsyncEvent event) {
+                onAsyncComplete(request, response);
+            }
+
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            public void onError(AsyncEvent event) {
+            }
+
+            public void onStartAsync(AsyncEvent event) {
+            }
+        };
+        if (!(asyncContext instanceof ShiroAsyncContext)) {
+            listener = new SubjectAwareAsyncListener(subject, listener);
+        }
+        asyncContext.addListener(listener);
+    }
+
+    /**
+     * Called with the request's {@code Subject} bound to the container thread when asynchronous processing of the
+     * request completes.  This implementation {@link #updateSessionLastAccessTime updates} the session's last access
+     * time so that long running requests keep their session alive.
+     *
+     * @param request  the request passed to the filter chain
+     * @param response the response passed to the filter chain
+     * @since 2.0
+     */
+    protected void onAsyncComplete(ServletRequest request, ServletResponse response) {
+        updateSessionLastAccessTime(request, response);
+    }
+
     /**
      * Returns the {@code FilterChain} to execute for the given request.
      * <p/>
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.servlet;
+
+import org.apache.shiro.web.http.HttpFilterChain;
+import org.apache.shiro.web.http.HttpFilterPipeline;
+import org.apache.shiro.web.http.HttpRequest;
+import org.apache.shiro.web.http.HttpResponse;
+import org.apache.shiro.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A Servlet {@code Filter} that executes a container-agnostic {@link HttpFilterPipeline}, continuing with the
+ * servlet {@code FilterChain} once every pipeline filter proceeds.  This allows the same pipeline to be deployed in a
+ * servlet container and on non-servlet HTTP servers.
+ * <p/>
+ * Servlet filter chains are blocking, so this filter waits for the pipeline to complete before returning.
+ *
+ * @since 2.0
+ */
+public class HttpFilterPipelineFilter extends OncePerRequestFilter {
+
+    private HttpFilterPipeline pipeline;
+
+    public HttpFilterPipelineFilter() {
+    }
+
+    public HttpFilterPipelineFilter(HttpFilterPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public HttpFilterPipeline getPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(HttpFilterPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    protected void doFilterInternal(final ServletRequest request, final ServletResponse response,
+                                    final FilterChain chain) throws ServletException, IOException {
+        HttpFilterPipeline pipeline = getPipeline();
+        if (pipeline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpFilterChain servletChain = new HttpFilterChain() {
+            public CompletionStage<Void> proceed(HttpRequest httpRequest, HttpResponse httpResponse) {
+                try {
+                    chain.doFilter(request, response);
+                    return CompletableFuture.completedFuture(null);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }
+        };
+
+        try {
+            pipeline.execute(new ServletHttpRequest(WebUtils.toHttp(request)),
+                    new ServletHttpResponse(WebUtils.toHttp(response)), servletChain).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ServletException) {
+                throw (ServletException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ServletException("HttpFilterPipeline execution failed.", cause);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import java.io.IOException;
+import java.util.BitSet;
 
 /**
  * Filter base class that guarantees to be just executed once per request,
@@ -35,6 +36,10 @@ import java.io.IOException;
  * The {@link #getAlreadyFilteredAttributeName} method determines how
  * to identify that a request is already filtered. The default implementation
  * is based on the configured name of the concrete filter instance.
+ * <p/>
+ * Alternatively, a filter can {@link #setAlreadyFilteredBit(String, int) track} its execution in a per-request
+ * {@link BitSet} shared with other filters, which avoids building an attribute name and updating the request's
+ * attribute map for every filter on every request.  Pre-compiled filter chains enable this automatically.
  * <h3>Controlling filter execution</h3>
  * 1.2 introduced the {@link #isEnabled(javax.servlet.ServletRequest, javax.servlet.ServletResponse)} method and
  * {@link #isEnabled()} property to allow explicit controll over whether the filter executes (or allows passthrough)
@@ -58,6 +63,20 @@ public abstract class OncePerRequestFilter extends NameableFilter {
      */
     public static final String ALREADY_FILTERED_SUFFIX = ".FILTERED";
 
+    /**
+     * Name of the request attribute holding a {@link BitSet} of filters currently executing for the request, and
+     * prefix of the names of other such attributes.  See {@link #setAlreadyFilteredBit(String, int)}.
+     *
+     * @since 2.0
+     */
+    public static final String ALREADY_FILTERED_BITS_ATTRIBUTE = OncePerRequestFilter.class.getName() + ".FILTERED_BITS";
+
+    /**
+     * This filter's bit within a per-request bit set, or {@code null} if the request attribute named by
+     * {@link #getAlreadyFilteredAttributeName()} is used instead.
+     */
+    private volatile AlreadyFilteredBit alreadyFilteredBit;
+
     /**
      * Determines generally if this filter should execute or let requests fall through to the next chain element.
      *
@@ -106,8 +125,19 @@ public abstract class OncePerRequestFilter extends NameableFilter {
      */
     public final void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        String alreadyFilteredAttributeName = getAlreadyFilteredAttributeName();
-        if ( request.getAttribute(alreadyFilteredAttributeName) != null ) {
+        AlreadyFilteredBit bit = this.alreadyFilteredBit;
+        String alreadyFilteredAttributeName = null;
+        BitSet alreadyFilteredBits = null;
+        boolean alreadyFiltered;
+        if (bit == null) {
+            alreadyFilteredAttributeName = getAlreadyFilteredAttributeName();
+            alreadyFiltered = request.getAttribute(alreadyFilteredAttributeName) != null;
+        } else {
+            alreadyFilteredBits = getAlreadyFilteredBits(request, bit.attributeName);
+            alreadyFiltered = alreadyFilteredBits.get(bit.index);
+        }
+
+        if ( alreadyFiltered ) {
             log.trace("Filter '{}' already executed.  Proceeding without invoking this filter.", getName());
             filterChain.doFilter(request, response);
         } else //noinspection deprecation
@@ -119,18 +149,84 @@ public abstract class OncePerRequestFilter extends NameableFilter {
         } else {
             // Do invoke this filter...
             log.trace("Filter '{}' not yet executed.  Executing now.", getName());
-            request.setAttribute(alreadyFilteredAttributeName, Boolean.TRUE);
+            if (alreadyFilteredBits != null) {
+                alreadyFilteredBits.set(bit.index);
+            } else {
+                request.setAttribute(alreadyFilteredAttributeName, Boolean.TRUE);
+            }
 
             try {
                 doFilterInternal(request, response, filterChain);
             } finally {
                 // Once the request has finished, we're done and we don't
                 // need to mark as 'already filtered' any more.
-                request.removeAttribute(alreadyFilteredAttributeName);
+                if (alreadyFilteredBits != null) {
+                    alreadyFilteredBits.clear(bit.index);
+                } else {
+                    request.removeAttribute(alreadyFilteredAttributeName);
+                }
             }
         }
     }
 
+    /**
+     * Returns the request's shared 'already filtered' bit set, creating and storing it if necessary.
+     *
+     * @param request       the incoming servlet request
+     * @param attributeName the name of the request attribute holding the bit set
+     * @return the request's shared 'already filtered' bit set.
+     */
+    private static BitSet getAlreadyFilteredBits(ServletRequest request, String attributeName) {
+        Object bits = request.getAttribute(attributeName);
+        if (bits instanceof BitSet) {
+            return (BitSet) bits;
+        }
+        BitSet created = new BitSet();
+        request.setAttribute(attributeName, created);
+        return created;
+    }
+
+    /**
+     * Returns {@code true} if this filter tracks whether it has already executed for a request in the shared
+     * per-request {@link BitSet}, {@code false} if it uses the request attribute named by
+     * {@link #getAlreadyFilteredAttributeName()}.  The default is {@code false}.
+     *
+     * @return {@code true} if this filter tracks its execution in the shared per-request bit set.
+     * @since 2.0
+     */
+    public boolean isAlreadyFilteredBitSetEnabled() {
+        return alreadyFilteredBit != null;
+    }
+
+    /**
+     * Makes this filter track whether it has already executed for a request in bit {@code bitIndex} of the
+     * {@link BitSet} held by the request attribute {@code bitSetAttributeName}, rather than in a request attribute
+     * named by {@link #getAlreadyFilteredAttributeName()}.  A {@code null} attribute name reverts to the latter.
+     * <p/>
+     * Whoever assigns the bits, typically a
+     * {@link org.apache.shiro.web.filter.mgt.DefaultFilterChainManager DefaultFilterChainManager} compiling its chains,
+     * must give each filter sharing a bit set its own index, and should keep indexes small and stable as the bit set
+     * grows to the highest index in use.  Subclasses overriding {@link #getAlreadyFilteredAttributeName()} to share
+     * state with other filters should not be assigned a bit.
+     *
+     * @param bitSetAttributeName the name of the request attribute holding the bit set, or {@code null} to use the
+     *                            request attribute named by {@link #getAlreadyFilteredAttributeName()}
+     * @param bitIndex            this filter's index within the bit set, ignored if {@code bitSetAttributeName} is
+     *                            {@code null}
+     * @throws IllegalArgumentException if {@code bitSetAttributeName} is given and {@code bitIndex} is negative
+     * @since 2.0
+     */
+    public void setAlreadyFilteredBit(String bitSetAttributeName, int bitIndex) {
+        if (bitSetAttributeName == null) {
+            this.alreadyFilteredBit = null;
+            return;
+        }
+        if (bitIndex < 0) {
+            throw new IllegalArgumentException("bitIndex cannot be negative.");
+        }
+        this.alreadyFilteredBit = new AlreadyFilteredBit(bitSetAttributeName, bitIndex);
+    }
+
     /**
      * Returns {@code true} if this filter should filter the specified request, {@code false} if it should let the
      * request/response pass through immediately to the next element in the {@code FilterChain}.
@@ -209,4 +305,15 @@ public abstract class OncePerRequestFilter extends NameableFilter {
      */
     protected abstract void doFilterInternal(ServletRequest request, ServletResponse response, FilterChain chain)
             throws ServletException, IOException;
+
+    private static final class AlreadyFilteredBit {
+
+        private final String attributeName;
+        private final int index;
+
+        private AlreadyFilteredBit(String attributeName, int index) {
+            this.attributeName = attributeName;
+            this.index = index;
+        }
+    }
 }
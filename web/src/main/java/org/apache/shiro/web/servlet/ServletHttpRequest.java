@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.servlet;
+
+import org.apache.shiro.web.http.HttpRequest;
+import org.apache.shiro.web.util.WebUtils;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Adapts an {@link HttpServletRequest} to the container-agnostic {@link HttpRequest} abstraction.
+ *
+ * @since 2.0
+ */
+public class ServletHttpRequest implements HttpRequest {
+
+    private final HttpServletRequest request;
+
+    public ServletHttpRequest(HttpServletRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("HttpServletRequest argument cannot be null.");
+        }
+        this.request = request;
+    }
+
+    public HttpServletRequest getServletRequest() {
+        return request;
+    }
+
+    public String getMethod() {
+        return request.getMethod();
+    }
+
+    public String getPath() {
+        return WebUtils.getPathWithinApplication(request);
+    }
+
+    public String getHeader(String name) {
+        return request.getHeader(name);
+    }
+
+    public String getCookie(String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookie.getName().equals(name)) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    public String getRemoteAddress() {
+        return request.getRemoteAddr();
+    }
+
+    public Object getAttribute(String name) {
+        return request.getAttribute(name);
+    }
+
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            request.removeAttribute(name);
+        } else {
+            request.setAttribute(name, value);
+        }
+    }
+}
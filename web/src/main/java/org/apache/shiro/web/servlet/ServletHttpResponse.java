@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.servlet;
+
+import org.apache.shiro.web.http.HttpResponse;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Adapts an {@link HttpServletResponse} to the container-agnostic {@link HttpResponse} abstraction.
+ *
+ * @since 2.0
+ */
+public class ServletHttpResponse implements HttpResponse {
+
+    private final HttpServletResponse response;
+
+    public ServletHttpResponse(HttpServletResponse response) {
+        if (response == null) {
+            throw new IllegalArgumentException("HttpServletResponse argument cannot be null.");
+        }
+        this.response = response;
+    }
+
+    public HttpServletResponse getServletResponse() {
+        return response;
+    }
+
+    public void setStatus(int status) {
+        response.setStatus(status);
+    }
+
+    public void setHeader(String name, String value) {
+        response.setHeader(name, value);
+    }
+
+    public void addHeader(String name, String value) {
+        response.addHeader(name, value);
+    }
+}
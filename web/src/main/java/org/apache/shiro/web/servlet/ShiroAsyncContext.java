@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.servlet;
+
+import org.apache.shiro.subject.Subject;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * An {@link AsyncContext} wrapper that retains the {@link Subject} that was bound to the request thread when
+ * asynchronous processing was started.  All work handed to the container through this context will execute with
+ * that {@code Subject} bound to the executing thread:
+ * <ul>
+ * <li>{@code Runnable}s passed to {@link #start(Runnable)} are {@link Subject#associateWith(Runnable) associated}
+ * with the {@code Subject} before being passed to the container.</li>
+ * <li>{@link AsyncListener}s passed to either {@code addListener} method are wrapped in a
+ * {@link SubjectAwareAsyncListener} so their callbacks run as the {@code Subject}.</li>
+ * </ul>
+ * Instances are returned from {@link ShiroHttpServletRequest#startAsync()} and its related methods, so application
+ * code does not usually create them directly.
+ *
+ * @see ShiroHttpServletRequest#startAsync()
+ * @since 2.0
+ */
+public class ShiroAsyncContext implements AsyncContext {
+
+    private final AsyncContext delegate;
+    private final Subject subject;
+
+    public ShiroAsyncContext(AsyncContext delegate, Subject subject) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("AsyncContext argument cannot be null.");
+        }
+        if (subject == null) {
+            throw new IllegalArgumentException("Subject argument cannot be null.");
+        }
+        this.delegate = delegate;
+        this.subject = subject;
+    }
+
+    /**
+     * Returns the container's original {@code AsyncContext} wrapped by this instance.
+     *
+     * @return the container's original {@code AsyncContext} wrapped by this instance.
+     */
+    public AsyncContext getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the {@code Subject} that will be bound to any thread executing work on behalf of this context.
+     *
+     * @return the {@code Subject} that will be bound to any thread executing work on behalf of this context.
+     */
+    public Subject getSubject() {
+        return subject;
+    }
+
+    public ServletRequest getRequest() {
+        return delegate.getRequest();
+    }
+
+    public ServletResponse getResponse() {
+        return delegate.getResponse();
+    }
+
+    public boolean hasOriginalRequestAndResponse() {
+        return delegate.hasOriginalRequestAndResponse();
+    }
+
+    public void dispatch() {
+        delegate.dispatch();
+    }
+
+    public void dispatch(String path) {
+        delegate.dispatch(path);
+    }
+
+    public void dispatch(ServletContext context, String path) {
+        delegate.dispatch(context, path);
+    }
+
+    public void complete() {
+        delegate.complete();
+    }
+
+    /**
+     * Asks the container to execute the specified {@code Runnable} with this context's {@link #getSubject() subject}
+     * bound to the executing thread for the duration of the {@code Runnable}'s execution.
+     *
+     * @param run the asynchronous work to execute as this context's {@code Subject}.
+     */
+    public void start(Runnable run) {
+        delegate.start(subject.associateWith(run));
+    }
+
+    public void addListener(AsyncListener listener) {
+        delegate.addListener(wrap(listener));
+    }
+
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        delegate.addListener(wrap(listener), servletRequest, servletResponse);
+    }
+
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        return delegate.createListener(clazz);
+    }
+
+    public void setTimeout(long timeout) {
+        delegate.setTimeout(timeout);
+    }
+
+    public long getTimeout() {
+        return delegate.getTimeout();
+    }
+
+    private AsyncListener wrap(AsyncListener listener) {
+        if (listener == null || listener instanceof SubjectAwareAsyncListener) {
+            return listener;
+        }
+        return new SubjectAwareAsyncListener(subject, listener);
+    }
+}
@@ -24,7 +24,10 @@ import org.apache.shiro.subject.Subject;
 import org.apache.shiro.subject.support.DisabledSessionException;
 import org.apache.shiro.web.util.WebUtils;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpSession;
@@ -52,6 +55,13 @@ public class ShiroHttpServletRequest extends HttpServletRequestWrapper {
     public static final String REFERENCED_SESSION_ID_SOURCE = ShiroHttpServletRequest.class.getName() + "REFERENCED_SESSION_ID_SOURCE";
     public static final String IDENTITY_REMOVED_KEY = ShiroHttpServletRequest.class.getName() + "_IDENTITY_REMOVED_KEY";
     public static final String SESSION_ID_URL_REWRITING_ENABLED = ShiroHttpServletRequest.class.getName() + "_SESSION_ID_URL_REWRITING_ENABLED";
+    /**
+     * Request attribute key under which the {@code Subject} of a request that entered asynchronous mode is retained,
+     * allowing it to be re-used for async dispatches and container callbacks.
+     *
+     * @since 2.0
+     */
+    public static final String ASYNC_SUBJECT_KEY = ShiroHttpServletRequest.class.getName() + "_ASYNC_SUBJECT_KEY";
 
     protected ServletContext servletContext = null;
 
@@ -221,6 +231,74 @@ public class ShiroHttpServletRequest extends HttpServletRequestWrapper {
         return isRequestedSessionIdFromURL();
     }
 
+    /**
+     * Starts asynchronous processing and returns a {@link ShiroAsyncContext} that retains the current
+     * {@code Subject} for any work or listeners registered with it.
+     *
+     * @return a {@link ShiroAsyncContext} wrapping the container's {@code AsyncContext}
+     * @since 2.0
+     */
+    public AsyncContext startAsync() throws IllegalStateException {
+        return wrapAsyncContext(super.startAsync());
+    }
+
+    /**
+     * Starts asynchronous processing and returns a {@link ShiroAsyncContext} that retains the current
+     * {@code Subject} for any work or listeners registered with it.
+     *
+     * @param servletRequest  the request to make available via {@link AsyncContext#getRequest()}
+     * @param servletResponse the response to make available via {@link AsyncContext#getResponse()}
+     * @return a {@link ShiroAsyncContext} wrapping the container's {@code AsyncContext}
+     * @since 2.0
+     */
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse)
+            throws IllegalStateException {
+        return wrapAsyncContext(super.startAsync(servletRequest, servletResponse));
+    }
+
+    /**
+     * Returns the container's {@code AsyncContext} wrapped in a {@link ShiroAsyncContext}.
+     *
+     * @return the container's {@code AsyncContext} wrapped in a {@link ShiroAsyncContext}.
+     * @since 2.0
+     */
+    public AsyncContext getAsyncContext() {
+        return wrapAsyncContext(super.getAsyncContext());
+    }
+
+    /**
+     * Wraps the container's {@code AsyncContext} in a {@link ShiroAsyncContext} for the
+     * {@link #getAsyncSubject() async subject}.  The subject is retained as the {@link #ASYNC_SUBJECT_KEY} request
+     * attribute, so it is available to container threads that were never bound by Shiro.
+     *
+     * @param asyncContext the container's {@code AsyncContext}, may be {@code null}
+     * @return the wrapped context, or {@code null} if {@code asyncContext} was {@code null}
+     * @since 2.0
+     */
+    protected AsyncContext wrapAsyncContext(AsyncContext asyncContext) {
+        if (asyncContext == null || asyncContext instanceof ShiroAsyncContext) {
+            return asyncContext;
+        }
+        return new ShiroAsyncContext(asyncContext, getAsyncSubject());
+    }
+
+    /**
+     * Returns the {@code Subject} retained for asynchronous processing of this request, capturing the
+     * currently bound {@code Subject} first if none has been retained yet.
+     *
+     * @return the {@code Subject} retained for asynchronous processing of this request.
+     * @since 2.0
+     */
+    protected Subject getAsyncSubject() {
+        Object retained = getAttribute(ASYNC_SUBJECT_KEY);
+        if (retained instanceof Subject) {
+            return (Subject) retained;
+        }
+        Subject subject = getSubject();
+        setAttribute(ASYNC_SUBJECT_KEY, subject);
+        return subject;
+    }
+
     private class ObjectPrincipal implements java.security.Principal {
         private Object object = null;
 
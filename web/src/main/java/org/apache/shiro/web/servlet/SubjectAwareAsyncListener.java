@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.servlet;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.subject.support.SubjectThreadState;
+import org.apache.shiro.util.ThreadState;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+
+/**
+ * An {@link AsyncListener} that binds a {@link Subject} to the container thread for the duration of each callback
+ * before delegating to a target listener, guaranteeing the thread's previous state is restored afterwards.
+ * <p/>
+ * Containers invoke {@code AsyncListener} callbacks on arbitrary threads, usually ones that never passed through
+ * Shiro's filter.  Wrapping a listener in this class allows it to use {@code SecurityUtils.getSubject()} as it would
+ * during a normal request.
+ *
+ * @see ShiroAsyncContext
+ * @since 2.0
+ */
+public class SubjectAwareAsyncListener implements AsyncListener {
+
+    private final Subject subject;
+    private final AsyncListener delegate;
+
+    public SubjectAwareAsyncListener(Subject subject, AsyncListener delegate) {
+        if (subject == null) {
+            throw new IllegalArgumentException("Subject argument cannot be null.");
+        }
+        if (delegate == null) {
+            throw new IllegalArgumentException("AsyncListener argument cannot be null.");
+        }
+        this.subject = subject;
+        this.delegate = delegate;
+    }
+
+    public AsyncListener getDelegate() {
+        return delegate;
+    }
+
+    public void onComplete(AsyncEvent event) throws IOException {
+        ThreadState threadState = new SubjectThreadState(subject);
+        threadState.bind();
+        try {
+            delegate.onComplete(event);
+        } finally {
+            threadState.restore();
+        }
+    }
+
+    public void onTimeout(AsyncEvent event) throws IOException {
+        ThreadState threadState = new SubjectThreadState(subject);
+        threadState.bind();
+        try {
+            delegate.onTimeout(event);
+        } finally {
+            threadState.restore();
+        }
+    }
+
+    public void onError(AsyncEvent event) throws IOException {
+        ThreadState threadState = new SubjectThreadState(subject);
+        threadState.bind();
+        try {
+            delegate.onError(event);
+        } finally {
+            threadState.restore();
+        }
+    }
+
+    public void onStartAsync(AsyncEvent event) throws IOException {
+        ThreadState threadState = new SubjectThreadState(subject);
+        threadState.bind();
+        try {
+            delegate.onStartAsync(event);
+        } finally {
+            threadState.restore();
+        }
+    }
+}
@@ -89,6 +89,60 @@ class InvalidRequestFilterTest {
     }
 
 
+    @Test
+    void testOptionalRulesDisabledByDefault() {
+        InvalidRequestFilter filter = new InvalidRequestFilter()
+        assertThat "filter.blockEncodedSlash expected to be false", !filter.isBlockEncodedSlash()
+        assertThat "filter.blockTraversal expected to be false", !filter.isBlockTraversal()
+        assertThat "filter.blockNullByte expected to be false", !filter.isBlockNullByte()
+        assertPathAllowed(filter, "/a%2fb")
+        assertPathAllowed(filter, "/a/../b")
+        assertPathAllowed(filter, "/a%00b")
+        assertPathAllowed(filter, "/some.thing/..thing/.")
+        assertPathBlocked(filter, "/a\u0000b")
+    }
+
+    @Test
+    void testFilterBlocksEncodedSlash() {
+        InvalidRequestFilter filter = new InvalidRequestFilter()
+        filter.setBlockEncodedSlash(true)
+        assertPathBlocked(filter, "/a%2fb")
+        assertPathBlocked(filter, "/a%2Fb")
+        assertPathAllowed(filter, "/a/b")
+        assertPathAllowed(filter, "/a%2gb")
+    }
+
+    @Test
+    void testFilterBlocksTraversal() {
+        InvalidRequestFilter filter = new InvalidRequestFilter()
+        filter.setBlockTraversal(true)
+        filter.setBlockSemicolon(false)
+        assertPathBlocked(filter, "/a/../b")
+        assertPathBlocked(filter, "/a/./b")
+        assertPathBlocked(filter, "/a/..")
+        assertPathBlocked(filter, "/a/.")
+        assertPathBlocked(filter, "/a/%2e%2e/b")
+        assertPathBlocked(filter, "/a/.%2E/b")
+        assertPathBlocked(filter, "/a/..;jsessionid=1/b")
+        assertPathAllowed(filter, "/a/.../b")
+        assertPathAllowed(filter, "/a/..b/c")
+        assertPathAllowed(filter, "/a/b../c")
+        assertPathAllowed(filter, "/index.html")
+        assertPathAllowed(filter, "/a/b;x=..")
+    }
+
+    @Test
+    void testFilterBlocksNullByte() {
+        InvalidRequestFilter filter = new InvalidRequestFilter()
+        filter.setBlockNullByte(true)
+        filter.setBlockNonAscii(false)
+        assertPathBlocked(filter, "/a%00b")
+        assertPathBlocked(filter, "/a\u0000b")
+        assertPathAllowed(filter, "/a%01b")
+        assertPathAllowed(filter, "/a\u0019b")
+    }
+
+
     static void assertPathBlocked(InvalidRequestFilter filter, String path) {
         assertThat "Expected path '${path}', to be blocked", !filter.isAccessAllowed(mockRequest(path), null, null)
     }
@@ -18,9 +18,18 @@
  */
 package org.apache.shiro.web.filter.authc
 
+import org.apache.shiro.authc.AuthenticationInfo
+import org.apache.shiro.authc.AuthenticationListener
 import org.apache.shiro.authc.BearerToken
 import org.apache.shiro.authc.AuthenticationToken
+import org.apache.shiro.authc.SimpleAuthenticationInfo
+import org.apache.shiro.authc.VerifiedBearerToken
+import org.apache.shiro.authc.VerifiedTokenCache
+import org.apache.shiro.mgt.DefaultSecurityManager
+import org.apache.shiro.realm.AuthenticatingRealm
+import org.apache.shiro.subject.Subject
 import org.apache.shiro.test.SecurityManagerTestSupport
+import org.apache.shiro.util.ThreadContext
 import org.hamcrest.CoreMatchers
 import org.hamcrest.Matchers
 import org.junit.Test
@@ -34,6 +43,9 @@ import static org.easymock.EasyMock.replay
 import static org.easymock.EasyMock.verify
 
 import static org.hamcrest.MatcherAssert.assertThat
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertSame
+import static org.junit.Assert.assertTrue
 
 /**
  * Test case for {@link BearerHttpAuthenticationFilter}.
@@ -176,6 +188,55 @@ class BearerHttpFilterAuthenticationTest extends SecurityManagerTestSupport {
         assertThat("Access allowed for POST", !accessAllowed)
     }
 
+    @Test
+    void verifiedTokenCacheHitLogsInRequestSubject() {
+        CountingRealm realm = new CountingRealm()
+        DefaultSecurityManager securityManager = new DefaultSecurityManager(realm)
+        List<AuthenticationToken> successes = []
+        securityManager.authenticator.authenticationListeners = [[
+                onSuccess: { AuthenticationToken token, AuthenticationInfo info -> successes << token },
+                onFailure: { AuthenticationToken token, Object ae -> },
+                onLogout : { Object principals -> }] as AuthenticationListener]
+        BearerHttpAuthenticationFilter testFilter = new BearerHttpAuthenticationFilter()
+        testFilter.verifiedTokenCache = new VerifiedTokenCache()
+
+        try {
+            //the first request verifies the token against the realm and caches it:
+            ThreadContext.bind(new Subject.Builder(securityManager).buildSubject())
+            assertTrue testFilter.executeLogin(mockRequest("a-token"), mockResponse())
+            assertEquals 1, realm.calls
+
+            //the second request is served from the cache.  AbstractShiroFilter retains the request's Subject for
+            //its ASYNC dispatches, so that very Subject must be the one logged in:
+            Subject retained = new Subject.Builder(securityManager).buildSubject()
+            ThreadContext.bind(retained)
+            assertTrue testFilter.executeLogin(mockRequest("a-token"), mockResponse())
+            assertEquals 1, realm.calls
+            assertSame retained, ThreadContext.getSubject()
+
+            assertTrue retained.authenticated
+            assertEquals "user", retained.principal
+            //authentication listeners are notified of both logins:
+            assertEquals 2, successes.size()
+            assertThat(successes[1], CoreMatchers.instanceOf(VerifiedBearerToken.class))
+        } finally {
+            destroy(securityManager)
+        }
+    }
+
+    static class CountingRealm extends AuthenticatingRealm {
+        int calls
+
+        CountingRealm() {
+            setAuthenticationTokenClass(BearerToken.class)
+        }
+
+        protected AuthenticationInfo doGetAuthenticationInfo(AuthenticationToken token) {
+            calls++
+            return new SimpleAuthenticationInfo("user", token.credentials, getName())
+        }
+    }
+
     static private String createAuthorizationHeader(String token) {
         return "Bearer " + token
     }
@@ -20,6 +20,7 @@ package org.apache.shiro.web.filter.mgt
 
 import org.apache.shiro.config.ConfigurationException
 import org.apache.shiro.web.filter.authz.SslFilter
+import org.apache.shiro.web.servlet.OncePerRequestFilter
 import org.apache.shiro.web.servlet.ShiroFilter
 import org.hamcrest.Matchers
 
@@ -27,6 +28,8 @@ import javax.servlet.Filter
 import javax.servlet.FilterChain
 import javax.servlet.FilterConfig
 import javax.servlet.ServletContext
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
 import org.junit.Before
 import org.junit.Test
 
@@ -397,4 +400,96 @@ class DefaultFilterChainManagerTest {
         verify(mock);
     }
 
+    @Test
+    void testProxyCompiledChains() {
+        FilterChain mock = createNiceMock(FilterChain.class);
+        replay(mock);
+        manager.compiledChainsEnabled = true
+        manager.createChain("test", "anon");
+
+        def compiled = manager.getCompiledChain("test")
+        assertTrue compiled instanceof CompiledNamedFilterList
+        assertSame compiled, manager.getCompiledChain("test")
+        assertNotNull this.manager.proxy(mock, "test")
+
+        manager.addToChain("test", "authc")
+        def recompiled = manager.getCompiledChain("test")
+        assertNotSame compiled, recompiled
+        assertEquals 2, recompiled.size()
+        verify(mock);
+    }
+
+    @Test
+    void testCompiledChainsUseAlreadyFilteredBitSet() {
+        def plain = new PassThroughFilter()
+        def custom = new CustomAttributeFilter()
+        def enabled = new PassThroughFilter()
+        enabled.setAlreadyFilteredBit(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE, 0)
+        manager.addFilter("plain", plain, false)
+        manager.addFilter("custom", custom, false)
+        manager.addFilter("enabled", enabled, false)
+        manager.createChain("test", "plain, custom, enabled")
+
+        manager.getCompiledChain("test")
+        assertFalse plain.alreadyFilteredBitSetEnabled
+        manager.compiledChainsEnabled = true
+        manager.getCompiledChain("test")
+        assertTrue plain.alreadyFilteredBitSetEnabled
+        assertFalse custom.alreadyFilteredBitSetEnabled
+
+        manager.compiledChainsEnabled = false
+        assertFalse plain.alreadyFilteredBitSetEnabled
+        //a filter enabled by its own configuration stays enabled:
+        assertTrue enabled.alreadyFilteredBitSetEnabled
+    }
+
+    @Test
+    void testCompiledChainsKeepAlreadyFilteredBitsAcrossToggles() {
+        manager.addFilter("first", new PassThroughFilter(), false)
+        manager.addFilter("second", new PassThroughFilter(), false)
+        manager.createChain("test", "first, second")
+        def other = new DefaultFilterChainManager()
+        other.addFilter("third", new PassThroughFilter(), false)
+        other.createChain("test", "third")
+
+        def attributes = [:]
+        def request = [getAttribute: { String name -> attributes[name] },
+                       setAttribute: { String name, Object value -> attributes[name] = value }] as ServletRequest
+        def seen = []
+        def chain = { req, resp -> seen << attributes.collectEntries { k, v -> [k, v.toString()] } } as FilterChain
+
+        3.times {
+            manager.compiledChainsEnabled = false
+            manager.compiledChainsEnabled = true
+            manager.proxy(chain, "test").doFilter(request, null)
+        }
+        assertEquals 3, seen.size()
+        assertEquals 1, seen[0].size()
+        def name = seen[0].keySet().iterator().next()
+        assertTrue name.startsWith(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE + ".")
+        //both filters are executing, each keeps its bit across toggles:
+        assertEquals "{0, 1}", seen[0][name]
+        assertEquals seen[0], seen[1]
+        assertEquals seen[0], seen[2]
+
+        //another manager's bits live in a bit set of their own:
+        other.compiledChainsEnabled = true
+        other.proxy(chain, "test").doFilter(request, null)
+        assertEquals 2, seen[3].size()
+        assertEquals "{}", seen[3][name]
+        assertTrue seen[3].containsValue("{0}")
+    }
+
+    static class PassThroughFilter extends OncePerRequestFilter {
+        protected void doFilterInternal(ServletRequest request, ServletResponse response, FilterChain chain) {
+            chain.doFilter(request, response)
+        }
+    }
+
+    static class CustomAttributeFilter extends PassThroughFilter {
+        protected String getAlreadyFilteredAttributeName() {
+            return "shared.FILTERED"
+        }
+    }
+
 }
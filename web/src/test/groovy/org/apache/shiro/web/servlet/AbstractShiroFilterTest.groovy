@@ -18,11 +18,21 @@
  */
 package org.apache.shiro.web.servlet
 
+import javax.servlet.AsyncContext
+import javax.servlet.AsyncListener
+import javax.servlet.DispatcherType
+import javax.servlet.FilterChain
 import javax.servlet.FilterConfig
 import javax.servlet.ServletContext
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
 import org.apache.shiro.SecurityUtils
 import org.apache.shiro.UnavailableSecurityManagerException
+import org.apache.shiro.util.ThreadContext
 import org.apache.shiro.web.mgt.WebSecurityManager
+import org.apache.shiro.web.subject.WebSubject
+import org.apache.shiro.web.subject.support.WebDelegatingSubject
+import org.easymock.Capture
 import org.junit.Test
 
 import static org.easymock.EasyMock.*
@@ -89,4 +99,85 @@ class AbstractShiroFilterTest {
         }
     }
 
+    @Test
+    void testAsyncStartedRetainsSubjectAndTouchesSessionOnComplete() {
+        def request = createNiceMock(ServletRequest)
+        def response = createNiceMock(ServletResponse)
+        def asyncContext = createMock(AsyncContext)
+        def filter = new AsyncRecordingFilter()
+        def subject = filter.newSubject(request, response)
+        Capture<AsyncListener> listener = newCapture()
+
+        expect(request.dispatcherType).andReturn(DispatcherType.REQUEST).anyTimes()
+        expect(request.asyncStarted).andReturn(true).anyTimes()
+        expect(request.asyncContext).andReturn(asyncContext).anyTimes()
+        request.setAttribute(ShiroHttpServletRequest.ASYNC_SUBJECT_KEY, subject)
+        expectLastCall().once()
+        asyncContext.addListener(capture(listener))
+        expectLastCall().once()
+        replay request, response, asyncContext
+
+        filter.doFilterInternal(request, response, createNiceMock(FilterChain))
+
+        verify request, asyncContext
+        assertEquals 1, filter.created
+        assertEquals([subject], filter.touchedBy)
+
+        //the container completes the request on one of its own threads, where no Subject is bound:
+        listener.value.onComplete(null)
+        assertEquals([subject, subject], filter.touchedBy)
+        assertNull ThreadContext.subject
+    }
+
+    @Test
+    void testAsyncDispatchReusesRetainedSubject() {
+        def request = createNiceMock(ServletRequest)
+        def response = createNiceMock(ServletResponse)
+        def filter = new AsyncRecordingFilter()
+        def subject = filter.newSubject(request, response)
+        def chainedBy = []
+        def chain = { ServletRequest req, ServletResponse resp -> chainedBy << ThreadContext.subject } as FilterChain
+
+        expect(request.dispatcherType).andReturn(DispatcherType.ASYNC).anyTimes()
+        expect(request.getAttribute(ShiroHttpServletRequest.ASYNC_SUBJECT_KEY)).andReturn(subject).anyTimes()
+        expect(request.asyncStarted).andReturn(false).anyTimes()
+        replay request, response
+
+        filter.doFilterInternal(request, response, chain)
+
+        assertEquals 0, filter.created
+        assertEquals([subject], chainedBy)
+        //the session was already touched by the dispatch that started asynchronous processing:
+        assertTrue filter.touchedBy.isEmpty()
+    }
+
+    /**
+     * Returns a single Subject backed by a mock SecurityManager and records which Subject is bound whenever the session would be
+     * touched.
+     */
+    static class AsyncRecordingFilter extends AbstractShiroFilter {
+
+        WebSubject subject
+        int created
+        List<Object> touchedBy = []
+
+        WebSubject newSubject(ServletRequest request, ServletResponse response) {
+            def securityManager = createNiceMock(WebSecurityManager)
+            replay securityManager
+            setSecurityManager(securityManager)
+            subject = new WebDelegatingSubject(null, false, null, null, false, request, response, securityManager)
+            return subject
+        }
+
+        @Override
+        protected WebSubject createSubject(ServletRequest request, ServletResponse response) {
+            created++
+            return subject
+        }
+
+        @Override
+        protected void updateSessionLastAccessTime(ServletRequest request, ServletResponse response) {
+            touchedBy << ThreadContext.subject
+        }
+    }
 }
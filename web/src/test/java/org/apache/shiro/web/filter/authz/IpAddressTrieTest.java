@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.filter.authz;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for the {@link IpAddressTrie} class.
+ * @since 2.0
+ */
+public class IpAddressTrieTest {
+
+    @Test
+    public void longestPrefixWins() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("10.0.0.0/8", "a");
+        trie.put("10.1.0.0/16", "b");
+        trie.put("10.1.2.3", "c");
+
+        assertEquals(3, trie.size());
+        assertEquals("a", trie.get("10.200.1.1"));
+        assertEquals("b", trie.get("10.1.200.1"));
+        assertEquals("c", trie.get("10.1.2.3"));
+        assertNull(trie.get("11.0.0.1"));
+    }
+
+    @Test
+    public void zeroLengthPrefixMatchesEverythingOfItsFamily() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("0.0.0.0/0", "v4");
+
+        assertEquals("v4", trie.get("255.255.255.255"));
+        assertEquals("v4", trie.get("0.0.0.0"));
+        assertNull(trie.get("::1"));
+    }
+
+    @Test
+    public void ipv6Forms() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("fe80::/10", "link-local");
+        trie.put("2001:db8::/32", "doc");
+        trie.put("2001:db8:0:0:0:0:2:1", "host");
+        trie.put("::1", "loopback");
+
+        assertEquals("link-local", trie.get("fe80::21f:5bff:fe33:bd68"));
+        assertEquals("link-local", trie.get("FE80::21F:5BFF:FE33:BD68%eth0"));
+        assertEquals("doc", trie.get("2001:db8::ff"));
+        assertEquals("host", trie.get("2001:db8::2:1"));
+        assertEquals("host", trie.get("[2001:0db8:0000:0000:0000:0000:0002:0001]"));
+        assertEquals("loopback", trie.get("::1"));
+        assertEquals("loopback", trie.get("0:0:0:0:0:0:0:1"));
+        assertNull(trie.get("::"));
+        assertNull(trie.get("2001:db9::1"));
+    }
+
+    @Test
+    public void ipv4MappedAddressesMatchIpv4Ranges() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("192.168.0.0/16", "lan");
+
+        assertEquals("lan", trie.get("::ffff:192.168.1.1"));
+        assertEquals("lan", trie.get("::ffff:c0a8:101"));
+        assertNull(trie.get("::192.168.1.1"));
+    }
+
+    @Test
+    public void ipv4RangesNeverMatchIpv6Addresses() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("192.168.1.104", "v4");
+        trie.put("fe80::21f:5bff:fe33:bd68", "v6");
+
+        assertEquals("v4", trie.get("192.168.1.104"));
+        assertEquals("v6", trie.get("fe80::21f:5bff:fe33:bd68"));
+        assertNull(trie.get("::c0a8:168"));
+    }
+
+    @Test
+    public void matchesIpAddressMatcherForNonCanonicalInput() {
+        //InetAddress treats a three part address as a.b.0.c, which IpAddressMatcher has always relied on:
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("192.168.33/24", "range");
+
+        assertEquals(new IpAddressMatcher("192.168.33/24").matches("192.168.0.44"), trie.get("192.168.0.44") != null);
+        assertEquals(new IpAddressMatcher("192.168.33/24").matches("192.168.33.44"), trie.get("192.168.33.44") != null);
+        assertEquals("range", trie.get("192.168.44"));
+    }
+
+    @Test
+    public void getCoveringOnlyConsidersShorterPrefixes() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("10.0.0.0/8", "a");
+        trie.put("10.1.0.0/16", "b");
+
+        assertEquals("b", trie.getCovering("10.1.2.0/24"));
+        assertEquals("a", trie.getCovering("10.0.0.0/12"));
+        assertNull(trie.getCovering("0.0.0.0/0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeIsRejected() {
+        new IpAddressTrie<String>().put("10.0.0.0/x", "a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidAddressIsRejected() {
+        IpAddressTrie<String> trie = new IpAddressTrie<String>();
+        trie.put("10.0.0.0/8", "a");
+        trie.get("1:2:3:4:5:6:7:8:9");
+    }
+}
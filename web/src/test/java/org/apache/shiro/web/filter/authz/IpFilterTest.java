@@ -100,4 +100,51 @@ public class IpFilterTest {
         assertFalse(filter.isAccessAllowed(request, null, null));
         verify(request);
     }
+
+    @Test
+    public void deniedRangeWithinAllowedRangeIsDenied() throws Exception {
+        IpFilter filter = new IpFilter();
+        filter.setAuthorizedIps("10.0.0.0/8");
+        filter.setDeniedIps("10.1.0.0/16");
+        assertTrue(filter.isAccessAllowed(requestFrom("10.2.0.1"), null, null));
+        assertFalse(filter.isAccessAllowed(requestFrom("10.1.0.1"), null, null));
+    }
+
+    @Test
+    public void allowedRangeWithinDeniedRangeIsDenied() throws Exception {
+        IpFilter filter = new IpFilter();
+        filter.setAuthorizedIps("10.1.2.3 192.168.0.0/16");
+        filter.setDeniedIps("10.0.0.0/8");
+        assertFalse(filter.isAccessAllowed(requestFrom("10.1.2.3"), null, null));
+        assertTrue(filter.isAccessAllowed(requestFrom("192.168.1.1"), null, null));
+    }
+
+    @Test
+    public void ipSourceChangesArePickedUp() throws Exception {
+        final Collection<?>[] authorized = {Collections.singleton("192.168.0.0/16")};
+        IpSource source = new IpSource() {
+                @SuppressWarnings("unchecked")
+                public Collection<String> getAuthorizedIps() {
+                    return (Collection<String>) authorized[0];
+                }
+                public Collection<String> getDeniedIps() {
+                    return Collections.emptySet();
+                }
+            };
+        IpFilter filter = new IpFilter();
+        filter.setIpSource(source);
+        assertTrue(filter.isAccessAllowed(requestFrom("192.168.1.1"), null, null));
+        assertFalse(filter.isAccessAllowed(requestFrom("10.0.0.1"), null, null));
+
+        authorized[0] = Collections.singleton("10.0.0.0/8");
+        assertFalse(filter.isAccessAllowed(requestFrom("192.168.1.1"), null, null));
+        assertTrue(filter.isAccessAllowed(requestFrom("10.0.0.1"), null, null));
+    }
+
+    private static HttpServletRequest requestFrom(String remoteAddr) {
+        HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+        expect(request.getRemoteAddr()).andReturn(remoteAddr);
+        replay(request);
+        return request;
+    }
 }
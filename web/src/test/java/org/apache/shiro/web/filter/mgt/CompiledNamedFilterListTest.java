@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.filter.mgt;
+
+import org.apache.shiro.web.servlet.OncePerRequestFilter;
+import org.junit.Test;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link CompiledNamedFilterList} implementation.
+ *
+ * @since 2.0
+ */
+public class CompiledNamedFilterListTest {
+
+    @Test
+    public void testProxyWalksFiltersThenOriginal() throws Exception {
+        final List<String> calls = new ArrayList<String>();
+        final BitSet bits = new BitSet();
+        RecordingFilter a = new RecordingFilter("a", calls);
+        RecordingFilter b = new RecordingFilter("b", calls);
+
+        CompiledNamedFilterList list = new CompiledNamedFilterList("test", Arrays.<Filter>asList(a, b));
+        assertEquals("test", list.getName());
+        assertEquals(2, list.size());
+        //compiling leaves the filters untouched:
+        assertFalse(a.isAlreadyFilteredBitSetEnabled());
+        assertFalse(b.isAlreadyFilteredBitSetEnabled());
+        a.setAlreadyFilteredBit(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE, 0);
+        b.setAlreadyFilteredBit(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE, 1);
+
+        ServletRequest request = createNiceMock(ServletRequest.class);
+        expect(request.getAttribute(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE)).andReturn(bits).anyTimes();
+        ServletResponse response = createNiceMock(ServletResponse.class);
+        replay(request, response);
+
+        FilterChain original = new FilterChain() {
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                calls.add("original:" + bits.cardinality());
+            }
+        };
+        list.proxy(original).doFilter(request, response);
+
+        assertEquals("[a, b, original:2]", calls.toString());
+        assertTrue("bits should be cleared after the chain completes", bits.isEmpty());
+    }
+
+    @Test
+    public void testAlreadyFilteredFilterIsSkipped() throws Exception {
+        final List<String> calls = new ArrayList<String>();
+        final BitSet bits = new BitSet();
+        RecordingFilter a = new RecordingFilter("a", calls);
+        a.setAlreadyFilteredBit(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE, 0);
+        CompiledNamedFilterList list = new CompiledNamedFilterList("test", Arrays.<Filter>asList(a, a));
+
+        ServletRequest request = createNiceMock(ServletRequest.class);
+        expect(request.getAttribute(OncePerRequestFilter.ALREADY_FILTERED_BITS_ATTRIBUTE)).andReturn(bits).anyTimes();
+        ServletResponse response = createNiceMock(ServletResponse.class);
+        FilterChain original = createNiceMock(FilterChain.class);
+        replay(request, response, original);
+
+        list.proxy(original).doFilter(request, response);
+
+        assertEquals("[a]", calls.toString());
+    }
+
+    @Test
+    public void testEmptyListReturnsOriginal() {
+        FilterChain original = createNiceMock(FilterChain.class);
+        CompiledNamedFilterList list = new CompiledNamedFilterList("test", Collections.<Filter>emptyList());
+        assertSame(original, list.proxy(original));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        new CompiledNamedFilterList("test", Collections.<Filter>emptyList()).add(new RecordingFilter("a", null));
+    }
+
+    @Test
+    public void testCompileSnapshotsSource() {
+        SimpleNamedFilterList source = new SimpleNamedFilterList("test");
+        source.add(new RecordingFilter("a", null));
+        CompiledNamedFilterList compiled = CompiledNamedFilterList.compile(source);
+        source.add(new RecordingFilter("b", null));
+
+        assertEquals(1, compiled.size());
+        assertSame(compiled, CompiledNamedFilterList.compile(compiled));
+    }
+
+    private static class RecordingFilter extends OncePerRequestFilter {
+        private final String id;
+        private final List<String> calls;
+
+        private RecordingFilter(String id, List<String> calls) {
+            this.id = id;
+            this.calls = calls;
+        }
+
+        @Override
+        protected void doFilterInternal(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            calls.add(id);
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.http;
+
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.mgt.DefaultSecurityManager;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link HttpFilterPipeline} and {@link SubjectHttpFilter} implementations, executed against an
+ * in-process, servlet-free request/response stub.
+ *
+ * @since 2.0
+ */
+public class HttpFilterPipelineTest {
+
+    @After
+    public void tearDown() {
+        ThreadContext.remove();
+    }
+
+    @Test
+    public void testFiltersExecuteInOrderBeforeHandler() {
+        final List<String> calls = new ArrayList<String>();
+        HttpFilterPipeline pipeline = new HttpFilterPipeline(new RecordingFilter("a", calls), new RecordingFilter("b", calls));
+
+        pipeline.execute(new StubRequest("GET", "/"), new StubResponse(), new HttpFilterChain() {
+            public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+                calls.add("handler");
+                return CompletableFuture.completedFuture(null);
+            }
+        }).toCompletableFuture().join();
+
+        assertEquals(2, pipeline.size());
+        assertEquals("[a, b, handler]", calls.toString());
+    }
+
+    @Test
+    public void testFilterCanEndRequest() {
+        HttpFilter deny = new HttpFilter() {
+            public CompletionStage<Void> filter(HttpRequest request, HttpResponse response, HttpFilterChain chain) {
+                response.setStatus(403);
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        StubResponse response = new StubResponse();
+        final boolean[] handled = new boolean[1];
+
+        new HttpFilterPipeline(deny).execute(new StubRequest("GET", "/admin"), response, new HttpFilterChain() {
+            public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+                handled[0] = true;
+                return CompletableFuture.completedFuture(null);
+            }
+        }).toCompletableFuture().join();
+
+        assertEquals(403, response.status);
+        assertFalse(handled[0]);
+    }
+
+    @Test
+    public void testFilterCanResumeOnAnotherThread() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<Void> resumed = new CompletableFuture<Void>();
+            HttpFilter async = new HttpFilter() {
+                public CompletionStage<Void> filter(final HttpRequest request, final HttpResponse response,
+                                                    final HttpFilterChain chain) {
+                    return resumed.thenCompose(ignored -> chain.proceed(request, response));
+                }
+            };
+            final Thread caller = Thread.currentThread();
+            final Thread[] handledOn = new Thread[1];
+
+            CompletionStage<Void> stage = new HttpFilterPipeline(async).execute(new StubRequest("GET", "/"),
+                    new StubResponse(), new HttpFilterChain() {
+                        public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+                            handledOn[0] = Thread.currentThread();
+                            return CompletableFuture.completedFuture(null);
+                        }
+                    });
+            executor.submit(() -> resumed.complete(null));
+            stage.toCompletableFuture().join();
+
+            assertNotNull(handledOn[0]);
+            assertNotSame(caller, handledOn[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExceptionsAreReportedThroughStage() {
+        HttpFilter failing = new HttpFilter() {
+            public CompletionStage<Void> filter(HttpRequest request, HttpResponse response, HttpFilterChain chain) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        CompletionStage<Void> stage = new HttpFilterPipeline(failing)
+                .execute(new StubRequest("GET", "/"), new StubResponse(), new HttpFilterChain() {
+                    public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                });
+        try {
+            stage.toCompletableFuture().join();
+            fail("exception should have been reported through the stage");
+        } catch (CompletionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testSubjectFilterBindsSubject() {
+        SubjectHttpFilter subjectFilter = new SubjectHttpFilter(new DefaultSecurityManager());
+        final Subject[] bound = new Subject[1];
+        StubRequest request = new StubRequest("GET", "/");
+
+        new HttpFilterPipeline(subjectFilter).execute(request, new StubResponse(), new HttpFilterChain() {
+            public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+                bound[0] = SecurityUtils.getSubject();
+                return CompletableFuture.completedFuture(null);
+            }
+        }).toCompletableFuture().join();
+
+        assertNotNull(bound[0]);
+        assertSame(bound[0], SubjectHttpFilter.getSubject(request));
+        assertEquals("10.0.0.1", bound[0].getSession().getHost());
+        assertNull(ThreadContext.getSubject());
+    }
+
+    @Test
+    public void testSubjectFilterPropagatesSubjectAndTouchesSession() throws Exception {
+        DefaultSecurityManager securityManager = new DefaultSecurityManager();
+        Session session = new Subject.Builder(securityManager).buildSubject().getSession();
+        long lastAccessTime = session.getLastAccessTime().getTime();
+        StubRequest request = new StubRequest("GET", "/");
+        request.cookies.put(SubjectHttpFilter.DEFAULT_SESSION_ID_COOKIE_NAME, session.getId().toString());
+        final CompletableFuture<Void> handled = new CompletableFuture<Void>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletionStage<Subject> continuation = new HttpFilterPipeline(new SubjectHttpFilter(securityManager))
+                    .execute(request, new StubResponse(), new HttpFilterChain() {
+                        public CompletionStage<Void> proceed(HttpRequest request, HttpResponse response) {
+                            return handled;
+                        }
+                    })
+                    .thenApply(ignored -> ThreadContext.getSubject());
+            Thread.sleep(10);
+            executor.submit(() -> handled.complete(null));
+
+            assertSame(SubjectHttpFilter.getSubject(request), continuation.toCompletableFuture().get());
+            assertTrue(session.getLastAccessTime().getTime() > lastAccessTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class RecordingFilter implements HttpFilter {
+        private final String name;
+        private final List<String> calls;
+
+        private RecordingFilter(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        public CompletionStage<Void> filter(HttpRequest request, HttpResponse response, HttpFilterChain chain) {
+            calls.add(name);
+            return chain.proceed(request, response);
+        }
+    }
+
+    private static class StubRequest implements HttpRequest {
+        private final String method;
+        private final String path;
+        private final Map<String, String> headers = new HashMap<String, String>();
+        private final Map<String, String> cookies = new HashMap<String, String>();
+        private final Map<String, Object> attributes = new HashMap<String, Object>();
+
+        private StubRequest(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase());
+        }
+
+        public String getCookie(String name) {
+            return cookies.get(name);
+        }
+
+        public String getRemoteAddress() {
+            return "10.0.0.1";
+        }
+
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+    }
+
+    private static class StubResponse implements HttpResponse {
+        private int status = 200;
+        private final Map<String, List<String>> headers = new HashMap<String, List<String>>();
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public void setHeader(String name, String value) {
+            List<String> values = new ArrayList<String>();
+            values.add(value);
+            headers.put(name, values);
+        }
+
+        public void addHeader(String name, String value) {
+            List<String> values = headers.get(name);
+            if (values == null) {
+                values = new ArrayList<String>();
+                headers.put(name, values);
+            }
+            values.add(value);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.shiro.authc.UsernamePasswordToken;
 import org.apache.shiro.lang.codec.Base64;
 import org.apache.shiro.crypto.CryptoException;
 import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.SimplePrincipalCollection;
 import org.apache.shiro.web.servlet.ShiroHttpServletRequest;
 import org.apache.shiro.web.servlet.SimpleCookie;
 import org.apache.shiro.web.subject.WebSubject;
@@ -152,6 +153,42 @@ public class CookieRememberMeManagerTest {
         assertTrue(collection.iterator().next().equals("user"));
     }
 
+    @Test
+    public void getRememberedPrincipalsWithCache() {
+        HttpServletRequest mockRequest = createNiceMock(HttpServletRequest.class);
+        HttpServletResponse mockResponse = createNiceMock(HttpServletResponse.class);
+        WebSubjectContext context = new DefaultWebSubjectContext();
+        context.setServletRequest(mockRequest);
+        context.setServletResponse(mockResponse);
+
+        CountingRememberMeManager mgr = new CountingRememberMeManager();
+        mgr.setCipherKey(Base64.decode("kPH+bIxk5D2deZiIxcaaaA=="));
+        mgr.setRememberedPrincipalsCache(new RememberedPrincipalsCache());
+
+        Cookie[] cookies = new Cookie[]{
+                new Cookie(CookieRememberMeManager.DEFAULT_REMEMBER_ME_COOKIE_NAME,
+                        mgr.encode(new SimplePrincipalCollection("user", "realm")))
+        };
+        expect(mockRequest.getCookies()).andReturn(cookies).anyTimes();
+        replay(mockRequest, mockResponse);
+
+        PrincipalCollection first = mgr.getRememberedPrincipals(context);
+        PrincipalCollection second = mgr.getRememberedPrincipals(context);
+        assertEquals("user", first.getPrimaryPrincipal());
+        assertEquals(first, second);
+        assertEquals(1, mgr.deserialized);
+
+        //callers get their own copy, so changing one must not affect the cached principals:
+        ((SimplePrincipalCollection) second).add("other", "realm");
+        assertEquals(1, mgr.getRememberedPrincipals(context).asList().size());
+        assertEquals(1, mgr.deserialized);
+
+        //forgetting the identity must evict the cached principals:
+        mgr.forgetIdentity(context);
+        assertEquals("user", mgr.getRememberedPrincipals(context).getPrimaryPrincipal());
+        assertEquals(2, mgr.deserialized);
+    }
+
     @Test(expected = CryptoException.class)
     public void getRememberedPrincipalsNoMoreDefaultCipher() {
         HttpServletRequest mockRequest = createMock(HttpServletRequest.class);
@@ -268,4 +305,19 @@ public class CookieRememberMeManagerTest {
         // then
         assertNull("should ignore invalid cookie values", rememberedSerializedIdentity);
     }
+
+    private static class CountingRememberMeManager extends CookieRememberMeManager {
+
+        private int deserialized;
+
+        private String encode(PrincipalCollection principals) {
+            return Base64.encodeToString(encrypt(serialize(principals)));
+        }
+
+        @Override
+        protected PrincipalCollection deserialize(byte[] serializedIdentity) {
+            deserialized++;
+            return super.deserialize(serializedIdentity);
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.shiro.web.servlet;
+
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.mgt.DefaultSecurityManager;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.easymock.Capture;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link ShiroAsyncContext} and {@link SubjectAwareAsyncListener} implementations.
+ *
+ * @since 2.0
+ */
+public class ShiroAsyncContextTest {
+
+    private final Subject subject = new Subject.Builder(new DefaultSecurityManager()).buildSubject();
+
+    @After
+    public void tearDown() {
+        ThreadContext.remove();
+    }
+
+    @Test
+    public void testStartBindsSubject() {
+        AsyncContext delegate = createMock(AsyncContext.class);
+        Capture<Runnable> started = newCapture();
+        delegate.start(capture(started));
+        replay(delegate);
+
+        final AtomicReference<Subject> executedAs = new AtomicReference<Subject>();
+        new ShiroAsyncContext(delegate, subject).start(new Runnable() {
+            public void run() {
+                executedAs.set(SecurityUtils.getSubject());
+            }
+        });
+        verify(delegate);
+
+        assertNull(ThreadContext.getSubject());
+        started.getValue().run();
+        assertSame(subject, executedAs.get());
+        assertNull(ThreadContext.getSubject());
+    }
+
+    @Test
+    public void testListenerCallbacksBindSubject() throws Exception {
+        AsyncContext delegate = createMock(AsyncContext.class);
+        Capture<AsyncListener> added = newCapture();
+        delegate.addListener(capture(added));
+        replay(delegate);
+
+        final AtomicReference<Subject> completedAs = new AtomicReference<Subject>();
+        new ShiroAsyncContext(delegate, subject).addListener(new AsyncListener() {
+            public void onComplete(AsyncEvent event) {
+                completedAs.set(SecurityUtils.getSubject());
+            }
+
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            public void onError(AsyncEvent event) {
+            }
+
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        verify(delegate);
+
+        assertTrue(added.getValue() instanceof SubjectAwareAsyncListener);
+        added.getValue().onComplete(new AsyncEvent(delegate));
+        assertSame(subject, completedAs.get());
+        assertNull(ThreadContext.getSubject());
+    }
+
+    @Test
+    public void testRequestRetainsAsyncSubject() {
+        AsyncContext containerContext = createMock(AsyncContext.class);
+        HttpServletRequest containerRequest = createMock(HttpServletRequest.class);
+        expect(containerRequest.startAsync()).andReturn(containerContext);
+        expect(containerRequest.getAttribute(ShiroHttpServletRequest.ASYNC_SUBJECT_KEY)).andReturn(null);
+        containerRequest.setAttribute(ShiroHttpServletRequest.ASYNC_SUBJECT_KEY, subject);
+        replay(containerRequest, containerContext);
+
+        ThreadContext.bind(subject);
+        ShiroHttpServletRequest request = new ShiroHttpServletRequest(containerRequest, null, false);
+        AsyncContext asyncContext = request.startAsync();
+
+        assertTrue(asyncContext instanceof ShiroAsyncContext);
+        assertSame(subject, ((ShiroAsyncContext) asyncContext).getSubject());
+        assertSame(containerContext, ((ShiroAsyncContext) asyncContext).getDelegate());
+        verify(containerRequest, containerContext);
+    }
+}